@@ -40,7 +40,9 @@ import java.util.Optional;
 import java.util.Set;
 
 /**
- *
+ * Works out what an executed insert query added to the graph from the query and its answers.
+ * Existing concepts may be referenced either in a match clause or by id within the insert itself,
+ * eg. `insert $x id V123; $r (friend: $x) isa friendship;`; either way only variables without an id are new.
  */
 public class InsertQueryAnalyser {
 
@@ -87,6 +87,25 @@ public class InsertQueryAnalyserTest {
         assertEquals("V123456", insertedConcepts.iterator().next().asThing().id().toString());
     }
 
+    @Test
+    public void whenSeveralEntitiesInsertedInOneQuery_identifyEachEntity() {
+
+        Variable x = new Variable("x").asUserDefined();
+        Variable y = new Variable("y").asUserDefined();
+        Variable z = new Variable("z").asUserDefined();
+        GraqlInsert query = Graql.insert(var(x).isa("company"), var(y).isa("company"), var(z).isa("company"));
+
+        HashMap<Variable, String> vars = new HashMap<>();
+        vars.put(x, "Vx");
+        vars.put(y, "Vy");
+        vars.put(z, "Vz");
+        ArrayList<ConceptMap> answerList = this.mockConceptMaps(vars);
+
+        HashSet<Concept> insertedConcepts = InsertQueryAnalyser.getInsertedConcepts(query, answerList);
+
+        assertEquals(3, insertedConcepts.size());
+    }
+
     @Test
     public void whenRelationshipInserted_identifyRelationshipWasInserted() {
 
@@ -231,6 +250,32 @@ public class InsertQueryAnalyserTest {
         assertTrue(rolePlayers.get("friend").contains(yConcept));
     }
 
+    @Test
+    public void whenInsertRelationshipWithIdsInInsert_identifyRolePlayers() {
+        Variable xVar = new Variable("x").asUserDefined();
+        Variable yVar = new Variable("y").asUserDefined();
+        GraqlInsert insertQuery = Graql.insert(
+                var(xVar).id("V123"),
+                var(yVar).id("V234"),
+                var("r").rel("friend", var(xVar)).rel("friend", var(yVar)).isa("friendship"));
+
+        ConceptMap map = mock(ConceptMap.class);
+        Concept xConcept = mock(Concept.class);
+        when(xConcept.id()).thenReturn(ConceptId.of("V123"));
+        Concept yConcept = mock(Concept.class);
+        when(yConcept.id()).thenReturn(ConceptId.of("V234"));
+        when(map.get(xVar)).thenReturn(xConcept);
+        when(map.get(yVar)).thenReturn(yConcept);
+
+        Map<String, List<Concept>> rolePlayers = InsertQueryAnalyser.getRolePlayersAndRoles(insertQuery, Arrays.asList(map));
+
+        assertEquals(1, rolePlayers.size());
+        assertEquals(2, rolePlayers.get("friend").size());
+        assertTrue(rolePlayers.get("friend").contains(xConcept));
+        assertTrue(rolePlayers.get("friend").contains(yConcept));
+        assertEquals("friendship", InsertQueryAnalyser.getRelationshipTypeLabel(insertQuery));
+    }
+
     @Test
     public void whenInsertNonRelationship_returnEmptySet() {
         Variable x = new Variable("x").asUserDefined();
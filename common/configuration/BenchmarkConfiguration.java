@@ -24,6 +24,7 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import grakn.benchmark.common.configuration.parse.BenchmarkArguments;
 import grakn.benchmark.common.configuration.parse.BenchmarkConfigurationFile;
 import grakn.benchmark.common.configuration.parse.QueriesConfigurationFile;
+import grakn.benchmark.common.configuration.parse.WorkloadConfigurationFile;
 import org.apache.commons.cli.CommandLine;
 
 import java.io.IOException;
@@ -31,7 +32,9 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * This class parses multiple yaml files into object and wraps them
@@ -42,10 +45,26 @@ import java.util.List;
 public class BenchmarkConfiguration {
 
     private static final String DEFAULT_GRAKN_URI = "localhost:48555";
+    private static final String DEFAULT_CONCEPT_STORAGE = "ignite";
+    private static final int DEFAULT_GENERATOR_THREADS = 1;
+    private static final String DEFAULT_RELATION_INSERT_MODE = "match_insert";
+    private static final int DEFAULT_INSTANCES_PER_QUERY = 1;
+    private static final int DEFAULT_MIN_INSERTS_PER_TRANSACTION = 1;
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 100;
+    private static final int DEFAULT_LOADER_THREADS = 4;
+    private static final int DEFAULT_LOADER_BATCHES_PER_TRANSACTION = 50;
+    private static final int DEFAULT_OPEN_LOOP_SECONDS = 30;
+    private static final int DEFAULT_OPEN_LOOP_P99_SLO_MILLIS = 100;
+    private static final long DEFAULT_WORKLOAD_SEED = 0;
+    private static final List<String> THINK_TIME_TYPES = Arrays.asList("constant", "uniform", "gaussian", "zipf");
 
     private final boolean generateData;
     private final boolean loadSchema;
+    private final boolean resume;
+    private final boolean offline;
+    private final boolean bulkLoad;
     private List<String> queries;
+    private WorkloadConfigurationFile workload;
     private List<String> graqlSchema;
     private BenchmarkConfigurationFile benchmarkConfigFile;
     private String keyspace;
@@ -63,6 +82,12 @@ public class BenchmarkConfiguration {
         // Parse yaml file containing all the queries for profiler (QueryExecutor)
         this.queries = parseQueriesFile(configFilePath).getQueries();
 
+        // Parse yaml file with a weighted mix of queries to run instead, if any
+        this.workload = (benchmarkConfigFile.getWorkloadFilePath() != null) ? parseWorkloadFile(configFilePath) : null;
+        if (workload != null && openLoop()) {
+            throw new ConfigurationException("A workload cannot be combined with openLoop");
+        }
+
         // Parse yaml file containing Graql statements that define a schema, used by DataGenerator
         this.graqlSchema = parseGraqlSchema(configFilePath);
 
@@ -76,6 +101,37 @@ public class BenchmarkConfiguration {
 
         // If --load-schema is specified, load a schema even if data generation is disabled
         this.loadSchema = arguments.hasOption(BenchmarkArguments.LOAD_SCHEMA_ARGUMENT);
+
+        // If --resume is specified, continue generating into the existing keyspace from its last checkpoint
+        this.resume = arguments.hasOption(BenchmarkArguments.RESUME_ARGUMENT);
+        if (resume && (!generateData || checkpointDirectory() == null)) {
+            throw new ConfigurationException("--resume requires data generation, and a checkpointDirectory to resume from");
+        }
+
+        // If --offline is specified, only generate the dataset, into the dataset cache; --bulk-load then loads it
+        this.offline = arguments.hasOption(BenchmarkArguments.OFFLINE_ARGUMENT);
+        this.bulkLoad = arguments.hasOption(BenchmarkArguments.BULK_LOAD_ARGUMENT);
+        if ((offline || bulkLoad) && (!generateData || resume || datasetCacheDirectory() == null)) {
+            throw new ConfigurationException("--offline and --bulk-load require data generation, without --resume, and a datasetCacheDirectory");
+        }
+        if (offline && bulkLoad) {
+            throw new ConfigurationException("--offline and --bulk-load cannot be combined");
+        }
+        boolean singleWriter = (generatorThreads() == 1 && !pipelinedGeneration());
+        if (offline && (checkpointDirectory() != null || !singleWriter)) {
+            throw new ConfigurationException("--offline writes to the dataset cache only, with a single unpipelined generator thread and no checkpointDirectory");
+        }
+        // checkpoints and cached datasets are replayed in the order batches were generated, which only a single writer commits in
+        if (generateData && checkpointDirectory() != null && !singleWriter) {
+            throw new ConfigurationException("checkpointDirectory requires a single generator thread, without pipelinedGeneration");
+        }
+        if (generateData && !bulkLoad && datasetCacheDirectory() != null && !singleWriter) {
+            throw new ConfigurationException("datasetCacheDirectory requires a single generator thread, without pipelinedGeneration, unless bulk loading");
+        }
+        // a cached dataset is loaded one batch after another, which transactions combining batches do not follow
+        if (datasetCacheDirectory() != null && maxInsertsPerTransaction() != null) {
+            throw new ConfigurationException("datasetCacheDirectory cannot be combined with maxInsertsPerTransaction");
+        }
     }
 
     public String graknUri() {
@@ -105,10 +161,201 @@ public class BenchmarkConfiguration {
         return queries;
     }
 
+    /**
+     * @return weighted mix of query groups that concurrent clients pick from at random, instead of running every
+     * query in order, or null if there is no workload
+     */
+    public WorkloadConfigurationFile workload() {
+        return workload;
+    }
+
+    /**
+     * @return seed of the random choices of the workload, which each concurrent client offsets by its own id
+     */
+    public long workloadSeed() {
+        return (workload.getSeed() != null) ? workload.getSeed() : DEFAULT_WORKLOAD_SEED;
+    }
+
     public List<Integer> scalesToProfile() {
         return benchmarkConfigFile.scalesToProfile();
     }
 
+    /**
+     * @return name of the storage the data generator uses to keep track of inserted concepts
+     */
+    public String conceptStorage() {
+        String conceptStorage = benchmarkConfigFile.getConceptStorage();
+        return (conceptStorage != null) ? conceptStorage : DEFAULT_CONCEPT_STORAGE;
+    }
+
+    /**
+     * @return number of threads the data generator uses to write into Grakn, each with its own session
+     */
+    public int generatorThreads() {
+        Integer generatorThreads = benchmarkConfigFile.getGeneratorThreads();
+        if (generatorThreads == null) {
+            return DEFAULT_GENERATOR_THREADS;
+        }
+        if (generatorThreads < 1) {
+            throw new ConfigurationException("generatorThreads must be at least 1, got " + generatorThreads);
+        }
+        return generatorThreads;
+    }
+
+    /**
+     * @return whether the data generator overlaps generating, executing and storing batches in separate threads
+     */
+    public boolean pipelinedGeneration() {
+        boolean pipelined = benchmarkConfigFile.getPipelinedGeneration();
+        if (pipelined && generatorThreads() > 1) {
+            throw new ConfigurationException("pipelinedGeneration cannot be combined with more than one generator thread");
+        }
+        return pipelined;
+    }
+
+    /**
+     * @return how the data generator binds relationship role players: in a match clause, by id in a pure insert,
+     * or alternating between both to compare them
+     */
+    public String relationInsertMode() {
+        String relationInsertMode = benchmarkConfigFile.getRelationInsertMode();
+        return (relationInsertMode != null) ? relationInsertMode : DEFAULT_RELATION_INSERT_MODE;
+    }
+
+    /**
+     * @return how many entities or attributes the data generator inserts per query, unless the
+     * data generator definition sets a number for that type
+     */
+    public int instancesPerQuery() {
+        Integer instancesPerQuery = benchmarkConfigFile.getInstancesPerQuery();
+        if (instancesPerQuery == null) {
+            return DEFAULT_INSTANCES_PER_QUERY;
+        }
+        if (instancesPerQuery < 1) {
+            throw new ConfigurationException("instancesPerQuery must be at least 1, got " + instancesPerQuery);
+        }
+        return instancesPerQuery;
+    }
+
+    /**
+     * @return most insert queries the data generator commits per transaction, tuning the number between
+     * minInsertsPerTransaction and this, or null to commit each generated batch in one transaction
+     */
+    public Integer maxInsertsPerTransaction() {
+        Integer maxInsertsPerTransaction = benchmarkConfigFile.getMaxInsertsPerTransaction();
+        if (maxInsertsPerTransaction != null && maxInsertsPerTransaction < minInsertsPerTransaction()) {
+            throw new ConfigurationException("maxInsertsPerTransaction must be at least minInsertsPerTransaction, got " + maxInsertsPerTransaction);
+        }
+        return maxInsertsPerTransaction;
+    }
+
+    /**
+     * @return fewest insert queries the data generator commits per transaction, when tuning the number
+     */
+    public int minInsertsPerTransaction() {
+        Integer minInsertsPerTransaction = benchmarkConfigFile.getMinInsertsPerTransaction();
+        if (minInsertsPerTransaction == null) {
+            return DEFAULT_MIN_INSERTS_PER_TRANSACTION;
+        }
+        if (minInsertsPerTransaction < 1) {
+            throw new ConfigurationException("minInsertsPerTransaction must be at least 1, got " + minInsertsPerTransaction);
+        }
+        return minInsertsPerTransaction;
+    }
+
+    /**
+     * @return directory the data generator writes checkpoints to, or null if it does not checkpoint
+     */
+    public Path checkpointDirectory() {
+        return workingDirectoryPath(benchmarkConfigFile.getCheckpointDirectory());
+    }
+
+    /**
+     * @return number of committed batch segments between checkpoints
+     */
+    public int checkpointInterval() {
+        Integer checkpointInterval = benchmarkConfigFile.getCheckpointInterval();
+        if (checkpointInterval == null) {
+            return DEFAULT_CHECKPOINT_INTERVAL;
+        }
+        if (checkpointInterval < 1) {
+            throw new ConfigurationException("checkpointInterval must be at least 1, got " + checkpointInterval);
+        }
+        return checkpointInterval;
+    }
+
+    /**
+     * @return whether to continue a checkpointed data generation run, rather than start with an empty keyspace
+     */
+    public boolean resume() {
+        return resume;
+    }
+
+    /**
+     * @return directory of datasets generated by earlier runs, to load instead of generating them again,
+     * or null if datasets are not cached
+     */
+    public Path datasetCacheDirectory() {
+        return workingDirectoryPath(benchmarkConfigFile.getDatasetCacheDirectory());
+    }
+
+    /**
+     * @return whether to generate data into the dataset cache only, without a Grakn server
+     */
+    public boolean offline() {
+        return offline;
+    }
+
+    /**
+     * @return whether to bulk load each scale from the dataset cache, rather than generating data
+     */
+    public boolean bulkLoad() {
+        return bulkLoad;
+    }
+
+    /**
+     * @return number of threads the bulk loader writes with, each with its own session
+     */
+    public int loaderThreads() {
+        Integer loaderThreads = benchmarkConfigFile.getLoaderThreads();
+        if (loaderThreads == null) {
+            return DEFAULT_LOADER_THREADS;
+        }
+        if (loaderThreads < 1) {
+            throw new ConfigurationException("loaderThreads must be at least 1, got " + loaderThreads);
+        }
+        return loaderThreads;
+    }
+
+    /**
+     * @return number of cached batches the bulk loader commits in each transaction
+     */
+    public int loaderBatchesPerTransaction() {
+        Integer batchesPerTransaction = benchmarkConfigFile.getLoaderBatchesPerTransaction();
+        if (batchesPerTransaction == null) {
+            return DEFAULT_LOADER_BATCHES_PER_TRANSACTION;
+        }
+        if (batchesPerTransaction < 1) {
+            throw new ConfigurationException("loaderBatchesPerTransaction must be at least 1, got " + batchesPerTransaction);
+        }
+        return batchesPerTransaction;
+    }
+
+    /**
+     * Resolve a configured path against the directory the benchmark was started from, unless it is absolute
+     */
+    private Path workingDirectoryPath(String configured) {
+        if (configured == null) {
+            return null;
+        }
+        Path path = Paths.get(configured);
+        String workingDirectory = System.getProperty("working.dir");
+        if (!path.isAbsolute() && workingDirectory != null) {
+            path = Paths.get(workingDirectory).resolve(path);
+        }
+        return path;
+    }
+
     public boolean generateData() {
         return generateData;
     }
@@ -127,6 +374,35 @@ public class BenchmarkConfiguration {
         return benchmarkConfigFile.traceDeleteInsertedConcepts();
     }
 
+    /**
+     * @return whether opening each pooled profiler session is traced as a span of its own
+     */
+    public boolean traceSessionOpen() {
+        return benchmarkConfigFile.traceSessionOpen();
+    }
+
+    /**
+     * @return whether consecutive read queries are executed in one shared read transaction, rather than one each
+     */
+    public boolean reuseReadTransactions() {
+        return benchmarkConfigFile.reuseReadTransactions();
+    }
+
+    /**
+     * @return how long each query is warmed up at each scale before it is measured, no warm-up by default
+     */
+    public WarmUp warmUp() {
+        Integer repetitions = benchmarkConfigFile.getWarmUpRepetitions();
+        Long millis = benchmarkConfigFile.getWarmUpMillis();
+        if (repetitions != null && repetitions < 0) {
+            throw new ConfigurationException("warmUpRepetitions must not be negative, got " + repetitions);
+        }
+        if (millis != null && millis < 0) {
+            throw new ConfigurationException("warmUpMillis must not be negative, got " + millis);
+        }
+        return new WarmUp((repetitions != null) ? repetitions : 0, (millis != null) ? millis : 0);
+    }
+
     public int concurrentClients() {
         return benchmarkConfigFile.concurrentClients();
     }
@@ -135,6 +411,58 @@ public class BenchmarkConfiguration {
         return benchmarkConfigFile.uniqueConcurrentKeyspaces();
     }
 
+    /**
+     * @return whether queries are issued open loop, on a fixed schedule at target rates, instead of each client
+     * waiting for one query to finish before sending the next
+     */
+    public boolean openLoop() {
+        return benchmarkConfigFile.openLoop();
+    }
+
+    /**
+     * @return target rates to sweep in ascending order, in queries per second across all concurrent clients
+     */
+    public List<Integer> openLoopRates() {
+        List<Integer> rates = benchmarkConfigFile.openLoopRates();
+        if (rates == null || rates.isEmpty()) {
+            throw new ConfigurationException("openLoop requires at least one target rate in rates");
+        }
+        for (int rate : rates) {
+            if (rate < 1) {
+                throw new ConfigurationException("openLoop rates must be at least 1 query per second, got " + rate);
+            }
+        }
+        return rates.stream().sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * @return how long each target rate is held for
+     */
+    public int openLoopSeconds() {
+        Integer seconds = benchmarkConfigFile.openLoopSeconds();
+        if (seconds == null) {
+            return DEFAULT_OPEN_LOOP_SECONDS;
+        }
+        if (seconds < 1) {
+            throw new ConfigurationException("openLoop seconds must be at least 1, got " + seconds);
+        }
+        return seconds;
+    }
+
+    /**
+     * @return the 99th percentile latency above which a target rate breaks the service level objective
+     */
+    public int openLoopP99SloMillis() {
+        Integer sloMillis = benchmarkConfigFile.openLoopP99SloMillis();
+        if (sloMillis == null) {
+            return DEFAULT_OPEN_LOOP_P99_SLO_MILLIS;
+        }
+        if (sloMillis < 1) {
+            throw new ConfigurationException("openLoop p99SloMillis must be at least 1, got " + sloMillis);
+        }
+        return sloMillis;
+    }
+
 
     /**
      * Compute configuration file path, prepending path to working dir if relative path provided.
@@ -187,6 +515,46 @@ public class BenchmarkConfiguration {
         }
     }
 
+    /**
+     * Parse workload file to object, checking every group can be run
+     *
+     * @param configFilePath absolute path to configuration file
+     * @return Object that holds the weighted query groups
+     */
+    private WorkloadConfigurationFile parseWorkloadFile(Path configFilePath) {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        Path workloadFilePath = configFilePath.getParent().resolve(benchmarkConfigFile.getWorkloadFilePath());
+        WorkloadConfigurationFile workload;
+        try {
+            workload = mapper.readValue(workloadFilePath.toFile(), WorkloadConfigurationFile.class);
+        } catch (IOException e) {
+            throw new ConfigurationException("Exception parsing workload file", e);
+        }
+
+        if ((workload.getSeconds() == null) == (workload.getOperations() == null)) {
+            throw new ConfigurationException("A workload must run for either a number of seconds or a number of operations");
+        }
+        if ((workload.getSeconds() != null && workload.getSeconds() < 1) || (workload.getOperations() != null && workload.getOperations() < 1)) {
+            throw new ConfigurationException("A workload must run for at least 1 second or operation");
+        }
+        if (workload.getGroups() == null || workload.getGroups().isEmpty()) {
+            throw new ConfigurationException("A workload requires at least one query group");
+        }
+        for (WorkloadConfigurationFile.QueryGroup group : workload.getGroups()) {
+            if (group.getWeight() == null || group.getWeight() <= 0) {
+                throw new ConfigurationException("Workload group " + group.getName() + " requires a weight greater than 0");
+            }
+            if (group.getQueries() == null || group.getQueries().isEmpty()) {
+                throw new ConfigurationException("Workload group " + group.getName() + " requires at least one query");
+            }
+            if (group.getThinkTime() != null && !THINK_TIME_TYPES.contains(group.getThinkTime().getType())) {
+                throw new ConfigurationException("Workload group " + group.getName() + " has think time type " + group.getThinkTime().getType() +
+                        ", expected one of " + THINK_TIME_TYPES);
+            }
+        }
+        return workload;
+    }
+
     /**
      * Parse Graql schema file into a list of Strings
      *
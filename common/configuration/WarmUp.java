@@ -0,0 +1,77 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.common.configuration;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long each query is warmed up, at each scale, before its executions are measured.
+ * <p>
+ * Warm-up runs a query repeatedly until it has run the given number of times or for the given time, whichever of
+ * the two is set and reached first, so that cold JIT, empty server caches and lazy channel setup do not inflate
+ * the measured repetitions. Warm-up runs are left out of the results and summarised on their own.
+ */
+public class WarmUp {
+
+    private final int repetitions;
+    private final long millis;
+
+    /**
+     * @param repetitions runs per query, or 0 for no limit on runs
+     * @param millis      time per query, or 0 for no limit on time
+     */
+    public WarmUp(int repetitions, long millis) {
+        this.repetitions = repetitions;
+        this.millis = millis;
+    }
+
+    public boolean enabled() {
+        return repetitions > 0 || millis > 0;
+    }
+
+    /**
+     * @param runs          warm-up runs of a query so far
+     * @param elapsedMillis time spent warming up the query so far
+     * @return whether the query is warmed up
+     */
+    public boolean finished(int runs, long elapsedMillis) {
+        if (!enabled()) {
+            return true;
+        }
+        return (repetitions > 0 && runs >= repetitions) || (millis > 0 && elapsedMillis >= millis);
+    }
+
+    /**
+     * @return a one-line summary of the durations of the warm-up runs of a query, showing its cold-start cost
+     */
+    public static String summary(List<Long> nanos) {
+        if (nanos.isEmpty()) {
+            return "no runs";
+        }
+        long total = nanos.stream().mapToLong(Long::longValue).sum();
+        return String.format("%d runs in %d ms: first %d ms, mean %d ms, last %d ms",
+                nanos.size(),
+                TimeUnit.NANOSECONDS.toMillis(total),
+                TimeUnit.NANOSECONDS.toMillis(nanos.get(0)),
+                TimeUnit.NANOSECONDS.toMillis(total / nanos.size()),
+                TimeUnit.NANOSECONDS.toMillis(nanos.get(nanos.size() - 1)));
+    }
+}
@@ -38,6 +38,9 @@ public class BenchmarkArguments {
     public final static String LOAD_SCHEMA_ARGUMENT = "load-schema";
     public final static String EXECUTION_NAME_ARGUMENT = "execution-name";
     public final static String ELASTIC_URI = "elastic-uri";
+    public final static String RESUME_ARGUMENT = "resume";
+    public final static String OFFLINE_ARGUMENT = "offline";
+    public final static String BULK_LOAD_ARGUMENT = "bulk-load";
 
     public static CommandLine parse(String[] args) {
         Options options = buildOptions();
@@ -99,6 +102,24 @@ public class BenchmarkArguments {
                 .required(false)
                 .type(String.class)
                 .build();
+        Option resumeOption = Option.builder("r")
+                .longOpt(RESUME_ARGUMENT)
+                .required(false)
+                .desc("Resume data generation into the existing keyspace from its last checkpoint (requires checkpointDirectory in config yaml)")
+                .type(Boolean.class)
+                .build();
+        Option offlineOption = Option.builder("o")
+                .longOpt(OFFLINE_ARGUMENT)
+                .required(false)
+                .desc("Generate data into the dataset cache only, without a Grakn server (requires datasetCacheDirectory in config yaml)")
+                .type(Boolean.class)
+                .build();
+        Option bulkLoadOption = Option.builder("bl")
+                .longOpt(BULK_LOAD_ARGUMENT)
+                .required(false)
+                .desc("Bulk load each scale from the dataset cache instead of generating data (requires datasetCacheDirectory in config yaml)")
+                .type(Boolean.class)
+                .build();
         Options options = new Options();
         options.addOption(configFileOption);
         options.addOption(graknAddressOption);
@@ -107,6 +128,9 @@ public class BenchmarkArguments {
         options.addOption(loadSchema);
         options.addOption(executionNameOption);
         options.addOption(elasticsearchAddressOption);
+        options.addOption(resumeOption);
+        options.addOption(offlineOption);
+        options.addOption(bulkLoadOption);
         return options;
     }
 }
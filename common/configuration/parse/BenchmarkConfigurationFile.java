@@ -30,12 +30,30 @@ public class BenchmarkConfigurationFile {
     private String dataGenerator;
     private String schema;
     private String queries;
+    private String workload;
     private List<Integer> scalesToProfile;
     private Integer repeatsPerQuery;
+    private String conceptStorage;
+    private Integer generatorThreads;
+    private boolean pipelinedGeneration;
+    private String relationInsertMode;
+    private Integer instancesPerQuery;
+    private Integer minInsertsPerTransaction;
+    private Integer maxInsertsPerTransaction;
+    private String checkpointDirectory;
+    private Integer checkpointInterval;
+    private String datasetCacheDirectory;
+    private Integer loaderThreads;
+    private Integer loaderBatchesPerTransaction;
 
     private boolean deleteInsertedConcepts;
     private boolean traceDeleteInsertedConcepts;
+    private boolean traceSessionOpen;
+    private boolean reuseReadTransactions;
+    private Integer warmUpRepetitions;
+    private Long warmUpMillis;
     private Concurrency concurrency;
+    private OpenLoop openLoop;
 
     public void setName(String name) {
         this.name= name;
@@ -72,6 +90,13 @@ public class BenchmarkConfigurationFile {
         return this.queries;
     }
 
+    public void setWorkload(String workloadYaml) {
+        this.workload = workloadYaml;
+    }
+    public String getWorkloadFilePath() {
+        return this.workload;
+    }
+
     public void setDeleteInsertedConcepts(Boolean deleteInsertedConcepts) {
         this.deleteInsertedConcepts = deleteInsertedConcepts;
     }
@@ -82,6 +107,30 @@ public class BenchmarkConfigurationFile {
     }
     public boolean traceDeleteInsertedConcepts() { return traceDeleteInsertedConcepts; }
 
+    public void setTraceSessionOpen(Boolean traceSessionOpen) {
+        this.traceSessionOpen = traceSessionOpen;
+    }
+    public boolean traceSessionOpen() { return traceSessionOpen; }
+
+    public void setReuseReadTransactions(Boolean reuseReadTransactions) {
+        this.reuseReadTransactions = reuseReadTransactions;
+    }
+    public boolean reuseReadTransactions() { return reuseReadTransactions; }
+
+    public void setWarmUpRepetitions(Integer warmUpRepetitions) {
+        this.warmUpRepetitions = warmUpRepetitions;
+    }
+    public Integer getWarmUpRepetitions() {
+        return this.warmUpRepetitions;
+    }
+
+    public void setWarmUpMillis(Long warmUpMillis) {
+        this.warmUpMillis = warmUpMillis;
+    }
+    public Long getWarmUpMillis() {
+        return this.warmUpMillis;
+    }
+
     public void setScales(List<Integer> scales) {
         this.scalesToProfile = scales;
     }
@@ -96,6 +145,90 @@ public class BenchmarkConfigurationFile {
         return this.repeatsPerQuery;
     }
 
+    public void setConceptStorage(String conceptStorage) {
+        this.conceptStorage = conceptStorage;
+    }
+    public String getConceptStorage() {
+        return this.conceptStorage;
+    }
+
+    public void setGeneratorThreads(Integer generatorThreads) {
+        this.generatorThreads = generatorThreads;
+    }
+    public Integer getGeneratorThreads() {
+        return this.generatorThreads;
+    }
+
+    public void setPipelinedGeneration(boolean pipelinedGeneration) {
+        this.pipelinedGeneration = pipelinedGeneration;
+    }
+    public boolean getPipelinedGeneration() {
+        return this.pipelinedGeneration;
+    }
+
+    public void setRelationInsertMode(String relationInsertMode) {
+        this.relationInsertMode = relationInsertMode;
+    }
+    public String getRelationInsertMode() {
+        return this.relationInsertMode;
+    }
+
+    public void setInstancesPerQuery(Integer instancesPerQuery) {
+        this.instancesPerQuery = instancesPerQuery;
+    }
+    public Integer getInstancesPerQuery() {
+        return this.instancesPerQuery;
+    }
+
+    public void setMinInsertsPerTransaction(Integer minInsertsPerTransaction) {
+        this.minInsertsPerTransaction = minInsertsPerTransaction;
+    }
+    public Integer getMinInsertsPerTransaction() {
+        return this.minInsertsPerTransaction;
+    }
+
+    public void setMaxInsertsPerTransaction(Integer maxInsertsPerTransaction) {
+        this.maxInsertsPerTransaction = maxInsertsPerTransaction;
+    }
+    public Integer getMaxInsertsPerTransaction() {
+        return this.maxInsertsPerTransaction;
+    }
+
+    public void setCheckpointDirectory(String checkpointDirectory) {
+        this.checkpointDirectory = checkpointDirectory;
+    }
+    public String getCheckpointDirectory() {
+        return this.checkpointDirectory;
+    }
+
+    public void setCheckpointInterval(Integer checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+    public Integer getCheckpointInterval() {
+        return this.checkpointInterval;
+    }
+
+    public void setDatasetCacheDirectory(String datasetCacheDirectory) {
+        this.datasetCacheDirectory = datasetCacheDirectory;
+    }
+    public String getDatasetCacheDirectory() {
+        return this.datasetCacheDirectory;
+    }
+
+    public void setLoaderThreads(Integer loaderThreads) {
+        this.loaderThreads = loaderThreads;
+    }
+    public Integer getLoaderThreads() {
+        return this.loaderThreads;
+    }
+
+    public void setLoaderBatchesPerTransaction(Integer loaderBatchesPerTransaction) {
+        this.loaderBatchesPerTransaction = loaderBatchesPerTransaction;
+    }
+    public Integer getLoaderBatchesPerTransaction() {
+        return this.loaderBatchesPerTransaction;
+    }
+
     // --- concurrency configs ---
     public void setConcurrency(Concurrency concurrency) {
         this.concurrency = concurrency;
@@ -106,6 +239,23 @@ public class BenchmarkConfigurationFile {
     public Boolean uniqueConcurrentKeyspaces() {
         return this.concurrency.uniqueKeyspaces();
     }
+
+    // --- open loop configs ---
+    public void setOpenLoop(OpenLoop openLoop) {
+        this.openLoop = openLoop;
+    }
+    public boolean openLoop() {
+        return this.openLoop != null;
+    }
+    public List<Integer> openLoopRates() {
+        return (this.openLoop != null) ? this.openLoop.rates() : null;
+    }
+    public Integer openLoopSeconds() {
+        return (this.openLoop != null) ? this.openLoop.seconds() : null;
+    }
+    public Integer openLoopP99SloMillis() {
+        return (this.openLoop != null) ? this.openLoop.p99SloMillis() : null;
+    }
 }
 
 
@@ -130,3 +280,34 @@ class Concurrency {
         return separateKeyspaces;
     }
 }
+
+
+/**
+ * Sub-object in yaml file that indicates open loop load configuration options
+ */
+class OpenLoop {
+    private List<Integer> rates;
+    private Integer seconds;
+    private Integer p99SloMillis;
+
+    private void setRates(List<Integer> rates) {
+        this.rates = rates;
+    }
+    public List<Integer> rates() {
+        return rates;
+    }
+
+    private void setSeconds(Integer seconds) {
+        this.seconds = seconds;
+    }
+    public Integer seconds() {
+        return seconds;
+    }
+
+    private void setP99SloMillis(Integer p99SloMillis) {
+        this.p99SloMillis = p99SloMillis;
+    }
+    public Integer p99SloMillis() {
+        return p99SloMillis;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.common.configuration.parse;
+
+import java.util.List;
+
+/**
+ *  Absorbs a weighted mix of query groups, and how long to run the mix for
+ *  Top-level tags are 'groups', 'seed', and 'seconds' or 'operations'
+ */
+
+public class WorkloadConfigurationFile {
+    private List<QueryGroup> groups;
+    private Long seed;
+    private Integer seconds;
+    private Integer operations;
+
+    public void setGroups(List<QueryGroup> groups) {
+        this.groups = groups;
+    }
+    public List<QueryGroup> getGroups() {
+        return this.groups;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+    public Long getSeed() {
+        return this.seed;
+    }
+
+    public void setSeconds(Integer seconds) {
+        this.seconds = seconds;
+    }
+    public Integer getSeconds() {
+        return this.seconds;
+    }
+
+    public void setOperations(Integer operations) {
+        this.operations = operations;
+    }
+    public Integer getOperations() {
+        return this.operations;
+    }
+
+    /**
+     * Sub-object in yaml file: queries picked, uniformly among themselves, with a weight relative to other groups
+     */
+    public static class QueryGroup {
+        private String name;
+        private Double weight;
+        private List<String> queries;
+        private ThinkTime thinkTime;
+
+        public void setName(String name) {
+            this.name = name;
+        }
+        public String getName() {
+            return this.name;
+        }
+
+        public void setWeight(Double weight) {
+            this.weight = weight;
+        }
+        public Double getWeight() {
+            return this.weight;
+        }
+
+        public void setQueries(List<String> queries) {
+            this.queries = queries;
+        }
+        public List<String> getQueries() {
+            return this.queries;
+        }
+
+        public void setThinkTime(ThinkTime thinkTime) {
+            this.thinkTime = thinkTime;
+        }
+        public ThinkTime getThinkTime() {
+            return this.thinkTime;
+        }
+    }
+
+    /**
+     * Sub-object in yaml file: distribution of the milliseconds a client waits after each query of a group
+     * One of 'constant' (value), 'uniform' (lowerBound, upperBound), 'gaussian' (mean, stddev) or 'zipf' (rangeLimit, exponent)
+     */
+    public static class ThinkTime {
+        private String type;
+        private Integer value;
+        private Integer lowerBound;
+        private Integer upperBound;
+        private Double mean;
+        private Double stddev;
+        private Integer rangeLimit;
+        private Double exponent;
+
+        public void setType(String type) {
+            this.type = type;
+        }
+        public String getType() {
+            return this.type;
+        }
+
+        public void setValue(Integer value) {
+            this.value = value;
+        }
+        public Integer getValue() {
+            return this.value;
+        }
+
+        public void setLowerBound(Integer lowerBound) {
+            this.lowerBound = lowerBound;
+        }
+        public Integer getLowerBound() {
+            return this.lowerBound;
+        }
+
+        public void setUpperBound(Integer upperBound) {
+            this.upperBound = upperBound;
+        }
+        public Integer getUpperBound() {
+            return this.upperBound;
+        }
+
+        public void setMean(Double mean) {
+            this.mean = mean;
+        }
+        public Double getMean() {
+            return this.mean;
+        }
+
+        public void setStddev(Double stddev) {
+            this.stddev = stddev;
+        }
+        public Double getStddev() {
+            return this.stddev;
+        }
+
+        public void setRangeLimit(Integer rangeLimit) {
+            this.rangeLimit = rangeLimit;
+        }
+        public Integer getRangeLimit() {
+            return this.rangeLimit;
+        }
+
+        public void setExponent(Double exponent) {
+            this.exponent = exponent;
+        }
+        public Double getExponent() {
+            return this.exponent;
+        }
+    }
+}
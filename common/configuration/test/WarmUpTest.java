@@ -0,0 +1,75 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.common.configuration;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WarmUpTest {
+
+    @Test
+    public void whenNoLimitIsSet_warmUpIsDisabledAndFinished() {
+        WarmUp warmUp = new WarmUp(0, 0);
+        assertFalse(warmUp.enabled());
+        assertTrue(warmUp.finished(0, 0));
+    }
+
+    @Test
+    public void whenRepetitionsAreSet_warmUpFinishesAfterThatManyRuns() {
+        WarmUp warmUp = new WarmUp(3, 0);
+        assertTrue(warmUp.enabled());
+        assertFalse(warmUp.finished(2, 100000));
+        assertTrue(warmUp.finished(3, 0));
+    }
+
+    @Test
+    public void whenTimeIsSet_warmUpRunsAtLeastOnceAndFinishesWhenTimeIsSpent() {
+        WarmUp warmUp = new WarmUp(0, 500);
+        assertTrue(warmUp.enabled());
+        assertFalse(warmUp.finished(0, 0));
+        assertFalse(warmUp.finished(100, 499));
+        assertTrue(warmUp.finished(1, 500));
+    }
+
+    @Test
+    public void whenBothAreSet_warmUpFinishesAtWhicheverComesFirst() {
+        WarmUp warmUp = new WarmUp(3, 500);
+        assertTrue(warmUp.finished(3, 10));
+        assertTrue(warmUp.finished(1, 500));
+        assertFalse(warmUp.finished(2, 499));
+    }
+
+    @Test
+    public void summaryShowsFirstMeanAndLastRun() {
+        String summary = WarmUp.summary(Arrays.asList(
+                TimeUnit.MILLISECONDS.toNanos(90),
+                TimeUnit.MILLISECONDS.toNanos(20),
+                TimeUnit.MILLISECONDS.toNanos(10)));
+        assertEquals("3 runs in 120 ms: first 90 ms, mean 40 ms, last 10 ms", summary);
+        assertEquals("no runs", WarmUp.summary(Collections.emptyList()));
+    }
+}
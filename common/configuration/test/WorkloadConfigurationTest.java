@@ -0,0 +1,182 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.common.configuration;
+
+import grakn.benchmark.common.configuration.parse.BenchmarkArguments;
+import grakn.benchmark.common.configuration.parse.WorkloadConfigurationFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class WorkloadConfigurationTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    private static final List<String> GROUP = Arrays.asList(
+            "  - name: \"reads\"",
+            "    weight: 90",
+            "    queries:",
+            "      - \"match $x isa person; get;\"");
+
+    /**
+     * Write a scenario with the given workload file lines, or none, and parse it
+     */
+    private BenchmarkConfiguration configuration(List<String> workload, String... extraConfig) throws IOException {
+        Path directory = folder.getRoot().toPath();
+        Files.write(directory.resolve("schema.gql"), Arrays.asList("define person sub entity;"), StandardCharsets.UTF_8);
+        Files.write(directory.resolve("queries.yml"), Arrays.asList("queries:", "  - \"match $x isa person; get;\""), StandardCharsets.UTF_8);
+
+        List<String> config = new ArrayList<>(Arrays.asList(
+                "name: \"workload test\"",
+                "dataGenerator: \"social_network\"",
+                "schema: \"schema.gql\"",
+                "queries: \"queries.yml\""));
+        if (workload != null) {
+            Files.write(directory.resolve("workload.yml"), workload, StandardCharsets.UTF_8);
+            config.add("workload: \"workload.yml\"");
+        }
+        config.addAll(Arrays.asList(extraConfig));
+        Path configPath = directory.resolve("config.yml");
+        Files.write(configPath, config, StandardCharsets.UTF_8);
+
+        return new BenchmarkConfiguration(BenchmarkArguments.parse(new String[]{
+                "--config", configPath.toString(), "--execution-name", "workload-test"}));
+    }
+
+    private static List<String> workload(String... lines) {
+        List<String> workload = new ArrayList<>(Arrays.asList(lines));
+        workload.add("groups:");
+        workload.addAll(GROUP);
+        return workload;
+    }
+
+    @Test
+    public void whenNoWorkloadIsGiven_workloadIsNull() throws IOException {
+        assertNull(configuration(null).workload());
+    }
+
+    @Test
+    public void whenWorkloadIsGiven_groupsAndLimitsAreParsed() throws IOException {
+        List<String> workload = workload("seed: 7", "operations: 100");
+        workload.addAll(Arrays.asList(
+                "  - name: \"writes\"",
+                "    weight: 10",
+                "    thinkTime:",
+                "      type: \"gaussian\"",
+                "      mean: 10",
+                "      stddev: 5",
+                "    queries:",
+                "      - \"insert $x isa person;\"",
+                "      - \"insert $y isa person;\""));
+        BenchmarkConfiguration configuration = configuration(workload);
+
+        WorkloadConfigurationFile parsed = configuration.workload();
+        assertEquals(7, configuration.workloadSeed());
+        assertEquals(Integer.valueOf(100), parsed.getOperations());
+        assertNull(parsed.getSeconds());
+        assertEquals(2, parsed.getGroups().size());
+        assertEquals("reads", parsed.getGroups().get(0).getName());
+        assertEquals(90.0, parsed.getGroups().get(0).getWeight(), 0.0);
+        assertNull(parsed.getGroups().get(0).getThinkTime());
+        WorkloadConfigurationFile.QueryGroup writes = parsed.getGroups().get(1);
+        assertEquals(2, writes.getQueries().size());
+        assertEquals("gaussian", writes.getThinkTime().getType());
+        assertEquals(10.0, writes.getThinkTime().getMean(), 0.0);
+        assertEquals(5.0, writes.getThinkTime().getStddev(), 0.0);
+    }
+
+    @Test
+    public void whenSeedIsNotGiven_defaultSeedIsUsed() throws IOException {
+        assertEquals(0, configuration(workload("seconds: 10")).workloadSeed());
+    }
+
+    @Test
+    public void whenNeitherSecondsNorOperationsAreGiven_throw() throws IOException {
+        expectedException.expect(ConfigurationException.class);
+        expectedException.expectMessage("either a number of seconds or a number of operations");
+        configuration(workload());
+    }
+
+    @Test
+    public void whenBothSecondsAndOperationsAreGiven_throw() throws IOException {
+        expectedException.expect(ConfigurationException.class);
+        expectedException.expectMessage("either a number of seconds or a number of operations");
+        configuration(workload("seconds: 10", "operations: 100"));
+    }
+
+    @Test
+    public void whenOperationsAreNotPositive_throw() throws IOException {
+        expectedException.expect(ConfigurationException.class);
+        expectedException.expectMessage("at least 1 second or operation");
+        configuration(workload("operations: 0"));
+    }
+
+    @Test
+    public void whenThereAreNoGroups_throw() throws IOException {
+        expectedException.expect(ConfigurationException.class);
+        expectedException.expectMessage("at least one query group");
+        configuration(Arrays.asList("seconds: 10", "groups: []"));
+    }
+
+    @Test
+    public void whenAGroupHasNoWeight_throw() throws IOException {
+        expectedException.expect(ConfigurationException.class);
+        expectedException.expectMessage("Workload group reads requires a weight greater than 0");
+        configuration(Arrays.asList("seconds: 10", "groups:", GROUP.get(0), "    weight: 0", GROUP.get(2), GROUP.get(3)));
+    }
+
+    @Test
+    public void whenAGroupHasNoQueries_throw() throws IOException {
+        expectedException.expect(ConfigurationException.class);
+        expectedException.expectMessage("Workload group reads requires at least one query");
+        configuration(Arrays.asList("seconds: 10", "groups:", GROUP.get(0), GROUP.get(1)));
+    }
+
+    @Test
+    public void whenAGroupHasAnUnknownThinkTime_throw() throws IOException {
+        expectedException.expect(ConfigurationException.class);
+        expectedException.expectMessage("Workload group reads has think time type poisson");
+        configuration(Arrays.asList("seconds: 10", "groups:", GROUP.get(0), GROUP.get(1),
+                "    thinkTime:", "      type: \"poisson\"", GROUP.get(2), GROUP.get(3)));
+    }
+
+    @Test
+    public void whenWorkloadIsCombinedWithOpenLoop_throw() throws IOException {
+        expectedException.expect(ConfigurationException.class);
+        expectedException.expectMessage("A workload cannot be combined with openLoop");
+        configuration(workload("seconds: 10"), "openLoop:", "  rates: [10]", "  seconds: 5");
+    }
+}
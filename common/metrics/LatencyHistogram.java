@@ -0,0 +1,118 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.common.metrics;
+
+/**
+ * A histogram of latencies with a bounded relative error, in the manner of HdrHistogram.
+ * <p>
+ * Values below SUB_BUCKETS are counted exactly. Above that, every power of two is split into SUB_BUCKETS equal
+ * sub-buckets, so a recorded value is off by less than 1 / SUB_BUCKETS of itself, whatever its magnitude, while
+ * recording stays a constant-time array increment. Percentiles report the highest value of their sub-bucket, so
+ * they never understate latency.
+ * <p>
+ * A histogram is not thread safe: each thread should record into its own and merge them afterwards.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts;
+    private long totalCount;
+    private long total;
+    private long min;
+    private long max;
+
+    public LatencyHistogram() {
+        this.counts = new long[(Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+        this.totalCount = 0;
+        this.total = 0;
+        this.min = Long.MAX_VALUE;
+        this.max = 0;
+    }
+
+    /**
+     * @param value a latency, in whatever unit the histogram is read back in; negative values count as 0
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        counts[index(value)]++;
+        totalCount++;
+        total += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        total += other.total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long count() {
+        return totalCount;
+    }
+
+    public long min() {
+        return (totalCount == 0) ? 0 : min;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public double mean() {
+        return (totalCount == 0) ? 0 : total / (double) totalCount;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the value that this percentage of the recorded values are at or below, or 0 if nothing was recorded
+     */
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, highestEquivalentValue(i));
+            }
+        }
+        return max;
+    }
+
+    private static int index(long value) {
+        int shift = Math.max(0, (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS);
+        return (shift * SUB_BUCKETS) + (int) (value >>> shift);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        int shift = Math.max(0, index / SUB_BUCKETS - 1);
+        long lowest = (long) (index - shift * SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
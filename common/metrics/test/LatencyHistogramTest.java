@@ -0,0 +1,92 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.common.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void whenNothingIsRecorded_everythingIsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.min());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.valueAtPercentile(99), 0);
+    }
+
+    @Test
+    public void whenValuesAreSmall_theyAreCountedExactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100, histogram.count());
+        assertEquals(50, histogram.valueAtPercentile(50));
+        assertEquals(99, histogram.valueAtPercentile(99));
+        assertEquals(100, histogram.valueAtPercentile(100));
+        assertEquals(50.5, histogram.mean(), 1e-9);
+    }
+
+    @Test
+    public void whenValuesAreLarge_percentilesAreWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100000; value++) {
+            histogram.record(value * 1000);
+        }
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long expected = (long) (percentile * 1000 * 1000);
+            long actual = histogram.valueAtPercentile(percentile);
+            assertTrue(percentile + ": " + actual, actual >= expected);
+            assertTrue(percentile + ": " + actual, actual <= expected * 1.01);
+        }
+        assertEquals(100000L * 1000, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    public void whenHistogramsAreMerged_countsAndExtremesCombine() {
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+        for (int i = 0; i < 98; i++) {
+            fast.record(10);
+        }
+        slow.record(5000);
+        slow.record(20000);
+
+        fast.merge(slow);
+        assertEquals(100, fast.count());
+        assertEquals(10, fast.min());
+        assertEquals(20000, fast.max());
+        assertEquals(10, fast.valueAtPercentile(98));
+        long p99 = fast.valueAtPercentile(99);
+        assertTrue(Long.toString(p99), p99 >= 5000 && p99 <= 5000 * 1.01);
+    }
+
+    @Test
+    public void whenValueIsNegative_itIsRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.valueAtPercentile(100));
+    }
+}
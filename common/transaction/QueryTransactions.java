@@ -0,0 +1,123 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.common.transaction;
+
+import grakn.client.GraknClient;
+import graql.lang.query.GraqlDefine;
+import graql.lang.query.GraqlDelete;
+import graql.lang.query.GraqlInsert;
+import graql.lang.query.GraqlQuery;
+import graql.lang.query.GraqlUndefine;
+
+/**
+ * Opens the kind of transaction each profiled query needs: a write transaction only for queries that change the
+ * keyspace (insert, delete, define, undefine), and a read transaction for all others (get, aggregate, group, compute).
+ * <p>
+ * Optionally, one read transaction is reused for a run of consecutive read queries, so that the effect of
+ * server-side transaction caching can be measured apart from that of opening transactions. The reused transaction
+ * is closed as soon as a write query comes, so reads after a write always see it.
+ * <p>
+ * Every transaction handed out must be given back with release, which closes it unless it is being reused.
+ */
+public class QueryTransactions implements AutoCloseable {
+
+    private final GraknClient.Session session;
+    private final boolean reuseReadTransactions;
+    private GraknClient.Transaction readTransaction;
+    private boolean reused;
+
+    public QueryTransactions(GraknClient.Session session, boolean reuseReadTransactions) {
+        this.session = session;
+        this.reuseReadTransactions = reuseReadTransactions;
+        this.readTransaction = null;
+        this.reused = false;
+    }
+
+    public static boolean isWrite(GraqlQuery query) {
+        return query instanceof GraqlInsert || query instanceof GraqlDelete ||
+                query instanceof GraqlDefine || query instanceof GraqlUndefine;
+    }
+
+    /**
+     * @return a transaction to execute the query in
+     */
+    public GraknClient.Transaction open(GraqlQuery query) {
+        if (isWrite(query)) {
+            return write();
+        }
+        reused = false;
+        if (!reuseReadTransactions) {
+            return session.transaction().read();
+        }
+        if (readTransaction != null && readTransaction.isOpen()) {
+            reused = true;
+        } else {
+            readTransaction = session.transaction().read();
+        }
+        return readTransaction;
+    }
+
+    /**
+     * @return a write transaction, for changes that are not profiled queries, e.g. cleaning up after them
+     */
+    public GraknClient.Transaction write() {
+        reused = false;
+        closeReadTransaction();
+        return session.transaction().write();
+    }
+
+    /**
+     * @return whether the last transaction opened is a read transaction that was already used by earlier queries
+     */
+    public boolean reused() {
+        return reused;
+    }
+
+    /**
+     * Close the transaction, unless it is the read transaction being reused
+     */
+    public void release(GraknClient.Transaction tx) {
+        if (tx != readTransaction) {
+            tx.close();
+        }
+    }
+
+    /**
+     * Close the transaction whatever it is, e.g. after it failed
+     */
+    public void discard(GraknClient.Transaction tx) {
+        if (tx == readTransaction) {
+            readTransaction = null;
+        }
+        tx.close();
+    }
+
+    private void closeReadTransaction() {
+        if (readTransaction != null) {
+            readTransaction.close();
+            readTransaction = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        closeReadTransaction();
+    }
+}
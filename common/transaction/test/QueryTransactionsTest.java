@@ -0,0 +1,138 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.common.transaction;
+
+import grakn.client.GraknClient;
+import graql.lang.query.GraqlCompute;
+import graql.lang.query.GraqlDelete;
+import graql.lang.query.GraqlGet;
+import graql.lang.query.GraqlInsert;
+import graql.lang.query.GraqlQuery;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QueryTransactionsTest {
+
+    private GraknClient.Session session;
+    private GraknClient.Transaction readTx;
+    private GraknClient.Transaction secondReadTx;
+    private GraknClient.Transaction writeTx;
+
+    private final GraqlQuery get = mock(GraqlGet.class);
+    private final GraqlQuery compute = mock(GraqlCompute.class);
+    private final GraqlQuery insert = mock(GraqlInsert.class);
+    private final GraqlQuery delete = mock(GraqlDelete.class);
+
+    @Before
+    public void setUp() {
+        session = mock(GraknClient.Session.class);
+        GraknClient.Transaction.Builder builder = mock(GraknClient.Transaction.Builder.class);
+        readTx = mock(GraknClient.Transaction.class);
+        secondReadTx = mock(GraknClient.Transaction.class);
+        writeTx = mock(GraknClient.Transaction.class);
+        when(readTx.isOpen()).thenReturn(true);
+        when(secondReadTx.isOpen()).thenReturn(true);
+        when(session.transaction()).thenReturn(builder);
+        when(builder.read()).thenReturn(readTx, secondReadTx);
+        when(builder.write()).thenReturn(writeTx);
+    }
+
+    @Test
+    public void whenQueryChangesKeyspace_itIsWrite() {
+        assertTrue(QueryTransactions.isWrite(insert));
+        assertTrue(QueryTransactions.isWrite(delete));
+        assertFalse(QueryTransactions.isWrite(get));
+        assertFalse(QueryTransactions.isWrite(compute));
+    }
+
+    @Test
+    public void whenNotReusing_eachQueryGetsItsOwnTransactionOfTheRightKind() {
+        QueryTransactions transactions = new QueryTransactions(session, false);
+
+        GraknClient.Transaction first = transactions.open(get);
+        transactions.release(first);
+        GraknClient.Transaction second = transactions.open(compute);
+        transactions.release(second);
+        GraknClient.Transaction third = transactions.open(insert);
+        transactions.release(third);
+
+        assertSame(readTx, first);
+        assertSame(secondReadTx, second);
+        assertSame(writeTx, third);
+        verify(readTx).close();
+        verify(secondReadTx).close();
+        verify(writeTx).close();
+        assertFalse(transactions.reused());
+    }
+
+    @Test
+    public void whenReusing_consecutiveReadsShareOneTransaction() {
+        QueryTransactions transactions = new QueryTransactions(session, true);
+
+        GraknClient.Transaction first = transactions.open(get);
+        assertFalse(transactions.reused());
+        transactions.release(first);
+        GraknClient.Transaction second = transactions.open(compute);
+        assertTrue(transactions.reused());
+        transactions.release(second);
+
+        assertSame(first, second);
+        verify(readTx, never()).close();
+
+        transactions.close();
+        verify(readTx).close();
+    }
+
+    @Test
+    public void whenReusing_aWriteClosesTheReadTransaction() {
+        QueryTransactions transactions = new QueryTransactions(session, true);
+
+        transactions.release(transactions.open(get));
+        GraknClient.Transaction write = transactions.open(insert);
+        verify(readTx).close();
+        transactions.release(write);
+        verify(writeTx).close();
+
+        GraknClient.Transaction read = transactions.open(get);
+        assertFalse(transactions.reused());
+        assertNotSame(readTx, read);
+    }
+
+    @Test
+    public void whenReusedTransactionIsDiscarded_nextReadOpensANewOne() {
+        QueryTransactions transactions = new QueryTransactions(session, true);
+
+        GraknClient.Transaction failed = transactions.open(get);
+        transactions.discard(failed);
+        verify(readTx).close();
+
+        assertSame(secondReadTx, transactions.open(get));
+        assertFalse(transactions.reused());
+    }
+}
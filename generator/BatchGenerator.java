@@ -0,0 +1,209 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator;
+
+import grakn.benchmark.generator.dataset.DatasetCache;
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.query.QueryProvider;
+import grakn.benchmark.generator.query.QueryTemplate;
+import grakn.benchmark.generator.storage.ConceptStorage;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.core.concept.ConceptId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates batches of queries from a data generator definition, and applies what committed batches inserted to
+ * storage. Shared by all the writers of a DataGenerator: generation reads and claims from the storage and samples
+ * the definition's PDFs, so only one batch is generated at a time.
+ */
+class BatchGenerator {
+    private static final Logger LOG = LoggerFactory.getLogger(BatchGenerator.class);
+
+    private final String dataGenerator;
+    private final QueryProvider queryProvider;
+    private final ConceptStorage storage;
+    private final DatasetCache datasetCache;
+    private final ScaleReservations reservations;
+    // batches wholly committed and flushed to storage
+    private final AtomicInteger iteration;
+    private int generatedBatches;
+
+    /**
+     * @param datasetCache where to cache batches once they have wholly committed, or null not to
+     */
+    BatchGenerator(String dataGenerator, QueryProvider queryProvider, ConceptStorage storage, DatasetCache datasetCache) {
+        this.dataGenerator = dataGenerator;
+        this.queryProvider = queryProvider;
+        this.storage = storage;
+        this.datasetCache = datasetCache;
+        this.reservations = new ScaleReservations(this);
+        this.iteration = new AtomicInteger(0);
+        this.generatedBatches = 0;
+    }
+
+    ConceptStorage storage() {
+        return storage;
+    }
+
+    ScaleReservations reservations() {
+        return reservations;
+    }
+
+    /**
+     * Materialise the next batch of insert/match-insert queries
+     */
+    List<GeneratedInsert> next(ConceptStorageBatch batch) {
+        synchronized (queryProvider) {
+            List<GeneratedInsert> queries = new ArrayList<>();
+            queryProvider.nextQueryBatch().forEachRemaining(queries::add);
+            batch.addClaims(storage.drainClaims());
+            generatedBatches++;
+            return queries;
+        }
+    }
+
+    int generatedBatches() {
+        synchronized (queryProvider) {
+            return generatedBatches;
+        }
+    }
+
+    int completedBatches() {
+        return iteration.get();
+    }
+
+    /**
+     * @return the number of the batch that has just wholly committed
+     */
+    int batchCompleted() {
+        return iteration.getAndIncrement();
+    }
+
+    /**
+     * Apply the storage updates of a committed segment. Once the segment's batch has wholly committed, release the
+     * batch's remaining claims and its reservation, and add it to the dataset cache.
+     */
+    void flush(Segment segment) {
+        PendingBatch pending = segment.pending;
+        storage.flush(segment.writes);
+        pending.insertedIds.addAll(segment.insertedIds);
+        if (!segment.completesBatch()) {
+            return;
+        }
+        try {
+            storage.releaseClaims(pending.batch.claims());
+            if (datasetCache != null) {
+                datasetCache.committed(pending.queries, pending.insertedIds);
+            }
+            printProgress(batchCompleted());
+        } finally {
+            reservations.release(pending.queries);
+        }
+    }
+
+    /**
+     * Release the claims and reservation of a batch that will not be committed
+     */
+    void abandon(PendingBatch pending) {
+        storage.releaseClaims(pending.batch.claims());
+        reservations.release(pending.queries);
+    }
+
+    /**
+     * Record the concepts and role players inserted by a query into the batch for storage. Only the ids of
+     * inserted concepts come from Grakn; their types and values, and the role players, are known
+     * from generating the query, so no further requests are made to Grakn.
+     *
+     * @param insertedIds id of each concept inserted, in the order of the answers and then of the inserted variables
+     */
+    static void recordInsertions(GeneratedInsert insert, List<ConceptId> insertedIds, ConceptStorageBatch batch) {
+        QueryTemplate template = insert.template();
+        int variables = template.insertedVariables().size();
+        for (int i = 0; i < insertedIds.size(); i++) {
+            batch.addConcept(insertedIds.get(i), template.typeLabel(), insert.insertedValue(i % variables));
+            if (i % variables == variables - 1) {
+                // each answer inserted the query's relationship, if any, between all its role players
+                insert.rolePlayers().forEach(batch::addRolePlayer);
+            }
+        }
+    }
+
+    /**
+     * Print statistics of the graph generated so far, as of the given batch
+     */
+    synchronized void printProgress(int iteration) {
+        int graphScale = storage.getGraphScale();
+        int totalRolePlayers = this.storage.totalRolePlayers();
+        int explicitRolePlayers = this.storage.totalExplicitRolePlayers();
+        // this should actually == number of implicit relationships!
+        int attributeOwners = (totalRolePlayers - explicitRolePlayers) / 2;
+
+        int entities = this.storage.totalEntities();
+        int explicitRelationships = this.storage.totalExplicitRelationships();
+        int attributes = this.storage.totalAttributes();
+
+        int implicitRelationships = this.storage.totalImplicitRelationships();
+
+
+        int orphanEntities = this.storage.totalOrphanEntities();
+        int orphanAttrs = this.storage.totalOrphanAttributes();
+        int relDoubleCounts = this.storage.totalRelationshipsRolePlayersOverlap();
+
+
+        // first order statistics
+        double meanInDegree = ((float) explicitRolePlayers) / graphScale;
+        double meanRolePlayersPerRelationship = ((float) explicitRolePlayers) / explicitRelationships;
+        double meanAttributeOwners = ((float) attributeOwners) / attributes;
+        double proportionEntities = ((float) entities) / graphScale;
+        double proportionRelationships = ((float) explicitRelationships) / graphScale;
+        double proportionAttributes = ((float) attributes) / graphScale;
+
+        // our own density measure
+        // compute how many connections (ie role players) there would be if everyone were fully connected to everything
+        double maxPossibleConnections = attributes * graphScale + explicitRelationships * graphScale;
+        double density = ((float) totalRolePlayers) / maxPossibleConnections;
+
+
+        // print info to console on one self-erasing line
+        System.out.print("\r");
+        System.out.print(String.format("[%d] %s Scale: %d\t(%f Deg_Cin, %f Deg_Rout, %f Deg_Aout)\t(%d, %d, %d, %d) Entity/Expl Rel/Impl Rel/Attr \t (%d EO, %d AO) \t %f density",
+                iteration, this.dataGenerator, graphScale, meanInDegree, meanRolePlayersPerRelationship, meanAttributeOwners,
+                entities, explicitRelationships, implicitRelationships, attributes,
+                orphanEntities, orphanAttrs, density));
+
+        // write to log verbosely in DEBUG that it doesn't overwrite
+        LOG.debug(String.format("----- Iteration %d [%s] ----- ", iteration, this.dataGenerator));
+//        LOG.debug(String.format(">> Generating instances of concept type \"%s\"", generatedTypeLabel));
+        LOG.debug(String.format(">> %d - Scale", graphScale));
+        LOG.debug(String.format(">> %d, %d, %d, %d - entity, explicit rels, implicit rels, attributes", entities, explicitRelationships, implicitRelationships, attributes));
+        LOG.debug(String.format(">> %d, %d - entity orphans, attribute orphans ", orphanEntities, orphanAttrs));
+        LOG.debug(String.format(">> %d - Total relationship double counts", relDoubleCounts));
+        LOG.debug(String.format(">> %f, %f, %f - mean Deg_Cin, mean Deg_Rout, mean Deg_Aout",
+                meanInDegree, meanRolePlayersPerRelationship, meanAttributeOwners));
+        LOG.debug(String.format(">> %f, %f %f - proportion entities, relationships, attributes",
+                proportionEntities, proportionRelationships, proportionAttributes));
+        LOG.debug(String.format(">> %f - custom density", density));
+    }
+}
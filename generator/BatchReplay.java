@@ -0,0 +1,158 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator;
+
+import grakn.benchmark.generator.checkpoint.BatchSegment;
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.client.GraknClient;
+import grakn.core.concept.ConceptId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Brings the definition and storage back to where they were after logged batch segments were committed, by
+ * generating the same batches again without executing them, and applying the logged storage updates in their place.
+ * Generation depends only on the state of the definition's random number generator, PDFs and providers, and on the
+ * storage, so none of them have to be written out. Used both to resume a checkpointed run and to load a cached dataset.
+ */
+class BatchReplay {
+    private static final Logger LOG = LoggerFactory.getLogger(BatchReplay.class);
+
+    private final GraknClient client;
+    private final String keyspace;
+    private final BatchGenerator generator;
+    // batches generated again but not yet wholly committed, which a resumed run finishes first
+    private final List<PendingBatch> resumedBatches;
+
+    /**
+     * @param client where to check whether logged segments committed
+     */
+    BatchReplay(GraknClient client, String keyspace, BatchGenerator generator) {
+        this.client = client;
+        this.keyspace = keyspace;
+        this.generator = generator;
+        this.resumedBatches = new ArrayList<>();
+    }
+
+    List<PendingBatch> resumedBatches() {
+        return resumedBatches;
+    }
+
+    /**
+     * Generate the batches that had been generated when a segment was committed again, without executing them,
+     * then apply the storage updates the segment made in place of those of the batch it belongs to
+     */
+    void replay(BatchSegment segment) {
+        while (generator.generatedBatches() < segment.batchesGenerated()) {
+            ConceptStorageBatch batch = new ConceptStorageBatch();
+            resumedBatches.add(new PendingBatch(generator.next(batch), batch));
+        }
+        // segments are committed in the order their batches were generated
+        PendingBatch pending = resumedBatches.isEmpty() ? null : resumedBatches.get(0);
+        if (pending == null || pending.committed + segment.queries() > pending.queries.size()) {
+            throw new DataGeneratorException("Cannot resume: the checkpoint logs more queries for batch " + generator.completedBatches() +
+                    " than generating it again produced");
+        }
+        List<GeneratedInsert> queries = pending.queries.subList(pending.committed, pending.committed + segment.queries());
+        verifyReplay(queries, segment);
+        generator.storage().flush(segment.writes());
+        pending.insertedIds.addAll(segment.insertedIds());
+        pending.committed += segment.queries();
+        if (pending.isCommitted()) {
+            generator.storage().releaseClaims(pending.batch.claims());
+            resumedBatches.remove(0);
+            generator.batchCompleted();
+        }
+    }
+
+    /**
+     * Catch a log being replayed with a different definition or settings, by checking that the queries generated
+     * again for a segment, given the logged ids, make exactly the logged storage updates: the same concepts, of the
+     * same types and values, and the same role players
+     */
+    private void verifyReplay(List<GeneratedInsert> queries, BatchSegment segment) {
+        ConceptStorageBatch generated = new ConceptStorageBatch();
+        for (int i = 0; i < queries.size(); i++) {
+            BatchGenerator.recordInsertions(queries.get(i), segment.insertedIds().get(i), generated);
+        }
+        ConceptStorageBatch logged = segment.writes();
+
+        List<String> generatedConcepts = new ArrayList<>();
+        generated.concepts().forEach(concept -> generatedConcepts.add(describe(concept)));
+        List<String> loggedConcepts = new ArrayList<>();
+        logged.concepts().forEach(concept -> loggedConcepts.add(describe(concept)));
+        verifyReplay(generatedConcepts, loggedConcepts);
+
+        List<String> generatedRolePlayers = new ArrayList<>();
+        generated.rolePlayers().forEach(rolePlayer -> generatedRolePlayers.add(describe(rolePlayer)));
+        List<String> loggedRolePlayers = new ArrayList<>();
+        logged.rolePlayers().forEach(rolePlayer -> loggedRolePlayers.add(describe(rolePlayer)));
+        verifyReplay(generatedRolePlayers, loggedRolePlayers);
+    }
+
+    private void verifyReplay(List<String> generated, List<String> logged) {
+        for (int i = 0; i < Math.max(generated.size(), logged.size()); i++) {
+            String generatedWrite = (i < generated.size()) ? generated.get(i) : "nothing";
+            String loggedWrite = (i < logged.size()) ? logged.get(i) : "nothing";
+            if (!generatedWrite.equals(loggedWrite)) {
+                throw new DataGeneratorException("Cannot resume: batch " + generator.completedBatches() + " of the checkpoint inserted " + loggedWrite +
+                        ", but generating it again inserted " + generatedWrite);
+            }
+        }
+    }
+
+    private static String describe(ConceptStorageBatch.InsertedConcept concept) {
+        String value = (concept.value() == null) ? "" : " " + concept.value().getClass().getSimpleName() + " " + concept.value();
+        return concept.typeLabel() + value + " " + concept.conceptId();
+    }
+
+    private static String describe(ConceptStorageBatch.RolePlayer rolePlayer) {
+        return rolePlayer.conceptType() + " " + rolePlayer.conceptId() + " as " + rolePlayer.role() + " in " + rolePlayer.relationshipType();
+    }
+
+    /**
+     * Whether the transaction that logged some segments committed, judged by whether the first concept they
+     * inserted is in the keyspace. Segments that inserted nothing are taken as committed, as executing their
+     * queries again would insert nothing either.
+     */
+    boolean wasCommitted(List<BatchSegment> segments) {
+        ConceptId inserted = null;
+        for (BatchSegment segment : segments) {
+            if (inserted == null && !segment.writes().concepts().isEmpty()) {
+                inserted = segment.writes().concepts().get(0).conceptId();
+            }
+        }
+        if (inserted == null) {
+            return true;
+        }
+        GraknClient.Session session = client.session(keyspace);
+        try (GraknClient.Transaction tx = session.transaction().read()) {
+            boolean committed = (tx.getConcept(inserted) != null);
+            LOG.info("The last transaction logged by the checkpointed run " + (committed ? "did" : "did not") + " commit");
+            return committed;
+        } finally {
+            session.close();
+        }
+    }
+}
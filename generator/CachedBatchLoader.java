@@ -0,0 +1,109 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator;
+
+import grakn.benchmark.generator.checkpoint.BatchSegment;
+import grakn.benchmark.generator.checkpoint.GenerationCheckpoint;
+import grakn.benchmark.generator.dataset.DatasetCache;
+import grakn.benchmark.generator.dataset.DatasetInsert;
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.client.GraknClient;
+import grakn.core.concept.ConceptId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Executes cached batches as they are read, committing several to each transaction, for DataGenerator.load.
+ * Storage and the definition only catch up with a transaction once it has committed, when its batches are replayed.
+ */
+class CachedBatchLoader implements Consumer<List<DatasetInsert>>, AutoCloseable {
+    private static final int LOAD_BATCHES_PER_TRANSACTION = 20;
+
+    private final GraknClient.Session session;
+    private final BatchGenerator generator;
+    private final BatchReplay replay;
+    private final DatasetCache datasetCache;
+    private final GenerationCheckpoint checkpoint;
+    private final List<BatchSegment> uncommitted;
+    private GraknClient.Transaction tx;
+
+    /**
+     * @param checkpoint where to checkpoint the loaded batches, or null not to
+     */
+    CachedBatchLoader(GraknClient.Session session, BatchGenerator generator, BatchReplay replay, DatasetCache datasetCache,
+                      GenerationCheckpoint checkpoint) {
+        this.session = session;
+        this.generator = generator;
+        this.replay = replay;
+        this.datasetCache = datasetCache;
+        this.checkpoint = checkpoint;
+        this.uncommitted = new ArrayList<>(LOAD_BATCHES_PER_TRANSACTION);
+        this.tx = null;
+    }
+
+    @Override
+    public void accept(List<DatasetInsert> cachedBatch) {
+        if (tx == null) {
+            tx = session.transaction().write();
+        }
+        ConceptStorageBatch batch = new ConceptStorageBatch();
+        List<List<ConceptId>> batchIds = new ArrayList<>(cachedBatch.size());
+        for (DatasetInsert cached : cachedBatch) {
+            GeneratedInsert insert = datasetCache.bind(cached);
+            List<ConceptId> insertedIds = insert.insertedIds(tx.execute(insert.query()));
+            datasetCache.loaded(cached, insertedIds);
+            BatchGenerator.recordInsertions(insert, insertedIds, batch);
+            batchIds.add(insertedIds);
+        }
+        // each cached batch is generated again, and wholly committed, before the next
+        uncommitted.add(new BatchSegment(generator.generatedBatches() + uncommitted.size() + 1, batchIds, batch));
+        if (uncommitted.size() == LOAD_BATCHES_PER_TRANSACTION) {
+            commit();
+        }
+    }
+
+    void commit() {
+        if (tx == null) {
+            return;
+        }
+        if (checkpoint != null) {
+            uncommitted.forEach(checkpoint::logged);
+        }
+        tx.commit();
+        close();
+        uncommitted.forEach(replay::replay);
+        if (checkpoint != null) {
+            checkpoint.committed(generator.storage().getGraphScale());
+        }
+        uncommitted.clear();
+        generator.printProgress(generator.completedBatches() - 1);
+    }
+
+    @Override
+    public void close() {
+        if (tx != null) {
+            tx.close();
+            tx = null;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator;
+
+import grakn.benchmark.generator.checkpoint.GenerationCheckpoint;
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.client.GraknClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * One or more writer threads, each with its own session, that each generate a batch, commit it and flush it to
+ * storage in turn. Batches are drawn from the shared BatchGenerator one at a time, so the storage must be safe
+ * to share between several writers (see SynchronizedConceptStorage).
+ * <p>
+ * A single writer commits batches in the order they were generated, so only a single writer can checkpoint, and
+ * finish the batches a resumed run had not wholly committed.
+ */
+class ConcurrentGeneration implements GenerationMode {
+    private final GraknClient client;
+    private final String keyspace;
+    private final int threads;
+    private final BatchGenerator generator;
+    private final Function<GraknClient.Session, TransactionWriter> writers;
+    private final GenerationCheckpoint checkpoint;
+    private final List<PendingBatch> resumedBatches;
+
+    /**
+     * @param writers        creates the writer of a session
+     * @param checkpoint     where to mark each transaction committed, or null not to
+     * @param resumedBatches batches a resumed run generated again but had not wholly committed, to be finished first
+     */
+    ConcurrentGeneration(GraknClient client, String keyspace, int threads, BatchGenerator generator,
+                         Function<GraknClient.Session, TransactionWriter> writers, GenerationCheckpoint checkpoint,
+                         List<PendingBatch> resumedBatches) {
+        this.client = client;
+        this.keyspace = keyspace;
+        this.threads = threads;
+        this.generator = generator;
+        this.writers = writers;
+        this.checkpoint = checkpoint;
+        this.resumedBatches = resumedBatches;
+    }
+
+    @Override
+    public void generate(int graphScaleLimit) {
+        if (threads == 1) {
+            generateWithSession(graphScaleLimit);
+            return;
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Future<?>> writerThreads = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            writerThreads.add(executorService.submit(() -> generateWithSession(graphScaleLimit)));
+        }
+        try {
+            for (Future<?> writer : writerThreads) {
+                writer.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataGeneratorException("Interrupted while generating data", e);
+        } catch (ExecutionException e) {
+            throw new DataGeneratorException("Data generation failed in a writer thread", e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Write batches in a session of this thread's own until the graph reaches the target scale
+     */
+    private void generateWithSession(int graphScaleLimit) {
+        GraknClient.Session session = client.session(keyspace);
+        TransactionWriter writer = writers.apply(session);
+        // only a single writer can resume, so there is no other writer to share these with
+        writer.open.addAll(resumedBatches);
+        resumedBatches.clear();
+        BatchSource source = block -> {
+            ConceptStorageBatch batch = new ConceptStorageBatch();
+            List<GeneratedInsert> queries = generator.reservations().reserveNextBatch(graphScaleLimit, batch, block);
+            return (queries == null) ? null : new PendingBatch(queries, batch);
+        };
+        try {
+            while (true) {
+                List<Segment> segments = writer.commitNext(source);
+                if (segments.isEmpty()) {
+                    break;
+                }
+                for (Segment segment : segments) {
+                    generator.flush(segment);
+                }
+                if (checkpoint != null) {
+                    checkpoint.committed(generator.storage().getGraphScale());
+                }
+            }
+        } catch (RuntimeException e) {
+            // none of the role players chosen for the uncommitted queries will be recorded as inserted
+            writer.abandon();
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -18,158 +18,166 @@
 
 package grakn.benchmark.generator;
 
+import grakn.benchmark.generator.checkpoint.GenerationCheckpoint;
+import grakn.benchmark.generator.dataset.DatasetCache;
 import grakn.benchmark.generator.query.QueryProvider;
 import grakn.benchmark.generator.storage.ConceptStorage;
-import grakn.benchmark.common.analysis.InsertQueryAnalyser;
 import grakn.client.GraknClient;
-import grakn.core.concept.Concept;
-import grakn.core.concept.answer.ConceptMap;
-import graql.lang.query.GraqlInsert;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Entry point for Generator.
  * This class is in charge of populating a keyspace executing insert queries provided by schema
  * specific data generators.
  * While populating a keyspace it also updates local storage to keep track of what's already
- * in the current graph.
+ * in the current graph. Storage is only updated once the transaction containing the insertions has committed.
+ * <p>
+ * Several writer threads may be used, each with its own session. Batches of queries are drawn from the
+ * shared QueryProvider one at a time, so the storage must be safe to share (see SynchronizedConceptStorage).
+ * Each batch reserves the scale it may add before it is generated, so that the writers stop together at the target.
+ * <p>
+ * Alternatively a single writer can be pipelined: one thread generates batches, one executes them against Grakn,
+ * and one applies the resulting storage updates, connected by bounded queues. This also requires shared storage.
+ * <p>
+ * A single, unpipelined writer can checkpoint its progress, so that a failed run can be resumed (see resume),
+ * and can cache the dataset it generates, so that a later run can load it instead (see load).
+ * <p>
+ * A TransactionSizer tunes how many inserts each transaction commits, splitting a batch across several transactions
+ * or combining consecutive batches into one. Storage and checkpoints are updated as each transaction commits. It
+ * cannot be combined with a dataset cache, as a combined transaction generates a batch before the one ahead of it
+ * is flushed, which loading the dataset could not reproduce.
+ * <p>
+ * Without a Grakn client, generation runs offline: batches are written to the dataset cache only, for a
+ * BulkLoader to insert later, and inserted concepts are given placeholder ids.
  */
 public class DataGenerator {
     private static final Logger LOG = LoggerFactory.getLogger(DataGenerator.class);
 
     private final GraknClient client;
     private final String keyspace;
-    private final String dataGenerator;
-    private final QueryProvider queryProvider;
-    private final ConceptStorage storage;
-
-    private int iteration;
+    private final GenerationCheckpoint checkpoint;
+    private final DatasetCache datasetCache;
 
+    private final BatchGenerator generator;
+    private final BatchReplay replay;
+    private final RelationInsertStats relationInsertStats = new RelationInsertStats();
+    private final GenerationMode mode;
 
     public DataGenerator(GraknClient client, String keyspace, ConceptStorage storage, String dataGenerator, QueryProvider queryProvider) {
+        this(client, keyspace, storage, dataGenerator, queryProvider, 1, false, null, null, null);
+    }
+
+    /**
+     * Combinations of these that cannot work together are rejected by BenchmarkConfiguration.
+     *
+     * @param client           where to generate data, or null to generate offline into the dataset cache only
+     * @param checkpoint       where to checkpoint committed batches, or null not to
+     * @param datasetCache     where to cache the generated dataset, and load it from, or null not to
+     * @param transactionSizer how many inserts to commit per transaction, or null to commit each batch in one
+     */
+    public DataGenerator(GraknClient client, String keyspace, ConceptStorage storage, String dataGenerator, QueryProvider queryProvider,
+                         int threads, boolean pipelined, GenerationCheckpoint checkpoint, DatasetCache datasetCache,
+                         TransactionSizer transactionSizer) {
         this.client = client;
         this.keyspace = keyspace;
-        this.dataGenerator = dataGenerator;
-        this.queryProvider = queryProvider;
-        this.iteration = 0;
-        this.storage = storage;
+        this.checkpoint = checkpoint;
+        this.datasetCache = datasetCache;
+        this.generator = new BatchGenerator(dataGenerator, queryProvider, storage, datasetCache);
+        this.replay = new BatchReplay(client, keyspace, generator);
+
+        Function<GraknClient.Session, TransactionWriter> writers =
+                session -> new TransactionWriter(session, generator, transactionSizer, checkpoint, relationInsertStats);
+        if (client == null) {
+            this.mode = new OfflineGeneration(generator, datasetCache);
+        } else if (pipelined) {
+            this.mode = new PipelinedGeneration(client, keyspace, generator, writers);
+        } else {
+            this.mode = new ConcurrentGeneration(client, keyspace, threads, generator, writers, checkpoint, replay.resumedBatches());
+        }
     }
 
     /**
-     * This method can be called multiple times, with a higher numConceptsLimit each time, so that the generation can be
-     * effectively paused while benchmarking takes place
+     * Continue a checkpointed run, against the keyspace it was generating into. Must be called before generate.
+     * <p>
+     * Each logged batch is generated again, without executing it, and the storage updates logged when its segments
+     * were committed are applied in its place. Generation depends only on the state of the definition's random number
+     * generator, PDFs and providers, and on the storage, so this brings all of them back to where they were after
+     * the last logged segment, without any of them having to be written out. It also rebuilds storage, whatever
+     * its backend, from scratch. Queries of batches that were generated but not wholly committed are executed first
+     * when generation continues.
+     * <p>
+     * Segments logged by a transaction that the run died before marking committed are replayed if the keyspace
+     * holds what they inserted, and dropped otherwise, so that their queries are executed again.
      *
-     * @param graphScaleLimit
+     * @return the graph scale reached by the checkpointed run
      */
-    public void generate(int graphScaleLimit) {
+    public int resume() {
+        if (checkpoint == null) {
+            throw new DataGeneratorException("Cannot resume data generation without a checkpoint");
+        }
+        int replayed = checkpoint.replay(replay::replay, replay::wasCommitted);
+        for (PendingBatch pending : replay.resumedBatches()) {
+            generator.reservations().reserve(pending.queries);
+        }
+        int graphScale = generator.storage().getGraphScale();
+        checkpoint.checkpoint(graphScale);
+        LOG.info("Replayed " + replayed + " segments, resuming generation at graph scale " + graphScale);
+        return graphScale;
+    }
 
+    /**
+     * Load the graph at a scale from the dataset cache, rather than generate it. Must be called before generate,
+     * and may be called again for each larger scale the cache holds.
+     * <p>
+     * The cached queries are executed again, several batches to a transaction, with role players bound to the ids
+     * their concepts were given in this keyspace. Each batch is then replayed as in resume, which fills storage from
+     * the answers and brings the definition to where it was when the batch was generated, so that generation can
+     * carry on past the cached scales.
+     *
+     * @return the graph scale reached
+     */
+    public int load(int scale) {
+        if (datasetCache == null || client == null) {
+            throw new DataGeneratorException("Cannot load data without a dataset cache and a keyspace to load it into");
+        }
+        ConceptStorage storage = generator.storage();
         GraknClient.Session session = client.session(keyspace);
-
-        while (storage.getGraphScale() < graphScaleLimit) {
-            try (GraknClient.Transaction tx = session.transaction().write()) {
-
-                // create the stream of insert/match-insert queries
-                Iterator<GraqlInsert> queryStream = queryProvider.nextQueryBatch();
-
-                // execute & parse the results
-                processQueryStream(queryStream, tx);
-
-                printProgress();
-                tx.commit();
-            }
-            iteration++;
+        CachedBatchLoader loader = new CachedBatchLoader(session, generator, replay, datasetCache, checkpoint);
+        try {
+            int loaded = datasetCache.load(scale, loader);
+            loader.commit();
+            LOG.info("Loaded " + loaded + " cached batches, reaching graph scale " + storage.getGraphScale());
+        } finally {
+            loader.close();
+            session.close();
+        }
+        if (checkpoint != null) {
+            checkpoint.checkpoint(storage.getGraphScale());
         }
-
-        session.close();
         System.out.print("\n");
+        return storage.getGraphScale();
     }
 
-    private void processQueryStream(Iterator<GraqlInsert> queryIterator, GraknClient.Transaction tx) {
-        /*
-        Make the data insertions from the stream of queries generated
-         */
-        queryIterator.forEachRemaining(q -> {
-
-            List<ConceptMap> insertions = tx.execute(q);
-            HashSet<Concept> insertedConcepts = InsertQueryAnalyser.getInsertedConcepts(q, insertions);
-
-            insertedConcepts.forEach(storage::addConcept);
-
-            // check if we have to update any roles by first checking if any relationships added
-            String relationshipAdded = InsertQueryAnalyser.getRelationshipTypeLabel(q);
-            if (relationshipAdded != null) {
-                Map<String, List<Concept>> rolePlayersAdded = InsertQueryAnalyser.getRolePlayersAndRoles(q, insertions);
-
-                rolePlayersAdded.forEach((roleName, conceptList) -> {
-                    conceptList.forEach(concept -> {
-                        String rolePlayerId = concept.id().toString();
-                        String rolePlayerTypeLabel = concept.asThing().type().label().toString();
-                        storage.addRolePlayer(rolePlayerId, rolePlayerTypeLabel, relationshipAdded, roleName);
-                    });
-                });
-            }
-        });
-    }
-
-
-    private void printProgress() {
-        int graphScale = storage.getGraphScale();
-        int totalRolePlayers = this.storage.totalRolePlayers();
-        int explicitRolePlayers = this.storage.totalExplicitRolePlayers();
-        // this should actually == number of implicit relationships!
-        int attributeOwners = (totalRolePlayers - explicitRolePlayers) / 2;
-
-        int entities = this.storage.totalEntities();
-        int explicitRelationships = this.storage.totalExplicitRelationships();
-        int attributes = this.storage.totalAttributes();
-
-        int implicitRelationships = this.storage.totalImplicitRelationships();
-
-
-        int orphanEntities = this.storage.totalOrphanEntities();
-        int orphanAttrs = this.storage.totalOrphanAttributes();
-        int relDoubleCounts = this.storage.totalRelationshipsRolePlayersOverlap();
-
-
-        // first order statistics
-        double meanInDegree = ((float) explicitRolePlayers) / graphScale;
-        double meanRolePlayersPerRelationship = ((float) explicitRolePlayers) / explicitRelationships;
-        double meanAttributeOwners = ((float) attributeOwners) / attributes;
-        double proportionEntities = ((float) entities) / graphScale;
-        double proportionRelationships = ((float) explicitRelationships) / graphScale;
-        double proportionAttributes = ((float) attributes) / graphScale;
-
-        // our own density measure
-        // compute how many connections (ie role players) there would be if everyone were fully connected to everything
-        double maxPossibleConnections = attributes * graphScale + explicitRelationships * graphScale;
-        double density = ((float) totalRolePlayers) / maxPossibleConnections;
-
-
-        // print info to console on one self-erasing line
-        System.out.print("\r");
-        System.out.print(String.format("[%d] %s Scale: %d\t(%f Deg_Cin, %f Deg_Rout, %f Deg_Aout)\t(%d, %d, %d, %d) Entity/Expl Rel/Impl Rel/Attr \t (%d EO, %d AO) \t %f density",
-                this.iteration, this.dataGenerator, graphScale, meanInDegree, meanRolePlayersPerRelationship, meanAttributeOwners,
-                entities, explicitRelationships, implicitRelationships, attributes,
-                orphanEntities, orphanAttrs, density));
-
-        // write to log verbosely in DEBUG that it doesn't overwrite
-        LOG.debug(String.format("----- Iteration %d [%s] ----- ", this.iteration, this.dataGenerator));
-//        LOG.debug(String.format(">> Generating instances of concept type \"%s\"", generatedTypeLabel));
-        LOG.debug(String.format(">> %d - Scale", graphScale));
-        LOG.debug(String.format(">> %d, %d, %d, %d - entity, explicit rels, implicit rels, attributes", entities, explicitRelationships, implicitRelationships, attributes));
-        LOG.debug(String.format(">> %d, %d - entity orphans, attribute orphans ", orphanEntities, orphanAttrs));
-        LOG.debug(String.format(">> %d - Total relationship double counts", relDoubleCounts));
-        LOG.debug(String.format(">> %f, %f, %f - mean Deg_Cin, mean Deg_Rout, mean Deg_Aout",
-                meanInDegree, meanRolePlayersPerRelationship, meanAttributeOwners));
-        LOG.debug(String.format(">> %f, %f %f - proportion entities, relationships, attributes",
-                proportionEntities, proportionRelationships, proportionAttributes));
-        LOG.debug(String.format(">> %f - custom density", density));
+    /**
+     * This method can be called multiple times, with a higher numConceptsLimit each time, so that the generation can be
+     * effectively paused while benchmarking takes place
+     *
+     * @param graphScaleLimit
+     */
+    public void generate(int graphScaleLimit) {
+        mode.generate(graphScaleLimit);
+        if (checkpoint != null) {
+            checkpoint.checkpoint(generator.storage().getGraphScale());
+        }
+        if (datasetCache != null) {
+            datasetCache.scaleReached(graphScaleLimit);
+        }
+        System.out.print("\n");
+        if (relationInsertStats.hasRelationInserts()) {
+            System.out.println(relationInsertStats);
+        }
     }
-
 }
@@ -0,0 +1,141 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator;
+
+import grakn.benchmark.common.configuration.BenchmarkConfiguration;
+import grakn.benchmark.generator.checkpoint.GenerationCheckpoint;
+import grakn.benchmark.generator.dataset.DatasetCache;
+import grakn.benchmark.generator.definition.DataGeneratorDefinition;
+import grakn.benchmark.generator.definition.DefinitionFactory;
+import grakn.benchmark.generator.query.QueryProvider;
+import grakn.benchmark.generator.storage.ConceptStorage;
+import grakn.benchmark.generator.storage.ConceptStorageFactory;
+import grakn.benchmark.generator.storage.SynchronizedConceptStorage;
+import grakn.benchmark.generator.util.SchemaFile;
+import grakn.benchmark.generator.util.SchemaManager;
+import grakn.client.GraknClient;
+import grakn.core.concept.type.AttributeType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builds a DataGenerator, and the checkpoint and dataset cache it writes to, from the benchmark configuration
+ */
+public class DataGeneratorFactory {
+    private static final Logger LOG = LoggerFactory.getLogger(DataGeneratorFactory.class);
+    private static final int RANDOM_SEED = 0;
+
+    private final BenchmarkConfiguration config;
+
+    public DataGeneratorFactory(BenchmarkConfiguration config) {
+        this.config = config;
+    }
+
+    /**
+     * Open checkpoints of the data generation into the keyspace, if configured
+     *
+     * @return the checkpoint, or null if data generation is not checkpointed
+     */
+    public GenerationCheckpoint openCheckpoint(String keyspace) {
+        if (config.checkpointDirectory() == null) {
+            return null;
+        }
+        // everything besides the logged batches that generation depends on
+        Map<String, String> settings = settings();
+        settings.put("dataGenerator", config.dataGenerator());
+        settings.put("randomSeed", Integer.toString(RANDOM_SEED));
+
+        if (config.resume()) {
+            return GenerationCheckpoint.resume(config.checkpointDirectory(), keyspace, settings, config.checkpointInterval());
+        } else {
+            return GenerationCheckpoint.start(config.checkpointDirectory(), keyspace, settings, config.checkpointInterval());
+        }
+    }
+
+    /**
+     * Open the cache of datasets generated by earlier runs, if configured
+     *
+     * @return the dataset cache, or null if datasets are not cached
+     */
+    public DatasetCache openDatasetCache() {
+        if (config.datasetCacheDirectory() == null) {
+            return null;
+        }
+        if (config.resume()) {
+            // the batches generated before resuming were not cached in order with the rest
+            LOG.warn("Not using the dataset cache while resuming data generation");
+            return null;
+        }
+        return DatasetCache.open(config.datasetCacheDirectory(), config.dataGenerator(), RANDOM_SEED, settings());
+    }
+
+    /**
+     * Connect a data generator to pre-prepared keyspace, or with no client, to generate offline from the schema file
+     *
+     * @param checkpoint   where to checkpoint committed batches, or null not to
+     * @param datasetCache where to cache the generated dataset, and load it from, or null not to
+     */
+    public DataGenerator create(GraknClient client, String keyspace, GenerationCheckpoint checkpoint, DatasetCache datasetCache) {
+        HashSet<String> entityTypeLabels;
+        HashSet<String> relationshipTypeLabels;
+        Map<String, AttributeType.DataType<?>> attributeTypeLabels;
+        if (client == null) {
+            SchemaFile schemaFile = SchemaFile.parse(config.getGraqlSchema());
+            entityTypeLabels = schemaFile.getEntityTypes();
+            relationshipTypeLabels = schemaFile.getRelationTypes();
+            attributeTypeLabels = schemaFile.getAttributeTypes();
+        } else {
+            GraknClient.Session session = client.session(keyspace);
+            SchemaManager schemaManager = new SchemaManager(session);
+            entityTypeLabels = schemaManager.getEntityTypes();
+            relationshipTypeLabels = schemaManager.getRelationTypes();
+            attributeTypeLabels = schemaManager.getAttributeTypes();
+        }
+
+        ConceptStorage storage = ConceptStorageFactory.getStorage(config.conceptStorage(), entityTypeLabels, relationshipTypeLabels, attributeTypeLabels);
+        if (config.generatorThreads() > 1 || config.pipelinedGeneration()) {
+            storage = new SynchronizedConceptStorage(storage);
+        }
+
+        String dataGenerator = config.dataGenerator();
+        DataGeneratorDefinition dataGeneratorDefinition = DefinitionFactory.getDefinition(dataGenerator, new Random(RANDOM_SEED), storage);
+        QueryProvider queryProvider = new QueryProvider(dataGeneratorDefinition, config.relationInsertMode(), config.instancesPerQuery());
+        TransactionSizer transactionSizer = (config.maxInsertsPerTransaction() == null) ? null :
+                new TransactionSizer(config.minInsertsPerTransaction(), config.maxInsertsPerTransaction());
+
+        return new DataGenerator(client, keyspace, storage, dataGenerator, queryProvider, config.generatorThreads(), config.pipelinedGeneration(),
+                checkpoint, datasetCache, transactionSizer);
+    }
+
+    /**
+     * @return the settings besides the data generator and seed that generating a dataset depends on
+     */
+    private Map<String, String> settings() {
+        Map<String, String> settings = new HashMap<>();
+        settings.put("relationInsertMode", config.relationInsertMode());
+        settings.put("instancesPerQuery", Integer.toString(config.instancesPerQuery()));
+        return settings;
+    }
+}
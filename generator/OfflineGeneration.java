@@ -0,0 +1,74 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator;
+
+import grakn.benchmark.generator.dataset.DatasetCache;
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.core.concept.ConceptId;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates batches into the dataset cache alone, without a Grakn server, as if each query had been executed and
+ * inserted concepts with new ids. The ids are placeholders, which the cache replaces with positions in the dataset,
+ * like any ids. An attribute with the same type and value as one generated before is given that one's id,
+ * as Grakn would.
+ */
+class OfflineGeneration implements GenerationMode {
+    private final BatchGenerator generator;
+    private final DatasetCache datasetCache;
+    private long placeholderIds = 0;
+    // placeholder id of each attribute generated, by type and value
+    private final Map<String, Map<Object, ConceptId>> placeholderAttributeIds = new HashMap<>();
+
+    OfflineGeneration(BatchGenerator generator, DatasetCache datasetCache) {
+        this.generator = generator;
+        this.datasetCache = datasetCache;
+    }
+
+    @Override
+    public void generate(int graphScaleLimit) {
+        while (generator.storage().getGraphScale() < graphScaleLimit) {
+            ConceptStorageBatch batch = new ConceptStorageBatch();
+            List<GeneratedInsert> queries = generator.next(batch);
+            List<List<ConceptId>> insertedIds = new ArrayList<>(queries.size());
+            for (GeneratedInsert insert : queries) {
+                List<ConceptId> ids = new ArrayList<>();
+                for (int i = 0; i < insert.template().insertedVariables().size(); i++) {
+                    Object value = insert.insertedValue(i);
+                    if (value == null) {
+                        ids.add(ConceptId.of("P" + placeholderIds++));
+                    } else {
+                        ids.add(placeholderAttributeIds.computeIfAbsent(insert.template().typeLabel(), type -> new HashMap<>())
+                                .computeIfAbsent(value, v -> ConceptId.of("P" + placeholderIds++)));
+                    }
+                }
+                BatchGenerator.recordInsertions(insert, ids, batch);
+                insertedIds.add(ids);
+            }
+            generator.storage().flush(batch);
+            datasetCache.committed(queries, insertedIds);
+            generator.printProgress(generator.batchCompleted());
+        }
+    }
+}
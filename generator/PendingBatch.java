@@ -0,0 +1,50 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator;
+
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.core.concept.ConceptId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A generated batch of queries, with how many of them have been committed, and the ids inserted by those
+ * that have been flushed to storage
+ */
+class PendingBatch {
+    static final PendingBatch END = new PendingBatch(new ArrayList<>(), new ConceptStorageBatch());
+
+    final List<GeneratedInsert> queries;
+    final ConceptStorageBatch batch;
+    final List<List<ConceptId>> insertedIds;
+    int committed;
+
+    PendingBatch(List<GeneratedInsert> queries, ConceptStorageBatch batch) {
+        this.queries = queries;
+        this.batch = batch;
+        this.insertedIds = new ArrayList<>(queries.size());
+        this.committed = 0;
+    }
+
+    boolean isCommitted() {
+        return committed == queries.size();
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator;
+
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.client.GraknClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs generation as three stages connected by bounded queues, so that building queries, waiting on Grakn and
+ * updating storage overlap: one thread generates batches, one executes them against Grakn, and one applies the
+ * resulting storage updates. The stages share the storage, so it must be safe to share (see SynchronizedConceptStorage).
+ * <p>
+ * A full queue blocks the stage feeding it, and the time each stage spends working and blocked is logged at the end
+ * to show where the pipeline stalls.
+ */
+class PipelinedGeneration implements GenerationMode {
+    private static final Logger LOG = LoggerFactory.getLogger(PipelinedGeneration.class);
+    private static final int PIPELINE_QUEUE_SIZE = 4;
+
+    private final GraknClient client;
+    private final String keyspace;
+    private final BatchGenerator generator;
+    private final Function<GraknClient.Session, TransactionWriter> writers;
+
+    /**
+     * @param writers creates the writer of a session
+     */
+    PipelinedGeneration(GraknClient client, String keyspace, BatchGenerator generator, Function<GraknClient.Session, TransactionWriter> writers) {
+        this.client = client;
+        this.keyspace = keyspace;
+        this.generator = generator;
+        this.writers = writers;
+    }
+
+    @Override
+    public void generate(int graphScaleLimit) {
+        BlockingQueue<PendingBatch> generated = new ArrayBlockingQueue<>(PIPELINE_QUEUE_SIZE);
+        BlockingQueue<Segment> executed = new ArrayBlockingQueue<>(PIPELINE_QUEUE_SIZE);
+        // committed segments the executor was interrupted before queueing, which must still reach storage
+        List<Segment> stranded = Collections.synchronizedList(new ArrayList<>());
+        StageTimer producerTimer = new StageTimer("generate queries");
+        StageTimer executorTimer = new StageTimer("execute queries");
+        StageTimer storageTimer = new StageTimer("update storage");
+
+        ExecutorService stages = Executors.newFixedThreadPool(3);
+        CompletionService<Void> completion = new ExecutorCompletionService<>(stages);
+
+        completion.submit(() -> {
+            while (true) {
+                long start = System.nanoTime();
+                ConceptStorageBatch batch = new ConceptStorageBatch();
+                // batches reserve scale until flushed, so the producer stops at the target rather than queue depth past it
+                List<GeneratedInsert> queries = generator.reservations().reserveNextBatch(graphScaleLimit, batch, true);
+                if (queries == null) {
+                    break;
+                }
+                PendingBatch pending = new PendingBatch(queries, batch);
+                producerTimer.working(start);
+
+                start = System.nanoTime();
+                generated.put(pending);
+                producerTimer.blocked(start);
+            }
+            generated.put(PendingBatch.END);
+            return null;
+        });
+
+        completion.submit(() -> {
+            GraknClient.Session session = client.session(keyspace);
+            TransactionWriter writer = writers.apply(session);
+            // only waits for a batch when the writer has nothing else to commit, otherwise takes what is queued
+            BatchSource queued = new BatchSource() {
+                private boolean ended = false;
+
+                @Override
+                public PendingBatch next(boolean block) {
+                    if (ended) {
+                        return null;
+                    }
+                    long start = System.nanoTime();
+                    PendingBatch pending;
+                    try {
+                        pending = block ? generated.take() : generated.poll();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new DataGeneratorException("Interrupted while generating data", e);
+                    }
+                    executorTimer.blocked(start);
+                    ended = (pending == PendingBatch.END);
+                    return ended ? null : pending;
+                }
+            };
+            try {
+                while (true) {
+                    long start = System.nanoTime();
+                    long blockedBefore = executorTimer.blockedNanos;
+                    List<Segment> segments = writer.commitNext(queued);
+                    executorTimer.working(start, executorTimer.blockedNanos - blockedBefore);
+                    if (segments.isEmpty()) {
+                        break;
+                    }
+
+                    for (Segment segment : segments) {
+                        start = System.nanoTime();
+                        try {
+                            executed.put(segment);
+                        } catch (InterruptedException e) {
+                            stranded.addAll(segments.subList(segments.indexOf(segment), segments.size()));
+                            throw e;
+                        }
+                        executorTimer.blocked(start);
+                    }
+                }
+            } catch (Exception e) {
+                writer.abandon();
+                throw e;
+            } finally {
+                session.close();
+            }
+            executed.put(Segment.END);
+            return null;
+        });
+
+        completion.submit(() -> {
+            while (true) {
+                long start = System.nanoTime();
+                Segment segment = executed.take();
+                storageTimer.blocked(start);
+                if (segment == Segment.END) {
+                    break;
+                }
+
+                start = System.nanoTime();
+                generator.flush(segment);
+                storageTimer.working(start);
+            }
+            return null;
+        });
+
+        try {
+            for (int i = 0; i < 3; i++) {
+                completion.take().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataGeneratorException("Interrupted while generating data", e);
+        } catch (ExecutionException e) {
+            throw new DataGeneratorException("Pipelined data generation failed", e.getCause());
+        } finally {
+            // unblock the other stages if one of them failed, and wait for them to stop before draining their queues
+            stages.shutdownNow();
+            awaitTermination(stages);
+            // segments committed to Grakn but not yet flushed must still reach storage, or it falls behind the keyspace
+            stranded.addAll(executed);
+            for (Segment segment : stranded) {
+                if (segment != Segment.END) {
+                    try {
+                        generator.flush(segment);
+                    } catch (RuntimeException e) {
+                        LOG.error("Failed to flush a committed segment to storage after pipelined generation stopped", e);
+                    }
+                }
+            }
+            for (PendingBatch pending : generated) {
+                if (pending != PendingBatch.END) {
+                    generator.abandon(pending);
+                }
+            }
+        }
+
+        LOG.info(producerTimer.toString());
+        LOG.info(executorTimer.toString());
+        LOG.info(storageTimer.toString());
+    }
+
+    private static void awaitTermination(ExecutorService stages) {
+        try {
+            if (!stages.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOG.warn("Pipeline stages did not stop within a minute of generation ending");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Time a pipeline stage spends doing its own work, and blocked waiting on its neighbours
+     */
+    private static class StageTimer {
+        private final String stage;
+        private long workingNanos = 0;
+        private long blockedNanos = 0;
+
+        StageTimer(String stage) {
+            this.stage = stage;
+        }
+
+        void working(long startNanos) {
+            working(startNanos, 0);
+        }
+
+        /**
+         * @param excludedNanos time within the interval already counted as blocked
+         */
+        void working(long startNanos, long excludedNanos) {
+            workingNanos += System.nanoTime() - startNanos - excludedNanos;
+        }
+
+        void blocked(long startNanos) {
+            blockedNanos += System.nanoTime() - startNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Pipeline stage [%s]: %d ms working, %d ms blocked on queues", stage,
+                    TimeUnit.NANOSECONDS.toMillis(workingNanos), TimeUnit.NANOSECONDS.toMillis(blockedNanos));
+        }
+    }
+}
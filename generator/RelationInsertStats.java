@@ -0,0 +1,67 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator;
+
+import grakn.benchmark.generator.query.GeneratedInsert;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of transactions inserting relationships, split by whether role players were bound with a
+ * match clause or by id in a pure insert, so the two ways of writing the queries can be compared
+ */
+class RelationInsertStats {
+    private long matchInserts = 0;
+    private long matchInsertNanos = 0;
+    private long idInserts = 0;
+    private long idInsertNanos = 0;
+
+    /**
+     * @param queries committed queries of one batch; batches come from a single strategy, so either all or none insert relationships
+     * @param nanos   their share of the time taken to execute and commit the transaction
+     */
+    synchronized void record(List<GeneratedInsert> queries, long nanos) {
+        if (queries.isEmpty() || queries.get(0).template().relationshipType() == null) {
+            return;
+        }
+        if (queries.get(0).template().isIdInsert()) {
+            idInserts += queries.size();
+            idInsertNanos += nanos;
+        } else {
+            matchInserts += queries.size();
+            matchInsertNanos += nanos;
+        }
+    }
+
+    synchronized boolean hasRelationInserts() {
+        return matchInserts + idInserts > 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Relationship inserts: match-insert %d in %d ms (%.1f/s) | id-insert %d in %d ms (%.1f/s)",
+                matchInserts, TimeUnit.NANOSECONDS.toMillis(matchInsertNanos), perSecond(matchInserts, matchInsertNanos),
+                idInserts, TimeUnit.NANOSECONDS.toMillis(idInsertNanos), perSecond(idInserts, idInsertNanos));
+    }
+
+    private static double perSecond(long inserts, long nanos) {
+        return (nanos == 0) ? 0.0 : inserts * 1e9 / nanos;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator;
+
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+
+import java.util.List;
+
+/**
+ * Graph scale that batches have been generated for, but not yet wholly flushed to storage. Writers only generate
+ * another batch while the storage's scale plus these reservations is below the target, so that writers racing
+ * each other do not overshoot it. A writer that finds the target reserved waits for the outstanding batches
+ * to be flushed or fail, rather than stop, in case they insert less than was reserved.
+ */
+class ScaleReservations {
+    private final BatchGenerator generator;
+    private int reserved = 0;
+
+    ScaleReservations(BatchGenerator generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * @param wait whether to wait for outstanding batches when the target is reserved, rather than return null
+     * @return the next batch of queries, or null once the target scale has been reached
+     */
+    synchronized List<GeneratedInsert> reserveNextBatch(int graphScaleLimit, ConceptStorageBatch batch, boolean wait) {
+        while (generator.storage().getGraphScale() + reserved >= graphScaleLimit) {
+            if (reserved == 0 || !wait) {
+                return null;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DataGeneratorException("Interrupted while generating data", e);
+            }
+        }
+        List<GeneratedInsert> queries = generator.next(batch);
+        reserved += scaleOf(queries);
+        return queries;
+    }
+
+    /**
+     * Reserve the scale of a batch that was generated without a reservation, when resuming
+     */
+    synchronized void reserve(List<GeneratedInsert> queries) {
+        reserved += scaleOf(queries);
+    }
+
+    /**
+     * Release a batch's reservation once it has been flushed to storage, or has failed
+     */
+    synchronized void release(List<GeneratedInsert> queries) {
+        reserved -= scaleOf(queries);
+        notifyAll();
+    }
+
+    /**
+     * The most a batch can add to the graph scale, if each query inserts its variables once. Attributes
+     * that already exist, and match-inserts that match nothing, add less.
+     */
+    private int scaleOf(List<GeneratedInsert> queries) {
+        int scale = 0;
+        for (GeneratedInsert insert : queries) {
+            scale += insert.template().insertedVariables().size();
+        }
+        return scale;
+    }
+}
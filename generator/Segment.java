@@ -0,0 +1,57 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator;
+
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.core.concept.ConceptId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The queries of one batch committed by a transaction, from index from up to to, with what they inserted
+ */
+class Segment {
+    static final Segment END = new Segment(PendingBatch.END, 0, 0);
+
+    final PendingBatch pending;
+    final int from;
+    final int to;
+    final List<List<ConceptId>> insertedIds;
+    final ConceptStorageBatch writes;
+    // batches generated in total by the time the segment committed, for replaying the checkpoint
+    int batchesGenerated;
+
+    Segment(PendingBatch pending, int from, int to) {
+        this.pending = pending;
+        this.from = from;
+        this.to = to;
+        this.insertedIds = new ArrayList<>(to - from);
+        this.writes = new ConceptStorageBatch();
+    }
+
+    List<GeneratedInsert> queries() {
+        return pending.queries.subList(from, to);
+    }
+
+    boolean completesBatch() {
+        return to == pending.queries.size();
+    }
+}
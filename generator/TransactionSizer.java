@@ -0,0 +1,125 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses how many insert queries the data generator commits per transaction, independently of how many
+ * queries each sampled strategy generates. A batch larger than the chosen size is split across several transactions,
+ * and smaller batches are combined.
+ * <p>
+ * The size is tuned by hill climbing on throughput: after every few transactions at the current size, the mean
+ * time per insert is compared with that of the previous size, and the size keeps moving, doubling or halving, in
+ * the same direction if it improved, or turns back if it did not. Commits that would take longer than
+ * MAX_COMMIT_MILLIS for a full transaction, at the window's mean commit time per insert, always shrink the size.
+ * Transactions that could not be filled, because no more queries were ready, count in proportion to their inserts.
+ */
+public class TransactionSizer {
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionSizer.class);
+
+    private static final int INITIAL_SIZE = 32;
+    private static final int WINDOW = 5;
+    private static final double STEP = 2.0;
+    private static final long MAX_COMMIT_MILLIS = 5000;
+
+    private final int min;
+    private final int max;
+    private int size;
+    private int direction;
+    private double previousNanosPerInsert;
+
+    private int windowTransactions;
+    private long windowInserts;
+    private long windowNanos;
+    private long windowCommitNanos;
+
+    /**
+     * @param min fewest inserts to commit per transaction, unless a strategy generates fewer
+     * @param max most inserts to commit per transaction
+     */
+    public TransactionSizer(int min, int max) {
+        if (min < 1 || max < min) {
+            throw new DataGeneratorException("Inserts per transaction must be bounded by 1 <= min <= max, got " + min + " and " + max);
+        }
+        this.min = min;
+        this.max = max;
+        this.size = Math.max(min, Math.min(max, INITIAL_SIZE));
+        this.direction = 1;
+        this.previousNanosPerInsert = Double.NaN;
+        resetWindow();
+    }
+
+    /**
+     * @return how many inserts to commit in the next transaction
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Record a committed transaction
+     *
+     * @param inserts     number of insert queries it executed
+     * @param nanos       time from opening it to the end of its commit
+     * @param commitNanos time taken by its commit alone
+     */
+    public synchronized void committed(int inserts, long nanos, long commitNanos) {
+        LOG.debug(String.format("Committed %d inserts (size %d) in %d ms, of which commit %d ms", inserts, size,
+                TimeUnit.NANOSECONDS.toMillis(nanos), TimeUnit.NANOSECONDS.toMillis(commitNanos)));
+        if (inserts == 0) {
+            return;
+        }
+        windowTransactions++;
+        windowInserts += inserts;
+        windowNanos += nanos;
+        windowCommitNanos += commitNanos;
+        if (windowTransactions < WINDOW) {
+            return;
+        }
+
+        double nanosPerInsert = windowNanos / (double) windowInserts;
+        // normalised to a full transaction, as some in the window may not have been filled
+        long meanCommitMillis = TimeUnit.NANOSECONDS.toMillis(windowCommitNanos * size / windowInserts);
+        if (meanCommitMillis > MAX_COMMIT_MILLIS) {
+            direction = -1;
+        } else if (!Double.isNaN(previousNanosPerInsert) && nanosPerInsert > previousNanosPerInsert) {
+            // the last step made inserting slower
+            direction = -direction;
+        }
+        previousNanosPerInsert = nanosPerInsert;
+
+        int next = (direction > 0) ? (int) Math.ceil(size * STEP) : (int) Math.floor(size / STEP);
+        next = Math.max(min, Math.min(max, next));
+        LOG.info(String.format("Inserts per transaction: %d -> %d (%.1f inserts/s, mean commit %d ms over %d transactions)",
+                size, next, 1e9 / nanosPerInsert, meanCommitMillis, windowTransactions));
+        size = next;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        windowTransactions = 0;
+        windowInserts = 0;
+        windowNanos = 0;
+        windowCommitNanos = 0;
+    }
+}
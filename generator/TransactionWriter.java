@@ -0,0 +1,138 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator;
+
+import grakn.benchmark.generator.checkpoint.BatchSegment;
+import grakn.benchmark.generator.checkpoint.GenerationCheckpoint;
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.client.GraknClient;
+import grakn.core.concept.ConceptId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Commits the queries of consecutive batches, as many to each transaction as the transaction sizer chooses, or
+ * one batch to each without a sizer. Batches are committed in the order they were drawn, and those started
+ * but not wholly committed are kept open until a later transaction commits the rest of them.
+ */
+class TransactionWriter {
+    private final GraknClient.Session session;
+    private final BatchGenerator generator;
+    private final TransactionSizer transactionSizer;
+    private final GenerationCheckpoint checkpoint;
+    private final RelationInsertStats relationInsertStats;
+    final List<PendingBatch> open;
+
+    /**
+     * @param transactionSizer how many inserts to commit per transaction, or null to commit each batch in one
+     * @param checkpoint       where to log segments ahead of committing them, or null not to
+     */
+    TransactionWriter(GraknClient.Session session, BatchGenerator generator, TransactionSizer transactionSizer,
+                      GenerationCheckpoint checkpoint, RelationInsertStats relationInsertStats) {
+        this.session = session;
+        this.generator = generator;
+        this.transactionSizer = transactionSizer;
+        this.checkpoint = checkpoint;
+        this.relationInsertStats = relationInsertStats;
+        this.open = new ArrayList<>();
+    }
+
+    /**
+     * Commit one transaction, continuing the open batches, and drawing more while it has room for them.
+     * Only when no batch is open does it wait for the source.
+     *
+     * @return the segments the transaction committed, in order, or none once the source has run out
+     */
+    List<Segment> commitNext(BatchSource source) {
+        if (open.isEmpty()) {
+            PendingBatch first = source.next(true);
+            if (first == null) {
+                return Collections.emptyList();
+            }
+            open.add(first);
+        }
+
+        PendingBatch first = open.get(0);
+        int size = (transactionSizer == null) ? first.queries.size() - first.committed : transactionSizer.size();
+        List<Segment> segments = new ArrayList<>();
+        int inserts = 0;
+        for (int i = 0; ; i++) {
+            if (i == open.size()) {
+                PendingBatch next = (transactionSizer == null) ? null : source.next(false);
+                if (next == null) {
+                    break;
+                }
+                open.add(next);
+            }
+            PendingBatch pending = open.get(i);
+            int to = Math.min(pending.queries.size(), pending.committed + size - inserts);
+            segments.add(new Segment(pending, pending.committed, to));
+            inserts += to - pending.committed;
+            if (inserts >= size) {
+                break;
+            }
+        }
+
+        int batchesGenerated = generator.generatedBatches();
+        long start = System.nanoTime();
+        try (GraknClient.Transaction tx = session.transaction().write()) {
+            for (Segment segment : segments) {
+                for (GeneratedInsert insert : segment.queries()) {
+                    List<ConceptId> ids = insert.insertedIds(tx.execute(insert.query()));
+                    BatchGenerator.recordInsertions(insert, ids, segment.writes);
+                    segment.insertedIds.add(ids);
+                }
+                segment.batchesGenerated = batchesGenerated;
+                if (checkpoint != null) {
+                    // logged ahead of the commit, so that a commit the log does not show can be found on resume
+                    checkpoint.logged(new BatchSegment(batchesGenerated, segment.insertedIds, segment.writes));
+                }
+            }
+            long commitStart = System.nanoTime();
+            tx.commit();
+            long nanos = System.nanoTime() - start;
+            if (transactionSizer != null) {
+                transactionSizer.committed(inserts, nanos, System.nanoTime() - commitStart);
+            }
+            for (Segment segment : segments) {
+                // the transaction's time is shared between its segments by how many queries each executed
+                long segmentNanos = (inserts == 0) ? 0 : nanos * (segment.to - segment.from) / inserts;
+                relationInsertStats.record(segment.queries(), segmentNanos);
+            }
+        }
+
+        for (Segment segment : segments) {
+            segment.pending.committed = segment.to;
+        }
+        while (!open.isEmpty() && open.get(0).isCommitted()) {
+            open.remove(0);
+        }
+        return segments;
+    }
+
+    /**
+     * Release the claims and reservations of the open batches, which will not be committed
+     */
+    void abandon() {
+        open.forEach(generator::abandon);
+        open.clear();
+    }
+}
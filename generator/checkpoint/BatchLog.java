@@ -0,0 +1,305 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator.checkpoint;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.core.concept.ConceptId;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Append-only binary log of the storage updates of every committed batch segment, in the order they were committed.
+ * <p>
+ * It is written ahead: the segments of a transaction are appended before it commits, and followed by a commit
+ * record once it has. Segments with no commit record after them when the log is read back are in doubt, as the
+ * process may have died either side of the commit, and are kept or dropped depending on what the keyspace holds.
+ * <p>
+ * Each record is prefixed with its length, so a record only partly written when the process died is
+ * recognised, and dropped, when the log is read back.
+ */
+public class BatchLog implements AutoCloseable {
+
+    private static final byte SEGMENT_RECORD = 0;
+    private static final byte COMMIT_RECORD = 1;
+
+    private static final byte NO_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+    private static final byte INTEGER_VALUE = 2;
+    private static final byte LONG_VALUE = 3;
+    private static final byte DOUBLE_VALUE = 4;
+    private static final byte BOOLEAN_VALUE = 5;
+    private static final byte DATE_VALUE = 6;
+
+    private final FileOutputStream file;
+    private final DataOutputStream out;
+
+    /**
+     * @param append whether to add to an existing log, rather than start a new one
+     */
+    public BatchLog(Path path, boolean append) {
+        try {
+            this.file = new FileOutputStream(path.toFile(), append);
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not open batch log " + path, e);
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(file));
+    }
+
+    /**
+     * Append a segment of a transaction that is about to commit, and hand it to the operating system so it
+     * survives this process dying
+     */
+    public void append(BatchSegment segment) {
+        try {
+            write(serialise(segment));
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not append to batch log", e);
+        }
+    }
+
+    /**
+     * Mark the segments appended since the last commit record as committed
+     */
+    public void appendCommit() {
+        try {
+            write(new byte[]{COMMIT_RECORD});
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not append to batch log", e);
+        }
+    }
+
+    private void write(byte[] record) throws IOException {
+        out.writeInt(record.length);
+        out.write(record);
+        out.flush();
+    }
+
+    /**
+     * Force everything appended so far to disk, so it also survives the machine going down
+     */
+    public void sync() {
+        try {
+            out.flush();
+            file.getChannel().force(false);
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not sync batch log", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            sync();
+            out.close();
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not close batch log", e);
+        }
+    }
+
+    /**
+     * Read back every committed segment in a log, then leave the log ready to be appended to again. Segments in
+     * doubt at its end are read back, and marked committed, if inDoubt finds that their transaction did commit;
+     * otherwise they are truncated, along with any partly written record.
+     *
+     * @param inDoubt whether the transaction that inserted the given segments committed
+     * @return number of segments read
+     */
+    public static int read(Path path, Consumer<BatchSegment> consumer, Predicate<List<BatchSegment>> inDoubt) {
+        int segments = 0;
+        List<BatchSegment> uncommitted = new ArrayList<>();
+        long committedLength = 0;
+        long completeLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            while (true) {
+                byte[] record;
+                try {
+                    int length = in.readInt();
+                    record = new byte[length];
+                    in.readFully(record);
+                } catch (EOFException e) {
+                    break;
+                }
+                completeLength += Integer.BYTES + record.length;
+                if (record[0] == COMMIT_RECORD) {
+                    uncommitted.forEach(consumer);
+                    segments += uncommitted.size();
+                    uncommitted.clear();
+                    committedLength = completeLength;
+                } else {
+                    uncommitted.add(deserialise(record));
+                }
+            }
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not read batch log " + path, e);
+        }
+
+        boolean committed = !uncommitted.isEmpty() && inDoubt.test(uncommitted);
+        if (committed) {
+            uncommitted.forEach(consumer);
+            segments += uncommitted.size();
+        }
+        long keptLength = committed ? completeLength : committedLength;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            if (channel.size() > keptLength) {
+                channel.truncate(keptLength);
+            }
+            if (committed) {
+                ByteBuffer commit = ByteBuffer.allocate(Integer.BYTES + 1).putInt(1).put(COMMIT_RECORD);
+                commit.flip();
+                channel.write(commit, keptLength);
+            }
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not update batch log " + path, e);
+        }
+        return segments;
+    }
+
+    private static byte[] serialise(BatchSegment segment) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(bytes);
+        record.writeByte(SEGMENT_RECORD);
+        record.writeInt(segment.batchesGenerated());
+        record.writeInt(segment.queries());
+        for (List<ConceptId> ids : segment.insertedIds()) {
+            record.writeInt(ids.size());
+            for (ConceptId id : ids) {
+                record.writeUTF(id.getValue());
+            }
+        }
+
+        ConceptStorageBatch batch = segment.writes();
+        record.writeInt(batch.concepts().size());
+        for (ConceptStorageBatch.InsertedConcept concept : batch.concepts()) {
+            record.writeUTF(concept.conceptId().getValue());
+            record.writeUTF(concept.typeLabel());
+            writeValue(record, concept.value());
+        }
+
+        record.writeInt(batch.rolePlayers().size());
+        for (ConceptStorageBatch.RolePlayer rolePlayer : batch.rolePlayers()) {
+            record.writeUTF(rolePlayer.conceptId());
+            record.writeUTF(rolePlayer.conceptType());
+            record.writeUTF(rolePlayer.relationshipType());
+            record.writeUTF(rolePlayer.role());
+        }
+        record.flush();
+        return bytes.toByteArray();
+    }
+
+    private static BatchSegment deserialise(byte[] bytes) throws IOException {
+        DataInputStream record = new DataInputStream(new ByteArrayInputStream(bytes));
+        record.readByte();
+        int batchesGenerated = record.readInt();
+        int queries = record.readInt();
+        List<List<ConceptId>> insertedIds = new ArrayList<>(queries);
+        for (int i = 0; i < queries; i++) {
+            int inserted = record.readInt();
+            List<ConceptId> ids = new ArrayList<>(inserted);
+            for (int j = 0; j < inserted; j++) {
+                ids.add(ConceptId.of(record.readUTF()));
+            }
+            insertedIds.add(ids);
+        }
+
+        ConceptStorageBatch batch = new ConceptStorageBatch();
+        int concepts = record.readInt();
+        for (int i = 0; i < concepts; i++) {
+            ConceptId conceptId = ConceptId.of(record.readUTF());
+            String typeLabel = record.readUTF();
+            batch.addConcept(conceptId, typeLabel, readValue(record));
+        }
+
+        int rolePlayers = record.readInt();
+        for (int i = 0; i < rolePlayers; i++) {
+            batch.addRolePlayer(record.readUTF(), record.readUTF(), record.readUTF(), record.readUTF());
+        }
+        return new BatchSegment(batchesGenerated, insertedIds, batch);
+    }
+
+    /**
+     * Write an attribute value, or null, tagged with its type so it is read back as the same type
+     */
+    public static void writeValue(DataOutputStream record, Object value) throws IOException {
+        if (value == null) {
+            record.writeByte(NO_VALUE);
+        } else if (value instanceof String) {
+            record.writeByte(STRING_VALUE);
+            record.writeUTF((String) value);
+        } else if (value instanceof Integer) {
+            record.writeByte(INTEGER_VALUE);
+            record.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            record.writeByte(LONG_VALUE);
+            record.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            record.writeByte(DOUBLE_VALUE);
+            record.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            record.writeByte(BOOLEAN_VALUE);
+            record.writeBoolean((Boolean) value);
+        } else if (value instanceof Date) {
+            record.writeByte(DATE_VALUE);
+            record.writeLong(((Date) value).getTime());
+        } else {
+            throw new DataGeneratorException("Cannot write attribute value of type " + value.getClass() + " to the batch log");
+        }
+    }
+
+    public static Object readValue(DataInputStream record) throws IOException {
+        byte type = record.readByte();
+        switch (type) {
+            case NO_VALUE:
+                return null;
+            case STRING_VALUE:
+                return record.readUTF();
+            case INTEGER_VALUE:
+                return record.readInt();
+            case LONG_VALUE:
+                return record.readLong();
+            case DOUBLE_VALUE:
+                return record.readDouble();
+            case BOOLEAN_VALUE:
+                return record.readBoolean();
+            case DATE_VALUE:
+                return new Date(record.readLong());
+            default:
+                throw new DataGeneratorException("Unknown attribute value type in batch log: " + type);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.checkpoint;
+
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.core.concept.ConceptId;
+
+import java.util.List;
+
+/**
+ * The storage updates made by committing some or all of the queries of one generated batch. A transaction may
+ * hold the end of one batch and the start of the next, and a large batch may take several transactions, so a
+ * batch is logged as one or more segments, in the order they were committed.
+ */
+public class BatchSegment {
+    private final int batchesGenerated;
+    private final List<List<ConceptId>> insertedIds;
+    private final ConceptStorageBatch writes;
+
+    /**
+     * @param batchesGenerated how many batches had been generated in total when the segment was committed, so that
+     *                         replaying generates the same batches before applying it
+     * @param insertedIds      ids of the concepts inserted by each of the batch's queries it covers, which follow
+     *                         those of its earlier segments
+     * @param writes           what the queries inserted
+     */
+    public BatchSegment(int batchesGenerated, List<List<ConceptId>> insertedIds, ConceptStorageBatch writes) {
+        this.batchesGenerated = batchesGenerated;
+        this.insertedIds = insertedIds;
+        this.writes = writes;
+    }
+
+    public int batchesGenerated() {
+        return batchesGenerated;
+    }
+
+    public int queries() {
+        return insertedIds.size();
+    }
+
+    public List<List<ConceptId>> insertedIds() {
+        return insertedIds;
+    }
+
+    public ConceptStorageBatch writes() {
+        return writes;
+    }
+}
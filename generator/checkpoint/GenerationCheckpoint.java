@@ -0,0 +1,197 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator.checkpoint;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Checkpoints of a data generation run into a keyspace, kept in a local directory so that a long run which fails
+ * can be resumed against the same keyspace instead of starting again from an empty one.
+ * <p>
+ * Every batch segment is appended to a BatchLog (`keyspace.batches`) before its transaction commits, and marked
+ * committed after. Every `interval` segments, and at the end of each call to generate, the log is forced to disk and
+ * a checkpoint file (`keyspace.checkpoint`) is rewritten with the settings the run depends on and how far it has got.
+ * <p>
+ * The random number generator and PDF state are not written out: on resume, the logged batches are generated again
+ * without being executed, which takes the definition through exactly the same states (see DataGenerator.resume).
+ */
+public class GenerationCheckpoint implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(GenerationCheckpoint.class);
+
+    public static final int DEFAULT_INTERVAL = 100;
+
+    private static final String SEGMENTS_PROPERTY = "segments";
+    private static final String GRAPH_SCALE_PROPERTY = "graphScale";
+
+    private final Path logPath;
+    private final Path checkpointPath;
+    private final Map<String, String> settings;
+    private final int interval;
+    private final BatchLog log;
+
+    private int segments;
+    private int uncommitted;
+    private int graphScale;
+
+    private GenerationCheckpoint(Path directory, String keyspace, Map<String, String> settings, int interval, boolean resume) {
+        if (interval < 1) {
+            throw new DataGeneratorException("Checkpoint interval must be at least 1 segment, got " + interval);
+        }
+        this.logPath = directory.resolve(keyspace + ".batches");
+        this.checkpointPath = directory.resolve(keyspace + ".checkpoint");
+        this.settings = settings;
+        this.interval = interval;
+        this.segments = 0;
+        this.uncommitted = 0;
+        this.graphScale = 0;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not create checkpoint directory " + directory, e);
+        }
+        if (resume) {
+            verifySettings();
+        }
+        this.log = new BatchLog(logPath, resume);
+    }
+
+    /**
+     * Start checkpointing a new run, replacing any previous checkpoints of the keyspace
+     *
+     * @param settings anything generation depends on besides the logged batches, eg. the definition and random seed,
+     *                 which a resumed run must match
+     */
+    public static GenerationCheckpoint start(Path directory, String keyspace, Map<String, String> settings, int interval) {
+        return new GenerationCheckpoint(directory, keyspace, settings, interval, false);
+    }
+
+    /**
+     * Continue checkpointing a run that was checkpointed with the same settings
+     */
+    public static GenerationCheckpoint resume(Path directory, String keyspace, Map<String, String> settings, int interval) {
+        return new GenerationCheckpoint(directory, keyspace, settings, interval, true);
+    }
+
+    /**
+     * Read back every committed segment logged so far, in order. Segments marked committed after the last checkpoint
+     * are included too, as they were committed to the keyspace before being marked.
+     *
+     * @param inDoubt whether the transaction of the segments logged last, which the run died before marking
+     *                committed, did commit to the keyspace
+     * @return number of segments replayed
+     */
+    public int replay(Consumer<BatchSegment> consumer, Predicate<List<BatchSegment>> inDoubt) {
+        // the log is already open, but in append mode, so anything appended goes after the records kept by the read
+        segments = BatchLog.read(logPath, consumer, inDoubt);
+        return segments;
+    }
+
+    /**
+     * Log a segment of a transaction that is about to commit
+     */
+    public synchronized void logged(BatchSegment segment) {
+        log.append(segment);
+        uncommitted++;
+    }
+
+    /**
+     * Mark the segments logged since the last commit as committed, once their transaction has committed and
+     * they have been flushed to storage
+     */
+    public synchronized void committed(int graphScale) {
+        log.appendCommit();
+        int previous = segments;
+        segments += uncommitted;
+        uncommitted = 0;
+        if (segments / interval > previous / interval) {
+            checkpoint(graphScale);
+        }
+    }
+
+    /**
+     * Force the log to disk, then record how far it goes
+     */
+    public synchronized void checkpoint(int graphScale) {
+        log.sync();
+        this.graphScale = graphScale;
+
+        Properties checkpoint = new Properties();
+        checkpoint.putAll(settings);
+        checkpoint.setProperty(SEGMENTS_PROPERTY, Integer.toString(segments));
+        checkpoint.setProperty(GRAPH_SCALE_PROPERTY, Integer.toString(graphScale));
+
+        // write to the side and move into place, so there is always one whole checkpoint file
+        Path partial = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".partial");
+        try (Writer writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+            checkpoint.store(writer, "Data generation checkpoint");
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not write checkpoint " + partial, e);
+        }
+        try {
+            Files.move(partial, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not move checkpoint into place at " + checkpointPath, e);
+        }
+        LOG.debug("Checkpointed " + segments + " segments at graph scale " + graphScale);
+    }
+
+    @Override
+    public synchronized void close() {
+        checkpoint(graphScale);
+        log.close();
+    }
+
+    private void verifySettings() {
+        if (!Files.exists(checkpointPath) || !Files.exists(logPath)) {
+            throw new DataGeneratorException("Cannot resume: no checkpoint found at " + checkpointPath);
+        }
+        Properties checkpoint = new Properties();
+        try (Reader reader = Files.newBufferedReader(checkpointPath, StandardCharsets.UTF_8)) {
+            checkpoint.load(reader);
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not read checkpoint " + checkpointPath, e);
+        }
+        for (Map.Entry<String, String> setting : settings.entrySet()) {
+            String checkpointed = checkpoint.getProperty(setting.getKey());
+            if (!Objects.equals(setting.getValue(), checkpointed)) {
+                throw new DataGeneratorException("Cannot resume: " + setting.getKey() + " is " + setting.getValue() +
+                        ", but the checkpointed run used " + checkpointed);
+            }
+        }
+        LOG.info("Resuming from checkpoint of " + checkpoint.getProperty(SEGMENTS_PROPERTY) + " segments, graph scale " +
+                checkpoint.getProperty(GRAPH_SCALE_PROPERTY));
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.dataset;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.query.QueryTemplates;
+import grakn.client.GraknClient;
+import grakn.core.concept.ConceptId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts a cached dataset into a keyspace as fast as it can, eg. one generated offline.
+ * <p>
+ * Batches are read from the dataset log in order, and handed out several to a transaction to a pool of writer
+ * threads, each with its own session. A transaction that inserts relationships first waits for the transactions
+ * that inserted their role players to commit, as does one that inserts an attribute an earlier transaction inserted
+ * too, so that Grakn de-duplicates it rather than creating it twice. Transactions are started in log order, so the
+ * earliest one still running only depends on committed ones, and loading never stalls.
+ * <p>
+ * Unlike DataGenerator.load, concept storage is not filled in, so data generation cannot carry on afterwards.
+ */
+public class BulkLoader {
+    private static final Logger LOG = LoggerFactory.getLogger(BulkLoader.class);
+
+    public static final int DEFAULT_THREADS = 4;
+    public static final int DEFAULT_BATCHES_PER_TRANSACTION = 50;
+
+    private final GraknClient client;
+    private final String keyspace;
+    private final int threads;
+    private final int batchesPerTransaction;
+
+    // id in the keyspace of each concept of the dataset inserted by a committed transaction, by position
+    private final Map<Integer, ConceptId> conceptIds;
+    // position of the next concept the dataset inserts for the first time, as read from the log
+    private int nextPosition;
+    private boolean failed;
+
+    public BulkLoader(GraknClient client, String keyspace, int threads, int batchesPerTransaction) {
+        if (threads < 1 || batchesPerTransaction < 1) {
+            throw new DataGeneratorException("Bulk loading needs at least 1 thread and 1 batch per transaction");
+        }
+        this.client = client;
+        this.keyspace = keyspace;
+        this.threads = threads;
+        this.batchesPerTransaction = batchesPerTransaction;
+        this.conceptIds = new HashMap<>();
+        this.nextPosition = 0;
+        this.failed = false;
+    }
+
+    /**
+     * Insert the dataset up to a scale, continuing from the scale loaded last
+     */
+    public void load(DatasetCache cache, int scale) {
+        ExecutorService writers = Executors.newFixedThreadPool(threads);
+        BlockingQueue<GraknClient.Session> sessions = new ArrayBlockingQueue<>(threads);
+        for (int i = 0; i < threads; i++) {
+            sessions.add(client.session(keyspace));
+        }
+        // bounds how much of the log is held in memory ahead of the writers
+        Semaphore pending = new Semaphore(2 * threads);
+        List<Future<Integer>> transactions = new ArrayList<>();
+        long start = System.nanoTime();
+
+        try {
+            List<List<DatasetInsert>> chunk = new ArrayList<>(batchesPerTransaction);
+            int batches = cache.load(scale, batch -> {
+                chunk.add(batch);
+                if (chunk.size() == batchesPerTransaction) {
+                    transactions.add(submit(writers, sessions, pending, new ArrayList<>(chunk)));
+                    chunk.clear();
+                }
+            });
+            if (!chunk.isEmpty()) {
+                transactions.add(submit(writers, sessions, pending, chunk));
+            }
+
+            int inserts = 0;
+            for (Future<Integer> transaction : transactions) {
+                inserts += transaction.get();
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            LOG.info(String.format("Bulk loaded %d batches, %d insert queries, in %d transactions on %d threads: %d ms (%.1f queries/s)",
+                    batches, inserts, transactions.size(), threads, millis, (millis == 0) ? 0.0 : inserts * 1000.0 / millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataGeneratorException("Interrupted while bulk loading", e);
+        } catch (ExecutionException e) {
+            throw new DataGeneratorException("Bulk loading failed in a writer thread", e.getCause());
+        } finally {
+            writers.shutdownNow();
+            sessions.forEach(GraknClient.Session::close);
+        }
+    }
+
+    private Future<Integer> submit(ExecutorService writers, BlockingQueue<GraknClient.Session> sessions, Semaphore pending,
+                                   List<List<DatasetInsert>> chunk) {
+        // positions are handed out in log order, so any below this were first inserted by an earlier transaction
+        int firstPosition = nextPosition;
+        for (List<DatasetInsert> batch : chunk) {
+            for (DatasetInsert insert : batch) {
+                for (int position : insert.inserted()) {
+                    nextPosition = Math.max(nextPosition, position + 1);
+                }
+            }
+        }
+        try {
+            pending.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataGeneratorException("Interrupted while bulk loading", e);
+        }
+        return writers.submit(() -> {
+            GraknClient.Session session = sessions.take();
+            try {
+                return loadTransaction(session, chunk, firstPosition);
+            } catch (RuntimeException | InterruptedException e) {
+                fail();
+                throw e;
+            } finally {
+                sessions.add(session);
+                pending.release();
+            }
+        });
+    }
+
+    /**
+     * Insert some consecutive batches of the dataset in one transaction
+     *
+     * @param firstPosition position of the first concept these batches insert that no earlier batch inserted
+     * @return number of insert queries executed
+     */
+    private int loadTransaction(GraknClient.Session session, List<List<DatasetInsert>> chunk, int firstPosition) throws InterruptedException {
+        Set<Integer> insertedHere = new HashSet<>();
+        Set<Integer> dependencies = new HashSet<>();
+        for (List<DatasetInsert> batch : chunk) {
+            for (DatasetInsert insert : batch) {
+                if (insert.isRelationship()) {
+                    for (int rolePlayer : insert.rolePlayers()) {
+                        if (!insertedHere.contains(rolePlayer)) {
+                            dependencies.add(rolePlayer);
+                        }
+                    }
+                }
+                for (int position : insert.inserted()) {
+                    if (position < firstPosition) {
+                        // an attribute that already exists, which Grakn only de-duplicates against committed ones
+                        dependencies.add(position);
+                    }
+                    insertedHere.add(position);
+                }
+            }
+        }
+        Map<Integer, ConceptId> committed = awaitCommitted(dependencies);
+
+        QueryTemplates templates = new QueryTemplates();
+        Map<Integer, ConceptId> inserted = new HashMap<>();
+        int inserts = 0;
+        try (GraknClient.Transaction tx = session.transaction().write()) {
+            for (List<DatasetInsert> batch : chunk) {
+                for (DatasetInsert insert : batch) {
+                    GeneratedInsert query = insert.bind(templates, position -> inserted.containsKey(position) ? inserted.get(position) : committed.get(position));
+                    List<ConceptId> ids = query.insertedIds(tx.execute(query.query()));
+                    if (ids.size() != insert.inserted().length) {
+                        throw new DataGeneratorException("Bulk loading a " + insert.typeLabel() + " inserted " + ids.size() +
+                                " concepts, but generating it inserted " + insert.inserted().length);
+                    }
+                    for (int i = 0; i < ids.size(); i++) {
+                        inserted.putIfAbsent(insert.inserted()[i], ids.get(i));
+                    }
+                    inserts++;
+                }
+            }
+            tx.commit();
+        }
+        publish(inserted);
+        return inserts;
+    }
+
+    /**
+     * Wait until the concepts at the given positions have been committed
+     *
+     * @return their ids in the keyspace
+     */
+    private synchronized Map<Integer, ConceptId> awaitCommitted(Set<Integer> positions) throws InterruptedException {
+        Map<Integer, ConceptId> ids = new HashMap<>();
+        for (Integer position : positions) {
+            while (!conceptIds.containsKey(position)) {
+                if (failed) {
+                    throw new DataGeneratorException("Another bulk loading transaction failed");
+                }
+                wait();
+            }
+            ids.put(position, conceptIds.get(position));
+        }
+        return ids;
+    }
+
+    private synchronized void publish(Map<Integer, ConceptId> inserted) {
+        inserted.forEach(conceptIds::putIfAbsent);
+        notifyAll();
+    }
+
+    private synchronized void fail() {
+        failed = true;
+        notifyAll();
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.dataset;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.query.QueryTemplate;
+import grakn.benchmark.generator.query.QueryTemplates;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.core.concept.ConceptId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+/**
+ * Datasets generated by earlier runs, kept in a local directory per data generator and random seed, so that a run
+ * with the same settings can load the graph at each scale into its keyspace instead of generating it again.
+ * <p>
+ * The insert queries of every committed batch are appended to a DatasetLog (`dataset.inserts`), and each time
+ * generation reaches a scale, an index (`dataset.index`) records how many batches the log holds at that scale.
+ * Loading executes the logged queries again, binding role players to the ids their concepts were given in this
+ * run's keyspace. The storage is not written out: it is rebuilt from the loaded queries' answers, exactly as
+ * during generation.
+ * <p>
+ * If generation has to carry on past the cached scales, what it generates is appended in place of anything
+ * the log held beyond the loaded scale, so the cache always holds one consistent dataset.
+ */
+public class DatasetCache implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(DatasetCache.class);
+
+    private static final String SCALE_PROPERTY_PREFIX = "scale.";
+    private static final String BATCHES_PROPERTY_SUFFIX = ".batches";
+    private static final String BYTES_PROPERTY_SUFFIX = ".bytes";
+
+    private final Path logPath;
+    private final Path indexPath;
+    private final Map<String, String> settings;
+    private final Properties index;
+    private final QueryTemplates templates;
+
+    // id in this run's keyspace of each concept of the dataset, and the reverse
+    private final List<ConceptId> conceptIds;
+    private final Map<ConceptId, Integer> positions;
+
+    private int batches;
+    private long bytes;
+    private DatasetLog log;
+
+    private DatasetCache(Path directory, Map<String, String> settings) {
+        this.logPath = directory.resolve("dataset.inserts");
+        this.indexPath = directory.resolve("dataset.index");
+        this.settings = settings;
+        this.index = new Properties();
+        this.templates = new QueryTemplates();
+        this.conceptIds = new ArrayList<>();
+        this.positions = new HashMap<>();
+        this.batches = 0;
+        this.bytes = 0;
+        this.log = null;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not create dataset cache directory " + directory, e);
+        }
+        readIndex();
+    }
+
+    /**
+     * Open the cached dataset of a data generator and random seed, to load from and add to
+     *
+     * @param settings anything else generation depends on, eg. how queries are written; a dataset cached with
+     *                 different settings is discarded
+     */
+    public static DatasetCache open(Path cacheDirectory, String dataGenerator, int randomSeed, Map<String, String> settings) {
+        Map<String, String> datasetSettings = new HashMap<>(settings);
+        datasetSettings.put("dataGenerator", dataGenerator);
+        datasetSettings.put("randomSeed", Integer.toString(randomSeed));
+        return new DatasetCache(cacheDirectory.resolve(dataGenerator + "-seed" + randomSeed), datasetSettings);
+    }
+
+    /**
+     * @return whether the graph at this scale can be loaded from the cache, continuing from what is already loaded
+     */
+    public synchronized boolean hasScale(int scale) {
+        String scaleBatches = index.getProperty(SCALE_PROPERTY_PREFIX + scale + BATCHES_PROPERTY_SUFFIX);
+        return scaleBatches != null && Integer.parseInt(scaleBatches) >= batches;
+    }
+
+    /**
+     * Read the batches of the dataset from where the last load stopped, up to the given scale
+     *
+     * @return number of batches read
+     */
+    public synchronized int load(int scale, Consumer<List<DatasetInsert>> consumer) {
+        if (!hasScale(scale)) {
+            throw new DataGeneratorException("The dataset cache does not hold scale " + scale);
+        }
+        int scaleBatches = Integer.parseInt(index.getProperty(SCALE_PROPERTY_PREFIX + scale + BATCHES_PROPERTY_SUFFIX));
+        long scaleBytes = Long.parseLong(index.getProperty(SCALE_PROPERTY_PREFIX + scale + BYTES_PROPERTY_SUFFIX));
+
+        int loaded = scaleBatches - batches;
+        long end = DatasetLog.read(logPath, bytes, loaded, consumer);
+        if (end != scaleBytes) {
+            throw new DataGeneratorException("Dataset log " + logPath + " does not match its index at scale " + scale);
+        }
+        batches = scaleBatches;
+        bytes = scaleBytes;
+        return loaded;
+    }
+
+    /**
+     * Bind a logged insert again, with its role players' ids in this run's keyspace
+     */
+    public synchronized GeneratedInsert bind(DatasetInsert insert) {
+        return insert.bind(templates, position -> {
+            if (position >= conceptIds.size()) {
+                throw new DataGeneratorException("Role player " + position + " of a cached " + insert.typeLabel() + " has not been loaded");
+            }
+            return conceptIds.get(position);
+        });
+    }
+
+    /**
+     * Record the ids in this run's keyspace of the concepts a logged insert inserted, once it has been executed
+     *
+     * @param ids id of each concept inserted, in the order of the answers and then of the inserted variables
+     */
+    public synchronized void loaded(DatasetInsert insert, List<ConceptId> ids) {
+        int[] inserted = insert.inserted();
+        if (ids.size() != inserted.length) {
+            throw new DataGeneratorException("Loading a cached " + insert.typeLabel() + " inserted " + ids.size() +
+                    " concepts, but generating it inserted " + inserted.length);
+        }
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] == conceptIds.size()) {
+                addConcept(ids.get(i));
+            } else if (inserted[i] > conceptIds.size()) {
+                throw new DataGeneratorException("Dataset log " + logPath + " skips concept " + conceptIds.size());
+            }
+            // otherwise the concept was inserted before, eg. an attribute value inserted again
+        }
+    }
+
+    /**
+     * Append a batch to the dataset once its transaction has committed. Anything logged beyond what has been
+     * loaded is dropped first, as it was generated from a different graph.
+     *
+     * @param insertedIds id of each concept inserted by each of the batch's queries
+     */
+    public synchronized void committed(List<GeneratedInsert> queries, List<List<ConceptId>> insertedIds) {
+        if (log == null) {
+            dropScalesAfter(batches);
+            log = new DatasetLog(logPath, bytes);
+        }
+        List<DatasetInsert> batch = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            batch.add(record(queries.get(i), insertedIds.get(i)));
+        }
+        log.append(batch);
+        batches++;
+        bytes = log.length();
+    }
+
+    /**
+     * Record that the dataset, as loaded or generated so far, is the graph at a scale
+     */
+    public synchronized void scaleReached(int scale) {
+        if (log != null) {
+            log.sync();
+        }
+        index.setProperty(SCALE_PROPERTY_PREFIX + scale + BATCHES_PROPERTY_SUFFIX, Integer.toString(batches));
+        index.setProperty(SCALE_PROPERTY_PREFIX + scale + BYTES_PROPERTY_SUFFIX, Long.toString(bytes));
+        writeIndex();
+        LOG.debug("Cached dataset at scale " + scale + ": " + batches + " batches");
+    }
+
+    @Override
+    public synchronized void close() {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    private DatasetInsert record(GeneratedInsert insert, List<ConceptId> ids) {
+        int[] inserted = new int[ids.size()];
+        for (int i = 0; i < inserted.length; i++) {
+            Integer position = positions.get(ids.get(i));
+            if (position == null) {
+                position = conceptIds.size();
+                addConcept(ids.get(i));
+            }
+            inserted[i] = position;
+        }
+
+        QueryTemplate template = insert.template();
+        int instances = template.insertedVariables().size();
+        if (template.relationshipType() != null) {
+            List<ConceptStorageBatch.RolePlayer> rolePlayers = insert.rolePlayers();
+            int[] rolePlayerPositions = new int[rolePlayers.size()];
+            String[] rolePlayerTypes = new String[rolePlayers.size()];
+            for (int i = 0; i < rolePlayers.size(); i++) {
+                Integer position = positions.get(ConceptId.of(rolePlayers.get(i).conceptId()));
+                if (position == null) {
+                    throw new DataGeneratorException("Cannot cache a " + template.typeLabel() + " with role player " +
+                            rolePlayers.get(i).conceptId() + ", which the dataset did not insert");
+                }
+                rolePlayerPositions[i] = position;
+                rolePlayerTypes[i] = rolePlayers.get(i).conceptType();
+            }
+            return DatasetInsert.relationship(template.relationshipType(), template.roles(), template.isIdInsert(),
+                    rolePlayerPositions, rolePlayerTypes, inserted);
+        } else if (insert.insertedValue(0) != null) {
+            Object[] values = new Object[instances];
+            for (int i = 0; i < instances; i++) {
+                values[i] = insert.insertedValue(i);
+            }
+            return DatasetInsert.attributes(template.typeLabel(), values, inserted);
+        } else {
+            return DatasetInsert.entities(template.typeLabel(), instances, inserted);
+        }
+    }
+
+    private void addConcept(ConceptId conceptId) {
+        positions.put(conceptId, conceptIds.size());
+        conceptIds.add(conceptId);
+    }
+
+    private void dropScalesAfter(int batches) {
+        index.stringPropertyNames().stream()
+                .filter(key -> key.startsWith(SCALE_PROPERTY_PREFIX) && key.endsWith(BATCHES_PROPERTY_SUFFIX))
+                .filter(key -> Integer.parseInt(index.getProperty(key)) > batches)
+                .forEach(key -> {
+                    String scale = key.substring(0, key.length() - BATCHES_PROPERTY_SUFFIX.length());
+                    index.remove(key);
+                    index.remove(scale + BYTES_PROPERTY_SUFFIX);
+                });
+        writeIndex();
+    }
+
+    private void readIndex() {
+        if (Files.exists(indexPath) && Files.exists(logPath)) {
+            try (Reader reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+                index.load(reader);
+            } catch (IOException e) {
+                throw new DataGeneratorException("Could not read dataset index " + indexPath, e);
+            }
+            for (Map.Entry<String, String> setting : settings.entrySet()) {
+                String cached = index.getProperty(setting.getKey());
+                if (!Objects.equals(setting.getValue(), cached)) {
+                    LOG.warn("Discarding cached dataset: " + setting.getKey() + " is " + setting.getValue() +
+                            ", but it was generated with " + cached);
+                    index.clear();
+                    break;
+                }
+            }
+        }
+        index.putAll(settings);
+    }
+
+    private void writeIndex() {
+        // write to the side and move into place, so there is always one whole index
+        Path partial = indexPath.resolveSibling(indexPath.getFileName() + ".partial");
+        try (Writer writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+            index.store(writer, "Dataset cache index");
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not write dataset index " + partial, e);
+        }
+        try {
+            Files.move(partial, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not move dataset index into place at " + indexPath, e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.dataset;
+
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.query.QueryTemplates;
+import grakn.core.concept.ConceptId;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * An insert query as kept in a DatasetCache: what is needed to bind the same query again, and the concepts it
+ * inserted. Concepts are referred to by their position in the order the dataset inserted them, as their ids
+ * only mean anything in the keyspace they were inserted into.
+ */
+public class DatasetInsert {
+
+    private final String typeLabel;
+    private final int instances;
+    private final Object[] values;
+    private final List<String> roles;
+    private final boolean idInsert;
+    private final int[] rolePlayers;
+    private final String[] rolePlayerTypes;
+    private final int[] inserted;
+
+    private DatasetInsert(String typeLabel, int instances, Object[] values, List<String> roles, boolean idInsert,
+                          int[] rolePlayers, String[] rolePlayerTypes, int[] inserted) {
+        this.typeLabel = typeLabel;
+        this.instances = instances;
+        this.values = values;
+        this.roles = roles;
+        this.idInsert = idInsert;
+        this.rolePlayers = rolePlayers;
+        this.rolePlayerTypes = rolePlayerTypes;
+        this.inserted = inserted;
+    }
+
+    static DatasetInsert entities(String typeLabel, int instances, int[] inserted) {
+        return new DatasetInsert(typeLabel, instances, null, null, false, null, null, inserted);
+    }
+
+    static DatasetInsert attributes(String typeLabel, Object[] values, int[] inserted) {
+        return new DatasetInsert(typeLabel, values.length, values, null, false, null, null, inserted);
+    }
+
+    /**
+     * @param rolePlayers position of the concept filling each role, in the order of the roles
+     */
+    static DatasetInsert relationship(String relationshipType, List<String> roles, boolean idInsert,
+                                      int[] rolePlayers, String[] rolePlayerTypes, int[] inserted) {
+        return new DatasetInsert(relationshipType, 1, null, roles, idInsert, rolePlayers, rolePlayerTypes, inserted);
+    }
+
+    /**
+     * Bind the query again, with its role players' ids looked up by their position in the dataset
+     */
+    public GeneratedInsert bind(QueryTemplates templates, IntFunction<ConceptId> conceptIds) {
+        if (isRelationship()) {
+            ConceptId[] rolePlayerIds = new ConceptId[rolePlayers.length];
+            for (int i = 0; i < rolePlayers.length; i++) {
+                rolePlayerIds[i] = conceptIds.apply(rolePlayers[i]);
+            }
+            return templates.relationship(typeLabel, roles, idInsert).bindRolePlayers(rolePlayerIds, rolePlayerTypes);
+        } else if (values != null) {
+            return templates.attributes(typeLabel, instances).bindValues(values);
+        } else {
+            return templates.entities(typeLabel, instances).bind();
+        }
+    }
+
+    public String typeLabel() {
+        return typeLabel;
+    }
+
+    int instances() {
+        return instances;
+    }
+
+    /**
+     * @return the value of each inserted attribute, or null if this does not insert attributes
+     */
+    Object[] values() {
+        return values;
+    }
+
+    public boolean isRelationship() {
+        return roles != null;
+    }
+
+    List<String> roles() {
+        return roles;
+    }
+
+    boolean isIdInsert() {
+        return idInsert;
+    }
+
+    int[] rolePlayers() {
+        return rolePlayers;
+    }
+
+    String[] rolePlayerTypes() {
+        return rolePlayerTypes;
+    }
+
+    /**
+     * @return position in the dataset of each concept inserted, in the order of the query's answers and then of
+     * its inserted variables; empty if the query inserted nothing
+     */
+    int[] inserted() {
+        return inserted;
+    }
+}
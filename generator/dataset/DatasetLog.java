@@ -0,0 +1,229 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.dataset;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.benchmark.generator.checkpoint.BatchLog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only binary log of the insert queries of every committed batch of a dataset, in the order they were
+ * committed. Records are prefixed with their length, like those of a BatchLog, and are located by byte offset,
+ * so that loading a dataset up to a scale can pick up where loading the previous scale stopped.
+ */
+public class DatasetLog implements AutoCloseable {
+
+    private static final byte ENTITIES = 0;
+    private static final byte ATTRIBUTES = 1;
+    private static final byte RELATIONSHIP = 2;
+
+    private final Path path;
+    private final FileOutputStream file;
+    private final DataOutputStream out;
+    private long length;
+
+    /**
+     * Open a log to append to, first dropping anything in it after the given length
+     */
+    public DatasetLog(Path path, long length) {
+        this.path = path;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (channel.size() < length) {
+                throw new DataGeneratorException("Dataset log " + path + " is shorter than the " + length + " bytes expected");
+            }
+            channel.truncate(length);
+            this.file = new FileOutputStream(path.toFile(), true);
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not open dataset log " + path, e);
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(file));
+        this.length = length;
+    }
+
+    /**
+     * Append the inserts of a committed batch
+     */
+    public void append(List<DatasetInsert> batch) {
+        try {
+            byte[] record = serialise(batch);
+            out.writeInt(record.length);
+            out.write(record);
+            length += Integer.BYTES + record.length;
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not append to dataset log " + path, e);
+        }
+    }
+
+    /**
+     * @return offset at which the next batch will be appended
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Force everything appended so far to disk
+     */
+    public void sync() {
+        try {
+            out.flush();
+            file.getChannel().force(false);
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not sync dataset log " + path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            sync();
+            out.close();
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not close dataset log " + path, e);
+        }
+    }
+
+    /**
+     * Read a number of batches from a log, starting at the given offset
+     *
+     * @return offset just after the last batch read
+     */
+    public static long read(Path path, long offset, int batches, Consumer<List<DatasetInsert>> consumer) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.position(offset);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            for (int i = 0; i < batches; i++) {
+                byte[] record;
+                try {
+                    record = new byte[in.readInt()];
+                    in.readFully(record);
+                } catch (EOFException e) {
+                    throw new DataGeneratorException("Dataset log " + path + " ends " + (batches - i) + " batches early", e);
+                }
+                consumer.accept(deserialise(record));
+                offset += Integer.BYTES + record.length;
+            }
+        } catch (IOException e) {
+            throw new DataGeneratorException("Could not read dataset log " + path, e);
+        }
+        return offset;
+    }
+
+    private static byte[] serialise(List<DatasetInsert> batch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(bytes);
+
+        record.writeInt(batch.size());
+        for (DatasetInsert insert : batch) {
+            if (insert.isRelationship()) {
+                record.writeByte(RELATIONSHIP);
+                record.writeUTF(insert.typeLabel());
+                record.writeBoolean(insert.isIdInsert());
+                record.writeInt(insert.roles().size());
+                for (int i = 0; i < insert.roles().size(); i++) {
+                    record.writeUTF(insert.roles().get(i));
+                    record.writeInt(insert.rolePlayers()[i]);
+                    record.writeUTF(insert.rolePlayerTypes()[i]);
+                }
+            } else if (insert.values() != null) {
+                record.writeByte(ATTRIBUTES);
+                record.writeUTF(insert.typeLabel());
+                record.writeInt(insert.values().length);
+                for (Object value : insert.values()) {
+                    BatchLog.writeValue(record, value);
+                }
+            } else {
+                record.writeByte(ENTITIES);
+                record.writeUTF(insert.typeLabel());
+                record.writeInt(insert.instances());
+            }
+
+            record.writeInt(insert.inserted().length);
+            for (int position : insert.inserted()) {
+                record.writeInt(position);
+            }
+        }
+        record.flush();
+        return bytes.toByteArray();
+    }
+
+    private static List<DatasetInsert> deserialise(byte[] bytes) throws IOException {
+        DataInputStream record = new DataInputStream(new ByteArrayInputStream(bytes));
+
+        int inserts = record.readInt();
+        List<DatasetInsert> batch = new ArrayList<>(inserts);
+        for (int i = 0; i < inserts; i++) {
+            byte kind = record.readByte();
+            String typeLabel = record.readUTF();
+            switch (kind) {
+                case RELATIONSHIP:
+                    boolean idInsert = record.readBoolean();
+                    int roleCount = record.readInt();
+                    List<String> roles = new ArrayList<>(roleCount);
+                    int[] rolePlayers = new int[roleCount];
+                    String[] rolePlayerTypes = new String[roleCount];
+                    for (int j = 0; j < roleCount; j++) {
+                        roles.add(record.readUTF());
+                        rolePlayers[j] = record.readInt();
+                        rolePlayerTypes[j] = record.readUTF();
+                    }
+                    batch.add(DatasetInsert.relationship(typeLabel, roles, idInsert, rolePlayers, rolePlayerTypes, readPositions(record)));
+                    break;
+                case ATTRIBUTES:
+                    Object[] values = new Object[record.readInt()];
+                    for (int j = 0; j < values.length; j++) {
+                        values[j] = BatchLog.readValue(record);
+                    }
+                    batch.add(DatasetInsert.attributes(typeLabel, values, readPositions(record)));
+                    break;
+                case ENTITIES:
+                    int instances = record.readInt();
+                    batch.add(DatasetInsert.entities(typeLabel, instances, readPositions(record)));
+                    break;
+                default:
+                    throw new DataGeneratorException("Unknown kind of insert in dataset log: " + kind);
+            }
+        }
+        return batch;
+    }
+
+    private static int[] readPositions(DataInputStream record) throws IOException {
+        int[] positions = new int[record.readInt()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = record.readInt();
+        }
+        return positions;
+    }
+}
@@ -21,8 +21,8 @@ package grakn.benchmark.generator.definition;
 import grakn.benchmark.generator.probdensity.FixedConstant;
 import grakn.benchmark.generator.probdensity.FixedDiscreteGaussian;
 import grakn.benchmark.generator.probdensity.ScalingDiscreteGaussian;
-import grakn.benchmark.generator.provider.concept.ConceptIdStorageProvider;
 import grakn.benchmark.generator.provider.concept.NotInRelationshipConceptIdProvider;
+import grakn.benchmark.generator.provider.concept.PrefetchingConceptIdStorageProvider;
 import grakn.benchmark.generator.provider.value.UniqueIntegerProvider;
 import grakn.benchmark.generator.storage.ConceptStorage;
 import grakn.benchmark.generator.strategy.AttributeStrategy;
@@ -67,6 +67,11 @@ public class BiochemicalNetworkDefinition implements DataGeneratorDefinition {
         this.metaTypeStrategies.add(1.0, entityStrategies);
         this.metaTypeStrategies.add(1.0, relationshipStrategies);
         this.metaTypeStrategies.add(1.0, attributeStrategies);
+
+        this.entityStrategies.freeze();
+        this.relationshipStrategies.freeze();
+        this.attributeStrategies.freeze();
+        this.metaTypeStrategies.freeze();
     }
 
     private void buildEntityStrategies() {
@@ -110,7 +115,7 @@ public class BiochemicalNetworkDefinition implements DataGeneratorDefinition {
                 "agent",
                 // high variance in the number of role players
                 new ScalingDiscreteGaussian(random, () -> storage.getGraphScale(), 0.01, 0.005),
-                new ConceptIdStorageProvider(
+                new PrefetchingConceptIdStorageProvider(
                         random,
                         this.storage,
                         "chemical")
@@ -119,7 +124,7 @@ public class BiochemicalNetworkDefinition implements DataGeneratorDefinition {
                 "catalyst",
                 // high variance in the number of role players
                 new ScalingDiscreteGaussian(random, () -> storage.getGraphScale(), 0.001, 0.001),
-                new ConceptIdStorageProvider(
+                new PrefetchingConceptIdStorageProvider(
                         random,
                         this.storage,
                         "enzyme")
@@ -21,8 +21,8 @@ package grakn.benchmark.generator.definition;
 import grakn.benchmark.generator.probdensity.FixedConstant;
 import grakn.benchmark.generator.probdensity.FixedDiscreteGaussian;
 import grakn.benchmark.generator.probdensity.ScalingDiscreteGaussian;
-import grakn.benchmark.generator.provider.concept.ConceptIdStorageProvider;
 import grakn.benchmark.generator.provider.concept.NotInRelationshipConceptIdProvider;
+import grakn.benchmark.generator.provider.concept.PrefetchingConceptIdStorageProvider;
 import grakn.benchmark.generator.provider.value.UniqueIntegerProvider;
 import grakn.benchmark.generator.storage.ConceptStorage;
 import grakn.benchmark.generator.strategy.AttributeStrategy;
@@ -69,6 +69,11 @@ public class FinancialTransactionsDefinition implements DataGeneratorDefinition
         this.metaTypeStrategies.add(1.0, entityStrategies);
         this.metaTypeStrategies.add(1.0, relationshipStrategies);
         this.metaTypeStrategies.add(1.0, attributeStrategies);
+
+        this.entityStrategies.freeze();
+        this.relationshipStrategies.freeze();
+        this.attributeStrategies.freeze();
+        this.metaTypeStrategies.freeze();
     }
 
     private void buildEntityStrategies() {
@@ -103,7 +108,7 @@ public class FinancialTransactionsDefinition implements DataGeneratorDefinition
                 "transactor",
                 // high variance in the number of role players
                 new ScalingDiscreteGaussian(random, () -> storage.getGraphScale(), 0.005, 0.005),
-                new ConceptIdStorageProvider(
+                new PrefetchingConceptIdStorageProvider(
                         random,
                         this.storage,
                         "trader")
@@ -133,7 +138,7 @@ public class FinancialTransactionsDefinition implements DataGeneratorDefinition
         RolePlayerTypeStrategy quantityValue = new RolePlayerTypeStrategy(
                 "@has-quantity-value",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(
+                new PrefetchingConceptIdStorageProvider(
                         random,
                         this.storage,
                         "quantity"
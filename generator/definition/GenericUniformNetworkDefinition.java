@@ -23,8 +23,8 @@ import grakn.benchmark.generator.probdensity.FixedConstant;
 import grakn.benchmark.generator.probdensity.FixedDiscreteGaussian;
 import grakn.benchmark.generator.probdensity.FixedUniform;
 import grakn.benchmark.generator.provider.concept.CentralConceptProvider;
-import grakn.benchmark.generator.provider.concept.ConceptIdStorageProvider;
 import grakn.benchmark.generator.provider.concept.NotInRelationshipConceptIdProvider;
+import grakn.benchmark.generator.provider.concept.PrefetchingConceptIdStorageProvider;
 import grakn.benchmark.generator.provider.value.UniqueIntegerProvider;
 import grakn.benchmark.generator.storage.ConceptStorage;
 import grakn.benchmark.generator.strategy.AttributeStrategy;
@@ -72,6 +72,12 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         this.metaTypeStrategies.add(8.0, explicitRelationshipStrategies);
         this.metaTypeStrategies.add(8.0/3, implicitRelationshipStrategies);
         this.metaTypeStrategies.add(5.0/3, attributeStrategies);
+
+        this.entityStrategies.freeze();
+        this.explicitRelationshipStrategies.freeze();
+        this.implicitRelationshipStrategies.freeze();
+        this.attributeStrategies.freeze();
+        this.metaTypeStrategies.freeze();
     }
 
 
@@ -154,15 +160,15 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         /* _interaction_ with 2-12 role players */
         RolePlayerTypeStrategy blobberRolePlayer = new RolePlayerTypeStrategy("blobber",
                 new FixedUniform(random, 0, 4),
-                new ConceptIdStorageProvider(random, storage, "blob")
+                new PrefetchingConceptIdStorageProvider(random, storage, "blob")
         );
         RolePlayerTypeStrategy squarerRolePlayer = new RolePlayerTypeStrategy("squarer",
                 new FixedUniform(random, 0, 7),
-                new ConceptIdStorageProvider(random, storage, "square")
+                new PrefetchingConceptIdStorageProvider(random, storage, "square")
         );
         RolePlayerTypeStrategy circlerRolePlayer = new RolePlayerTypeStrategy("circler",
                 new FixedUniform(random, 0, 11),
-                new ConceptIdStorageProvider(random, storage, "circle")
+                new PrefetchingConceptIdStorageProvider(random, storage, "circle")
         );
         this.explicitRelationshipStrategies.add(1.0,
                 new RelationStrategy("interaction",
@@ -183,7 +189,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         );
         RolePlayerTypeStrategy blobOwned = new RolePlayerTypeStrategy("owned",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, this.storage, "blob")
+                new PrefetchingConceptIdStorageProvider(random, this.storage, "blob")
         );
         this.explicitRelationshipStrategies.add(1.0,
                 new RelationStrategy("ownership-of-blob",
@@ -202,7 +208,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         );
         RolePlayerTypeStrategy squareOwnedBlob = new RolePlayerTypeStrategy("owned",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, this.storage, "square")
+                new PrefetchingConceptIdStorageProvider(random, this.storage, "square")
         );
         this.explicitRelationshipStrategies.add(1.0,
                 new RelationStrategy("ownership-of-square",
@@ -221,7 +227,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         );
         RolePlayerTypeStrategy circleOwned = new RolePlayerTypeStrategy("owned",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "circle")
+                new PrefetchingConceptIdStorageProvider(random, storage, "circle")
         );
         this.explicitRelationshipStrategies.add(1.0,
                 new RelationStrategy("ownership-of-circle",
@@ -240,7 +246,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         );
         RolePlayerTypeStrategy blobOwnedCircle = new RolePlayerTypeStrategy("owned",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "blob")
+                new PrefetchingConceptIdStorageProvider(random, storage, "blob")
         );
         this.explicitRelationshipStrategies.add(1.0,
                 new RelationStrategy("ownership-of-blob",
@@ -259,7 +265,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         );
         RolePlayerTypeStrategy circleOwnedSquare = new RolePlayerTypeStrategy("owned",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "circle")
+                new PrefetchingConceptIdStorageProvider(random, storage, "circle")
         );
         this.explicitRelationshipStrategies.add(1.0,
                 new RelationStrategy("ownership-of-circle",
@@ -278,7 +284,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         );
         RolePlayerTypeStrategy blobOwnedSquare = new RolePlayerTypeStrategy("owned",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "blob")
+                new PrefetchingConceptIdStorageProvider(random, storage, "blob")
         );
         this.explicitRelationshipStrategies.add(1.0,
                 new RelationStrategy("ownership-of-blob",
@@ -300,7 +306,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         );
         RolePlayerTypeStrategy blobSmaller = new RolePlayerTypeStrategy("smaller",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "blob")
+                new PrefetchingConceptIdStorageProvider(random, storage, "blob")
         );
         this.explicitRelationshipStrategies.add(1.0,
                 new RelationStrategy("sizing-blob",
@@ -320,7 +326,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         );
         RolePlayerTypeStrategy circleSmallerBlob = new RolePlayerTypeStrategy("smaller",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "circle")
+                new PrefetchingConceptIdStorageProvider(random, storage, "circle")
         );
         this.explicitRelationshipStrategies.add(1.0,
                 new RelationStrategy("sizing-circle",
@@ -340,7 +346,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         );
         RolePlayerTypeStrategy squareSmallerBlob = new RolePlayerTypeStrategy("smaller",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "square")
+                new PrefetchingConceptIdStorageProvider(random, storage, "square")
         );
         this.explicitRelationshipStrategies.add(1.0,
                 new RelationStrategy("sizing-square",
@@ -360,7 +366,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         );
         RolePlayerTypeStrategy squareSmallerCircle = new RolePlayerTypeStrategy("smaller",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "square")
+                new PrefetchingConceptIdStorageProvider(random, storage, "square")
         );
         this.explicitRelationshipStrategies.add(1.0,
                 new RelationStrategy("sizing-square",
@@ -379,7 +385,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         );
         RolePlayerTypeStrategy blobSmallerSquare = new RolePlayerTypeStrategy("smaller",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "blob")
+                new PrefetchingConceptIdStorageProvider(random, storage, "blob")
         );
         this.explicitRelationshipStrategies.add(1.0,
                 new RelationStrategy("sizing-blob",
@@ -472,7 +478,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
         /* --- Ownership cost --- */
         RolePlayerTypeStrategy blobOwnershipCostOwner = new RolePlayerTypeStrategy("@has-ownership-cost-owner",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "ownership-of-blob")
+                new PrefetchingConceptIdStorageProvider(random, storage, "ownership-of-blob")
         );
         RolePlayerTypeStrategy blobOwnershipCostValue = new RolePlayerTypeStrategy("@has-ownership-cost-value",
                 new FixedConstant(1),
@@ -491,7 +497,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
 
         RolePlayerTypeStrategy circleOwnershipCostOwner = new RolePlayerTypeStrategy("@has-ownership-cost-owner",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "ownership-of-circle")
+                new PrefetchingConceptIdStorageProvider(random, storage, "ownership-of-circle")
         );
         RolePlayerTypeStrategy circleOwnershipCostValue = new RolePlayerTypeStrategy("@has-ownership-cost-value",
                 new FixedConstant(1),
@@ -514,7 +520,7 @@ public class GenericUniformNetworkDefinition implements DataGeneratorDefinition
 
         RolePlayerTypeStrategy squareOwnershipCostOwner = new RolePlayerTypeStrategy("@has-ownership-cost-owner",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "ownership-of-square")
+                new PrefetchingConceptIdStorageProvider(random, storage, "ownership-of-square")
         );
         RolePlayerTypeStrategy squareOwnershipCostValue = new RolePlayerTypeStrategy("@has-ownership-cost-value",
                 new FixedConstant(1),
@@ -21,8 +21,8 @@ package grakn.benchmark.generator.definition;
 import grakn.benchmark.generator.probdensity.FixedConstant;
 import grakn.benchmark.generator.probdensity.FixedUniform;
 import grakn.benchmark.generator.provider.concept.CentralConceptProvider;
-import grakn.benchmark.generator.provider.concept.ConceptIdStorageProvider;
 import grakn.benchmark.generator.provider.concept.NotInRelationshipConceptIdProvider;
+import grakn.benchmark.generator.provider.concept.PrefetchingConceptIdStorageProvider;
 import grakn.benchmark.generator.provider.value.RandomStringProvider;
 import grakn.benchmark.generator.storage.ConceptStorage;
 import grakn.benchmark.generator.strategy.AttributeStrategy;
@@ -66,6 +66,11 @@ public class RoadNetworkDefinition implements DataGeneratorDefinition {
         this.metaTypeStrategies.add(1.0, entityStrategies);
         this.metaTypeStrategies.add(1.25, relationshipStrategies);
         this.metaTypeStrategies.add(1.0, attributeStrategies);
+
+        this.entityStrategies.freeze();
+        this.relationshipStrategies.freeze();
+        this.attributeStrategies.freeze();
+        this.metaTypeStrategies.freeze();
     }
 
     private void buildEntityStrategies() {
@@ -111,7 +116,7 @@ public class RoadNetworkDefinition implements DataGeneratorDefinition {
         RolePlayerTypeStrategy anyEndpointRoads = new RolePlayerTypeStrategy(
                 "endpoint",
                 new FixedUniform(random, 1, 5), // choose 1-5 other role players for an intersection
-                new ConceptIdStorageProvider(random, storage, "road")
+                new PrefetchingConceptIdStorageProvider(random, storage, "road")
         );
 
         this.relationshipStrategies.add(
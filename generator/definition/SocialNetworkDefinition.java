@@ -22,7 +22,8 @@ import grakn.benchmark.generator.probdensity.FixedConstant;
 import grakn.benchmark.generator.probdensity.FixedDiscreteGaussian;
 import grakn.benchmark.generator.probdensity.ScalingBoundedZipf;
 import grakn.benchmark.generator.probdensity.ScalingDiscreteGaussian;
-import grakn.benchmark.generator.provider.concept.ConceptIdStorageProvider;
+import grakn.benchmark.generator.provider.concept.PreferentialAttachmentConceptIdProvider;
+import grakn.benchmark.generator.provider.concept.PrefetchingConceptIdStorageProvider;
 import grakn.benchmark.generator.provider.value.RandomStringProvider;
 import grakn.benchmark.generator.storage.ConceptStorage;
 import grakn.benchmark.generator.strategy.AttributeStrategy;
@@ -66,6 +67,11 @@ public class SocialNetworkDefinition implements DataGeneratorDefinition {
         this.metaTypeStrategies.add(1.0, entityStrategies);
         this.metaTypeStrategies.add(1.2, relationshipStrategies);
         this.metaTypeStrategies.add(1.0, attributeStrategies);
+
+        this.entityStrategies.freeze();
+        this.relationshipStrategies.freeze();
+        this.attributeStrategies.freeze();
+        this.metaTypeStrategies.freeze();
     }
 
     private void buildEntityStrategies() {
@@ -102,14 +108,15 @@ public class SocialNetworkDefinition implements DataGeneratorDefinition {
 
     private void  buildExplicitRelationshipStrategies() {
 
-        // friendship
+        // friendship, where people with many friends tend to make more, giving a scale-free friendship graph
         RolePlayerTypeStrategy friendRoleFiller = new RolePlayerTypeStrategy(
                 "friend",
                 new FixedConstant(2),
-                new ConceptIdStorageProvider(
+                new PreferentialAttachmentConceptIdProvider(
                         random,
                         this.storage,
-                        "person")
+                        "person",
+                        2)
         );
         this.relationshipStrategies.add(
                 1.0,
@@ -125,12 +132,12 @@ public class SocialNetworkDefinition implements DataGeneratorDefinition {
         RolePlayerTypeStrategy likedPageRole = new RolePlayerTypeStrategy(
                 "liked",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "page")
+                new PrefetchingConceptIdStorageProvider(random, storage, "page")
         );
         RolePlayerTypeStrategy likerPersonRole = new RolePlayerTypeStrategy(
                 "liker",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "person")
+                new PrefetchingConceptIdStorageProvider(random, storage, "person")
         );
         this.relationshipStrategies.add(
                 1.0,
@@ -148,12 +155,12 @@ public class SocialNetworkDefinition implements DataGeneratorDefinition {
         RolePlayerTypeStrategy nameOwner = new RolePlayerTypeStrategy(
                 "@has-name-owner",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "person")
+                new PrefetchingConceptIdStorageProvider(random, storage, "person")
         );
         RolePlayerTypeStrategy nameValue = new RolePlayerTypeStrategy(
                 "@has-name-value",
                 new FixedConstant(1),
-                new ConceptIdStorageProvider(random, storage, "name")
+                new PrefetchingConceptIdStorageProvider(random, storage, "name")
         );
         this.relationshipStrategies.add(
                 1.0,
@@ -18,10 +18,6 @@
 
 package grakn.benchmark.generator.probdensity;
 
-import org.apache.commons.math3.distribution.ZipfDistribution;
-import org.apache.commons.math3.random.RandomGenerator;
-import org.apache.commons.math3.random.RandomGeneratorFactory;
-
 import java.util.Random;
 
 public class FixedBoundedZipf implements ProbabilityDensityFunction {
@@ -29,44 +25,43 @@ public class FixedBoundedZipf implements ProbabilityDensityFunction {
     private int rangeLimit;
     private double exponent;
 
-    private ZipfDistribution zipf;
+    private ZipfSampler zipf;
 
-    private Integer next;
+    private int next;
+    private boolean hasNext = false;
 
     public FixedBoundedZipf(Random random, int rangeLimit, double exponent) {
         this.rand = random;
         this.rangeLimit = rangeLimit;
         this.exponent = exponent;
 
-        // convert random to Apache Math3 RandomGenerator
-        RandomGenerator gen = RandomGeneratorFactory.createRandomGenerator(this.rand);
         // initialize zipf
-        this.zipf = new ZipfDistribution(gen, this.rangeLimit, this.exponent);
+        this.zipf = new ZipfSampler(this.rand, this.rangeLimit, this.exponent);
 
         System.out.println("Initialized zipf distribution with numerical mean: " + getNumericalMean());
     }
 
     public double getNumericalMean() {
-        return this.zipf.getNumericalMean();
+        return ZipfSampler.mean(this.rangeLimit, this.exponent);
     }
 
     @Override
     public int sample() {
-        takeSampleIfNextNull();
-        int val = next;
-        next = null;
-        return val;
+        takeSampleIfNeeded();
+        hasNext = false;
+        return next;
     }
 
     @Override
     public int peek() {
-        takeSampleIfNextNull();
+        takeSampleIfNeeded();
         return next;
     }
 
-    private void takeSampleIfNextNull() {
-        if (next == null) {
+    private void takeSampleIfNeeded() {
+        if (!hasNext) {
             next = zipf.sample();
+            hasNext = true;
         }
     }
 
@@ -20,31 +20,55 @@ package grakn.benchmark.generator.probdensity;
 
 import org.apache.commons.math3.analysis.UnivariateFunction;
 import org.apache.commons.math3.analysis.solvers.BrentSolver;
-import org.apache.commons.math3.distribution.ZipfDistribution;
-import org.apache.commons.math3.random.RandomGenerator;
-import org.apache.commons.math3.random.RandomGeneratorFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
+/**
+ * A Zipf distribution whose range is a fixed fraction of a growing scale (eg. the size of the graph), and whose
+ * exponent is adjusted as the scale grows so that the mean stays the same fraction of the range.
+ * <p>
+ * Solving for a new exponent is expensive compared to sampling, so it is only done once the scale has moved by more
+ * than a relative threshold since the last solution, and solutions are memoised by (mean fraction, range) across
+ * instances. Samples come from a ZipfSampler, so they take constant time regardless of the range.
+ */
 public class ScalingBoundedZipf implements ProbabilityDensityFunction {
 
     private static final Logger LOG = LoggerFactory.getLogger(ScalingBoundedZipf.class);
 
-    private Random rand;
-    RandomGenerator randomGenerator;
+    public static final double DEFAULT_RESCALE_THRESHOLD = 0.01;
+
+    private static final int STARTING_SCALE = 40;
+
+    // this isn't a real zeta distribution, it's a zipf distribution
+    // so we can apparently go down to exponents near 0, if the range isn't too large
+    // in practical cases, we're probably looking at a range < 1 million nodes or so, which is fine
+    private static final double EXPONENT_LOWER_BOUND = 0.001;
+    private static final double EXPONENT_UPPER_BOUND = 100.0;
+
+    // no exponent can bring the mean down to the target fraction of the range, so every sample is 1
+    private static final double ALWAYS_ONE = Double.NaN;
 
-    private double rangeLimitFraction;
+    private static final Map<Double, Map<Integer, Double>> EXPONENTS = new ConcurrentHashMap<>();
+
+    private final Random rand;
+    private final double rangeLimitFraction;
+    private final double rescaleThreshold;
+    private final Supplier<Integer> scaleSupplier;
+
+    private final double meanFraction;
+    private final Map<Integer, Double> exponentsByRange;
 
     private int previousScale;
     private double previousExponent;
-    private ZipfDistribution zipf;
-
-    private Supplier<Integer> scaleSupplier;
+    private ZipfSampler zipf;
 
-    private Integer next = null;
+    private int next;
+    private boolean hasNext = false;
 
     /**
      * @param random
@@ -53,25 +77,38 @@ public class ScalingBoundedZipf implements ProbabilityDensityFunction {
      * @param startingExponentForScale40 -- Greater than 1.0: this parameter tells us what the exponent for the zipf dist would be, if the scale supplied by scaleSupplier.get() is 40
      */
     public ScalingBoundedZipf(Random random, Supplier<Integer> scaleSupplier, double rangeLimitFactor, double startingExponentForScale40) {
+        this(random, scaleSupplier, rangeLimitFactor, startingExponentForScale40, DEFAULT_RESCALE_THRESHOLD);
+    }
+
+    /**
+     * @param rescaleThreshold -- relative change in scale since the last rescale that triggers a new exponent search,
+     *                         0 to rescale on every change
+     */
+    public ScalingBoundedZipf(Random random, Supplier<Integer> scaleSupplier, double rangeLimitFactor, double startingExponentForScale40,
+                              double rescaleThreshold) {
 
         if (startingExponentForScale40 <= 1.0) {
             throw new RuntimeException("Require starting expontent for zipf to be > 1.0, is: " + startingExponentForScale40);
         }
+        if (rescaleThreshold < 0) {
+            throw new RuntimeException("Require rescale threshold for zipf to be >= 0, is: " + rescaleThreshold);
+        }
 
         this.rand = random;
         this.rangeLimitFraction = rangeLimitFactor;
+        this.rescaleThreshold = rescaleThreshold;
+        this.scaleSupplier = scaleSupplier;
 
-        int dummyStartingScale = 40;
-        this.previousScale = dummyStartingScale;
+        this.previousScale = STARTING_SCALE;
         this.previousExponent = startingExponentForScale40;
 
-        this.scaleSupplier = scaleSupplier;
-
-        // convert random to Apache Math3 RandomGenerator
-        randomGenerator = RandomGeneratorFactory.createRandomGenerator(this.rand);
         // initialize zipf
-        int startingRange = (int)(this.previousScale* this.rangeLimitFraction);
-        this.zipf = new ZipfDistribution(randomGenerator, startingRange, this.previousExponent);
+        int startingRange = (int) (this.previousScale * this.rangeLimitFraction);
+        this.zipf = new ZipfSampler(rand, startingRange, this.previousExponent);
+
+        // every rescale preserves mean/range, so all later distributions share the starting distribution's ratio
+        this.meanFraction = ZipfSampler.mean(startingRange, startingExponentForScale40) / startingRange;
+        this.exponentsByRange = EXPONENTS.computeIfAbsent(meanFraction, fraction -> new ConcurrentHashMap<>());
 
         LOG.debug("Initialized dummy zipf distribution with limit: " + this.previousScale +
                 ", exponent: " + startingExponentForScale40 +
@@ -79,15 +116,17 @@ public class ScalingBoundedZipf implements ProbabilityDensityFunction {
     }
 
     public double getNumericalMean() {
-        return this.zipf.getNumericalMean();
+        if (Double.isNaN(previousExponent)) {
+            return 1.0;
+        }
+        return ZipfSampler.mean(zipf.numberOfElements(), previousExponent);
     }
 
     @Override
     public int sample() {
         computeNextSample();
-        int val = next;
-        next = null;
-        return val;
+        hasNext = false;
+        return next;
     }
 
     @Override
@@ -97,66 +136,71 @@ public class ScalingBoundedZipf implements ProbabilityDensityFunction {
     }
 
     private void computeNextSample() {
+        if (hasNext) {
+            return;
+        }
         int newScale = scaleSupplier.get();
-        if (next == null || newScale != previousScale) {
-            if (newScale != previousScale && newScale != 0) {
-                // this isn't a real zeta distribution, it's a zipf distribution
-                // so we can apparently go down to exponents near 0, if the range isn't too large
-                // in practical cases, we're probably looking at a range < 1 million nodes or so, which is fine
-                double expLowerBound = 0.001;
-                double expUpperBound = 100.0;
-
-                int oldRange = (int) (this.previousScale * this.rangeLimitFraction);
-                int newRange = (int) (newScale * this.rangeLimitFraction);
-                NewExponentFinder func = new NewExponentFinder(oldRange, newRange, zipf);
-                double newExponent;
-
-                if (func.value(expLowerBound) <= 0 && func.value(expUpperBound) <= 0) {
-                    // we can't produce means less than 1.0
-                    // if this condition is true, we are searching for an exponent that produces
-                    // a mean less than 1.0
-                    // so just return the smallest value (= 1.0)
-                    next = 1;
-                } else if (func.value(expLowerBound) > 0 && func.value(expUpperBound) > 0) {
-                    throw new RuntimeException("No solution for new Zipf distribution parameters");
-                } else {
-                    LOG.debug("Starting parameter search for new Zipf distribution exponent");
-                    // updated scale means we need to update our zipf distribution
-                    BrentSolver solver = new BrentSolver();
-                    newExponent = solver.solve(100, func, expLowerBound, expUpperBound, previousExponent);
-                    LOG.debug("Old (range, exponent) zipf parameters: (" + oldRange + ", " + previousExponent + "). New params: (" +
-                            newRange + ", " + newExponent + ")");
-                    zipf = new ZipfDistribution(randomGenerator, newRange, newExponent);
-                    previousExponent = newExponent;
-                    previousScale = newScale;
-                    next = zipf.sample();
-                }
-            } else if (newScale == 0) {
-                // just return 0 if the allowed range is 0 length
-                next = 0;
-            } else {
-                // just sample from the current zipf again
-                next = zipf.sample();
+        if (newScale == 0) {
+            // just return 0 if the allowed range is 0 length
+            next = 0;
+        } else {
+            if (Math.abs(newScale - previousScale) > rescaleThreshold * previousScale) {
+                rescale(newScale);
             }
+            next = Double.isNaN(previousExponent) ? 1 : zipf.sample();
         }
+        hasNext = true;
     }
 
+    private void rescale(int newScale) {
+        int newRange = Math.max(1, (int) (newScale * this.rangeLimitFraction));
+        Double newExponent = exponentsByRange.get(newRange);
+        if (newExponent == null) {
+            newExponent = findExponent(newRange);
+            exponentsByRange.put(newRange, newExponent);
+        }
+        LOG.debug("Old (scale, exponent) zipf parameters: (" + previousScale + ", " + previousExponent + "). New params: (" +
+                newScale + ", " + newExponent + ")");
+
+        previousScale = newScale;
+        previousExponent = newExponent;
+        if (!Double.isNaN(newExponent)) {
+            zipf = new ZipfSampler(rand, newRange, newExponent);
+        }
+    }
+
+    private double findExponent(int newRange) {
+        MeanFractionFinder func = new MeanFractionFinder(meanFraction, newRange);
+        double lowerValue = func.value(EXPONENT_LOWER_BOUND);
+        double upperValue = func.value(EXPONENT_UPPER_BOUND);
+
+        if (lowerValue <= 0 && upperValue <= 0) {
+            // we can't produce means less than 1.0
+            // if this condition is true, we are searching for an exponent that produces
+            // a mean less than 1.0
+            // so just return the smallest value (= 1.0)
+            return ALWAYS_ONE;
+        } else if (lowerValue > 0 && upperValue > 0) {
+            throw new RuntimeException("No solution for new Zipf distribution parameters");
+        }
+
+        LOG.debug("Starting parameter search for new Zipf distribution exponent");
+        double startingExponent = Double.isNaN(previousExponent) ? 1.0 : previousExponent;
+        BrentSolver solver = new BrentSolver();
+        return solver.solve(100, func, EXPONENT_LOWER_BOUND, EXPONENT_UPPER_BOUND, startingExponent);
+    }
 
-    private static class NewExponentFinder implements UnivariateFunction {
-        private int previousRange;
-        private int newRange;
-        private double previousMean;
+    private static class MeanFractionFinder implements UnivariateFunction {
+        private final double meanFraction;
+        private final int newRange;
 
-        public NewExponentFinder(int previousRange, int newScale, ZipfDistribution previousZipfDistribution) {
-            this.previousRange = previousRange;
-            this.newRange = newScale;
-            this.previousMean = previousZipfDistribution.getNumericalMean();
+        MeanFractionFinder(double meanFraction, int newRange) {
+            this.meanFraction = meanFraction;
+            this.newRange = newRange;
         }
 
         public double value(double exponent) {
-            ZipfDistribution newZipfDistribution = new ZipfDistribution(newRange, exponent);
-            double newMean = newZipfDistribution.getNumericalMean();
-            return (previousMean/previousRange) - (newMean/newRange);
+            return meanFraction - ZipfSampler.mean(newRange, exponent) / newRange;
         }
     }
 }
@@ -0,0 +1,157 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.probdensity;
+
+import java.util.Random;
+
+/**
+ * Samples a Zipf distribution over 1..numberOfElements with the given exponent, using rejection-inversion
+ * (Hormann and Derflinger, "Rejection-inversion to generate variates from monotone discrete distributions", 1996).
+ * <p>
+ * All constants are computed on construction; each sample then takes O(1) expected time, independent of the
+ * number of elements, and allocates nothing.
+ */
+public class ZipfSampler {
+
+    private static final int EXACT_TERMS = 1000;
+
+    private final Random random;
+    private final int numberOfElements;
+    private final double exponent;
+
+    private final double hIntegralX1;
+    private final double hIntegralNumberOfElements;
+    private final double s;
+
+    public ZipfSampler(Random random, int numberOfElements, double exponent) {
+        if (numberOfElements < 1) {
+            throw new IllegalArgumentException("Zipf distribution needs at least one element, got " + numberOfElements);
+        }
+        if (exponent <= 0) {
+            throw new IllegalArgumentException("Zipf exponent must be greater than zero, got " + exponent);
+        }
+        this.random = random;
+        this.numberOfElements = numberOfElements;
+        this.exponent = exponent;
+
+        this.hIntegralX1 = hIntegral(1.5) - 1.0;
+        this.hIntegralNumberOfElements = hIntegral(numberOfElements + 0.5);
+        this.s = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2.0));
+    }
+
+    public int numberOfElements() {
+        return numberOfElements;
+    }
+
+    public double exponent() {
+        return exponent;
+    }
+
+    public int sample() {
+        while (true) {
+            double u = hIntegralNumberOfElements + random.nextDouble() * (hIntegralX1 - hIntegralNumberOfElements);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+
+            // guard against rounding at the edges of the support
+            if (k < 1) {
+                k = 1;
+            } else if (k > numberOfElements) {
+                k = numberOfElements;
+            }
+
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * @return the mean of a Zipf distribution over 1..numberOfElements
+     */
+    public static double mean(int numberOfElements, double exponent) {
+        return generalizedHarmonic(numberOfElements, exponent - 1.0) / generalizedHarmonic(numberOfElements, exponent);
+    }
+
+    /**
+     * Sum of k^-t for k in 1..n. The first terms are summed exactly, and the rest of the sum, being of a smooth
+     * function, is approximated by the Euler-Maclaurin formula to well within double precision. This makes the cost
+     * independent of n, which matters when searching for an exponent over large ranges.
+     */
+    static double generalizedHarmonic(int n, double t) {
+        int exactTerms = Math.min(n, EXACT_TERMS);
+        double sum = 0.0;
+        for (int k = exactTerms; k >= 1; k--) {
+            // smallest terms first, to limit rounding error
+            sum += Math.pow(k, -t);
+        }
+        if (n == exactTerms) {
+            return sum;
+        }
+
+        double a = exactTerms + 1;
+        double logRatio = Math.log(n / a);
+        double integral = Math.pow(a, 1.0 - t) * logRatio * helper2((1.0 - t) * logRatio);
+        double ends = (Math.pow(a, -t) + Math.pow(n, -t)) / 2.0;
+        double firstDerivatives = -t * (Math.pow(n, -t - 1.0) - Math.pow(a, -t - 1.0)) / 12.0;
+        double thirdDerivatives = -t * (t + 1.0) * (t + 2.0) * (Math.pow(n, -t - 3.0) - Math.pow(a, -t - 3.0)) / 720.0;
+        return sum + integral + ends + firstDerivatives - thirdDerivatives;
+    }
+
+    /**
+     * H(x), an integral of h(x) = x^-exponent, with the constant chosen so that it is well-behaved as exponent -> 1
+     */
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return helper2((1.0 - exponent) * logX) * logX;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = x * (1.0 - exponent);
+        if (t < -1.0) {
+            // limit value, to avoid NaN through rounding
+            t = -1.0;
+        }
+        return Math.exp(helper1(t) * x);
+    }
+
+    /**
+     * log(1 + x) / x, accurate for x near 0
+     */
+    private static double helper1(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.log1p(x) / x;
+        }
+        return 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+    }
+
+    /**
+     * (exp(x) - 1) / x, accurate for x near 0
+     */
+    private static double helper2(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.expm1(x) / x;
+        }
+        return 1.0 + x * 0.5 * (1.0 + x * (1.0 / 3.0) * (1.0 + 0.25 * x));
+    }
+}
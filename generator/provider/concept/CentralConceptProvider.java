@@ -63,6 +63,11 @@ public class CentralConceptProvider implements ConceptIdProvider {
         return !uniqueConceptIdsList.isEmpty();
     }
 
+    @Override
+    public String getTypeLabel() {
+        return conceptIdProvider.getTypeLabel();
+    }
+
     @Override
     public boolean hasNextN(int n) {
         // because we use this as a circular buffer
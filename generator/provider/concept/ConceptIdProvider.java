@@ -24,4 +24,9 @@ import java.util.Iterator;
 
 public interface ConceptIdProvider extends Iterator<ConceptId> {
     boolean hasNextN(int n);
+
+    /**
+     * @return the type of the concepts provided, so that generated role players need not be looked up in Grakn
+     */
+    String getTypeLabel();
 }
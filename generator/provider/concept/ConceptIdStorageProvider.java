@@ -25,7 +25,7 @@ import java.util.Random;
 
 public class ConceptIdStorageProvider implements ConceptIdProvider {
 
-    private final Random rand;
+    protected final Random rand;
     ConceptStorage conceptStorage;
     protected String typeLabel;
 
@@ -40,6 +40,11 @@ public class ConceptIdStorageProvider implements ConceptIdProvider {
         return this.conceptStorage.getConceptCount(this.typeLabel) > 0;
     }
 
+    @Override
+    public String getTypeLabel() {
+        return typeLabel;
+    }
+
     @Override
     public boolean hasNextN(int n) {
         return this.conceptStorage.getConceptCount(this.typeLabel) >= n;
@@ -21,9 +21,14 @@ package grakn.benchmark.generator.provider.concept;
 import grakn.benchmark.generator.storage.ConceptStorage;
 import grakn.core.concept.ConceptId;
 
-import java.util.List;
 import java.util.Random;
 
+/**
+ * Provides concepts that have not yet played a role in a relationship.
+ * <p>
+ * Each concept provided is claimed in the storage, so it is not provided again - by this or any other
+ * provider for the same role - while the batch of queries it was provided for is still being inserted.
+ */
 public class NotInRelationshipConceptIdProvider implements ConceptIdProvider {
 
     private String relationshipLabel;
@@ -48,19 +53,22 @@ public class NotInRelationshipConceptIdProvider implements ConceptIdProvider {
 
     @Override
     public boolean hasNext() {
-        return !conceptStorage.getIdsNotPlayingRole(typeLabel, relationshipLabel, roleLabel).isEmpty();
+        return conceptStorage.numIdsNotPlayingRole(typeLabel, relationshipLabel, roleLabel) > 0;
+    }
+
+    @Override
+    public String getTypeLabel() {
+        return typeLabel;
     }
 
     @Override
     public boolean hasNextN(int n) {
-        return conceptStorage.getIdsNotPlayingRole(typeLabel, relationshipLabel, roleLabel).size() >= n;
+        return conceptStorage.numIdsNotPlayingRole(typeLabel, relationshipLabel, roleLabel) >= n;
     }
 
     @Override
     public ConceptId next() {
-        List<ConceptId> notInRelationshipConceptIds = conceptStorage.getIdsNotPlayingRole(typeLabel, relationshipLabel, roleLabel);
-        int randomOffset = rand.nextInt(notInRelationshipConceptIds.size());
-        return notInRelationshipConceptIds.get(randomOffset);
+        return conceptStorage.claimRandomIdNotPlayingRole(typeLabel, relationshipLabel, roleLabel, rand);
     }
 
 }
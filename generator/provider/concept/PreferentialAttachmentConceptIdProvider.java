@@ -0,0 +1,76 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator.provider.concept;
+
+import grakn.benchmark.generator.storage.ConceptStorage;
+import grakn.core.concept.ConceptId;
+
+import java.util.Random;
+
+/**
+ * Provides instances of a type by preferential attachment (as in the Barabasi-Albert model): each instance is
+ * chosen with probability proportional to the number of roles it already plays, plus an initial attractiveness.
+ * <p>
+ * Filling a role with this provider makes well-connected instances ever more connected, so the degrees of the
+ * type's instances follow a power law, with a few hubs, rather than the narrow distribution that uniform
+ * sampling produces. A higher initial attractiveness gives newer instances more of a chance, so the power law
+ * falls off more steeply and the hubs are smaller.
+ */
+public class PreferentialAttachmentConceptIdProvider implements ConceptIdProvider {
+
+    private final Random rand;
+    private final ConceptStorage conceptStorage;
+    private final String typeLabel;
+    private final int initialAttractiveness;
+
+    public PreferentialAttachmentConceptIdProvider(Random rand, ConceptStorage conceptStorage, String typeLabel) {
+        this(rand, conceptStorage, typeLabel, 1);
+    }
+
+    public PreferentialAttachmentConceptIdProvider(Random rand, ConceptStorage conceptStorage, String typeLabel, int initialAttractiveness) {
+        if (initialAttractiveness < 1) {
+            throw new IllegalArgumentException("Initial attractiveness must be at least 1, got " + initialAttractiveness);
+        }
+        this.rand = rand;
+        this.conceptStorage = conceptStorage;
+        this.typeLabel = typeLabel;
+        this.initialAttractiveness = initialAttractiveness;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return conceptStorage.getConceptCount(typeLabel) > 0;
+    }
+
+    @Override
+    public String getTypeLabel() {
+        return typeLabel;
+    }
+
+    @Override
+    public boolean hasNextN(int n) {
+        return conceptStorage.getConceptCount(typeLabel) >= n;
+    }
+
+    @Override
+    public ConceptId next() {
+        return conceptStorage.getRandomIdByDegree(typeLabel, initialAttractiveness, rand);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator.provider.concept;
+
+import grakn.benchmark.generator.storage.ConceptStorage;
+import grakn.core.concept.ConceptId;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Provides uniformly random instances of a type, like ConceptIdStorageProvider, but draws a number of random
+ * offsets at once and resolves them in a single storage call, instead of one lookup per concept provided.
+ * <p>
+ * Offsets are drawn from the Random exactly as ConceptIdStorageProvider draws them. Prefetched ids are only
+ * provided while the number of instances of the type is unchanged, and are discarded otherwise, so that each
+ * concept provided is uniform over the instances in storage at the time.
+ */
+public class PrefetchingConceptIdStorageProvider extends ConceptIdStorageProvider {
+
+    public static final int DEFAULT_PREFETCH_SIZE = 32;
+
+    private final int prefetchSize;
+
+    private List<ConceptId> prefetched = Collections.emptyList();
+    private int position = 0;
+    private int prefetchedConceptCount = -1;
+
+    public PrefetchingConceptIdStorageProvider(Random rand, ConceptStorage conceptStorage, String typeLabel) {
+        this(rand, conceptStorage, typeLabel, DEFAULT_PREFETCH_SIZE);
+    }
+
+    public PrefetchingConceptIdStorageProvider(Random rand, ConceptStorage conceptStorage, String typeLabel, int prefetchSize) {
+        super(rand, conceptStorage, typeLabel);
+        if (prefetchSize < 1) {
+            throw new IllegalArgumentException("Prefetch size must be at least 1, got " + prefetchSize);
+        }
+        this.prefetchSize = prefetchSize;
+    }
+
+    @Override
+    public ConceptId next() {
+        int conceptCount = this.conceptStorage.getConceptCount(this.typeLabel);
+        if (position == prefetched.size() || conceptCount != prefetchedConceptCount) {
+            prefetch(conceptCount);
+        }
+        return prefetched.get(position++);
+    }
+
+    private void prefetch(int conceptCount) {
+        int[] offsets = new int[prefetchSize];
+        for (int i = 0; i < prefetchSize; i++) {
+            offsets[i] = rand.nextInt(conceptCount);
+        }
+        prefetched = conceptStorage.getConceptIds(typeLabel, offsets);
+        position = 0;
+        prefetchedConceptCount = conceptCount;
+    }
+}
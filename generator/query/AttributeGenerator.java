@@ -18,62 +18,62 @@
 
 package grakn.benchmark.generator.query;
 
-import grakn.benchmark.generator.DataGeneratorException;
 import grakn.benchmark.generator.strategy.AttributeStrategy;
-import graql.lang.Graql;
-import graql.lang.query.GraqlInsert;
-import graql.lang.statement.Statement;
-import graql.lang.statement.Variable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Iterator;
-
-import static graql.lang.Graql.var;
+import java.util.List;
 
 
 /**
- * Generates queries for inserting attribute values
+ * Generates queries for inserting attribute values, each query inserting up to instancesPerQuery of them
+ * with one variable per value
  */
 public class AttributeGenerator<Datatype> implements QueryGenerator {
     private static final Logger LOG = LoggerFactory.getLogger(AttributeGenerator.class);
     private final AttributeStrategy<Datatype> strategy;
+    private final int instancesPerQuery;
+    private final QueryTemplates templates;
 
     public AttributeGenerator(AttributeStrategy<Datatype> strategy) {
+        this(strategy, 1, new QueryTemplates());
+    }
+
+    public AttributeGenerator(AttributeStrategy<Datatype> strategy, int instancesPerQuery) {
+        this(strategy, instancesPerQuery, new QueryTemplates());
+    }
+
+    public AttributeGenerator(AttributeStrategy<Datatype> strategy, int instancesPerQuery, QueryTemplates templates) {
         this.strategy = strategy;
+        this.instancesPerQuery = instancesPerQuery;
+        this.templates = templates;
     }
 
     @Override
-    public Iterator<GraqlInsert> generate() {
+    public Iterator<GeneratedInsert> generate() {
         LOG.trace("Generating Attr " + strategy.getTypeLabel() + ", target quantity: " + strategy.getNumInstancesPDF().peek());
 
-        return new Iterator<GraqlInsert>() {
+        return new Iterator<GeneratedInsert>() {
             String attributeTypeLabel = strategy.getTypeLabel();
             Iterator<Datatype> valueProvider = strategy.getValueProvider();
-            int queriesToGenerate = strategy.getNumInstancesPDF().sample();
-            int queriesGenerated = 0;
+            int instancesToGenerate = strategy.getNumInstancesPDF().sample();
+            int instancesGenerated = 0;
 
             @Override
             public boolean hasNext() {
-                return (queriesGenerated < queriesToGenerate) && valueProvider.hasNext();
+                return (instancesGenerated < instancesToGenerate) && valueProvider.hasNext();
             }
 
             @Override
-            public GraqlInsert next() {
-                queriesGenerated++;
-                Variable attr = new Variable().asUserDefined();
-                Datatype value = valueProvider.next(); // get one attribute value
-
-                Statement attributeValue = var(attr);
-                if (value instanceof Integer) {
-                    attributeValue = attributeValue.val((Integer) value);
-                } else if (value instanceof String) {
-                    attributeValue = attributeValue.val((String) value);
-                } else {
-                    throw new DataGeneratorException("Unimplemented data type " + value.getClass());
+            public GeneratedInsert next() {
+                List<Object> values = new ArrayList<>(instancesPerQuery);
+                while (hasNext() && values.size() < instancesPerQuery) {
+                    instancesGenerated++;
+                    values.add(valueProvider.next()); // get one attribute value
                 }
-
-                return Graql.insert(var(attr).isa(attributeTypeLabel), attributeValue);
+                return templates.attributes(attributeTypeLabel, values.size()).bindValues(values.toArray());
             }
         };
     }
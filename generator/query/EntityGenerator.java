@@ -19,43 +19,55 @@
 package grakn.benchmark.generator.query;
 
 import grakn.benchmark.generator.strategy.EntityStrategy;
-import graql.lang.Graql;
-import graql.lang.query.GraqlInsert;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Iterator;
 
 /**
- * Generates queries for inserting entity instances
+ * Generates queries for inserting entity instances, each query inserting up to instancesPerQuery of them
+ * with one variable per instance
  */
 public class EntityGenerator implements QueryGenerator {
     private static final Logger LOG = LoggerFactory.getLogger(EntityGenerator.class);
 
     private final EntityStrategy strategy;
+    private final int instancesPerQuery;
+    private final QueryTemplates templates;
 
     public EntityGenerator(EntityStrategy strategy) {
+        this(strategy, 1, new QueryTemplates());
+    }
+
+    public EntityGenerator(EntityStrategy strategy, int instancesPerQuery) {
+        this(strategy, instancesPerQuery, new QueryTemplates());
+    }
+
+    public EntityGenerator(EntityStrategy strategy, int instancesPerQuery, QueryTemplates templates) {
         this.strategy = strategy;
+        this.instancesPerQuery = instancesPerQuery;
+        this.templates = templates;
     }
 
     @Override
-    public Iterator<GraqlInsert> generate() {
+    public Iterator<GeneratedInsert> generate() {
         LOG.trace("Generating Entity Type " + strategy.getTypeLabel() + ", target quantity: " + strategy.getNumInstancesPDF().peek());
 
-        return new Iterator<GraqlInsert>() {
+        return new Iterator<GeneratedInsert>() {
             String typeLabel = strategy.getTypeLabel();
-            int queriesToGenerate = strategy.getNumInstancesPDF().sample();
-            int queriesGenerated = 0;
+            int instancesToGenerate = strategy.getNumInstancesPDF().sample();
+            int instancesGenerated = 0;
 
             @Override
             public boolean hasNext() {
-                return queriesGenerated < queriesToGenerate;
+                return instancesGenerated < instancesToGenerate;
             }
 
             @Override
-            public GraqlInsert next() {
-                queriesGenerated++;
-                return Graql.insert(Graql.var("x").isa(typeLabel));
+            public GeneratedInsert next() {
+                int instances = Math.min(instancesPerQuery, instancesToGenerate - instancesGenerated);
+                instancesGenerated += instances;
+                return templates.entities(typeLabel, instances).bind();
             }
         };
     }
@@ -0,0 +1,89 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.query;
+
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.core.concept.ConceptId;
+import grakn.core.concept.answer.ConceptMap;
+import graql.lang.query.GraqlInsert;
+import graql.lang.statement.Variable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A generated insert query, with the template it was bound from and the parameters bound: the value of each
+ * inserted attribute, and the role players a relationship is inserted between. Together these say what the
+ * query inserted, so the concept storage can be updated from the query's answers without asking Grakn
+ * about any concept.
+ */
+public class GeneratedInsert {
+
+    private final QueryTemplate template;
+    private final GraqlInsert query;
+    private final Object[] values;
+    private final List<ConceptStorageBatch.RolePlayer> rolePlayers;
+
+    GeneratedInsert(QueryTemplate template, GraqlInsert query, Object[] values, List<ConceptStorageBatch.RolePlayer> rolePlayers) {
+        this.template = template;
+        this.query = query;
+        this.values = values;
+        this.rolePlayers = rolePlayers;
+    }
+
+    public QueryTemplate template() {
+        return template;
+    }
+
+    public GraqlInsert query() {
+        return query;
+    }
+
+    /**
+     * @param index position of the variable in the template's inserted variables
+     * @return the value of the attribute inserted as that variable, or null if not an attribute
+     */
+    public Object insertedValue(int index) {
+        return (values == null) ? null : values[index];
+    }
+
+    public List<ConceptStorageBatch.RolePlayer> rolePlayers() {
+        return rolePlayers;
+    }
+
+    /**
+     * @return id of each concept this query inserted, read from its answers, in the order of the answers and then
+     * of the template's inserted variables
+     */
+    public List<ConceptId> insertedIds(List<ConceptMap> answers) {
+        List<Variable> insertedVariables = template.insertedVariables();
+        List<ConceptId> ids = new ArrayList<>(answers.size() * insertedVariables.size());
+        for (ConceptMap answer : answers) {
+            for (Variable variable : insertedVariables) {
+                ids.add(answer.get(variable).id());
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return query.toString();
+    }
+}
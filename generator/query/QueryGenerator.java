@@ -18,17 +18,14 @@
 
 package grakn.benchmark.generator.query;
 
-
-import graql.lang.query.GraqlInsert;
-
 import java.util.Iterator;
 
 /**
- * Creates a batch of insert queries as an iterator
+ * Creates a batch of insert queries as an iterator, each with the metadata needed to record what it inserted
  */
 public interface QueryGenerator {
     /**
      * Generate insert query iterator
      */
-    Iterator<GraqlInsert> generate();
+    Iterator<GeneratedInsert> generate();
 }
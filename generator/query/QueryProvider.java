@@ -18,38 +18,71 @@
 
 package grakn.benchmark.generator.query;
 
+import grakn.benchmark.generator.DataGeneratorException;
 import grakn.benchmark.generator.definition.DataGeneratorDefinition;
 import grakn.benchmark.generator.strategy.AttributeStrategy;
 import grakn.benchmark.generator.strategy.EntityStrategy;
 import grakn.benchmark.generator.strategy.RelationStrategy;
 import grakn.benchmark.generator.strategy.TypeStrategy;
-import graql.lang.query.GraqlInsert;
 
 import java.util.Iterator;
 
 public class QueryProvider {
+
+    /** Relationships are inserted with their role players bound in a match clause */
+    public static final String MATCH_INSERT = "match_insert";
+    /** Relationships are inserted with their role players referenced by id, without a match clause */
+    public static final String ID_INSERT = "id_insert";
+    /** Alternate between the two for each batch of relationships, to compare their throughput */
+    public static final String COMPARE_RELATION_INSERTS = "compare";
+
     private final DataGeneratorDefinition dataGeneratorDefinition;
+    private final String relationInsertMode;
+    private final int defaultInstancesPerQuery;
+    private final QueryTemplates templates;
+    private boolean nextRelationsIdInsert;
 
     public QueryProvider(DataGeneratorDefinition dataGeneratorDefinition) {
-        this.dataGeneratorDefinition = dataGeneratorDefinition;
+        this(dataGeneratorDefinition, MATCH_INSERT, 1);
+    }
 
+    /**
+     * @param defaultInstancesPerQuery how many entities or attributes to insert per query, where the strategy
+     *                                 does not set its own
+     */
+    public QueryProvider(DataGeneratorDefinition dataGeneratorDefinition, String relationInsertMode, int defaultInstancesPerQuery) {
+        if (!MATCH_INSERT.equals(relationInsertMode) && !ID_INSERT.equals(relationInsertMode) && !COMPARE_RELATION_INSERTS.equals(relationInsertMode)) {
+            throw new DataGeneratorException("Unknown relation insert mode: " + relationInsertMode);
+        }
+        this.dataGeneratorDefinition = dataGeneratorDefinition;
+        this.relationInsertMode = relationInsertMode;
+        this.defaultInstancesPerQuery = defaultInstancesPerQuery;
+        this.templates = new QueryTemplates();
+        this.nextRelationsIdInsert = ID_INSERT.equals(relationInsertMode);
     }
 
-    public Iterator<GraqlInsert> nextQueryBatch() {
+    public Iterator<GeneratedInsert> nextQueryBatch() {
         QueryGenerator queryGenerator;
         TypeStrategy typeStrategy = dataGeneratorDefinition.sampleNextStrategy();
 
 
         if (typeStrategy instanceof EntityStrategy) {
-            queryGenerator = new EntityGenerator((EntityStrategy) typeStrategy);
+            queryGenerator = new EntityGenerator((EntityStrategy) typeStrategy, instancesPerQuery(typeStrategy), templates);
         } else if (typeStrategy instanceof RelationStrategy) {
-            queryGenerator = new RelationGenerator((RelationStrategy) typeStrategy);
+            queryGenerator = new RelationGenerator((RelationStrategy) typeStrategy, nextRelationsIdInsert, templates);
+            if (COMPARE_RELATION_INSERTS.equals(relationInsertMode)) {
+                nextRelationsIdInsert = !nextRelationsIdInsert;
+            }
         } else if (typeStrategy instanceof AttributeStrategy) {
-            queryGenerator = new AttributeGenerator((AttributeStrategy) typeStrategy);
+            queryGenerator = new AttributeGenerator((AttributeStrategy) typeStrategy, instancesPerQuery(typeStrategy), templates);
         } else {
             throw new RuntimeException("Couldn't find a matching Generator for this strategy");
         }
         return queryGenerator.generate();
     }
 
+    private int instancesPerQuery(TypeStrategy typeStrategy) {
+        Integer instancesPerQuery = typeStrategy.getInstancesPerQuery();
+        return (instancesPerQuery != null) ? instancesPerQuery : defaultInstancesPerQuery;
+    }
 }
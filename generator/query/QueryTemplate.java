@@ -0,0 +1,204 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.query;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.core.concept.ConceptId;
+import graql.lang.Graql;
+import graql.lang.pattern.Pattern;
+import graql.lang.query.GraqlInsert;
+import graql.lang.statement.Statement;
+import graql.lang.statement.Variable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static graql.lang.Graql.var;
+
+/**
+ * The shape of a generated insert query, analysed once: which variables it inserts and of what type,
+ * and for relationships which variable fills each role. Queries of this shape are then produced by binding
+ * the values or role player ids of each instance, without building or walking anything else.
+ * <p>
+ * Templates are created and cached by QueryTemplates.
+ */
+public class QueryTemplate {
+
+    private final String typeLabel;
+    private final List<Variable> insertedVariables;
+    private final List<Statement> isaStatements;
+    private final String relationshipType;
+    private final List<String> roles;
+    private final List<Variable> rolePlayerVariables;
+    private final Statement relationStatement;
+    private final boolean idInsert;
+    private final GraqlInsert fixedQuery;
+
+    private QueryTemplate(String typeLabel, List<Variable> insertedVariables, List<Statement> isaStatements,
+                          String relationshipType, List<String> roles, List<Variable> rolePlayerVariables,
+                          Statement relationStatement, boolean idInsert, GraqlInsert fixedQuery) {
+        this.typeLabel = typeLabel;
+        this.insertedVariables = insertedVariables;
+        this.isaStatements = isaStatements;
+        this.relationshipType = relationshipType;
+        this.roles = roles;
+        this.rolePlayerVariables = rolePlayerVariables;
+        this.relationStatement = relationStatement;
+        this.idInsert = idInsert;
+        this.fixedQuery = fixedQuery;
+    }
+
+    /**
+     * `insert $x0 isa type; ... $xN isa type;` - there is nothing to bind, so the same query is reused
+     */
+    static QueryTemplate entities(String typeLabel, int instances) {
+        List<Variable> variables = variables("x", instances);
+        List<Statement> isaStatements = isaStatements(variables, typeLabel);
+        return new QueryTemplate(typeLabel, variables, isaStatements, null, Collections.emptyList(),
+                Collections.emptyList(), null, false, Graql.insert(isaStatements));
+    }
+
+    /**
+     * `insert $a0 isa type; $a0 <value 0>; ... $aN isa type; $aN <value N>;`
+     */
+    static QueryTemplate attributes(String typeLabel, int instances) {
+        List<Variable> variables = variables("a", instances);
+        return new QueryTemplate(typeLabel, variables, isaStatements(variables, typeLabel), null, Collections.emptyList(),
+                Collections.emptyList(), null, false, null);
+    }
+
+    /**
+     * `match $p0 id <id 0>; ... insert $r (role 0: $p0, ...) isa relationship;`, or with the ids inside the insert
+     *
+     * @param roles the role filled by each role player, in order
+     */
+    static QueryTemplate relationship(String relationshipType, List<String> roles, boolean idInsert) {
+        Variable relationship = new Variable("r");
+        List<Variable> rolePlayerVariables = variables("p", roles.size());
+        Statement relationStatement = var(relationship).isa(relationshipType);
+        for (int i = 0; i < roles.size(); i++) {
+            relationStatement = relationStatement.rel(roles.get(i), var(rolePlayerVariables.get(i)));
+        }
+        return new QueryTemplate(relationshipType, Collections.singletonList(relationship), Collections.emptyList(),
+                relationshipType, Collections.unmodifiableList(new ArrayList<>(roles)), rolePlayerVariables,
+                relationStatement, idInsert, null);
+    }
+
+    private static List<Variable> variables(String prefix, int count) {
+        List<Variable> variables = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            variables.add(new Variable(prefix + i));
+        }
+        return Collections.unmodifiableList(variables);
+    }
+
+    private static List<Statement> isaStatements(List<Variable> variables, String typeLabel) {
+        List<Statement> statements = new ArrayList<>(variables.size());
+        for (Variable variable : variables) {
+            statements.add(var(variable).isa(typeLabel));
+        }
+        return Collections.unmodifiableList(statements);
+    }
+
+    /**
+     * @return the type of every concept this query inserts
+     */
+    public String typeLabel() {
+        return typeLabel;
+    }
+
+    /**
+     * @return the variables bound to the concepts this query inserts
+     */
+    public List<Variable> insertedVariables() {
+        return insertedVariables;
+    }
+
+    /**
+     * @return label of the relationship inserted, or null if this is not a relationship template
+     */
+    public String relationshipType() {
+        return relationshipType;
+    }
+
+    /**
+     * @return the role of each role player slot
+     */
+    public List<String> roles() {
+        return roles;
+    }
+
+    public boolean isIdInsert() {
+        return idInsert;
+    }
+
+    /**
+     * Produce an entity query, which has nothing to bind
+     */
+    public GeneratedInsert bind() {
+        if (fixedQuery == null) {
+            throw new DataGeneratorException("Template for " + typeLabel + " needs values or role players to be bound");
+        }
+        return new GeneratedInsert(this, fixedQuery, null, Collections.emptyList());
+    }
+
+    /**
+     * Produce an attribute query, binding one value to each inserted variable
+     */
+    public GeneratedInsert bindValues(Object[] values) {
+        List<Statement> statements = new ArrayList<>(2 * values.length);
+        for (int i = 0; i < values.length; i++) {
+            Statement attributeValue = var(insertedVariables.get(i));
+            if (values[i] instanceof Integer) {
+                attributeValue = attributeValue.val((Integer) values[i]);
+            } else if (values[i] instanceof String) {
+                attributeValue = attributeValue.val((String) values[i]);
+            } else {
+                throw new DataGeneratorException("Unimplemented data type " + values[i].getClass());
+            }
+            statements.add(isaStatements.get(i));
+            statements.add(attributeValue);
+        }
+        return new GeneratedInsert(this, Graql.insert(statements), values, Collections.emptyList());
+    }
+
+    /**
+     * Produce a relationship query, binding the id, and type, of the concept filling each role player slot
+     */
+    public GeneratedInsert bindRolePlayers(ConceptId[] conceptIds, String[] conceptTypes) {
+        List<ConceptStorageBatch.RolePlayer> rolePlayers = new ArrayList<>(conceptIds.length);
+        List<Statement> idStatements = new ArrayList<>(conceptIds.length + 1);
+        for (int i = 0; i < conceptIds.length; i++) {
+            String conceptId = conceptIds[i].toString();
+            idStatements.add(var(rolePlayerVariables.get(i)).id(conceptId));
+            rolePlayers.add(new ConceptStorageBatch.RolePlayer(conceptId, conceptTypes[i], relationshipType, roles.get(i)));
+        }
+
+        GraqlInsert query;
+        if (idInsert) {
+            idStatements.add(relationStatement);
+            query = Graql.insert(idStatements);
+        } else {
+            query = Graql.match(idStatements.toArray(new Pattern[0])).insert(relationStatement);
+        }
+        return new GeneratedInsert(this, query, null, rolePlayers);
+    }
+}
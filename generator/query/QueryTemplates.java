@@ -0,0 +1,66 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.query;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the query shapes generated so far, so that each is only analysed once.
+ * The generator produces a handful of shapes millions of times.
+ */
+public class QueryTemplates {
+
+    private final Map<String, Map<Integer, QueryTemplate>> entityTemplates = new HashMap<>();
+    private final Map<String, Map<Integer, QueryTemplate>> attributeTemplates = new HashMap<>();
+    private final Map<String, Map<List<String>, QueryTemplate>> matchInsertTemplates = new HashMap<>();
+    private final Map<String, Map<List<String>, QueryTemplate>> idInsertTemplates = new HashMap<>();
+
+    /**
+     * @return template inserting the given number of entities of the type in one query
+     */
+    public QueryTemplate entities(String typeLabel, int instances) {
+        return entityTemplates.computeIfAbsent(typeLabel, label -> new HashMap<>())
+                .computeIfAbsent(instances, n -> QueryTemplate.entities(typeLabel, n));
+    }
+
+    /**
+     * @return template inserting the given number of attributes of the type in one query
+     */
+    public QueryTemplate attributes(String typeLabel, int instances) {
+        return attributeTemplates.computeIfAbsent(typeLabel, label -> new HashMap<>())
+                .computeIfAbsent(instances, n -> QueryTemplate.attributes(typeLabel, n));
+    }
+
+    /**
+     * @param roles the role of each role player, in order; not retained, so may be reused by the caller
+     * @return template inserting one relationship with role players filling the given roles
+     */
+    public QueryTemplate relationship(String relationshipType, List<String> roles, boolean idInsert) {
+        Map<String, Map<List<String>, QueryTemplate>> templates = idInsert ? idInsertTemplates : matchInsertTemplates;
+        Map<List<String>, QueryTemplate> shapes = templates.computeIfAbsent(relationshipType, label -> new HashMap<>());
+        QueryTemplate template = shapes.get(roles);
+        if (template == null) {
+            template = QueryTemplate.relationship(relationshipType, roles, idInsert);
+            shapes.put(template.roles(), template);
+        }
+        return template;
+    }
+}
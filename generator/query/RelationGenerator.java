@@ -19,41 +19,51 @@
 package grakn.benchmark.generator.query;
 
 import grakn.benchmark.generator.provider.concept.CentralConceptProvider;
+import grakn.benchmark.generator.provider.concept.ConceptIdProvider;
 import grakn.benchmark.generator.strategy.RelationStrategy;
 import grakn.benchmark.generator.strategy.RolePlayerTypeStrategy;
 import grakn.core.concept.ConceptId;
-import graql.lang.Graql;
-import graql.lang.pattern.Pattern;
-import graql.lang.query.GraqlInsert;
-import graql.lang.statement.Statement;
-import graql.lang.statement.Variable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
-import static graql.lang.Graql.and;
-import static graql.lang.Graql.var;
-
 
 /**
  * Generate insert queries for the relationship type indicated by the RelationshipStrategy.
  * Individual roles are filled by concepts provided by RolePlayerStategy objects.
  * <p>
  * If a role cannot be filled no relationship will be generated.
+ * <p>
+ * Role players are either bound in a match clause (`match $x id V1; insert $r (role: $x) isa rel;`), or, to skip
+ * the server-side match, by their ids directly in a pure insert (`insert $x id V1; $r (role: $x) isa rel;`).
  */
 public class RelationGenerator implements QueryGenerator {
     private static final Logger LOG = LoggerFactory.getLogger(RelationGenerator.class);
 
     private final RelationStrategy strategy;
+    private final boolean idInsert;
+    private final QueryTemplates templates;
 
     public RelationGenerator(RelationStrategy strategy) {
+        this(strategy, false, new QueryTemplates());
+    }
+
+    public RelationGenerator(RelationStrategy strategy, boolean idInsert) {
+        this(strategy, idInsert, new QueryTemplates());
+    }
+
+    public RelationGenerator(RelationStrategy strategy, boolean idInsert, QueryTemplates templates) {
         this.strategy = strategy;
+        this.idInsert = idInsert;
+        this.templates = templates;
     }
 
     @Override
-    public Iterator<GraqlInsert> generate() {
+    public Iterator<GeneratedInsert> generate() {
 
         String roles = "(";
         for (RolePlayerTypeStrategy rolePlayerTypeStrategy : this.strategy.getRolePlayerTypeStrategies()) {
@@ -73,10 +83,13 @@ public class RelationGenerator implements QueryGenerator {
         return buildInsertRelationshipQueryIterator();
     }
 
-    private Iterator<GraqlInsert> buildInsertRelationshipQueryIterator() {
-        return new Iterator<GraqlInsert>() {
+    private Iterator<GeneratedInsert> buildInsertRelationshipQueryIterator() {
+        return new Iterator<GeneratedInsert>() {
 
             String relationshipTypeLabel = strategy.getTypeLabel();
+            List<String> roles = new ArrayList<>();
+            List<ConceptId> conceptIds = new ArrayList<>();
+            List<String> conceptTypes = new ArrayList<>();
             int queriesToGenerate = strategy.getNumInstancesPDF().sample();
             int queriesGenerated = 0;
 
@@ -116,10 +129,10 @@ public class RelationGenerator implements QueryGenerator {
 
 
             @Override
-            public GraqlInsert next() {
-
-                Pattern matchVarPattern = null;  //TODO It will be faster to use a pure insert, supplying the ids for the roleplayers' variables
-                Statement insertVarPattern = var("r").isa(relationshipTypeLabel);
+            public GeneratedInsert next() {
+                roles.clear();
+                conceptIds.clear();
+                conceptTypes.clear();
 
                 // For each role type strategy
                 for (RolePlayerTypeStrategy rolePlayerTypeStrategy : strategy.getRolePlayerTypeStrategies()) {
@@ -127,27 +140,22 @@ public class RelationGenerator implements QueryGenerator {
 
                     // Find random role-players matching this type
                     // Pick ids from the list of concept ids
-                    Iterator<ConceptId> conceptProvider = rolePlayerTypeStrategy.getConceptProvider();
+                    ConceptIdProvider conceptProvider = rolePlayerTypeStrategy.getConceptProvider();
                     int rolePlayersRequired = rolePlayerTypeStrategy.getNumInstancesPDF().sample();
 
-                    // Build the match insert query
                     int rolePlayersAssigned = 0;
                     while (conceptProvider.hasNext() && rolePlayersAssigned < rolePlayersRequired) {
-                        ConceptId conceptId = conceptProvider.next();
-                        // Add the concept to the query
-                        Variable v = new Variable().asUserDefined();
-                        if (matchVarPattern == null) {
-                            matchVarPattern = var(v).id(conceptId.toString());
-                        } else {
-                            Pattern varPattern = var(v).id(conceptId.toString());
-                            matchVarPattern = and(matchVarPattern, varPattern);
-                        }
-                        insertVarPattern = insertVarPattern.rel(roleLabel, var(v));
+                        roles.add(roleLabel);
+                        conceptIds.add(conceptProvider.next());
+                        conceptTypes.add(conceptProvider.getTypeLabel());
                         rolePlayersAssigned++;
                     }
                 }
                 queriesGenerated++;
-                return Graql.match(matchVarPattern).insert(insertVarPattern);
+
+                // the shape of the query is only analysed the first time these roles are filled
+                QueryTemplate template = templates.relationship(relationshipTypeLabel, roles, idInsert);
+                return template.bindRolePlayers(conceptIds.toArray(new ConceptId[0]), conceptTypes.toArray(new String[0]));
             }
         };
     }
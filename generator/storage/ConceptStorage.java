@@ -19,11 +19,12 @@
 package grakn.benchmark.generator.storage;
 
 
-import grakn.core.concept.Concept;
 import grakn.core.concept.ConceptId;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Random;
 
 /**
  *
@@ -34,16 +35,82 @@ public interface ConceptStorage {
 
     ConceptId getConceptId(String typeLabel, int offset);
 
+    /**
+     * Look up the ids at several offsets at once. Backends override this to do it in a single round trip.
+     *
+     * @return the id at each offset, in the order of the offsets, or null for an offset with no instance
+     */
+    default List<ConceptId> getConceptIds(String typeLabel, int[] offsets) {
+        List<ConceptId> conceptIds = new ArrayList<>(offsets.length);
+        for (int offset : offsets) {
+            conceptIds.add(getConceptId(typeLabel, offset));
+        }
+        return conceptIds;
+    }
+
     List<ConceptId> getIdsNotPlayingRole(String typeLabel, String relationshipType, String role);
 
     Integer numIdsNotPlayingRole(String typeLabel, String relationshipType, String role);
 
+    /**
+     * @return a uniformly random instance of the type that has not yet played the role in the relationship,
+     * or null if every instance already has
+     */
+    ConceptId getRandomIdNotPlayingRole(String typeLabel, String relationshipType, String role, Random random);
+
+    /**
+     * Preferential attachment: instances that already play many roles are proportionally more likely to be chosen.
+     *
+     * @param initialAttractiveness -- weight of every instance in addition to the number of roles it has played,
+     *                              at least 1 so that instances yet to play a role can be chosen
+     * @return an instance of the type chosen with probability proportional to the number of roles it has played
+     * plus the initial attractiveness, or null if there are no instances
+     */
+    ConceptId getRandomIdByDegree(String typeLabel, int initialAttractiveness, Random random);
+
+    /**
+     * Like getRandomIdNotPlayingRole, but the returned instance is not offered again until it has played the role,
+     * or the claim has been released
+     */
+    ConceptId claimRandomIdNotPlayingRole(String typeLabel, String relationshipType, String role, Random random);
+
+    /**
+     * @return the claims made since the last call, which the caller becomes responsible for releasing
+     */
+    List<ConceptStorageBatch.RolePlayer> drainClaims();
+
+    /**
+     * Return claimed instances that have not played their role to the pool of instances not playing it
+     */
+    void releaseClaims(List<ConceptStorageBatch.RolePlayer> claims);
+
     Date getDate(String typeLabel, int offset);
 
-    void addConcept(Concept concept);
+    /**
+     * Record a concept inserted into Grakn. The type and value are passed in by the caller, which generated them,
+     * rather than read from the concept, as each of those reads is a round trip to the server.
+     *
+     * @param value the attribute's value, or null if the concept is not an attribute
+     */
+    void addConcept(ConceptId conceptId, String typeLabel, Object value);
 
     void addRolePlayer(String conceptId, String conceptType, String relationshipType, String role);
 
+    /**
+     * Apply all the writes in a batch, which should only be done once the Grakn transaction they were
+     * recorded in has committed. Concepts are added before role players, as relationships may themselves
+     * be role players in the same batch. Claims that did not become role players are then released.
+     */
+    default void flush(ConceptStorageBatch batch) {
+        for (ConceptStorageBatch.InsertedConcept concept : batch.concepts()) {
+            addConcept(concept.conceptId(), concept.typeLabel(), concept.value());
+        }
+        for (ConceptStorageBatch.RolePlayer rolePlayer : batch.rolePlayers()) {
+            addRolePlayer(rolePlayer.conceptId(), rolePlayer.conceptType(), rolePlayer.relationshipType(), rolePlayer.role());
+        }
+        releaseClaims(batch.claims());
+    }
+
     int totalExplicitRelationships();
 
     int totalImplicitRelationships();
@@ -0,0 +1,141 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.storage;
+
+import grakn.core.concept.ConceptId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes to a ConceptStorage made while a Grakn transaction is open.
+ * <p>
+ * The batch is only handed to ConceptStorage.flush once the transaction has committed, so the storage
+ * never records concepts that Grakn did not persist, and backends can apply all the writes in one go.
+ * It also carries the role players that were claimed while generating its queries, so that any claims
+ * that did not end up in an inserted relationship can be released.
+ */
+public class ConceptStorageBatch {
+
+    private final List<InsertedConcept> concepts;
+    private final List<RolePlayer> rolePlayers;
+    private final List<RolePlayer> claims;
+
+    public ConceptStorageBatch() {
+        this.concepts = new ArrayList<>();
+        this.rolePlayers = new ArrayList<>();
+        this.claims = new ArrayList<>();
+    }
+
+    /**
+     * @param value the attribute's value, or null if the concept is not an attribute
+     */
+    public void addConcept(ConceptId conceptId, String typeLabel, Object value) {
+        concepts.add(new InsertedConcept(conceptId, typeLabel, value));
+    }
+
+    public void addRolePlayer(String conceptId, String conceptType, String relationshipType, String role) {
+        rolePlayers.add(new RolePlayer(conceptId, conceptType, relationshipType, role));
+    }
+
+    public void addRolePlayer(RolePlayer rolePlayer) {
+        rolePlayers.add(rolePlayer);
+    }
+
+    public void addClaims(List<RolePlayer> claims) {
+        this.claims.addAll(claims);
+    }
+
+    public List<InsertedConcept> concepts() {
+        return Collections.unmodifiableList(concepts);
+    }
+
+    public List<RolePlayer> rolePlayers() {
+        return Collections.unmodifiableList(rolePlayers);
+    }
+
+    public List<RolePlayer> claims() {
+        return Collections.unmodifiableList(claims);
+    }
+
+    public boolean isEmpty() {
+        return concepts.isEmpty() && rolePlayers.isEmpty();
+    }
+
+    /**
+     * A concept inserted into Grakn, described by what the generator already knows about it
+     */
+    public static class InsertedConcept {
+        private final ConceptId conceptId;
+        private final String typeLabel;
+        private final Object value;
+
+        public InsertedConcept(ConceptId conceptId, String typeLabel, Object value) {
+            this.conceptId = conceptId;
+            this.typeLabel = typeLabel;
+            this.value = value;
+        }
+
+        public ConceptId conceptId() {
+            return conceptId;
+        }
+
+        public String typeLabel() {
+            return typeLabel;
+        }
+
+        public Object value() {
+            return value;
+        }
+    }
+
+    /**
+     * A concept that has been assigned, or claimed for, a role in a relationship
+     */
+    public static class RolePlayer {
+        private final String conceptId;
+        private final String conceptType;
+        private final String relationshipType;
+        private final String role;
+
+        public RolePlayer(String conceptId, String conceptType, String relationshipType, String role) {
+            this.conceptId = conceptId;
+            this.conceptType = conceptType;
+            this.relationshipType = relationshipType;
+            this.role = role;
+        }
+
+        public String conceptId() {
+            return conceptId;
+        }
+
+        public String conceptType() {
+            return conceptType;
+        }
+
+        public String relationshipType() {
+            return relationshipType;
+        }
+
+        public String role() {
+            return role;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.storage;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.core.concept.type.AttributeType;
+import org.apache.ignite.Ignition;
+
+import java.util.HashSet;
+import java.util.Map;
+
+public class ConceptStorageFactory {
+
+    public static final String IGNITE = "ignite";
+    public static final String IGNITE_CACHE = "ignite_cache";
+    public static final String IN_MEMORY = "in_memory";
+
+    /**
+     * @return true if the named storage needs an Ignite node running in this JVM (see IgniteManager)
+     */
+    public static boolean requiresIgnite(String name) {
+        return IGNITE.equals(name) || IGNITE_CACHE.equals(name);
+    }
+
+    public static ConceptStorage getStorage(String name,
+                                            HashSet<String> entityTypeLabels,
+                                            HashSet<String> relationshipTypeLabels,
+                                            Map<String, AttributeType.DataType<?>> attributeTypeLabels) {
+        switch (name) {
+            case IGNITE:
+                return new IgniteConceptStorage(entityTypeLabels, relationshipTypeLabels, attributeTypeLabels);
+            case IGNITE_CACHE:
+                // talk to the node started by IgniteManager directly rather than over JDBC
+                return new IgniteCacheConceptStorage(Ignition.ignite(), entityTypeLabels, relationshipTypeLabels, attributeTypeLabels);
+            case IN_MEMORY:
+                return new InMemoryConceptStorage(entityTypeLabels, relationshipTypeLabels, attributeTypeLabels);
+            default:
+                throw new DataGeneratorException("Unknown concept storage: " + name);
+        }
+    }
+}
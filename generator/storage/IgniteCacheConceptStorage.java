@@ -0,0 +1,422 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.storage;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.core.concept.ConceptId;
+import grakn.core.concept.type.AttributeType;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.binary.BinaryObject;
+import org.apache.ignite.cache.CacheMode;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.cache.CacheException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Stores identifiers for all concepts in a Grakn keyspace in caches of the Ignite node running in this JVM,
+ * using the key-value API rather than SQL over a JDBC socket.
+ * <p>
+ * Every type gets its own cache, keyed by the offset of the instance within the type, holding a binary object
+ * with the concept ID (and value, for attributes). Each type also gets its own binary type, as Ignite fixes the
+ * type of a field the first time it is written, and attribute values differ in datatype between attribute types.
+ * Batches are written with an IgniteDataStreamer.
+ * Role players are only tracked in the in-JVM index, as nothing needs to read them back from Ignite.
+ */
+public class IgniteCacheConceptStorage implements ConceptStorage {
+    private static final Logger LOG = LoggerFactory.getLogger(IgniteCacheConceptStorage.class);
+
+    private static final String CACHE_PREFIX = "concepts_";
+    private static final String RECORD_TYPE_PREFIX = "ConceptRecord_";
+    private static final String ID_FIELD = "id";
+    private static final String VALUE_FIELD = "value";
+
+    private final Ignite ignite;
+    private final Set<String> entityTypeLabels;
+    private final Set<String> relationshipTypeLabels;
+    private final Set<String> explicitRelationshipTypeLabels;
+    private final Map<String, AttributeType.DataType<?>> attributeTypeLabels;
+
+    private final Map<String, IgniteCache<Integer, BinaryObject>> caches;
+
+    // offsets and the role index are kept in this JVM, so the size of each cache is known without asking Ignite
+    private final Map<String, TypeInstances> roleIndexes;
+
+    // claimed role players not yet handed to a batch, see drainClaims()
+    private List<ConceptStorageBatch.RolePlayer> claims = new ArrayList<>();
+
+    private int totalEntities = 0;
+    private int totalAttributes = 0;
+    private int totalRelationships = 0;
+    private int totalExplicitRelationships = 0;
+
+    // total is implicit + explicit role players
+    private int totalRolePlayers = 0;
+    // separately count only roles that are in explicit relationships
+    private int totalExplicitRolePlayers = 0;
+
+    // concepts that have been assigned into a relationship at some point, so orphans are known without scanning
+    private int entityRolePlayers = 0;
+    private int attributeRolePlayers = 0;
+    private int relationshipRolePlayers = 0;
+
+    public IgniteCacheConceptStorage(Ignite ignite, Set<String> entityTypeLabels, Set<String> relationshipTypeLabels, Map<String, AttributeType.DataType<?>> attributeTypeLabels) {
+        LOG.info("Initialising ignite caches...");
+        this.ignite = ignite;
+        this.entityTypeLabels = new HashSet<>(entityTypeLabels);
+        this.explicitRelationshipTypeLabels = new HashSet<>(relationshipTypeLabels);
+        this.attributeTypeLabels = new HashMap<>(attributeTypeLabels);
+
+        // add @has-[attribute] relationships as possible relationships
+        this.relationshipTypeLabels = new HashSet<>(relationshipTypeLabels);
+        for (String attributeTypeLabel : this.attributeTypeLabels.keySet()) {
+            this.relationshipTypeLabels.add("@has-" + attributeTypeLabel);
+        }
+
+        Set<String> allTypeLabels = new HashSet<>();
+        allTypeLabels.addAll(this.entityTypeLabels);
+        allTypeLabels.addAll(this.relationshipTypeLabels);
+        allTypeLabels.addAll(this.attributeTypeLabels.keySet());
+
+        this.caches = new HashMap<>();
+        this.roleIndexes = new HashMap<>();
+        for (String typeLabel : allTypeLabels) {
+            caches.put(typeLabel, recreateCache(CACHE_PREFIX + typeLabel).withKeepBinary());
+            roleIndexes.put(typeLabel, new TypeInstances(false));
+        }
+    }
+
+    private <K, V> IgniteCache<K, V> recreateCache(String cacheName) {
+        ignite.destroyCache(cacheName);
+        CacheConfiguration<K, V> cacheConfiguration = new CacheConfiguration<>(cacheName);
+        cacheConfiguration.setCacheMode(CacheMode.REPLICATED);
+        return ignite.getOrCreateCache(cacheConfiguration);
+    }
+
+    private TypeInstances roleIndexOf(String typeLabel) {
+        TypeInstances typeInstances = roleIndexes.get(typeLabel);
+        if (typeInstances == null) {
+            throw new DataGeneratorException(typeLabel + " is not a type in the schema. This is likely an error in the data generator definition");
+        }
+        return typeInstances;
+    }
+
+    private BinaryObject toRecord(String typeLabel, ConceptId conceptId, Object value) {
+        return ignite.binary().builder(RECORD_TYPE_PREFIX + typeLabel)
+                .setField(ID_FIELD, conceptId.toString())
+                .setField(VALUE_FIELD, value)
+                .build();
+    }
+
+    /**
+     * Reserve an offset for the concept, updating counters
+     *
+     * @return the offset, or -1 if the concept is already stored
+     */
+    private int register(String typeLabel, ConceptId conceptId) {
+        int offset = roleIndexOf(typeLabel).add(conceptId, null);
+        if (offset == -1) {
+            return -1;
+        }
+
+        if (entityTypeLabels.contains(typeLabel)) {
+            totalEntities++;
+        } else if (attributeTypeLabels.containsKey(typeLabel)) {
+            totalAttributes++;
+        } else {
+            totalRelationships++;
+            if (explicitRelationshipTypeLabels.contains(typeLabel)) {
+                totalExplicitRelationships++;
+            }
+        }
+        return offset;
+    }
+
+    @Override
+    public void addConcept(ConceptId conceptId, String typeLabel, Object value) {
+        // attributes are de-duplicated by Grakn, so the same ID may be returned more than once
+        int offset = register(typeLabel, conceptId);
+        if (offset != -1) {
+            caches.get(typeLabel).put(offset, toRecord(typeLabel, conceptId, value));
+        }
+    }
+
+    @Override
+    public void addRolePlayer(String conceptId, String conceptType, String relationshipType, String role) {
+        // sanity check for the user in case they entered something wrong in the data generator
+        if (!this.relationshipTypeLabels.contains(relationshipType)) {
+            throw new DataGeneratorException(relationshipType + " is not a valid relationship type. This is likely an error in the data generator definition");
+        }
+
+        totalRolePlayers += 1;
+        if (!relationshipType.startsWith("@")) {
+            totalExplicitRolePlayers += 1;
+        }
+
+        TypeInstances roleIndex = roleIndexOf(conceptType);
+        int offset = roleIndex.offset(ConceptId.of(conceptId));
+        if (offset == -1) {
+            LOG.warn("Role player " + conceptId + " was never added to the concept storage");
+        } else if (roleIndex.markPlaying(offset, relationshipType, role)) {
+            countNewRolePlayer(conceptType);
+        }
+    }
+
+    private void countNewRolePlayer(String typeLabel) {
+        if (entityTypeLabels.contains(typeLabel)) {
+            entityRolePlayers++;
+        } else if (attributeTypeLabels.containsKey(typeLabel)) {
+            attributeRolePlayers++;
+        } else {
+            relationshipRolePlayers++;
+        }
+    }
+
+    /**
+     * Stream the whole batch into the caches, one data streamer per type.
+     * Offsets are only reserved in the index once every streamer has closed, so a failed flush leaves the counts
+     * and the index as they were.
+     */
+    @Override
+    public void flush(ConceptStorageBatch batch) {
+        Map<String, IgniteDataStreamer<Integer, BinaryObject>> streamers = new HashMap<>();
+        Map<String, Integer> newInstances = new HashMap<>();
+        Set<ConceptId> streamedIds = new HashSet<>();
+        List<ConceptStorageBatch.InsertedConcept> streamed = new ArrayList<>();
+        try {
+            for (ConceptStorageBatch.InsertedConcept concept : batch.concepts()) {
+                String typeLabel = concept.typeLabel();
+                TypeInstances typeInstances = roleIndexOf(typeLabel);
+                // attributes are de-duplicated by Grakn, so the same ID may be returned more than once
+                if (typeInstances.offset(concept.conceptId()) != -1 || !streamedIds.add(concept.conceptId())) {
+                    continue;
+                }
+                int newInType = newInstances.getOrDefault(typeLabel, 0);
+                newInstances.put(typeLabel, newInType + 1);
+
+                IgniteDataStreamer<Integer, BinaryObject> streamer = streamers.get(typeLabel);
+                if (streamer == null) {
+                    streamer = ignite.dataStreamer(CACHE_PREFIX + typeLabel);
+                    streamer.keepBinary(true);
+                    streamers.put(typeLabel, streamer);
+                }
+                streamer.addData(typeInstances.size() + newInType, toRecord(typeLabel, concept.conceptId(), concept.value()));
+                streamed.add(concept);
+            }
+        } catch (IgniteException | CacheException e) {
+            closeQuietly(streamers.values());
+            throw new DataGeneratorException("Failed to stream a batch of concepts into the ignite caches", e);
+        }
+        closeAll(streamers.values());
+
+        // the offsets handed to the streamers are exactly the ones register() assigns, in the same order
+        for (ConceptStorageBatch.InsertedConcept concept : streamed) {
+            register(concept.typeLabel(), concept.conceptId());
+        }
+
+        for (ConceptStorageBatch.RolePlayer rolePlayer : batch.rolePlayers()) {
+            addRolePlayer(rolePlayer.conceptId(), rolePlayer.conceptType(), rolePlayer.relationshipType(), rolePlayer.role());
+        }
+        releaseClaims(batch.claims());
+    }
+
+    /**
+     * Close every streamer, which flushes any data it is still buffering, failing if any of them could not
+     */
+    private void closeAll(Collection<IgniteDataStreamer<Integer, BinaryObject>> streamers) {
+        RuntimeException failure = null;
+        for (IgniteDataStreamer<Integer, BinaryObject> streamer : streamers) {
+            try {
+                streamer.close();
+            } catch (IgniteException | CacheException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw new DataGeneratorException("Failed to flush a batch of concepts into the ignite caches", failure);
+        }
+    }
+
+    private void closeQuietly(Collection<IgniteDataStreamer<Integer, BinaryObject>> streamers) {
+        for (IgniteDataStreamer<Integer, BinaryObject> streamer : streamers) {
+            try {
+                streamer.close(true);
+            } catch (IgniteException | CacheException e) {
+                LOG.trace(e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public int getConceptCount(String typeLabel) {
+        return roleIndexOf(typeLabel).size();
+    }
+
+    @Override
+    public ConceptId getConceptId(String typeLabel, int offset) {
+        BinaryObject record = caches.get(typeLabel).get(offset);
+        if (record == null) {
+            return null;
+        }
+        return ConceptId.of(record.field(ID_FIELD));
+    }
+
+    @Override
+    public List<ConceptId> getConceptIds(String typeLabel, int[] offsets) {
+        Set<Integer> keys = new HashSet<>();
+        for (int offset : offsets) {
+            keys.add(offset);
+        }
+        Map<Integer, BinaryObject> records = caches.get(typeLabel).getAll(keys);
+
+        List<ConceptId> conceptIds = new ArrayList<>(offsets.length);
+        for (int offset : offsets) {
+            BinaryObject record = records.get(offset);
+            conceptIds.add(record == null ? null : ConceptId.of(record.field(ID_FIELD)));
+        }
+        return conceptIds;
+    }
+
+    @Override
+    public List<ConceptId> getIdsNotPlayingRole(String typeLabel, String relationshipType, String role) {
+        return roleIndexOf(typeLabel).allNotPlaying(relationshipType, role);
+    }
+
+    @Override
+    public Integer numIdsNotPlayingRole(String typeLabel, String relationshipType, String role) {
+        return roleIndexOf(typeLabel).countNotPlaying(relationshipType, role);
+    }
+
+    @Override
+    public ConceptId getRandomIdNotPlayingRole(String typeLabel, String relationshipType, String role, Random random) {
+        return roleIndexOf(typeLabel).randomNotPlaying(relationshipType, role, random);
+    }
+
+    @Override
+    public ConceptId getRandomIdByDegree(String typeLabel, int initialAttractiveness, Random random) {
+        return roleIndexOf(typeLabel).randomByDegree(initialAttractiveness, random);
+    }
+
+    @Override
+    public ConceptId claimRandomIdNotPlayingRole(String typeLabel, String relationshipType, String role, Random random) {
+        ConceptId conceptId = roleIndexOf(typeLabel).claimNotPlaying(relationshipType, role, random);
+        if (conceptId != null) {
+            claims.add(new ConceptStorageBatch.RolePlayer(conceptId.toString(), typeLabel, relationshipType, role));
+        }
+        return conceptId;
+    }
+
+    @Override
+    public List<ConceptStorageBatch.RolePlayer> drainClaims() {
+        List<ConceptStorageBatch.RolePlayer> drained = claims;
+        claims = new ArrayList<>();
+        return drained;
+    }
+
+    @Override
+    public void releaseClaims(List<ConceptStorageBatch.RolePlayer> claims) {
+        for (ConceptStorageBatch.RolePlayer claim : claims) {
+            TypeInstances typeInstances = roleIndexOf(claim.conceptType());
+            typeInstances.releaseClaim(typeInstances.offset(ConceptId.of(claim.conceptId())), claim.relationshipType(), claim.role());
+        }
+    }
+
+    @Override
+    public Date getDate(String typeLabel, int offset) {
+        BinaryObject record = caches.get(typeLabel).get(offset);
+        if (record == null) {
+            return null;
+        }
+        Object value = record.field(VALUE_FIELD);
+        return value instanceof Date ? (Date) value : null;
+    }
+
+    @Override
+    public int totalExplicitRelationships() {
+        return totalExplicitRelationships;
+    }
+
+    @Override
+    public int totalImplicitRelationships() {
+        return totalRelationships - totalExplicitRelationships;
+    }
+
+    @Override
+    public int totalEntities() {
+        return totalEntities;
+    }
+
+    @Override
+    public int totalAttributes() {
+        return totalAttributes;
+    }
+
+    @Override
+    public int totalRolePlayers() {
+        return totalRolePlayers;
+    }
+
+    @Override
+    public int totalExplicitRolePlayers() {
+        return totalExplicitRolePlayers;
+    }
+
+    /**
+     * Orphan entities = Set(all entities) - Set(entities playing roles)
+     */
+    @Override
+    public int totalOrphanEntities() {
+        return totalEntities - entityRolePlayers;
+    }
+
+    /**
+     * Orphan attributes = Set(all attribute ids) - Set(attributes playing roles)
+     */
+    @Override
+    public int totalOrphanAttributes() {
+        return totalAttributes - attributeRolePlayers;
+    }
+
+    /**
+     * Double counting between relationships and relationships also playing roles (including implicit and explicit rels)
+     * = Set(All relationship ids) intersect Set(role players)
+     */
+    @Override
+    public int totalRelationshipsRolePlayersOverlap() {
+        return relationshipRolePlayers;
+    }
+
+    @Override
+    public int getGraphScale() {
+        return totalEntities + totalAttributes + totalExplicitRelationships;
+    }
+}
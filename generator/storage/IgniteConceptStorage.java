@@ -19,10 +19,7 @@
 package grakn.benchmark.generator.storage;
 
 import grakn.benchmark.generator.DataGeneratorException;
-import grakn.core.concept.Concept;
 import grakn.core.concept.ConceptId;
-import grakn.core.concept.Label;
-import grakn.core.concept.thing.Attribute;
 import grakn.core.concept.type.AttributeType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,14 +31,15 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import static grakn.core.concept.type.AttributeType.DataType.BOOLEAN;
 import static grakn.core.concept.type.AttributeType.DataType.DATE;
@@ -68,12 +66,30 @@ public class IgniteConceptStorage implements ConceptStorage {
     private final int ID_INDEX = 1;
     private final int VALUE_INDEX = 2;
 
+    // counters of concepts added, maintained on insertion so counting never needs to query the tables
+    private HashMap<String, Integer> conceptCounts;
+    private int totalEntities = 0;
+    private int totalAttributes = 0;
+    private int totalRelationships = 0;
+    private int totalExplicitRelationships = 0;
+
+    // which concepts have not yet played each role, kept in memory so it can be counted and sampled in constant time
+    private HashMap<String, TypeInstances> roleIndexes;
+
+    // claimed role players not yet handed to a batch, see drainClaims()
+    private List<ConceptStorageBatch.RolePlayer> claims = new ArrayList<>();
+
     // store a counter for number of role players because the ignite tables de-duplicate IDs that play multiple roles
     // total is implicit + explicit role players
     private int totalRolePlayers = 0;
     // separately count only roles that are in explicit relationships
     private int totalExplicitRolePlayers = 0;
 
+    // concepts that have been assigned into a relationship at some point, so orphans are known without scanning tables
+    private int entityRolePlayers = 0;
+    private int attributeRolePlayers = 0;
+    private int relationshipRolePlayers = 0;
+
     public static final Map<AttributeType.DataType<?>, String> DATATYPE_MAPPING;
 
     static {
@@ -103,8 +119,14 @@ public class IgniteConceptStorage implements ConceptStorage {
 
 
         labelToSqlNameMap = mapLabelToSqlName(entityTypeLabels, relationshipTypeLabels, attributeTypeLabels.keySet());
-        cleanTables();
+        conceptCounts = new HashMap<>();
+        roleIndexes = new HashMap<>();
+        for (String typeLabel : getAllTypeLabels()) {
+            conceptCounts.put(typeLabel, 0);
+            roleIndexes.put(typeLabel, new TypeInstances(false));
+        }
         initializeSqlDriver();
+        cleanTables();
         createTables();
     }
 
@@ -131,7 +153,6 @@ public class IgniteConceptStorage implements ConceptStorage {
     private void cleanTables() {
         try {
             clean(this.getAllTypeLabels());
-            dropTable("roleplayers"); // one special table for tracking role players
         } catch (SQLException e) {
             LOG.trace(e.getMessage(), e);
         }
@@ -156,24 +177,20 @@ public class IgniteConceptStorage implements ConceptStorage {
     private void createTables() {
         // Create database tables.
         for (String typeLabel : this.entityTypeLabels) {
-            this.createTypeIdsTable(typeLabel, this.relationshipTypeLabels);
+            this.createTypeIdsTable(typeLabel);
         }
 
         for (String typeLabel : this.relationshipTypeLabels) {
-            this.createTypeIdsTable(typeLabel, this.relationshipTypeLabels);
+            this.createTypeIdsTable(typeLabel);
         }
 
         for (Map.Entry<String, AttributeType.DataType<?>> entry : this.attributeTypeLabels.entrySet()) {
             String typeLabel = entry.getKey();
             AttributeType.DataType<?> datatype = entry.getValue();
             String dbDatatype = DATATYPE_MAPPING.get(datatype);
-            this.createAttributeValueTable(typeLabel, dbDatatype, this.relationshipTypeLabels);
+            this.createAttributeValueTable(typeLabel, dbDatatype);
         }
 
-        // re-create special table
-        // role players that have been assigned into a relationship at some point
-        createTable("roleplayers", "VARCHAR", new LinkedList<>());
-
     }
 
     private String labelToSqlName(String label) {
@@ -196,12 +213,9 @@ public class IgniteConceptStorage implements ConceptStorage {
      *
      * @param typeLabel
      */
-    private void createTypeIdsTable(String typeLabel, Set<String> relationshipLabels) {
+    private void createTypeIdsTable(String typeLabel) {
         String sqlTypeLabel = labelToSqlName(typeLabel);
-        List<String> relationshipColumnNames = relationshipLabels.stream()
-                .map(label -> labelToSqlName(label))
-                .collect(Collectors.toList());
-        createTable(sqlTypeLabel, "VARCHAR", relationshipColumnNames);
+        createTable(sqlTypeLabel, "VARCHAR", new LinkedList<>());
     }
 
     /**
@@ -211,20 +225,12 @@ public class IgniteConceptStorage implements ConceptStorage {
      * @param typeLabel
      * @param sqlDatatypeName
      */
-    private void createAttributeValueTable(String typeLabel,
-                                           String sqlDatatypeName,
-                                           Set<String> relationshipLabels) {
-
-        List<String> relationshipColumnNames = relationshipLabels.stream()
-                .map(label -> labelToSqlName(label))
-                .collect(Collectors.toList());
-
+    private void createAttributeValueTable(String typeLabel, String sqlDatatypeName) {
         String sqlTypeLabel = labelToSqlName(typeLabel);
         try (Statement stmt = conn.createStatement()) {
             stmt.executeUpdate("CREATE TABLE " + sqlTypeLabel + " (" +
                     " id VARCHAR PRIMARY KEY, " +
                     " value " + sqlDatatypeName + ", " +
-                    joinColumnLabels(relationshipColumnNames) +
                     " nothing LONG) " +
                     " WITH \"template=" + cachingMethod + "\"");
         } catch (SQLException e) {
@@ -269,15 +275,13 @@ public class IgniteConceptStorage implements ConceptStorage {
     }
 
     @Override
-    public void addConcept(Concept concept) {
+    public void addConcept(ConceptId id, String conceptTypeLabel, Object value) {
 
-        Label conceptTypeLabel = concept.asThing().type().label();
-        String tableName = labelToSqlName(conceptTypeLabel.toString());
-        String conceptId = concept.asThing().id().toString(); // TODO use the value instead for attributes
+        String tableName = labelToSqlName(conceptTypeLabel);
+        String conceptId = id.toString(); // TODO use the value instead for attributes
 
-        if (concept.isAttribute()) {
-            Attribute<?> attribute = concept.asAttribute();
-            AttributeType.DataType<?> datatype = attribute.dataType();
+        if (attributeTypeLabels.containsKey(conceptTypeLabel)) {
+            AttributeType.DataType<?> datatype = attributeTypeLabels.get(conceptTypeLabel);
 
             // check if this ID is already in the table suffices
             try (Statement stmt = this.conn.createStatement()) {
@@ -294,30 +298,13 @@ public class IgniteConceptStorage implements ConceptStorage {
                 LOG.trace(e.getMessage(), e);
             }
 
-            Object value = attribute.value();
             try (PreparedStatement stmt = this.conn.prepareStatement(
                     "INSERT INTO " + tableName + " (id, value, ) VALUES (?, ?, )")) {
 
-                if (value.getClass() == String.class) {
-                    stmt.setString(VALUE_INDEX, (String) value);
-
-                } else if (value.getClass() == Double.class) {
-                    stmt.setDouble(VALUE_INDEX, (Double) value);
-
-                } else if (value.getClass() == Long.class || value.getClass() == Integer.class) {
-                    stmt.setLong(VALUE_INDEX, (Long) value);
-
-                } else if (value.getClass() == Boolean.class) {
-                    stmt.setBoolean(VALUE_INDEX, (Boolean) value);
-
-                } else if (value.getClass() == Date.class) {
-                    stmt.setDate(VALUE_INDEX, (Date) value);
-                } else {
-                    throw new UnsupportedOperationException(String.format("Datatype %s isn't supported by Grakn", datatype));
-                }
-
+                setValue(stmt, value, datatype);
                 stmt.setString(ID_INDEX, conceptId);
                 stmt.executeUpdate();
+                incrementCounts(conceptTypeLabel, id);
 
             } catch (SQLException e) {
                 if (!e.getSQLState().equals("23000")) {
@@ -330,6 +317,7 @@ public class IgniteConceptStorage implements ConceptStorage {
                     "INSERT INTO " + tableName + " (id, ) VALUES (?, )")) {
                 stmt.setString(ID_INDEX, conceptId);
                 stmt.executeUpdate();
+                incrementCounts(conceptTypeLabel, id);
             } catch (SQLException e) {
                 if (!e.getSQLState().equals("23000")) {
                     LOG.trace(e.getMessage(), e);
@@ -338,6 +326,42 @@ public class IgniteConceptStorage implements ConceptStorage {
         }
     }
 
+    private void setValue(PreparedStatement stmt, Object value, AttributeType.DataType<?> datatype) throws SQLException {
+        if (value.getClass() == String.class) {
+            stmt.setString(VALUE_INDEX, (String) value);
+
+        } else if (value.getClass() == Double.class) {
+            stmt.setDouble(VALUE_INDEX, (Double) value);
+
+        } else if (value.getClass() == Long.class || value.getClass() == Integer.class) {
+            // generated values may be Integers where Grakn would return a Long
+            stmt.setLong(VALUE_INDEX, ((Number) value).longValue());
+
+        } else if (value.getClass() == Boolean.class) {
+            stmt.setBoolean(VALUE_INDEX, (Boolean) value);
+
+        } else if (value.getClass() == Date.class) {
+            stmt.setDate(VALUE_INDEX, (Date) value);
+        } else {
+            throw new UnsupportedOperationException(String.format("Datatype %s isn't supported by Grakn", datatype));
+        }
+    }
+
+    private void incrementCounts(String typeLabel, ConceptId conceptId) {
+        conceptCounts.merge(typeLabel, 1, Integer::sum);
+        roleIndexes.get(typeLabel).add(conceptId, null);
+        if (entityTypeLabels.contains(typeLabel)) {
+            totalEntities++;
+        } else if (attributeTypeLabels.containsKey(typeLabel)) {
+            totalAttributes++;
+        } else {
+            totalRelationships++;
+            if (explicitRelationshipTypeLabels.contains(typeLabel)) {
+                totalExplicitRelationships++;
+            }
+        }
+    }
+
     /**
      * Add a role player, and specify its type, the relationship, and role it fills
      * This will track
@@ -354,148 +378,144 @@ public class IgniteConceptStorage implements ConceptStorage {
             throw new DataGeneratorException(relationshipType + " is not a valid relationship type. This is likely an error in the data generator definition");
         }
 
-        // update in-memory accounting
+        // role players are only tracked in memory
         totalRolePlayers += 1;
         if (!relationshipType.startsWith("@")) {
             totalExplicitRolePlayers += 1;
         }
 
-        // add the role to this concept ID's row/column for this relationship
-        String sqlTypeTable = labelToSqlName(conceptType);
-        String sqlRelationship = labelToSqlName(relationshipType);
-        String sqlRole = sanitizeString(role);
-
-        try (Statement stmt = conn.createStatement()) {
-            // do a select to retrieve currently filled roles by this conceptID in this relationship
-            String retrieveCurrentRolesSql = "SELECT " + sqlRelationship + " from " + sqlTypeTable +
-                    " where id = '" + conceptId + "'";
-            String currentRoles = "";
-            try (ResultSet rs = stmt.executeQuery(retrieveCurrentRolesSql)) {
-                rs.next(); // move to cursor first result
-                currentRoles = rs.getString(sqlRelationship);
-                currentRoles = currentRoles == null ? "" : currentRoles;
-            } catch (SQLException e) {
-                LOG.trace(e.getMessage(), e);
+        TypeInstances roleIndex = roleIndexes.get(conceptType);
+        int offset = roleIndex.offset(ConceptId.of(conceptId));
+        if (offset == -1) {
+            LOG.warn("Role player " + conceptId + " was never added to the concept storage");
+        } else if (roleIndex.markPlaying(offset, relationshipType, role)) {
+            if (entityTypeLabels.contains(conceptType)) {
+                entityRolePlayers++;
+            } else if (attributeTypeLabels.containsKey(conceptType)) {
+                attributeRolePlayers++;
+            } else {
+                relationshipRolePlayers++;
             }
+        }
+    }
 
-            if (!currentRoles.contains(sqlRole)) {
-                currentRoles = currentRoles + "," + sqlRole;
-                String setCurrentRolesSql = "UPDATE " + sqlTypeTable +
-                        " SET " + sqlRelationship + " = '" + currentRoles + "'" +
-                        " WHERE id = '" + conceptId + "'";
-                stmt.executeUpdate(setCurrentRolesSql);
+    /**
+     * Write a whole batch using one JDBC batch per table. Whether a concept is already stored is answered
+     * by the in-memory role indexes, so no SELECT is needed before inserting. Role players are only tracked in memory.
+     * A table whose JDBC batch fails is left uncounted, and the failure is thrown as a DataGeneratorException.
+     */
+    @Override
+    public void flush(ConceptStorageBatch batch) {
+        Map<String, List<ConceptStorageBatch.InsertedConcept>> newConceptsByType = new HashMap<>();
+        Set<ConceptId> batchConceptIds = new HashSet<>();
+        for (ConceptStorageBatch.InsertedConcept concept : batch.concepts()) {
+            String typeLabel = concept.typeLabel();
+            ConceptId conceptId = concept.conceptId();
+            // attributes are de-duplicated by Grakn, so the same ID may appear more than once
+            if (roleIndexes.get(typeLabel).offset(conceptId) != -1 || !batchConceptIds.add(conceptId)) {
+                continue;
             }
-        } catch (SQLException e) {
-            LOG.trace(e.getMessage(), e);
+            newConceptsByType.computeIfAbsent(typeLabel, label -> new LinkedList<>()).add(concept);
         }
 
-        // add the conceptID to the overall role players table
-        try (Statement stmt = conn.createStatement()) {
-            String checkExists = "SELECT id FROM roleplayers WHERE id = '" + conceptId + "'";
-            try (ResultSet rs = stmt.executeQuery(checkExists)) {
-                if (!rs.next()) {
-                    String addRolePlayer = "INSERT INTO roleplayers (id, ) VALUES ('" + conceptId + "')";
-                    stmt.executeUpdate(addRolePlayer);
+        for (Map.Entry<String, List<ConceptStorageBatch.InsertedConcept>> entry : newConceptsByType.entrySet()) {
+            String typeLabel = entry.getKey();
+            AttributeType.DataType<?> datatype = attributeTypeLabels.get(typeLabel);
+            boolean isAttribute = (datatype != null);
+            String sql = isAttribute ?
+                    "INSERT INTO " + labelToSqlName(typeLabel) + " (id, value, ) VALUES (?, ?, )" :
+                    "INSERT INTO " + labelToSqlName(typeLabel) + " (id, ) VALUES (?, )";
+
+            try (PreparedStatement stmt = this.conn.prepareStatement(sql)) {
+                for (ConceptStorageBatch.InsertedConcept concept : entry.getValue()) {
+                    stmt.setString(ID_INDEX, concept.conceptId().toString());
+                    if (isAttribute) {
+                        setValue(stmt, concept.value(), datatype);
+                    }
+                    stmt.addBatch();
                 }
+                stmt.executeBatch();
             } catch (SQLException e) {
-                LOG.trace(e.getMessage(), e);
+                throw new DataGeneratorException("Failed to write " + typeLabel + " instances to concept storage", e);
+            }
+
+            // only count concepts once their rows exist, so the counts never run ahead of the tables
+            for (ConceptStorageBatch.InsertedConcept concept : entry.getValue()) {
+                incrementCounts(typeLabel, concept.conceptId());
             }
-        } catch (SQLException e) {
-            LOG.trace(e.getMessage(), e);
         }
+
+        for (ConceptStorageBatch.RolePlayer rolePlayer : batch.rolePlayers()) {
+            addRolePlayer(rolePlayer.conceptId(), rolePlayer.conceptType(), rolePlayer.relationshipType(), rolePlayer.role());
+        }
+        releaseClaims(batch.claims());
     }
 
-    /**
-     * String stuffing all the roles played by a concept of a given type in a specific relationship into one
-     */
     public List<ConceptId> getIdsNotPlayingRole(String typeLabel, String relationshipType, String role) {
-        String tableName = labelToSqlName(typeLabel);
-        String columnName = labelToSqlName(relationshipType);
-        String roleName = sanitizeString(role);
-
-        String sql = "SELECT ID, " + columnName + " FROM " + tableName +
-                " WHERE (" + columnName + " IS NULL OR " + columnName + "  NOT LIKE '%" + roleName + "%')";
-
-        LinkedList<ConceptId> ids = new LinkedList<>();
-
-        try (Statement stmt = conn.createStatement()) {
-            try (ResultSet rs = stmt.executeQuery(sql)) {
-                while (rs.next()) {
-                    ids.addLast(ConceptId.of(rs.getString("id")));
-                }
-            } catch (SQLException e) {
-                LOG.trace(e.getMessage(), e);
-            }
-        } catch (SQLException e) {
-            LOG.trace(e.getMessage(), e);
-        }
-        return ids;
+        return roleIndexes.get(typeLabel).allNotPlaying(relationshipType, role);
     }
 
     public Integer numIdsNotPlayingRole(String typeLabel, String relationshipType, String role) {
-        String tableName = labelToSqlName(typeLabel);
-        String columnName = labelToSqlName(relationshipType);
-        String roleName = sanitizeString(role);
+        return roleIndexes.get(typeLabel).countNotPlaying(relationshipType, role);
+    }
 
-        String sql = "SELECT COUNT(ID) FROM " + tableName +
-                " WHERE (" + columnName + " IS NULL OR " + columnName + "  NOT LIKE '%" + roleName + "%')";
+    public ConceptId getRandomIdNotPlayingRole(String typeLabel, String relationshipType, String role, Random random) {
+        return roleIndexes.get(typeLabel).randomNotPlaying(relationshipType, role, random);
+    }
 
-        try (Statement stmt = conn.createStatement()) {
-            try (ResultSet rs = stmt.executeQuery(sql)) {
-                rs.next(); // move to first result
-                return rs.getInt(1); // apparently column indices start at 1
-            } catch (SQLException e) {
-                LOG.trace(e.getMessage(), e);
-            }
-        } catch (SQLException e) {
-            LOG.trace(e.getMessage(), e);
-        }
-        return 0;
+    @Override
+    public ConceptId getRandomIdByDegree(String typeLabel, int initialAttractiveness, Random random) {
+        return roleIndexes.get(typeLabel).randomByDegree(initialAttractiveness, random);
     }
 
-    /*
-    [{ LIMIT expression [OFFSET expression]
-    [SAMPLE_SIZE rowCountInt]} | {[OFFSET expression {ROW | ROWS}]
-    [{FETCH {FIRST | NEXT} expression {ROW | ROWS} ONLY}]}]
-     */
+    @Override
+    public ConceptId claimRandomIdNotPlayingRole(String typeLabel, String relationshipType, String role, Random random) {
+        ConceptId conceptId = roleIndexes.get(typeLabel).claimNotPlaying(relationshipType, role, random);
+        if (conceptId != null) {
+            claims.add(new ConceptStorageBatch.RolePlayer(conceptId.toString(), typeLabel, relationshipType, role));
+        }
+        return conceptId;
+    }
 
-    private String sqlGetId(String typeLabel, int offset) {
-        String sql = "SELECT id FROM " + labelToSqlName(typeLabel) +
-                " OFFSET " + offset +
-                " FETCH FIRST ROW ONLY";
-        return sql;
+    @Override
+    public List<ConceptStorageBatch.RolePlayer> drainClaims() {
+        List<ConceptStorageBatch.RolePlayer> drained = claims;
+        claims = new ArrayList<>();
+        return drained;
     }
 
-    private String sqlGetAttrValue(String typeLabel, int offset) {
-        String sql = "SELECT value FROM " + labelToSqlName(typeLabel) +
-                " OFFSET " + offset +
-                " FETCH FIRST ROW ONLY";
-        return sql;
+    @Override
+    public void releaseClaims(List<ConceptStorageBatch.RolePlayer> claims) {
+        for (ConceptStorageBatch.RolePlayer claim : claims) {
+            TypeInstances typeInstances = roleIndexes.get(claim.conceptType());
+            typeInstances.releaseClaim(typeInstances.offset(ConceptId.of(claim.conceptId())), claim.relationshipType(), claim.role());
+        }
     }
 
     public ConceptId getConceptId(String typeLabel, int offset) {
-        try (Statement stmt = conn.createStatement()) {
-            try (ResultSet rs = stmt.executeQuery(sqlGetId(typeLabel, offset))) {
-                if (rs != null && rs.next()) { // Need to do this to increment one line in the ResultSet
-                    return ConceptId.of(rs.getString(ID_INDEX));
-                }
-            } catch (SQLException e) {
-                LOG.trace(e.getMessage(), e);
-            }
-        } catch (SQLException e) {
-            LOG.trace(e.getMessage(), e);
+        // the role index holds every stored id in insertion order, which saves an OFFSET scan of the table
+        TypeInstances typeInstances = roleIndexes.get(typeLabel);
+        if (offset < 0 || offset >= typeInstances.size()) {
+            return null;
         }
-        return null;
+        return typeInstances.id(offset);
     }
 
+    /**
+     * Attribute values are only held in the tables, so the value is looked up by the id at the offset in the role index.
+     * Rows are not stored in insertion order, so they cannot be addressed by offset themselves.
+     */
     public Date getDate(String typeLabel, int offset) {
-        try (Statement stmt = conn.createStatement()) {
-            try (ResultSet rs = stmt.executeQuery(sqlGetAttrValue(typeLabel, offset))) {
-                if (rs != null && rs.next()) { // Need to do this to increment one line in the ResultSet
-                    return rs.getDate(ID_INDEX);
+        ConceptId conceptId = getConceptId(typeLabel, offset);
+        if (conceptId == null) {
+            return null;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT value FROM " + labelToSqlName(typeLabel) + " WHERE id = ?")) {
+            stmt.setString(ID_INDEX, conceptId.toString());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getDate(1);
                 }
-            } catch (SQLException e) {
-                LOG.trace(e.getMessage(), e);
             }
         } catch (SQLException e) {
             LOG.trace(e.getMessage(), e);
@@ -504,66 +524,32 @@ public class IgniteConceptStorage implements ConceptStorage {
     }
 
     public int getConceptCount(String typeLabel) {
-        String tableName = labelToSqlName(typeLabel);
-        return getCountInTable(tableName);
-    }
-
-
-    private int getCountInTable(String tableName) {
-        String sql = "SELECT COUNT(1) FROM " + tableName;
-
-        try (Statement stmt = conn.createStatement()) {
-            try (ResultSet rs = stmt.executeQuery(sql)) {
-
-                if (rs != null && rs.next()) { // Need to do this to increment one line in the ResultSet
-                    return rs.getInt(1);
-                } else {
-                    return 0;
-                }
-
-            } catch (SQLException e) {
-                LOG.trace(e.getMessage(), e);
-            }
-        } catch (SQLException e) {
-            LOG.trace(e.getMessage(), e);
+        Integer count = conceptCounts.get(typeLabel);
+        if (count == null) {
+            LOG.error("No concept count for label: " + typeLabel);
+            return 0;
         }
-        return 0;
+        return count;
     }
 
     @Override
     public int totalExplicitRelationships() {
-        int total = 0;
-        for (String relationshipType : this.explicitRelationshipTypeLabels) {
-            total += getConceptCount(relationshipType);
-        }
-        return total;
+        return totalExplicitRelationships;
     }
 
     @Override
     public int totalImplicitRelationships() {
-        int totalRelationships = 0;
-        for (String relationshipType : this.relationshipTypeLabels) {
-            totalRelationships += getConceptCount(relationshipType);
-        }
-        return totalRelationships - totalExplicitRelationships();
+        return totalRelationships - totalExplicitRelationships;
     }
 
     @Override
     public int totalEntities() {
-        int total = 0;
-        for (String entityType : this.entityTypeLabels) {
-            total += getConceptCount(entityType);
-        }
-        return total;
+        return totalEntities;
     }
 
     @Override
     public int totalAttributes() {
-        int total = 0;
-        for (String attributeType : this.attributeTypeLabels.keySet()) {
-            total += getConceptCount(attributeType);
-        }
-        return total;
+        return totalAttributes;
     }
 
 
@@ -596,14 +582,7 @@ public class IgniteConceptStorage implements ConceptStorage {
      */
     @Override
     public int totalOrphanEntities() {
-        Set<String> rolePlayerIds = getIds("roleplayers");
-        Set<String> entityIds = new HashSet<>();
-        for (String typeLabel : this.entityTypeLabels) {
-            Set<String> ids = getIds(labelToSqlName(typeLabel));
-            entityIds.addAll(ids);
-        }
-        entityIds.removeAll(rolePlayerIds);
-        return entityIds.size();
+        return totalEntities - entityRolePlayers;
     }
 
     /**
@@ -613,14 +592,7 @@ public class IgniteConceptStorage implements ConceptStorage {
      */
     @Override
     public int totalOrphanAttributes() {
-        Set<String> rolePlayerIds = getIds("roleplayers");
-        Set<String> attributeIds = new HashSet<>();
-        for (String typeLabel : this.attributeTypeLabels.keySet()) {
-            Set<String> ids = getIds(labelToSqlName(typeLabel));
-            attributeIds.addAll(ids);
-        }
-        attributeIds.removeAll(rolePlayerIds);
-        return attributeIds.size();
+        return totalAttributes - attributeRolePlayers;
     }
 
     /**
@@ -631,40 +603,12 @@ public class IgniteConceptStorage implements ConceptStorage {
      */
     @Override
     public int totalRelationshipsRolePlayersOverlap() {
-        Set<String> rolePlayerIds = getIds("roleplayers");
-        Set<String> relationshipIds = new HashSet<>();
-        for (String typeLabel : this.relationshipTypeLabels) {
-            Set<String> ids = getIds(labelToSqlName(typeLabel));
-            relationshipIds.addAll(ids);
-        }
-        relationshipIds.retainAll(rolePlayerIds);
-        return relationshipIds.size();
+        return relationshipRolePlayers;
     }
 
     @Override
     public int getGraphScale() {
-        int entities = totalEntities();
-        int attributes = totalAttributes();
-        int relationships = totalExplicitRelationships();
-        return entities + attributes + relationships;
-    }
-
-    private Set<String> getIds(String tableName) {
-        String sql = "SELECT id FROM " + tableName;
-        Set<String> ids = new HashSet<>();
-        try (Statement stmt = conn.createStatement()) {
-            try (ResultSet resultSet = stmt.executeQuery(sql)) {
-                while (resultSet.next()) {
-                    ids.add(resultSet.getString(ID_INDEX));
-                }
-            } catch (SQLException e) {
-                LOG.trace(e.getMessage(), e);
-            }
-        } catch (SQLException e) {
-            LOG.trace(e.getMessage(), e);
-        }
-
-        return ids;
+        return totalEntities + totalAttributes + totalExplicitRelationships;
     }
 
     /**
@@ -677,7 +621,6 @@ public class IgniteConceptStorage implements ConceptStorage {
     }
 
     private void dropTable(String tableName) throws SQLException {
-        Connection conn = DriverManager.getConnection("jdbc:ignite:thin://127.0.0.1/");
         try (PreparedStatement stmt = conn.prepareStatement("DROP TABLE IF EXISTS " + tableName)) {
             stmt.executeUpdate();
         } catch (SQLException e) {
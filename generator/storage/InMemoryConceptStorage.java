@@ -0,0 +1,285 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.storage;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.core.concept.ConceptId;
+import grakn.core.concept.type.AttributeType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Stores identifiers for all concepts in a Grakn keyspace in the memory of the generator's JVM.
+ * <p>
+ * Every type gets a dense, append-only array of concept IDs, so retrieving the ID at an offset and
+ * counting the instances of a type are constant time, and no external process is required.
+ * Which instances have not yet played a role is kept in per-type indexes (see TypeInstances).
+ */
+public class InMemoryConceptStorage implements ConceptStorage {
+    private static final Logger LOG = LoggerFactory.getLogger(InMemoryConceptStorage.class);
+
+    private final Set<String> entityTypeLabels;
+    private final Set<String> relationshipTypeLabels;
+    private final Set<String> explicitRelationshipTypeLabels;
+    private final Map<String, AttributeType.DataType<?>> attributeTypeLabels;
+
+    private final Map<String, TypeInstances> instances;
+
+    // claimed role players not yet handed to a batch, see drainClaims()
+    private List<ConceptStorageBatch.RolePlayer> claims = new ArrayList<>();
+
+    private int totalEntities = 0;
+    private int totalAttributes = 0;
+    private int totalRelationships = 0;
+    private int totalExplicitRelationships = 0;
+
+    // total is implicit + explicit role players
+    private int totalRolePlayers = 0;
+    // separately count only roles that are in explicit relationships
+    private int totalExplicitRolePlayers = 0;
+
+    // concepts that have been assigned into a relationship at some point, so orphans are known without scanning
+    private int entityRolePlayers = 0;
+    private int attributeRolePlayers = 0;
+    private int relationshipRolePlayers = 0;
+
+    public InMemoryConceptStorage(Set<String> entityTypeLabels, Set<String> relationshipTypeLabels, Map<String, AttributeType.DataType<?>> attributeTypeLabels) {
+        LOG.info("Initialising in-memory concept storage...");
+        this.entityTypeLabels = new HashSet<>(entityTypeLabels);
+        this.explicitRelationshipTypeLabels = new HashSet<>(relationshipTypeLabels);
+        this.attributeTypeLabels = new HashMap<>(attributeTypeLabels);
+
+        // add @has-[attribute] relationships as possible relationships
+        this.relationshipTypeLabels = new HashSet<>(relationshipTypeLabels);
+        for (String attributeTypeLabel : this.attributeTypeLabels.keySet()) {
+            this.relationshipTypeLabels.add("@has-" + attributeTypeLabel);
+        }
+
+        this.instances = new HashMap<>();
+        for (String typeLabel : this.entityTypeLabels) {
+            instances.put(typeLabel, new TypeInstances(false));
+        }
+        for (String typeLabel : this.relationshipTypeLabels) {
+            instances.put(typeLabel, new TypeInstances(false));
+        }
+        for (String typeLabel : this.attributeTypeLabels.keySet()) {
+            instances.put(typeLabel, new TypeInstances(true));
+        }
+    }
+
+    private TypeInstances instancesOf(String typeLabel) {
+        TypeInstances typeInstances = instances.get(typeLabel);
+        if (typeInstances == null) {
+            throw new DataGeneratorException(typeLabel + " is not a type in the schema. This is likely an error in the data generator definition");
+        }
+        return typeInstances;
+    }
+
+    @Override
+    public void addConcept(ConceptId conceptId, String typeLabel, Object value) {
+        // attributes are de-duplicated by Grakn, so the same ID may be returned more than once
+        if (instancesOf(typeLabel).add(conceptId, value) == -1) {
+            return;
+        }
+
+        if (entityTypeLabels.contains(typeLabel)) {
+            totalEntities++;
+        } else if (attributeTypeLabels.containsKey(typeLabel)) {
+            totalAttributes++;
+        } else {
+            totalRelationships++;
+            if (explicitRelationshipTypeLabels.contains(typeLabel)) {
+                totalExplicitRelationships++;
+            }
+        }
+    }
+
+    /**
+     * Add a role player, and specify its type, the relationship, and role it fills
+     */
+    @Override
+    public void addRolePlayer(String conceptId, String conceptType, String relationshipType, String role) {
+
+        // sanity check for the user in case they entered something wrong in the data generator
+        if (!this.relationshipTypeLabels.contains(relationshipType)) {
+            throw new DataGeneratorException(relationshipType + " is not a valid relationship type. This is likely an error in the data generator definition");
+        }
+
+        totalRolePlayers += 1;
+        if (!relationshipType.startsWith("@")) {
+            totalExplicitRolePlayers += 1;
+        }
+
+        ConceptId id = ConceptId.of(conceptId);
+        TypeInstances typeInstances = instancesOf(conceptType);
+        int offset = typeInstances.offset(id);
+        if (offset == -1) {
+            LOG.warn("Role player " + id + " was never added to the concept storage");
+        } else if (typeInstances.markPlaying(offset, relationshipType, role)) {
+            countNewRolePlayer(conceptType);
+        }
+    }
+
+    private void countNewRolePlayer(String typeLabel) {
+        if (entityTypeLabels.contains(typeLabel)) {
+            entityRolePlayers++;
+        } else if (attributeTypeLabels.containsKey(typeLabel)) {
+            attributeRolePlayers++;
+        } else {
+            relationshipRolePlayers++;
+        }
+    }
+
+    @Override
+    public int getConceptCount(String typeLabel) {
+        return instancesOf(typeLabel).size();
+    }
+
+    @Override
+    public ConceptId getConceptId(String typeLabel, int offset) {
+        TypeInstances typeInstances = instancesOf(typeLabel);
+        if (offset < 0 || offset >= typeInstances.size()) {
+            return null;
+        }
+        return typeInstances.id(offset);
+    }
+
+    @Override
+    public List<ConceptId> getIdsNotPlayingRole(String typeLabel, String relationshipType, String role) {
+        return instancesOf(typeLabel).allNotPlaying(relationshipType, role);
+    }
+
+    @Override
+    public Integer numIdsNotPlayingRole(String typeLabel, String relationshipType, String role) {
+        return instancesOf(typeLabel).countNotPlaying(relationshipType, role);
+    }
+
+    @Override
+    public ConceptId getRandomIdNotPlayingRole(String typeLabel, String relationshipType, String role, Random random) {
+        return instancesOf(typeLabel).randomNotPlaying(relationshipType, role, random);
+    }
+
+    @Override
+    public ConceptId getRandomIdByDegree(String typeLabel, int initialAttractiveness, Random random) {
+        return instancesOf(typeLabel).randomByDegree(initialAttractiveness, random);
+    }
+
+    @Override
+    public ConceptId claimRandomIdNotPlayingRole(String typeLabel, String relationshipType, String role, Random random) {
+        ConceptId conceptId = instancesOf(typeLabel).claimNotPlaying(relationshipType, role, random);
+        if (conceptId != null) {
+            claims.add(new ConceptStorageBatch.RolePlayer(conceptId.toString(), typeLabel, relationshipType, role));
+        }
+        return conceptId;
+    }
+
+    @Override
+    public List<ConceptStorageBatch.RolePlayer> drainClaims() {
+        List<ConceptStorageBatch.RolePlayer> drained = claims;
+        claims = new ArrayList<>();
+        return drained;
+    }
+
+    @Override
+    public void releaseClaims(List<ConceptStorageBatch.RolePlayer> claims) {
+        for (ConceptStorageBatch.RolePlayer claim : claims) {
+            TypeInstances typeInstances = instancesOf(claim.conceptType());
+            typeInstances.releaseClaim(typeInstances.offset(ConceptId.of(claim.conceptId())), claim.relationshipType(), claim.role());
+        }
+    }
+
+    @Override
+    public Date getDate(String typeLabel, int offset) {
+        TypeInstances typeInstances = instancesOf(typeLabel);
+        if (offset < 0 || offset >= typeInstances.size()) {
+            return null;
+        }
+        Object value = typeInstances.value(offset);
+        return value instanceof Date ? (Date) value : null;
+    }
+
+    @Override
+    public int totalExplicitRelationships() {
+        return totalExplicitRelationships;
+    }
+
+    @Override
+    public int totalImplicitRelationships() {
+        return totalRelationships - totalExplicitRelationships;
+    }
+
+    @Override
+    public int totalEntities() {
+        return totalEntities;
+    }
+
+    @Override
+    public int totalAttributes() {
+        return totalAttributes;
+    }
+
+    @Override
+    public int totalRolePlayers() {
+        return totalRolePlayers;
+    }
+
+    @Override
+    public int totalExplicitRolePlayers() {
+        return totalExplicitRolePlayers;
+    }
+
+    /**
+     * Orphan entities = Set(all entities) - Set(entities playing roles)
+     */
+    @Override
+    public int totalOrphanEntities() {
+        return totalEntities - entityRolePlayers;
+    }
+
+    /**
+     * Orphan attributes = Set(all attribute ids) - Set(attributes playing roles)
+     */
+    @Override
+    public int totalOrphanAttributes() {
+        return totalAttributes - attributeRolePlayers;
+    }
+
+    /**
+     * Double counting between relationships and relationships also playing roles (including implicit and explicit rels)
+     * = Set(All relationship ids) intersect Set(role players)
+     */
+    @Override
+    public int totalRelationshipsRolePlayersOverlap() {
+        return relationshipRolePlayers;
+    }
+
+    @Override
+    public int getGraphScale() {
+        return totalEntities + totalAttributes + totalExplicitRelationships;
+    }
+}
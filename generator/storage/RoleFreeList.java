@@ -0,0 +1,128 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.storage;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * The offsets of the instances of one type that have not yet played one role in one relationship.
+ * <p>
+ * This is a swap-remove list: removing an offset moves the last member into the freed slot,
+ * so adding, removing, counting and picking a uniformly random member are all constant time.
+ * <p>
+ * A member can also be claimed: it is removed from the list until it either plays the role or is released.
+ */
+class RoleFreeList {
+
+    private int[] members;
+    // position of each offset in `members`, or -1 if the offset is not a member
+    private int[] positions;
+    private int size;
+    private final BitSet claimed;
+
+    /**
+     * Create a list that initially contains all offsets in [0, initialSize)
+     */
+    RoleFreeList(int initialSize) {
+        int capacity = Math.max(initialSize, 16);
+        this.members = new int[capacity];
+        this.positions = new int[capacity];
+        for (int offset = 0; offset < initialSize; offset++) {
+            members[offset] = offset;
+            positions[offset] = offset;
+        }
+        Arrays.fill(positions, initialSize, capacity, -1);
+        this.size = initialSize;
+        this.claimed = new BitSet();
+    }
+
+    void add(int offset) {
+        ensurePositionCapacity(offset + 1);
+        if (positions[offset] != -1) {
+            return;
+        }
+        if (size == members.length) {
+            members = Arrays.copyOf(members, size * 2);
+        }
+        members[size] = offset;
+        positions[offset] = size;
+        size++;
+    }
+
+    /**
+     * Record that the offset plays the role, whether or not it was claimed first
+     *
+     * @return true if the offset was a member and has been removed
+     */
+    boolean remove(int offset) {
+        claimed.clear(offset);
+        if (offset >= positions.length || positions[offset] == -1) {
+            return false;
+        }
+        int position = positions[offset];
+        int last = members[size - 1];
+        members[position] = last;
+        positions[last] = position;
+        positions[offset] = -1;
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int position) {
+        return members[position];
+    }
+
+    int random(Random random) {
+        return members[random.nextInt(size)];
+    }
+
+    /**
+     * Remove a uniformly random member, remembering that it was claimed rather than assigned the role
+     */
+    int claim(Random random) {
+        int offset = random(random);
+        remove(offset);
+        claimed.set(offset);
+        return offset;
+    }
+
+    /**
+     * Return a claimed offset to the list, if it has not played the role since being claimed
+     */
+    void release(int offset) {
+        if (claimed.get(offset)) {
+            claimed.clear(offset);
+            add(offset);
+        }
+    }
+
+    private void ensurePositionCapacity(int capacity) {
+        if (capacity > positions.length) {
+            int oldLength = positions.length;
+            positions = Arrays.copyOf(positions, Math.max(capacity, oldLength * 2));
+            Arrays.fill(positions, oldLength, positions.length, -1);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.storage;
+
+import grakn.core.concept.ConceptId;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Makes any ConceptStorage safe to share between the threads of a parallel DataGenerator,
+ * by serialising every call on this object.
+ */
+public class SynchronizedConceptStorage implements ConceptStorage {
+
+    private final ConceptStorage delegate;
+
+    public SynchronizedConceptStorage(ConceptStorage delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized int getConceptCount(String typeLabel) {
+        return delegate.getConceptCount(typeLabel);
+    }
+
+    @Override
+    public synchronized ConceptId getConceptId(String typeLabel, int offset) {
+        return delegate.getConceptId(typeLabel, offset);
+    }
+
+    @Override
+    public synchronized List<ConceptId> getConceptIds(String typeLabel, int[] offsets) {
+        return delegate.getConceptIds(typeLabel, offsets);
+    }
+
+    @Override
+    public synchronized List<ConceptId> getIdsNotPlayingRole(String typeLabel, String relationshipType, String role) {
+        return delegate.getIdsNotPlayingRole(typeLabel, relationshipType, role);
+    }
+
+    @Override
+    public synchronized Integer numIdsNotPlayingRole(String typeLabel, String relationshipType, String role) {
+        return delegate.numIdsNotPlayingRole(typeLabel, relationshipType, role);
+    }
+
+    @Override
+    public synchronized ConceptId getRandomIdNotPlayingRole(String typeLabel, String relationshipType, String role, Random random) {
+        return delegate.getRandomIdNotPlayingRole(typeLabel, relationshipType, role, random);
+    }
+
+    @Override
+    public synchronized ConceptId getRandomIdByDegree(String typeLabel, int initialAttractiveness, Random random) {
+        return delegate.getRandomIdByDegree(typeLabel, initialAttractiveness, random);
+    }
+
+    @Override
+    public synchronized ConceptId claimRandomIdNotPlayingRole(String typeLabel, String relationshipType, String role, Random random) {
+        return delegate.claimRandomIdNotPlayingRole(typeLabel, relationshipType, role, random);
+    }
+
+    @Override
+    public synchronized List<ConceptStorageBatch.RolePlayer> drainClaims() {
+        return delegate.drainClaims();
+    }
+
+    @Override
+    public synchronized void releaseClaims(List<ConceptStorageBatch.RolePlayer> claims) {
+        delegate.releaseClaims(claims);
+    }
+
+    @Override
+    public synchronized Date getDate(String typeLabel, int offset) {
+        return delegate.getDate(typeLabel, offset);
+    }
+
+    @Override
+    public synchronized void addConcept(ConceptId conceptId, String typeLabel, Object value) {
+        delegate.addConcept(conceptId, typeLabel, value);
+    }
+
+    @Override
+    public synchronized void addRolePlayer(String conceptId, String conceptType, String relationshipType, String role) {
+        delegate.addRolePlayer(conceptId, conceptType, relationshipType, role);
+    }
+
+    @Override
+    public synchronized int totalExplicitRelationships() {
+        return delegate.totalExplicitRelationships();
+    }
+
+    @Override
+    public synchronized int totalImplicitRelationships() {
+        return delegate.totalImplicitRelationships();
+    }
+
+    @Override
+    public synchronized int totalEntities() {
+        return delegate.totalEntities();
+    }
+
+    @Override
+    public synchronized int totalAttributes() {
+        return delegate.totalAttributes();
+    }
+
+    @Override
+    public synchronized int totalRolePlayers() {
+        return delegate.totalRolePlayers();
+    }
+
+    @Override
+    public synchronized int totalExplicitRolePlayers() {
+        return delegate.totalExplicitRolePlayers();
+    }
+
+    @Override
+    public synchronized int totalOrphanEntities() {
+        return delegate.totalOrphanEntities();
+    }
+
+    @Override
+    public synchronized int totalOrphanAttributes() {
+        return delegate.totalOrphanAttributes();
+    }
+
+    @Override
+    public synchronized int totalRelationshipsRolePlayersOverlap() {
+        return delegate.totalRelationshipsRolePlayersOverlap();
+    }
+
+    @Override
+    public synchronized int getGraphScale() {
+        return delegate.getGraphScale();
+    }
+
+    @Override
+    public synchronized void flush(ConceptStorageBatch batch) {
+        delegate.flush(batch);
+    }
+}
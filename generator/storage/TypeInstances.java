@@ -0,0 +1,211 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.storage;
+
+import grakn.core.concept.ConceptId;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Dense, append-only record of the instances of a single type, plus an index of which
+ * instances have not yet played each (relationship, role) pair, and a flag per instance
+ * recording whether it has played any role at all.
+ * <p>
+ * Every role played is also appended to an array of role occurrences, so an instance can be sampled in
+ * constant time with probability proportional to the number of roles it has played (see randomByDegree).
+ * <p>
+ * Role indexes are created the first time a (relationship, role) pair is used, and from then on
+ * are kept up to date as instances are added and as they are assigned into relationships.
+ */
+class TypeInstances {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private ConceptId[] ids;
+    private Object[] values;
+    private int size;
+    private final Map<ConceptId, Integer> offsets;
+    // relationship -> role -> offsets of instances that have not played that role
+    private final Map<String, Map<String, RoleFreeList>> notPlayingRoles;
+    private final List<RoleFreeList> allRoleFreeLists;
+    private final BitSet rolePlayers;
+    // offset of the role player of every role played, in the order they were played
+    private int[] roleOccurrences;
+    private int roleOccurrenceCount;
+
+    TypeInstances(boolean storeValues) {
+        this.ids = new ConceptId[INITIAL_CAPACITY];
+        this.values = storeValues ? new Object[INITIAL_CAPACITY] : null;
+        this.size = 0;
+        this.offsets = new HashMap<>();
+        this.notPlayingRoles = new HashMap<>();
+        this.allRoleFreeLists = new ArrayList<>();
+        this.rolePlayers = new BitSet();
+        this.roleOccurrences = new int[INITIAL_CAPACITY];
+        this.roleOccurrenceCount = 0;
+    }
+
+    /**
+     * @return offset of the newly added instance, or -1 if the instance was already present
+     */
+    int add(ConceptId id, Object value) {
+        if (offsets.containsKey(id)) {
+            return -1;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            if (values != null) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+        }
+        int offset = size;
+        ids[offset] = id;
+        if (values != null) {
+            values[offset] = value;
+        }
+        offsets.put(id, offset);
+        size++;
+
+        // a new instance has not played any role yet
+        for (RoleFreeList roleFreeList : allRoleFreeLists) {
+            roleFreeList.add(offset);
+        }
+        return offset;
+    }
+
+    int size() {
+        return size;
+    }
+
+    ConceptId id(int offset) {
+        return ids[offset];
+    }
+
+    Object value(int offset) {
+        return (values == null) ? null : values[offset];
+    }
+
+    /**
+     * @return offset of the instance, or -1 if it is not present
+     */
+    int offset(ConceptId id) {
+        Integer offset = offsets.get(id);
+        return (offset == null) ? -1 : offset;
+    }
+
+    /**
+     * Record that the instance at the offset has played the role in the relationship
+     *
+     * @return true if this is the first time the instance plays any role
+     */
+    boolean markPlaying(int offset, String relationshipType, String role) {
+        notPlaying(relationshipType, role).remove(offset);
+        if (roleOccurrenceCount == roleOccurrences.length) {
+            roleOccurrences = Arrays.copyOf(roleOccurrences, roleOccurrenceCount * 2);
+        }
+        roleOccurrences[roleOccurrenceCount++] = offset;
+
+        if (rolePlayers.get(offset)) {
+            return false;
+        }
+        rolePlayers.set(offset);
+        return true;
+    }
+
+    /**
+     * Choose an instance with probability proportional to the number of roles it has played plus the initial
+     * attractiveness, which lets instances that have not played any role yet be chosen too
+     *
+     * @return the chosen instance, or null if there are no instances
+     */
+    ConceptId randomByDegree(int initialAttractiveness, Random random) {
+        if (size == 0) {
+            return null;
+        }
+        long attractiveness = (long) size * initialAttractiveness;
+        long position = (long) (random.nextDouble() * (attractiveness + roleOccurrenceCount));
+        if (position < attractiveness) {
+            return ids[(int) (position / initialAttractiveness)];
+        }
+        return ids[roleOccurrences[(int) Math.min(position - attractiveness, roleOccurrenceCount - 1)]];
+    }
+
+    int countNotPlaying(String relationshipType, String role) {
+        return notPlaying(relationshipType, role).size();
+    }
+
+    /**
+     * @return a uniformly chosen instance that has not played the role in the relationship, or null if there is none
+     */
+    ConceptId randomNotPlaying(String relationshipType, String role, Random random) {
+        RoleFreeList roleFreeList = notPlaying(relationshipType, role);
+        if (roleFreeList.size() == 0) {
+            return null;
+        }
+        return ids[roleFreeList.random(random)];
+    }
+
+    /**
+     * Take a uniformly chosen instance that has not played the role out of the index until it plays
+     * the role or the claim is released, so that concurrent batches of queries cannot choose it too
+     *
+     * @return the claimed instance, or null if there is none
+     */
+    ConceptId claimNotPlaying(String relationshipType, String role, Random random) {
+        RoleFreeList roleFreeList = notPlaying(relationshipType, role);
+        if (roleFreeList.size() == 0) {
+            return null;
+        }
+        return ids[roleFreeList.claim(random)];
+    }
+
+    void releaseClaim(int offset, String relationshipType, String role) {
+        notPlaying(relationshipType, role).release(offset);
+    }
+
+    List<ConceptId> allNotPlaying(String relationshipType, String role) {
+        RoleFreeList roleFreeList = notPlaying(relationshipType, role);
+        List<ConceptId> notPlaying = new ArrayList<>(roleFreeList.size());
+        for (int position = 0; position < roleFreeList.size(); position++) {
+            notPlaying.add(ids[roleFreeList.get(position)]);
+        }
+        return notPlaying;
+    }
+
+    private RoleFreeList notPlaying(String relationshipType, String role) {
+        Map<String, RoleFreeList> roles = notPlayingRoles.get(relationshipType);
+        if (roles == null) {
+            roles = new HashMap<>();
+            notPlayingRoles.put(relationshipType, roles);
+        }
+        RoleFreeList roleFreeList = roles.get(role);
+        if (roleFreeList == null) {
+            // nothing has played this role yet, so every current instance is free
+            roleFreeList = new RoleFreeList(size);
+            roles.put(role, roleFreeList);
+            allRoleFreeLists.add(roleFreeList);
+        }
+        return roleFreeList;
+    }
+}
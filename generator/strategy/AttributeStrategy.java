@@ -29,6 +29,7 @@ import java.util.Iterator;
  * - A attribute type label
  * - A PDF that can be sampled to indicate how big the new batch of attributes is going to be
  * - A value provider for the actual values of the attribute of this type
+ * Optionally, the number of attributes to insert per query can be fixed for this type.
  */
 public class AttributeStrategy<T> extends TypeStrategy {
 
@@ -41,6 +42,14 @@ public class AttributeStrategy<T> extends TypeStrategy {
         this.valueProvider = valueProvider;
     }
 
+    public AttributeStrategy(String attributeTypeLabel,
+                             ProbabilityDensityFunction numInstancesPDF,
+                             ValueProvider<T> valueProvider,
+                             int instancesPerQuery) {
+        super(attributeTypeLabel, numInstancesPDF, instancesPerQuery);
+        this.valueProvider = valueProvider;
+    }
+
     public Iterator<T> getValueProvider() {
         return this.valueProvider;
     }
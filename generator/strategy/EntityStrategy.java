@@ -24,9 +24,14 @@ import grakn.benchmark.generator.probdensity.ProbabilityDensityFunction;
  * A container for the two things required for how to generate a new batch of entities:
  * - The entity type label
  * - A PDF that can be sampled to indicate how big the new batch of entities is going to be
+ * Optionally, the number of entities to insert per query can be fixed for this type.
  */
 public class EntityStrategy extends TypeStrategy {
     public EntityStrategy(String typeLabel, ProbabilityDensityFunction numInstancesPDF) {
         super(typeLabel, numInstancesPDF);
     }
+
+    public EntityStrategy(String typeLabel, ProbabilityDensityFunction numInstancesPDF, int instancesPerQuery) {
+        super(typeLabel, numInstancesPDF, instancesPerQuery);
+    }
 }
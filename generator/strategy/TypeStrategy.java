@@ -18,22 +18,33 @@
 
 package grakn.benchmark.generator.strategy;
 
+import grakn.benchmark.generator.DataGeneratorException;
 import grakn.benchmark.generator.probdensity.ProbabilityDensityFunction;
 
 /**
  * A Type strategy is a container composed of:
  * - a type label defining what type to generate
  * - a PDF defining how many type instances to generate
+ * - optionally, how many instances to fold into each insert query
  * <p>
  * and it is consumed by a generator.
  */
 public abstract class TypeStrategy {
     private final String typeLabel;
     private final ProbabilityDensityFunction numInstancesPDF;
+    private final Integer instancesPerQuery;
 
     public TypeStrategy(String typeLabel, ProbabilityDensityFunction numInstancesPDF) {
+        this(typeLabel, numInstancesPDF, null);
+    }
+
+    public TypeStrategy(String typeLabel, ProbabilityDensityFunction numInstancesPDF, Integer instancesPerQuery) {
+        if (instancesPerQuery != null && instancesPerQuery < 1) {
+            throw new DataGeneratorException("Instances per query for " + typeLabel + " must be at least 1, got " + instancesPerQuery);
+        }
         this.numInstancesPDF = numInstancesPDF;
         this.typeLabel = typeLabel;
+        this.instancesPerQuery = instancesPerQuery;
     }
 
     public String getTypeLabel() {
@@ -43,5 +54,12 @@ public abstract class TypeStrategy {
     public ProbabilityDensityFunction getNumInstancesPDF() {
         return numInstancesPDF;
     }
+
+    /**
+     * @return how many instances each insert query should contain, or null to use the generator's default
+     */
+    public Integer getInstancesPerQuery() {
+        return instancesPerQuery;
+    }
 }
 
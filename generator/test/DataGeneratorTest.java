@@ -0,0 +1,236 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator;
+
+import grakn.benchmark.generator.checkpoint.GenerationCheckpoint;
+import grakn.benchmark.generator.probdensity.FixedConstant;
+import grakn.benchmark.generator.query.QueryProvider;
+import grakn.benchmark.generator.storage.ConceptStorage;
+import grakn.benchmark.generator.storage.InMemoryConceptStorage;
+import grakn.benchmark.generator.storage.SynchronizedConceptStorage;
+import grakn.benchmark.generator.strategy.EntityStrategy;
+import grakn.client.GraknClient;
+import grakn.core.concept.Concept;
+import grakn.core.concept.ConceptId;
+import grakn.core.concept.answer.ConceptMap;
+import graql.lang.query.GraqlInsert;
+import graql.lang.statement.Variable;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DataGeneratorTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger nextId = new AtomicInteger(0);
+    private final AtomicInteger writeTransactions = new AtomicInteger(0);
+    // ids of the concepts whose transactions committed, as the keyspace would hold them
+    private final Set<ConceptId> committed = Collections.synchronizedSet(new HashSet<>());
+    private volatile int failingTransaction = -1;
+    private volatile boolean failAfterCommit = false;
+    private GraknClient client;
+
+    /**
+     * A client whose write transactions answer every insert with new concepts, and keep them once committed,
+     * and whose read transactions find the committed concepts
+     */
+    @Before
+    public void mockClient() {
+        client = mock(GraknClient.class);
+        GraknClient.Session session = mock(GraknClient.Session.class);
+        GraknClient.Transaction.Builder builder = mock(GraknClient.Transaction.Builder.class);
+        when(client.session(anyString())).thenReturn(session);
+        when(session.transaction()).thenReturn(builder);
+        when(builder.write()).thenAnswer(invocation -> {
+            int number = writeTransactions.getAndIncrement();
+            List<ConceptId> inserted = new ArrayList<>();
+            GraknClient.Transaction tx = mock(GraknClient.Transaction.class);
+            when(tx.execute(any(GraqlInsert.class))).thenAnswer(execution -> {
+                ConceptMap answer = mock(ConceptMap.class);
+                when(answer.get(any(Variable.class))).thenAnswer(get -> {
+                    Concept concept = mock(Concept.class);
+                    ConceptId id = ConceptId.of("V" + nextId.getAndIncrement());
+                    inserted.add(id);
+                    when(concept.id()).thenReturn(id);
+                    return concept;
+                });
+                return Collections.singletonList(answer);
+            });
+            doAnswer(commit -> {
+                if (number == failingTransaction && !failAfterCommit) {
+                    throw new RuntimeException("Grakn went away before committing");
+                }
+                committed.addAll(inserted);
+                if (number == failingTransaction) {
+                    throw new RuntimeException("Grakn went away after committing");
+                }
+                return null;
+            }).when(tx).commit();
+            return tx;
+        });
+        when(builder.read()).thenAnswer(invocation -> {
+            GraknClient.Transaction tx = mock(GraknClient.Transaction.class);
+            when(tx.getConcept(any(ConceptId.class))).thenAnswer(get -> committed.contains(get.getArgument(0)) ? mock(Concept.class) : null);
+            return tx;
+        });
+    }
+
+    private static ConceptStorage storage() {
+        return new InMemoryConceptStorage(Collections.singleton("person"), Collections.emptySet(), Collections.emptyMap());
+    }
+
+    /**
+     * Three people per batch, so that a batch can take the graph past a target scale
+     */
+    private static EntityStrategy people() {
+        return new EntityStrategy("person", new FixedConstant(3));
+    }
+
+    private DataGenerator generator(ConceptStorage storage, int threads, boolean pipelined, GenerationCheckpoint checkpoint,
+                                    TransactionSizer transactionSizer) {
+        EntityStrategy people = people();
+        return new DataGenerator(client, "keyspace", storage, "people", new QueryProvider(() -> people), threads, pipelined, checkpoint, null, transactionSizer);
+    }
+
+    private GenerationCheckpoint checkpoint(boolean resume) {
+        if (resume) {
+            return GenerationCheckpoint.resume(folder.getRoot().toPath(), "keyspace", Collections.emptyMap(), 1);
+        }
+        return GenerationCheckpoint.start(folder.getRoot().toPath(), "keyspace", Collections.emptyMap(), 1);
+    }
+
+    @Test(timeout = 10000)
+    public void whenWritingWithSeveralThreads_targetIsOvershotOnlyAsMuchAsBySingleWriter() {
+        ConceptStorage storage = new SynchronizedConceptStorage(storage());
+        generator(storage, 4, false, null, null).generate(10);
+        // batches of three stop at 12, the first scale past 10, as they do for a single writer
+        assertEquals(12, storage.getGraphScale());
+        assertEquals(12, committed.size());
+    }
+
+    @Test(timeout = 10000)
+    public void whenPipelined_targetIsOvershotOnlyAsMuchAsBySingleWriter() {
+        ConceptStorage storage = new SynchronizedConceptStorage(storage());
+        generator(storage, 1, true, null, null).generate(10);
+        assertEquals(12, storage.getGraphScale());
+        assertEquals(12, committed.size());
+    }
+
+    @Test(timeout = 10000)
+    public void whenTransactionFails_claimsAndReservationsAreReleased() {
+        ConceptStorage storage = storage();
+        storage.addConcept(ConceptId.of("P"), "person", null);
+        Random random = new Random(0);
+        // each batch claims the only person, so the claim is only free again if the failed batch released it
+        EntityStrategy people = people();
+        QueryProvider claimingPeople = new QueryProvider(() -> {
+            storage.claimRandomIdNotPlayingRole("person", "friendship", "friend", random);
+            return people;
+        });
+        DataGenerator generator = new DataGenerator(client, "keyspace", storage, "people", claimingPeople, 1, false, null, null, null);
+
+        failingTransaction = 0;
+        try {
+            generator.generate(10);
+            fail("The failed transaction should fail generation");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("Grakn went away"));
+        }
+        assertEquals(1, storage.getGraphScale());
+        assertNotNull(storage.claimRandomIdNotPlayingRole("person", "friendship", "friend", random));
+        storage.releaseClaims(storage.drainClaims());
+
+        // a leaked reservation would leave the writer waiting for a batch that will never be flushed
+        failingTransaction = -1;
+        generator.generate(10);
+        assertEquals(10, storage.getGraphScale());
+    }
+
+    @Test(timeout = 10000)
+    public void whenRunDiesBeforeCommitting_resumedRunExecutesTheLoggedBatchAgain() {
+        failingTransaction = 2;
+        assertResumedRunReaches(30, 6);
+    }
+
+    @Test(timeout = 10000)
+    public void whenRunDiesAfterCommitting_resumedRunDoesNotExecuteTheLoggedBatchAgain() {
+        failingTransaction = 2;
+        failAfterCommit = true;
+        assertResumedRunReaches(30, 9);
+    }
+
+    /**
+     * Generate until the failing transaction, then resume with new storage, as a new process would, and finish
+     */
+    private void assertResumedRunReaches(int graphScale, int resumedScale) {
+        GenerationCheckpoint checkpoint = checkpoint(false);
+        try {
+            generator(storage(), 1, false, checkpoint, null).generate(graphScale);
+            fail("The failed transaction should fail generation");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("Grakn went away"));
+        } finally {
+            checkpoint.close();
+        }
+
+        failingTransaction = -1;
+        ConceptStorage storage = storage();
+        GenerationCheckpoint resumed = checkpoint(true);
+        DataGenerator generator = generator(storage, 1, false, resumed, null);
+        assertEquals(resumedScale, generator.resume());
+        generator.generate(graphScale);
+        resumed.close();
+
+        // neither duplicated in the keyspace nor lost from storage
+        assertEquals(graphScale, committed.size());
+        assertEquals(graphScale, storage.getGraphScale());
+    }
+
+    @Test(timeout = 10000)
+    public void whenTransactionsCombineBatches_everySegmentIsFlushed() {
+        ConceptStorage storage = storage();
+        generator(storage, 1, false, null, new TransactionSizer(7, 7)).generate(30);
+        assertEquals(30, committed.size());
+        assertEquals(30, storage.getGraphScale());
+        // ten batches of three, in transactions of seven inserts
+        assertEquals(5, writeTransactions.get());
+    }
+}
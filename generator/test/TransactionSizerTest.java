@@ -0,0 +1,119 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class TransactionSizerTest {
+
+    private static final long FAST_COMMIT = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW_COMMIT = TimeUnit.SECONDS.toNanos(10);
+
+    private void commitWindow(TransactionSizer sizer, long nanosPerInsert, long commitNanos) {
+        for (int i = 0; i < 5; i++) {
+            int inserts = sizer.size();
+            sizer.committed(inserts, inserts * nanosPerInsert, commitNanos);
+        }
+    }
+
+    @Test
+    public void whenSizerIsCreated_initialSizeIsWithinBounds() {
+        assertEquals(32, new TransactionSizer(1, 1000).size());
+        assertEquals(10, new TransactionSizer(1, 10).size());
+        assertEquals(64, new TransactionSizer(64, 1000).size());
+    }
+
+    @Test(expected = DataGeneratorException.class)
+    public void whenMaxIsBelowMin_throw() {
+        new TransactionSizer(10, 5);
+    }
+
+    @Test
+    public void whenThroughputKeepsImproving_sizeKeepsGrowing() {
+        TransactionSizer sizer = new TransactionSizer(1, 1000);
+        commitWindow(sizer, 1000, FAST_COMMIT);
+        assertEquals(64, sizer.size());
+        commitWindow(sizer, 800, FAST_COMMIT);
+        assertEquals(128, sizer.size());
+    }
+
+    @Test
+    public void whenThroughputDrops_sizeTurnsBack() {
+        TransactionSizer sizer = new TransactionSizer(1, 1000);
+        commitWindow(sizer, 1000, FAST_COMMIT);
+        assertEquals(64, sizer.size());
+        commitWindow(sizer, 2000, FAST_COMMIT);
+        assertEquals(32, sizer.size());
+    }
+
+    @Test
+    public void whenCommitsAreSlow_sizeShrinksEvenIfThroughputImproves() {
+        TransactionSizer sizer = new TransactionSizer(1, 1000);
+        commitWindow(sizer, 1000, SLOW_COMMIT);
+        assertEquals(16, sizer.size());
+    }
+
+    @Test
+    public void whenTransactionsAreNotFull_theyCountPerInsert() {
+        TransactionSizer sizer = new TransactionSizer(1, 1000);
+        for (int i = 0; i < 5; i++) {
+            sizer.committed(10, 10 * 1000, FAST_COMMIT);
+        }
+        assertEquals(64, sizer.size());
+        for (int i = 0; i < 5; i++) {
+            sizer.committed(10, 10 * 800, FAST_COMMIT);
+        }
+        assertEquals(128, sizer.size());
+    }
+
+    @Test
+    public void whenTransactionsAreNotFull_commitTimeIsScaledToAFullTransaction() {
+        TransactionSizer sizer = new TransactionSizer(1, 1000);
+        // 10 inserts committing in 2 s would take 6.4 s at the full size of 32
+        for (int i = 0; i < 5; i++) {
+            sizer.committed(10, 10 * 1000, TimeUnit.SECONDS.toNanos(2));
+        }
+        assertEquals(16, sizer.size());
+    }
+
+    @Test
+    public void whenTransactionsAreEmpty_sizeIsUnchanged() {
+        TransactionSizer sizer = new TransactionSizer(1, 1000);
+        for (int i = 0; i < 20; i++) {
+            sizer.committed(0, 1000, SLOW_COMMIT);
+        }
+        assertEquals(32, sizer.size());
+    }
+
+    @Test
+    public void whenSizeIsTuned_itStaysWithinBounds() {
+        TransactionSizer growing = new TransactionSizer(1, 40);
+        commitWindow(growing, 1000, FAST_COMMIT);
+        assertEquals(40, growing.size());
+
+        TransactionSizer shrinking = new TransactionSizer(20, 1000);
+        commitWindow(shrinking, 1000, SLOW_COMMIT);
+        assertEquals(20, shrinking.size());
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator.checkpoint;
+
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.core.concept.ConceptId;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class BatchLogTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private BatchSegment segment(String id, Object value) {
+        ConceptStorageBatch writes = new ConceptStorageBatch();
+        writes.addConcept(ConceptId.of(id), "person", value);
+        writes.addRolePlayer(id, "person", "friendship", "friend");
+        return new BatchSegment(Integer.parseInt(id.substring(1)), Collections.singletonList(Collections.singletonList(ConceptId.of(id))), writes);
+    }
+
+    private static boolean failIfInDoubt(List<BatchSegment> segments) {
+        fail("No segments should be in doubt");
+        return false;
+    }
+
+    @Test
+    public void whenSegmentsAppended_theyAreReadBackInOrder() throws IOException {
+        Path path = folder.newFile("keyspace.batches").toPath();
+        try (BatchLog log = new BatchLog(path, false)) {
+            log.append(segment("V1", null));
+            log.appendCommit();
+            log.append(segment("V2", "a name"));
+            log.append(segment("V3", 42));
+            log.appendCommit();
+            log.append(new BatchSegment(3, new ArrayList<>(), new ConceptStorageBatch()));
+            log.appendCommit();
+        }
+
+        List<BatchSegment> segments = new ArrayList<>();
+        assertEquals(4, BatchLog.read(path, segments::add, BatchLogTest::failIfInDoubt));
+
+        assertEquals(ConceptId.of("V1"), segments.get(0).writes().concepts().get(0).conceptId());
+        assertEquals("person", segments.get(0).writes().concepts().get(0).typeLabel());
+        assertNull(segments.get(0).writes().concepts().get(0).value());
+        assertEquals(ConceptId.of("V1"), segments.get(0).insertedIds().get(0).get(0));
+        assertEquals("a name", segments.get(1).writes().concepts().get(0).value());
+        assertEquals(42, segments.get(2).writes().concepts().get(0).value());
+        assertEquals("friendship", segments.get(2).writes().rolePlayers().get(0).relationshipType());
+        assertEquals("friend", segments.get(2).writes().rolePlayers().get(0).role());
+        assertEquals(0, segments.get(3).writes().concepts().size());
+        assertEquals(3, segments.get(3).batchesGenerated());
+        assertEquals(0, segments.get(3).queries());
+    }
+
+    @Test
+    public void whenLastRecordIsPartlyWritten_itIsDroppedAndTruncated() throws IOException {
+        Path path = folder.newFile("keyspace.batches").toPath();
+        try (BatchLog log = new BatchLog(path, false)) {
+            log.append(segment("V1", null));
+            log.appendCommit();
+            log.append(segment("V2", null));
+        }
+        long length = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(length - 3);
+        }
+
+        List<BatchSegment> segments = new ArrayList<>();
+        assertEquals(1, BatchLog.read(path, segments::add, BatchLogTest::failIfInDoubt));
+
+        // appending after the truncation leaves a readable log
+        try (BatchLog log = new BatchLog(path, true)) {
+            log.append(segment("V3", null));
+            log.appendCommit();
+        }
+        segments.clear();
+        assertEquals(2, BatchLog.read(path, segments::add, BatchLogTest::failIfInDoubt));
+        assertEquals(ConceptId.of("V3"), segments.get(1).writes().concepts().get(0).conceptId());
+    }
+
+    @Test
+    public void whenInDoubtSegmentsDidNotCommit_theyAreDroppedAndTruncated() throws IOException {
+        Path path = folder.newFile("keyspace.batches").toPath();
+        try (BatchLog log = new BatchLog(path, false)) {
+            log.append(segment("V1", null));
+            log.appendCommit();
+            log.append(segment("V2", null));
+            log.append(segment("V3", null));
+        }
+
+        List<BatchSegment> inDoubt = new ArrayList<>();
+        List<BatchSegment> segments = new ArrayList<>();
+        assertEquals(1, BatchLog.read(path, segments::add, uncommitted -> {
+            inDoubt.addAll(uncommitted);
+            return false;
+        }));
+        assertEquals(2, inDoubt.size());
+        assertEquals(ConceptId.of("V2"), inDoubt.get(0).writes().concepts().get(0).conceptId());
+
+        try (BatchLog log = new BatchLog(path, true)) {
+            log.append(segment("V4", null));
+            log.appendCommit();
+        }
+        segments.clear();
+        assertEquals(2, BatchLog.read(path, segments::add, BatchLogTest::failIfInDoubt));
+        assertEquals(ConceptId.of("V4"), segments.get(1).writes().concepts().get(0).conceptId());
+    }
+
+    @Test
+    public void whenInDoubtSegmentsDidCommit_theyAreReadAndMarkedCommitted() throws IOException {
+        Path path = folder.newFile("keyspace.batches").toPath();
+        try (BatchLog log = new BatchLog(path, false)) {
+            log.append(segment("V1", null));
+            log.appendCommit();
+            log.append(segment("V2", null));
+        }
+
+        List<BatchSegment> segments = new ArrayList<>();
+        assertEquals(2, BatchLog.read(path, segments::add, uncommitted -> true));
+        assertEquals(ConceptId.of("V2"), segments.get(1).writes().concepts().get(0).conceptId());
+
+        try (BatchLog log = new BatchLog(path, true)) {
+            log.append(segment("V3", null));
+            log.appendCommit();
+        }
+        segments.clear();
+        assertEquals(3, BatchLog.read(path, segments::add, BatchLogTest::failIfInDoubt));
+    }
+}
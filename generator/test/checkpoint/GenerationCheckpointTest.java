@@ -0,0 +1,162 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator.checkpoint;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.core.concept.ConceptId;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class GenerationCheckpointTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    private Map<String, String> settings(String dataGenerator) {
+        Map<String, String> settings = new HashMap<>();
+        settings.put("dataGenerator", dataGenerator);
+        settings.put("randomSeed", "0");
+        return settings;
+    }
+
+    private BatchSegment segment(int batchesGenerated, String id) {
+        ConceptStorageBatch writes = new ConceptStorageBatch();
+        writes.addConcept(ConceptId.of(id), "person", null);
+        return new BatchSegment(batchesGenerated, Collections.singletonList(Collections.singletonList(ConceptId.of(id))), writes);
+    }
+
+    private void commit(GenerationCheckpoint checkpoint, BatchSegment segment, int graphScale) {
+        checkpoint.logged(segment);
+        checkpoint.committed(graphScale);
+    }
+
+    private static boolean notCommitted(List<BatchSegment> segments) {
+        return false;
+    }
+
+    private Properties readCheckpoint(Path directory) throws IOException {
+        Properties checkpoint = new Properties();
+        checkpoint.load(Files.newBufferedReader(directory.resolve("keyspace.checkpoint")));
+        return checkpoint;
+    }
+
+    @Test
+    public void whenIntervalReached_checkpointIsWritten() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        GenerationCheckpoint checkpoint = GenerationCheckpoint.start(directory, "keyspace", settings("social_network"), 2);
+        commit(checkpoint, segment(1, "V1"), 1);
+        assertFalse(Files.exists(directory.resolve("keyspace.checkpoint")));
+
+        commit(checkpoint, segment(2, "V2"), 2);
+        Properties written = readCheckpoint(directory);
+        assertEquals("2", written.getProperty("segments"));
+        assertEquals("2", written.getProperty("graphScale"));
+        assertEquals("social_network", written.getProperty("dataGenerator"));
+        checkpoint.close();
+    }
+
+    @Test
+    public void whenResumed_allCommittedSegmentsAreReplayed() {
+        Path directory = folder.getRoot().toPath();
+        GenerationCheckpoint checkpoint = GenerationCheckpoint.start(directory, "keyspace", settings("social_network"), 2);
+        commit(checkpoint, segment(1, "V1"), 1);
+        commit(checkpoint, segment(2, "V2"), 2);
+        // committed after the last checkpoint, but before the run died
+        commit(checkpoint, segment(3, "V3"), 3);
+
+        GenerationCheckpoint resumed = GenerationCheckpoint.resume(directory, "keyspace", settings("social_network"), 2);
+        List<BatchSegment> replayed = new ArrayList<>();
+        assertEquals(3, resumed.replay(replayed::add, GenerationCheckpointTest::notCommitted));
+        assertEquals(ConceptId.of("V3"), replayed.get(2).writes().concepts().get(0).conceptId());
+        assertEquals(3, replayed.get(2).batchesGenerated());
+
+        commit(resumed, segment(4, "V4"), 4);
+        resumed.close();
+
+        replayed.clear();
+        GenerationCheckpoint.resume(directory, "keyspace", settings("social_network"), 2)
+                .replay(replayed::add, GenerationCheckpointTest::notCommitted);
+        assertEquals(4, replayed.size());
+    }
+
+    @Test
+    public void whenRunDiedBeforeMarkingCommit_inDoubtSegmentsAreKeptOnlyIfCommitted() {
+        Path directory = folder.getRoot().toPath();
+        GenerationCheckpoint checkpoint = GenerationCheckpoint.start(directory, "keyspace", settings("social_network"), 1);
+        commit(checkpoint, segment(1, "V1"), 1);
+        checkpoint.logged(segment(2, "V2"));
+        checkpoint.close();
+
+        List<BatchSegment> replayed = new ArrayList<>();
+        GenerationCheckpoint resumed = GenerationCheckpoint.resume(directory, "keyspace", settings("social_network"), 1);
+        assertEquals(1, resumed.replay(replayed::add, GenerationCheckpointTest::notCommitted));
+        resumed.logged(segment(2, "V3"));
+        resumed.close();
+
+        replayed.clear();
+        resumed = GenerationCheckpoint.resume(directory, "keyspace", settings("social_network"), 1);
+        assertEquals(2, resumed.replay(replayed::add, segments -> true));
+        assertEquals(ConceptId.of("V3"), replayed.get(1).writes().concepts().get(0).conceptId());
+        resumed.close();
+
+        replayed.clear();
+        GenerationCheckpoint.resume(directory, "keyspace", settings("social_network"), 1)
+                .replay(replayed::add, GenerationCheckpointTest::notCommitted);
+        assertEquals(2, replayed.size());
+    }
+
+    @Test
+    public void whenResumedWithDifferentSettings_throw() {
+        Path directory = folder.getRoot().toPath();
+        GenerationCheckpoint checkpoint = GenerationCheckpoint.start(directory, "keyspace", settings("social_network"), 1);
+        commit(checkpoint, segment(1, "V1"), 1);
+        checkpoint.close();
+
+        expectedException.expect(DataGeneratorException.class);
+        expectedException.expectMessage("dataGenerator is road_network, but the checkpointed run used social_network");
+        GenerationCheckpoint.resume(directory, "keyspace", settings("road_network"), 1);
+    }
+
+    @Test
+    public void whenResumedWithoutCheckpoint_throw() {
+        expectedException.expect(DataGeneratorException.class);
+        expectedException.expectMessage("no checkpoint found");
+        GenerationCheckpoint.resume(folder.getRoot().toPath(), "keyspace", settings("social_network"), 1);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.dataset;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.query.QueryTemplate;
+import grakn.benchmark.generator.query.QueryTemplates;
+import grakn.client.GraknClient;
+import grakn.core.concept.Concept;
+import grakn.core.concept.ConceptId;
+import grakn.core.concept.answer.ConceptMap;
+import graql.lang.query.GraqlInsert;
+import graql.lang.statement.Variable;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BulkLoaderTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final QueryTemplates templates = new QueryTemplates();
+    private final AtomicInteger nextId = new AtomicInteger(0);
+    private final AtomicInteger executed = new AtomicInteger(0);
+    private final List<GraknClient.Transaction> transactions = Collections.synchronizedList(new ArrayList<>());
+    private GraknClient client;
+
+    /**
+     * A client whose transactions answer every insert with new concepts
+     */
+    @Before
+    public void mockClient() {
+        client = mock(GraknClient.class);
+        GraknClient.Session session = mock(GraknClient.Session.class);
+        GraknClient.Transaction.Builder builder = mock(GraknClient.Transaction.Builder.class);
+        when(client.session(anyString())).thenReturn(session);
+        when(session.transaction()).thenReturn(builder);
+        when(builder.write()).thenAnswer(invocation -> {
+            GraknClient.Transaction tx = mock(GraknClient.Transaction.class);
+            when(tx.execute(any(GraqlInsert.class))).thenAnswer(execution -> {
+                executed.incrementAndGet();
+                ConceptMap answer = mock(ConceptMap.class);
+                when(answer.get(any(Variable.class))).thenAnswer(get -> {
+                    Concept concept = mock(Concept.class);
+                    when(concept.id()).thenReturn(ConceptId.of("K" + nextId.getAndIncrement()));
+                    return concept;
+                });
+                return Collections.singletonList(answer);
+            });
+            transactions.add(tx);
+            return tx;
+        });
+    }
+
+    private List<ConceptId> ids(String... ids) {
+        return Arrays.stream(ids).map(ConceptId::of).collect(Collectors.toList());
+    }
+
+    private GeneratedInsert friendship(String... rolePlayerIds) {
+        ConceptId[] conceptIds = Arrays.stream(rolePlayerIds).map(ConceptId::of).toArray(ConceptId[]::new);
+        String[] conceptTypes = Arrays.stream(rolePlayerIds).map(id -> "person").toArray(String[]::new);
+        return templates.relationship("friendship", Arrays.asList("friend", "friend"), true).bindRolePlayers(conceptIds, conceptTypes);
+    }
+
+    /**
+     * Cache people and friendships between them, each friendship in a later batch than its people
+     */
+    private DatasetCache cacheFriendships(int people) {
+        DatasetCache cache = DatasetCache.open(folder.getRoot().toPath(), "social_network", 0, Collections.emptyMap());
+        QueryTemplate person = templates.entities("person", 1);
+        for (int i = 0; i < people; i++) {
+            cache.committed(Collections.singletonList(person.bind()), Collections.singletonList(ids("V" + i)));
+            if (i > 0) {
+                GeneratedInsert friendship = friendship("V" + (i - 1), "V" + i);
+                cache.committed(Collections.singletonList(friendship), Collections.singletonList(ids("F" + i)));
+            }
+        }
+        cache.scaleReached(2 * people - 1);
+        cache.close();
+        return DatasetCache.open(folder.getRoot().toPath(), "social_network", 0, Collections.emptyMap());
+    }
+
+    @Test
+    public void whenRelationshipsDependOnOtherTransactions_everyBatchIsLoaded() {
+        DatasetCache cache = cacheFriendships(20);
+        new BulkLoader(client, "keyspace", 4, 1).load(cache, 39);
+        assertEquals(39, executed.get());
+        assertEquals(39, transactions.size());
+    }
+
+    @Test
+    public void batchesAreGroupedIntoTransactions() {
+        DatasetCache cache = cacheFriendships(20);
+        new BulkLoader(client, "keyspace", 2, 10).load(cache, 39);
+        assertEquals(39, executed.get());
+        assertEquals(4, transactions.size());
+    }
+
+    @Test(timeout = 10000, expected = DataGeneratorException.class)
+    public void whenTransactionFails_loadingFailsInsteadOfWaiting() {
+        DatasetCache cache = cacheFriendships(20);
+        GraknClient.Transaction.Builder builder = client.session("keyspace").transaction();
+        GraknClient.Transaction failing = mock(GraknClient.Transaction.class);
+        when(failing.execute(any(GraqlInsert.class))).thenThrow(new RuntimeException("Grakn went away"));
+        when(builder.write()).thenReturn(failing);
+        new BulkLoader(client, "keyspace", 4, 1).load(cache, 39);
+    }
+
+    @Test
+    public void whenAttributeIsInsertedAgain_transactionWaitsForTheOneThatFirstInsertedIt() {
+        DatasetCache cache = DatasetCache.open(folder.getRoot().toPath(), "social_network", 0, Collections.emptyMap());
+        QueryTemplate name = templates.attributes("name", 1);
+        // Grakn de-duplicated the attribute, so both inserts returned its id
+        cache.committed(Collections.singletonList(name.bindValues(new Object[]{"Alice"})), Collections.singletonList(ids("A")));
+        cache.committed(Collections.singletonList(name.bindValues(new Object[]{"Alice"})), Collections.singletonList(ids("A")));
+        cache.scaleReached(1);
+        cache.close();
+        cache = DatasetCache.open(folder.getRoot().toPath(), "social_network", 0, Collections.emptyMap());
+
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger started = new AtomicInteger(0);
+        GraknClient.Transaction.Builder builder = client.session("keyspace").transaction();
+        when(builder.write()).thenAnswer(invocation -> {
+            boolean first = (started.getAndIncrement() == 0);
+            events.add("open");
+            GraknClient.Transaction tx = mock(GraknClient.Transaction.class);
+            when(tx.execute(any(GraqlInsert.class))).thenAnswer(execution -> {
+                if (first) {
+                    // give the second transaction every chance to run concurrently
+                    Thread.sleep(200);
+                }
+                ConceptMap answer = mock(ConceptMap.class);
+                Concept concept = mock(Concept.class);
+                when(concept.id()).thenReturn(ConceptId.of("K0"));
+                when(answer.get(any(Variable.class))).thenReturn(concept);
+                return Collections.singletonList(answer);
+            });
+            doAnswer(commit -> events.add("commit")).when(tx).commit();
+            return tx;
+        });
+
+        new BulkLoader(client, "keyspace", 2, 1).load(cache, 1);
+        assertEquals(Arrays.asList("open", "commit", "open", "commit"), events);
+    }
+}
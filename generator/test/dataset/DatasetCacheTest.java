@@ -0,0 +1,232 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.dataset;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.benchmark.generator.query.GeneratedInsert;
+import grakn.benchmark.generator.query.QueryTemplate;
+import grakn.benchmark.generator.query.QueryTemplates;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
+import grakn.core.concept.ConceptId;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DatasetCacheTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    private final QueryTemplates templates = new QueryTemplates();
+
+    private Map<String, String> settings(String relationInsertMode) {
+        Map<String, String> settings = new HashMap<>();
+        settings.put("relationInsertMode", relationInsertMode);
+        return settings;
+    }
+
+    private DatasetCache open(String relationInsertMode) {
+        return DatasetCache.open(folder.getRoot().toPath(), "social_network", 0, settings(relationInsertMode));
+    }
+
+    private List<ConceptId> ids(String... ids) {
+        return Arrays.stream(ids).map(ConceptId::of).collect(Collectors.toList());
+    }
+
+    private GeneratedInsert friendship(String... rolePlayerIds) {
+        ConceptId[] conceptIds = Arrays.stream(rolePlayerIds).map(ConceptId::of).toArray(ConceptId[]::new);
+        String[] conceptTypes = Arrays.stream(rolePlayerIds).map(id -> "person").toArray(String[]::new);
+        return templates.relationship("friendship", Arrays.asList("friend", "friend"), true).bindRolePlayers(conceptIds, conceptTypes);
+    }
+
+    /**
+     * Cache two people, a name and a friendship between the people, as a run would generate them
+     */
+    private void generate(DatasetCache cache) {
+        QueryTemplate people = templates.entities("person", 2);
+        GeneratedInsert name = templates.attributes("name", 1).bindValues(new Object[]{"Alice"});
+        cache.committed(Arrays.asList(people.bind(), name),
+                Arrays.asList(ids("V1", "V2"), ids("V3")));
+
+        GeneratedInsert friendship = friendship("V1", "V2");
+        cache.committed(Collections.singletonList(friendship), Collections.singletonList(ids("V4")));
+        cache.scaleReached(4);
+    }
+
+    /**
+     * Load every cached batch up to the scale, as a run would, inserting the concept at each position in the
+     * dataset with the id at that position in newIds
+     */
+    private List<GeneratedInsert> load(DatasetCache cache, int scale, List<ConceptId> newIds) {
+        List<GeneratedInsert> loaded = new ArrayList<>();
+        cache.load(scale, batch -> {
+            for (DatasetInsert cached : batch) {
+                GeneratedInsert insert = cache.bind(cached);
+                cache.loaded(cached, Arrays.stream(cached.inserted()).mapToObj(newIds::get).collect(Collectors.toList()));
+                loaded.add(insert);
+            }
+        });
+        return loaded;
+    }
+
+    @Test
+    public void whenScaleCached_datasetIsLoadedWithRolePlayersFromNewKeyspace() {
+        try (DatasetCache cache = open("id_insert")) {
+            assertFalse(cache.hasScale(4));
+            generate(cache);
+        }
+
+        try (DatasetCache cache = open("id_insert")) {
+            assertTrue(cache.hasScale(4));
+            List<GeneratedInsert> loaded = load(cache, 4, ids("W10", "W11", "W12", "W13"));
+
+            assertEquals(3, loaded.size());
+            assertEquals("person", loaded.get(0).template().typeLabel());
+            assertEquals(2, loaded.get(0).template().insertedVariables().size());
+            assertNull(loaded.get(0).insertedValue(0));
+            assertEquals("name", loaded.get(1).template().typeLabel());
+            assertEquals("Alice", loaded.get(1).insertedValue(0));
+
+            GeneratedInsert friendship = loaded.get(2);
+            assertEquals("friendship", friendship.template().relationshipType());
+            assertTrue(friendship.template().isIdInsert());
+            List<String> rolePlayers = friendship.rolePlayers().stream()
+                    .map(ConceptStorageBatch.RolePlayer::conceptId).collect(Collectors.toList());
+            assertEquals(Arrays.asList("W10", "W11"), rolePlayers);
+        }
+    }
+
+    @Test
+    public void whenGeneratingAfterLoad_newBatchesReferToLoadedConcepts() {
+        try (DatasetCache cache = open("id_insert")) {
+            generate(cache);
+        }
+
+        // a second run loads the first scale, then generates a friendship between the loaded people
+        try (DatasetCache cache = open("id_insert")) {
+            load(cache, 4, ids("W10", "W11", "W12", "W13"));
+            GeneratedInsert friendship = friendship("W11", "W10");
+            cache.committed(Collections.singletonList(friendship), Collections.singletonList(ids("W14")));
+            cache.scaleReached(5);
+        }
+
+        // a third run gets both friendships between its own people
+        try (DatasetCache cache = open("id_insert")) {
+            assertTrue(cache.hasScale(5));
+            List<GeneratedInsert> loaded = load(cache, 5, ids("X0", "X1", "X2", "X3", "X4"));
+            assertEquals(4, loaded.size());
+            List<String> rolePlayers = loaded.get(3).rolePlayers().stream()
+                    .map(ConceptStorageBatch.RolePlayer::conceptId).collect(Collectors.toList());
+            assertEquals(Arrays.asList("X1", "X0"), rolePlayers);
+        }
+    }
+
+    @Test
+    public void whenScalesLoadedInTurn_eachLoadContinuesFromTheLast() {
+        try (DatasetCache cache = open("id_insert")) {
+            QueryTemplate people = templates.entities("person", 2);
+            cache.committed(Collections.singletonList(people.bind()), Collections.singletonList(ids("V1", "V2")));
+            cache.scaleReached(2);
+            cache.committed(Collections.singletonList(people.bind()), Collections.singletonList(ids("V3", "V4")));
+            cache.scaleReached(4);
+        }
+
+        try (DatasetCache cache = open("id_insert")) {
+            assertEquals(1, cache.load(2, batch -> assertArrayEquals(new int[]{0, 1}, batch.get(0).inserted())));
+            assertEquals(1, cache.load(4, batch -> assertArrayEquals(new int[]{2, 3}, batch.get(0).inserted())));
+            assertFalse(cache.hasScale(2));
+        }
+    }
+
+    @Test
+    public void whenGeneratingPastLoadedScale_laterScalesAreDropped() {
+        try (DatasetCache cache = open("id_insert")) {
+            generate(cache);
+            GeneratedInsert friendship = friendship("V2", "V1");
+            cache.committed(Collections.singletonList(friendship), Collections.singletonList(ids("V5")));
+            cache.scaleReached(5);
+        }
+
+        // loading scale 4 then generating something else instead of the rest
+        try (DatasetCache cache = open("id_insert")) {
+            load(cache, 4, ids("W10", "W11", "W12", "W13"));
+            QueryTemplate people = templates.entities("person", 1);
+            cache.committed(Collections.singletonList(people.bind()), Collections.singletonList(ids("W14")));
+            cache.scaleReached(6);
+        }
+
+        try (DatasetCache cache = open("id_insert")) {
+            assertTrue(cache.hasScale(4));
+            assertFalse(cache.hasScale(5));
+            assertTrue(cache.hasScale(6));
+            List<GeneratedInsert> loaded = load(cache, 6, ids("X0", "X1", "X2", "X3", "X4"));
+            assertEquals("person", loaded.get(loaded.size() - 1).template().typeLabel());
+        }
+    }
+
+    @Test
+    public void whenSettingsDiffer_cachedDatasetIsDiscarded() {
+        try (DatasetCache cache = open("id_insert")) {
+            generate(cache);
+        }
+        try (DatasetCache cache = open("match_insert")) {
+            assertFalse(cache.hasScale(4));
+        }
+    }
+
+    @Test
+    public void whenRandomSeedDiffers_datasetIsCachedSeparately() {
+        try (DatasetCache cache = open("id_insert")) {
+            generate(cache);
+        }
+        Path directory = folder.getRoot().toPath();
+        try (DatasetCache cache = DatasetCache.open(directory, "social_network", 1, settings("id_insert"))) {
+            assertFalse(cache.hasScale(4));
+        }
+        assertTrue(directory.resolve("social_network-seed0").toFile().isDirectory());
+    }
+
+    @Test
+    public void whenRolePlayerNotInDataset_relationshipCannotBeCached() {
+        GeneratedInsert friendship = friendship("V1", "V2");
+        try (DatasetCache cache = open("id_insert")) {
+            expectedException.expect(DataGeneratorException.class);
+            cache.committed(Collections.singletonList(friendship), Collections.singletonList(ids("V3")));
+        }
+    }
+}
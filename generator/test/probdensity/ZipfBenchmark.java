@@ -0,0 +1,175 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator.probdensity;
+
+import org.apache.commons.math3.analysis.UnivariateFunction;
+import org.apache.commons.math3.analysis.solvers.BrentSolver;
+import org.apache.commons.math3.distribution.ZipfDistribution;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.RandomGeneratorFactory;
+
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * Compares sampling throughput of the Zipf distributions before and after switching to ZipfSampler:
+ * Commons Math's ZipfDistribution against ZipfSampler over fixed ranges, and the previous ScalingBoundedZipf,
+ * which searched for a new exponent on every change of scale, against the current one while the scale grows
+ * the way it does during generation.
+ * <p>
+ * Usage: ZipfBenchmark [samples per measurement, default 2000000]
+ */
+public class ZipfBenchmark {
+
+    private static final int[] RANGES = {20, 1000, 100000};
+    private static final double EXPONENT = 2.3;
+
+    private static final int SCALING_START = 40;
+    private static final int SCALING_STEP = 25;
+    private static final int SAMPLES_PER_STEP = 50;
+    private static final int SCALING_STEPS = 400;
+
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 3;
+
+    // consumed so that the JIT cannot discard the sampling
+    private static long sink = 0;
+
+    public static void main(String[] args) {
+        int samples = (args.length > 0) ? Integer.parseInt(args[0]) : 2_000_000;
+
+        System.out.println("Fixed range, exponent " + EXPONENT);
+        System.out.println(String.format("%10s %22s %22s %10s", "range", "commons (samples/s)", "sampler (samples/s)", "speedup"));
+        for (int range : RANGES) {
+            ZipfDistribution commons = new ZipfDistribution(RandomGeneratorFactory.createRandomGenerator(new Random(0)), range, EXPONENT);
+            ZipfSampler sampler = new ZipfSampler(new Random(0), range, EXPONENT);
+
+            double before = measureSampling(commons::sample, samples);
+            double after = measureSampling(sampler::sample, samples);
+            System.out.println(String.format("%10d %22.0f %22.0f %9.2fx", range, before, after, after / before));
+        }
+
+        int scaledSamples = SCALING_STEPS * SAMPLES_PER_STEP;
+        System.out.println();
+        System.out.println("Scale growing from " + SCALING_START + " to " + (SCALING_START + SCALING_STEPS * SCALING_STEP) +
+                " by " + SCALING_STEP + " every " + SAMPLES_PER_STEP + " samples");
+        System.out.println(String.format("%22s %22s %10s", "previous (samples/s)", "current (samples/s)", "speedup"));
+        double before = measure(() -> {
+            GrowingScale scale = new GrowingScale();
+            return sampleWhileGrowing(scale, new PreviousScalingBoundedZipf(new Random(0), scale::get, 0.5, EXPONENT)::sample);
+        }, scaledSamples);
+        double after = measure(() -> {
+            GrowingScale scale = new GrowingScale();
+            return sampleWhileGrowing(scale, new ScalingBoundedZipf(new Random(0), scale::get, 0.5, EXPONENT)::sample);
+        }, scaledSamples);
+        System.out.println(String.format("%22.0f %22.0f %9.2fx", before, after, after / before));
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    private static long sampleWhileGrowing(GrowingScale scale, IntSupplier distribution) {
+        long sum = 0;
+        for (int step = 0; step < SCALING_STEPS; step++) {
+            for (int i = 0; i < SAMPLES_PER_STEP; i++) {
+                sum += distribution.getAsInt();
+            }
+            scale.grow();
+        }
+        return sum;
+    }
+
+    /**
+     * @return the best throughput over the measured rounds, in samples per second, after warming up
+     */
+    private static double measureSampling(IntSupplier distribution, int samples) {
+        return measure(() -> {
+            long sum = 0;
+            for (int i = 0; i < samples; i++) {
+                sum += distribution.getAsInt();
+            }
+            return sum;
+        }, samples);
+    }
+
+    private static double measure(Run run, int samples) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sink += run.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            sink += run.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return samples / (best / 1e9);
+    }
+
+    private interface Run {
+        long run();
+    }
+
+    private static class GrowingScale {
+        private int scale = SCALING_START;
+
+        int get() {
+            return scale;
+        }
+
+        void grow() {
+            scale += SCALING_STEP;
+        }
+    }
+
+    /**
+     * ScalingBoundedZipf as it was: a new exponent search, allocating a ZipfDistribution for every evaluation,
+     * whenever the scale changes, and sampling through Commons Math
+     */
+    private static class PreviousScalingBoundedZipf {
+        private final RandomGenerator randomGenerator;
+        private final double rangeLimitFraction;
+        private final IntSupplier scaleSupplier;
+
+        private int previousScale = SCALING_START;
+        private double previousExponent;
+        private ZipfDistribution zipf;
+
+        PreviousScalingBoundedZipf(Random random, IntSupplier scaleSupplier, double rangeLimitFraction, double startingExponent) {
+            this.randomGenerator = RandomGeneratorFactory.createRandomGenerator(random);
+            this.rangeLimitFraction = rangeLimitFraction;
+            this.scaleSupplier = scaleSupplier;
+            this.previousExponent = startingExponent;
+            this.zipf = new ZipfDistribution(randomGenerator, (int) (previousScale * rangeLimitFraction), startingExponent);
+        }
+
+        int sample() {
+            int newScale = scaleSupplier.getAsInt();
+            if (newScale != previousScale) {
+                int oldRange = (int) (previousScale * rangeLimitFraction);
+                int newRange = (int) (newScale * rangeLimitFraction);
+                double previousMean = zipf.getNumericalMean();
+                UnivariateFunction func = exponent ->
+                        previousMean / oldRange - new ZipfDistribution(newRange, exponent).getNumericalMean() / newRange;
+                previousExponent = new BrentSolver().solve(100, func, 0.001, 100.0, previousExponent);
+                zipf = new ZipfDistribution(randomGenerator, newRange, previousExponent);
+                previousScale = newScale;
+            }
+            return zipf.sample();
+        }
+    }
+}
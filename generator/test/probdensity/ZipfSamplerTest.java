@@ -0,0 +1,116 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator.probdensity;
+
+import org.apache.commons.math3.distribution.ZipfDistribution;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ZipfSamplerTest {
+
+    @Test
+    public void whenSampling_samplesAreWithinRange() {
+        for (double exponent : new double[]{0.01, 1.0, 2.3, 50.0}) {
+            ZipfSampler sampler = new ZipfSampler(new Random(0), 10, exponent);
+            for (int i = 0; i < 100000; i++) {
+                int sample = sampler.sample();
+                assertTrue(sample >= 1 && sample <= 10);
+            }
+        }
+    }
+
+    @Test
+    public void whenSampling_frequenciesFollowZipfDistribution() {
+        int numberOfElements = 20;
+        double exponent = 1.3;
+        ZipfSampler sampler = new ZipfSampler(new Random(0), numberOfElements, exponent);
+        ZipfDistribution expected = new ZipfDistribution(numberOfElements, exponent);
+
+        int samples = 1000000;
+        int[] counts = new int[numberOfElements + 1];
+        for (int i = 0; i < samples; i++) {
+            counts[sampler.sample()]++;
+        }
+        for (int k = 1; k <= numberOfElements; k++) {
+            assertEquals(expected.probability(k), counts[k] / (double) samples, 0.002);
+        }
+    }
+
+    @Test
+    public void whenComputingMean_meanMatchesCommonsMath() {
+        for (int numberOfElements : new int[]{1, 20, 1000, 1001, 50000}) {
+            for (double exponent : new double[]{0.01, 0.5, 1.0, 2.3, 10.0}) {
+                double expected = new ZipfDistribution(numberOfElements, exponent).getNumericalMean();
+                assertEquals(expected, ZipfSampler.mean(numberOfElements, exponent), expected * 1e-10);
+            }
+        }
+    }
+
+    @Test
+    public void whenScaleGrows_meanStaysSameFractionOfRange() {
+        int[] scale = {40};
+        ScalingBoundedZipf zipf = new ScalingBoundedZipf(new Random(0), () -> scale[0], 0.5, 2.3);
+        double startingFraction = zipf.getNumericalMean() / 20;
+
+        for (int newScale : new int[]{100, 1000, 20000}) {
+            scale[0] = newScale;
+            zipf.sample();
+            assertEquals(startingFraction, zipf.getNumericalMean() / (newScale / 2), 1e-9);
+        }
+    }
+
+    @Test
+    public void whenScaleChangesWithinThreshold_exponentIsNotRecomputed() {
+        int[] scale = {1000};
+        ScalingBoundedZipf zipf = new ScalingBoundedZipf(new Random(0), () -> scale[0], 0.5, 2.3, 0.1);
+        zipf.sample();
+        double mean = zipf.getNumericalMean();
+
+        scale[0] = 1090;
+        zipf.sample();
+        assertEquals(mean, zipf.getNumericalMean(), 0.0);
+
+        scale[0] = 1200;
+        zipf.sample();
+        assertTrue(zipf.getNumericalMean() > mean);
+    }
+
+    @Test
+    public void whenScaleIsZero_sampleIsZero() {
+        ScalingBoundedZipf zipf = new ScalingBoundedZipf(new Random(0), () -> 0, 0.5, 2.3);
+        assertEquals(0, zipf.peek());
+        assertEquals(0, zipf.sample());
+    }
+
+    @Test
+    public void whenPeeking_sampleReturnsPeekedValue() {
+        int[] scale = {500};
+        ScalingBoundedZipf zipf = new ScalingBoundedZipf(new Random(0), () -> scale[0], 0.5, 1.5);
+        for (int i = 0; i < 1000; i++) {
+            int peeked = zipf.peek();
+            scale[0]++;
+            assertEquals(peeked, zipf.sample());
+        }
+    }
+}
@@ -22,9 +22,6 @@ import grakn.benchmark.generator.storage.ConceptStorage;
 import grakn.core.concept.ConceptId;
 import org.junit.Test;
 
-import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
@@ -38,7 +35,7 @@ public class NotInRelationshipConceptIdProviderTest {
     @Test
     public void whenAllConceptsInRelationship_hasNextFalse() {
         ConceptStorage storage = mock(ConceptStorage.class);
-        when(storage.getIdsNotPlayingRole("person", "friendship", "friend")).thenReturn(new LinkedList<>());
+        when(storage.numIdsNotPlayingRole("person", "friendship", "friend")).thenReturn(0);
         Random random = null;
         NotInRelationshipConceptIdProvider conceptIdProvider = new NotInRelationshipConceptIdProvider(random, storage, "person", "friendship", "friend");
         assertFalse(conceptIdProvider.hasNext());
@@ -47,7 +44,7 @@ public class NotInRelationshipConceptIdProviderTest {
     @Test
     public void whenNotAllConceptsInRelationship_hasNextTrue() {
         ConceptStorage storage = mock(ConceptStorage.class);
-        when(storage.getIdsNotPlayingRole("person", "friendship", "friend")).thenReturn(Arrays.asList(ConceptId.of("a")));
+        when(storage.numIdsNotPlayingRole("person", "friendship", "friend")).thenReturn(1);
         Random random = null;
         NotInRelationshipConceptIdProvider conceptIdProvider = new NotInRelationshipConceptIdProvider(random, storage, "person", "friendship", "friend");
         assertTrue(conceptIdProvider.hasNext());
@@ -56,27 +53,24 @@ public class NotInRelationshipConceptIdProviderTest {
     @Test
     public void whenAskForNextId_returnCorrectId() {
         ConceptStorage storage = mock(ConceptStorage.class);
-        when(storage.getConceptCount("person")).thenReturn(4);
-        List<ConceptId> idsNotPlayingRole = Arrays.asList(ConceptId.of("a"), ConceptId.of("b"), ConceptId.of("c"), ConceptId.of("d"));
-        when(storage.getIdsNotPlayingRole("person", "friendship", "friend")).thenReturn(idsNotPlayingRole);
-
         Random random = mock(Random.class);
-        when(random.nextInt(4)).thenReturn(2).thenReturn(0).thenReturn(1).thenReturn(1);
+        when(storage.claimRandomIdNotPlayingRole("person", "friendship", "friend", random))
+                .thenReturn(ConceptId.of("c"))
+                .thenReturn(ConceptId.of("a"))
+                .thenReturn(ConceptId.of("b"))
+                .thenReturn(ConceptId.of("d"));
 
         NotInRelationshipConceptIdProvider conceptIdProvider = new NotInRelationshipConceptIdProvider(random, storage, "person", "friendship", "friend");
         assertEquals(ConceptId.of("c"), conceptIdProvider.next());
         assertEquals(ConceptId.of("a"), conceptIdProvider.next());
         assertEquals(ConceptId.of("b"), conceptIdProvider.next());
-        assertEquals(ConceptId.of("b"), conceptIdProvider.next());
-
+        assertEquals(ConceptId.of("d"), conceptIdProvider.next());
     }
 
     @Test
     public void whenCheckIfHasNextN_returnCorrectBoolean() {
         ConceptStorage storage = mock(ConceptStorage.class);
-        when(storage.getConceptCount("person")).thenReturn(4);
-        List<ConceptId> idsNotPlayingRole = Arrays.asList(ConceptId.of("a"), ConceptId.of("b"), ConceptId.of("c"), ConceptId.of("d"));
-        when(storage.getIdsNotPlayingRole("person", "friendship", "friend")).thenReturn(idsNotPlayingRole);
+        when(storage.numIdsNotPlayingRole("person", "friendship", "friend")).thenReturn(4);
 
         Random random = mock(Random.class);
         NotInRelationshipConceptIdProvider conceptIdProvider = new NotInRelationshipConceptIdProvider(random, storage, "person", "friendship", "friend");
@@ -0,0 +1,68 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator.provider.concept;
+
+import grakn.benchmark.generator.storage.ConceptStorage;
+import grakn.core.concept.ConceptId;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static junit.framework.TestCase.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PreferentialAttachmentConceptIdProviderTest {
+
+    @Test
+    public void whenConceptCountZero_hasNextFalse() {
+        ConceptStorage storage = mock(ConceptStorage.class);
+        when(storage.getConceptCount("person")).thenReturn(0);
+        PreferentialAttachmentConceptIdProvider conceptIdProvider = new PreferentialAttachmentConceptIdProvider(null, storage, "person");
+        assertFalse(conceptIdProvider.hasNext());
+    }
+
+    @Test
+    public void whenCheckIfHasNextN_returnCorrectBoolean() {
+        ConceptStorage storage = mock(ConceptStorage.class);
+        when(storage.getConceptCount("person")).thenReturn(2);
+        PreferentialAttachmentConceptIdProvider conceptIdProvider = new PreferentialAttachmentConceptIdProvider(null, storage, "person");
+        assertTrue(conceptIdProvider.hasNext());
+        assertTrue(conceptIdProvider.hasNextN(2));
+        assertFalse(conceptIdProvider.hasNextN(3));
+    }
+
+    @Test
+    public void whenAskForNextId_idIsSampledByDegreeWithAttractiveness() {
+        ConceptStorage storage = mock(ConceptStorage.class);
+        Random random = new Random(0);
+        when(storage.getRandomIdByDegree("person", 3, random)).thenReturn(ConceptId.of("a"));
+
+        PreferentialAttachmentConceptIdProvider conceptIdProvider = new PreferentialAttachmentConceptIdProvider(random, storage, "person", 3);
+        assertEquals(ConceptId.of("a"), conceptIdProvider.next());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenAttractivenessBelowOne_throws() {
+        new PreferentialAttachmentConceptIdProvider(new Random(0), mock(ConceptStorage.class), "person", 0);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.generator.provider.concept;
+
+import grakn.benchmark.generator.storage.ConceptStorage;
+import grakn.benchmark.generator.storage.InMemoryConceptStorage;
+import grakn.core.concept.ConceptId;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import static junit.framework.TestCase.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PrefetchingConceptIdStorageProviderTest {
+
+    private InMemoryConceptStorage storageWithPeople(int people) {
+        InMemoryConceptStorage storage = new InMemoryConceptStorage(
+                new HashSet<>(Collections.singletonList("person")), new HashSet<>(), new HashMap<>());
+        for (int i = 0; i < people; i++) {
+            storage.addConcept(ConceptId.of("V" + i), "person", null);
+        }
+        return storage;
+    }
+
+    @Test
+    public void whenSeededEqually_providesSameIdsAsUnbufferedProvider() {
+        InMemoryConceptStorage storage = storageWithPeople(50);
+        ConceptIdStorageProvider unbuffered = new ConceptIdStorageProvider(new Random(3), storage, "person");
+        PrefetchingConceptIdStorageProvider prefetching = new PrefetchingConceptIdStorageProvider(new Random(3), storage, "person", 8);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(unbuffered.next(), prefetching.next());
+        }
+    }
+
+    @Test
+    public void whenProvidingWithinPrefetchSize_storageIsQueriedOnce() {
+        ConceptStorage storage = mock(ConceptStorage.class);
+        when(storage.getConceptCount("person")).thenReturn(4);
+        when(storage.getConceptIds(eq("person"), any(int[].class)))
+                .thenReturn(Arrays.asList(ConceptId.of("c"), ConceptId.of("a"), ConceptId.of("b")));
+
+        Random random = mock(Random.class);
+        when(random.nextInt(4)).thenReturn(2).thenReturn(0).thenReturn(1);
+
+        PrefetchingConceptIdStorageProvider conceptIdProvider = new PrefetchingConceptIdStorageProvider(random, storage, "person", 3);
+
+        assertEquals(ConceptId.of("c"), conceptIdProvider.next());
+        assertEquals(ConceptId.of("a"), conceptIdProvider.next());
+        assertEquals(ConceptId.of("b"), conceptIdProvider.next());
+        verify(storage, times(1)).getConceptIds("person", new int[]{2, 0, 1});
+        verify(storage, never()).getConceptId(eq("person"), any(int.class));
+    }
+
+    @Test
+    public void whenConceptCountChanges_prefetchedIdsAreDiscarded() {
+        InMemoryConceptStorage storage = storageWithPeople(1);
+        PrefetchingConceptIdStorageProvider conceptIdProvider = new PrefetchingConceptIdStorageProvider(new Random(0), storage, "person", 16);
+        assertEquals(ConceptId.of("V0"), conceptIdProvider.next());
+
+        // the only remaining prefetched id is V0, but a new person must now be provided with probability 1/2
+        storage.addConcept(ConceptId.of("V1"), "person", null);
+        int newPeople = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (conceptIdProvider.next().equals(ConceptId.of("V1"))) {
+                newPeople++;
+            }
+        }
+        assertEquals(500, newPeople, 60);
+    }
+}
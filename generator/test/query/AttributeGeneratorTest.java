@@ -22,12 +22,12 @@ import grakn.benchmark.generator.probdensity.FixedConstant;
 import grakn.benchmark.generator.provider.value.RandomStringProvider;
 import grakn.benchmark.generator.provider.value.UniqueIntegerProvider;
 import grakn.benchmark.generator.strategy.AttributeStrategy;
-import graql.lang.query.GraqlInsert;
 import org.junit.Test;
 
 import java.util.Iterator;
 import java.util.Random;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -45,11 +45,11 @@ public class AttributeGeneratorTest {
 
         AttributeGenerator<Integer> insertAttributeQueryGenerator = new AttributeGenerator<>(strategy);
 
-        Iterator<GraqlInsert> insertAttributeQueries = insertAttributeQueryGenerator.generate();
+        Iterator<GeneratedInsert> insertAttributeQueries = insertAttributeQueryGenerator.generate();
 
         int nextValue = 0;
         while (insertAttributeQueries.hasNext()) {
-            GraqlInsert query = insertAttributeQueries.next();
+            GeneratedInsert query = insertAttributeQueries.next();
             String queryString = query.toString();
 
             assertTrue(queryString.startsWith("insert"));
@@ -69,7 +69,7 @@ public class AttributeGeneratorTest {
 
         AttributeGenerator<String> insertAttributeQueryGenerator = new AttributeGenerator<>(strategy);
 
-        Iterator<GraqlInsert> insertAttributeQueries = insertAttributeQueryGenerator.generate();
+        Iterator<GeneratedInsert> insertAttributeQueries = insertAttributeQueryGenerator.generate();
 
         for (int i = 0; i < 3; i++) {
             assertTrue(insertAttributeQueries.hasNext());
@@ -78,5 +78,33 @@ public class AttributeGeneratorTest {
         assertFalse(insertAttributeQueries.hasNext());
     }
 
+    @Test
+    public void whenTwoInstancesPerQuery_eachQueryInsertsTwoValues() {
+        AttributeStrategy<Integer> strategy = mock(AttributeStrategy.class);
+        Iterator<Integer> intProvider = new UniqueIntegerProvider(0);
+        when(strategy.getValueProvider()).thenReturn(intProvider);
+        when(strategy.getTypeLabel()).thenReturn("age");
+        when(strategy.getNumInstancesPDF()).thenReturn(new FixedConstant(3));
+
+        AttributeGenerator<Integer> insertAttributeQueryGenerator = new AttributeGenerator<>(strategy, 2);
 
+        Iterator<GeneratedInsert> insertAttributeQueries = insertAttributeQueryGenerator.generate();
+
+        assertTrue(insertAttributeQueries.hasNext());
+        GeneratedInsert insert = insertAttributeQueries.next();
+        String queryString = insert.toString();
+        assertTrue(queryString.contains(" 0;") && queryString.contains(" 1;"));
+        // each inserted attribute carries its type and value
+        assertEquals("age", insert.template().typeLabel());
+        assertEquals(2, insert.template().insertedVariables().size());
+        assertEquals(0, insert.insertedValue(0));
+        assertEquals(1, insert.insertedValue(1));
+
+        assertTrue(insertAttributeQueries.hasNext());
+        queryString = insertAttributeQueries.next().toString();
+        assertTrue(queryString.contains(" 2;"));
+        assertFalse(queryString.contains(" 3;"));
+
+        assertFalse(insertAttributeQueries.hasNext());
+    }
 }
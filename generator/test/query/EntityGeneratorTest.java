@@ -20,11 +20,11 @@ package grakn.benchmark.generator.query;
 
 import grakn.benchmark.generator.probdensity.FixedConstant;
 import grakn.benchmark.generator.strategy.EntityStrategy;
-import graql.lang.query.GraqlInsert;
 import org.junit.Test;
 
 import java.util.Iterator;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -39,7 +39,7 @@ public class EntityGeneratorTest {
         when(strategy.getNumInstancesPDF()).thenReturn(new FixedConstant(0)); // always generate 3
 
         EntityGenerator generator = new EntityGenerator(strategy);
-        Iterator<GraqlInsert> insertEntityQueries = generator.generate();
+        Iterator<GeneratedInsert> insertEntityQueries = generator.generate();
         assertFalse(insertEntityQueries.hasNext());
     }
 
@@ -50,7 +50,7 @@ public class EntityGeneratorTest {
         when(strategy.getNumInstancesPDF()).thenReturn(new FixedConstant(5)); // always generate 3
 
         EntityGenerator generator = new EntityGenerator(strategy);
-        Iterator<GraqlInsert> insertEntityQueries = generator.generate();
+        Iterator<GeneratedInsert> insertEntityQueries = generator.generate();
 
         for (int i = 0; i < 5; i++) {
             assertTrue(insertEntityQueries.hasNext());
@@ -58,4 +58,20 @@ public class EntityGeneratorTest {
         }
         assertFalse(insertEntityQueries.hasNext());
     }
+
+    @Test
+    public void whenThreeInstancesPerQuery_fiveEntitiesFoldedIntoTwoQueries() {
+        EntityStrategy strategy = mock(EntityStrategy.class);
+        when(strategy.getTypeLabel()).thenReturn("person");
+        when(strategy.getNumInstancesPDF()).thenReturn(new FixedConstant(5));
+
+        EntityGenerator generator = new EntityGenerator(strategy, 3);
+        Iterator<GeneratedInsert> insertEntityQueries = generator.generate();
+
+        assertTrue(insertEntityQueries.hasNext());
+        assertEquals(3, insertEntityQueries.next().query().statements().size());
+        assertTrue(insertEntityQueries.hasNext());
+        assertEquals(2, insertEntityQueries.next().query().statements().size());
+        assertFalse(insertEntityQueries.hasNext());
+    }
 }
@@ -0,0 +1,81 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.query;
+
+import grakn.core.concept.ConceptId;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class QueryTemplatesTest {
+
+    @Test
+    public void whenSameShapeRequestedTwice_templateIsReused() {
+        QueryTemplates templates = new QueryTemplates();
+        assertSame(templates.entities("person", 3), templates.entities("person", 3));
+        assertNotSame(templates.entities("person", 3), templates.entities("person", 2));
+        assertSame(templates.attributes("age", 2), templates.attributes("age", 2));
+    }
+
+    @Test
+    public void whenEntityTemplateBound_sameQueryIsReturned() {
+        QueryTemplate template = new QueryTemplates().entities("person", 2);
+        assertSame(template.bind().query(), template.bind().query());
+        assertEquals(2, template.insertedVariables().size());
+    }
+
+    @Test
+    public void whenRolesListReusedByCaller_cachedTemplateUnaffected() {
+        QueryTemplates templates = new QueryTemplates();
+        List<String> roles = new ArrayList<>(Arrays.asList("friend", "friend"));
+        QueryTemplate friendship = templates.relationship("friendship", roles, false);
+
+        roles.clear();
+        roles.add("friend");
+        QueryTemplate singleFriend = templates.relationship("friendship", roles, false);
+
+        assertNotSame(friendship, singleFriend);
+        assertEquals(2, friendship.roles().size());
+        assertSame(friendship, templates.relationship("friendship", Arrays.asList("friend", "friend"), false));
+        assertNotSame(friendship, templates.relationship("friendship", Arrays.asList("friend", "friend"), true));
+    }
+
+    @Test
+    public void whenRelationshipBound_rolePlayersAndIdsAreBound() {
+        QueryTemplate template = new QueryTemplates().relationship("friendship", Arrays.asList("friend", "friend"), true);
+        GeneratedInsert insert = template.bindRolePlayers(
+                new ConceptId[]{ConceptId.of("a"), ConceptId.of("b")}, new String[]{"person", "person"});
+
+        assertNull(insert.query().match());
+        String queryString = insert.toString();
+        assertTrue(queryString.contains("id a") && queryString.contains("id b"));
+        assertEquals(2, insert.rolePlayers().size());
+        assertEquals("a", insert.rolePlayers().get(0).conceptId());
+        assertEquals("friend", insert.rolePlayers().get(1).role());
+        assertEquals("friendship", insert.rolePlayers().get(1).relationshipType());
+    }
+}
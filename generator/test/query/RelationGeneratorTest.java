@@ -21,10 +21,10 @@ package grakn.benchmark.generator.query;
 import grakn.benchmark.generator.probdensity.FixedConstant;
 import grakn.benchmark.generator.provider.concept.CentralConceptProvider;
 import grakn.benchmark.generator.provider.concept.ConceptIdProvider;
+import grakn.benchmark.generator.storage.ConceptStorageBatch;
 import grakn.benchmark.generator.strategy.RelationStrategy;
 import grakn.benchmark.generator.strategy.RolePlayerTypeStrategy;
 import grakn.core.concept.ConceptId;
-import graql.lang.query.GraqlInsert;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -33,7 +33,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -63,7 +65,7 @@ public class RelationGeneratorTest {
 
 
         RelationGenerator relationshipQueryGenerator = new RelationGenerator(strategy);
-        Iterator<GraqlInsert> queries = relationshipQueryGenerator.generate();
+        Iterator<GeneratedInsert> queries = relationshipQueryGenerator.generate();
 
         verify(centralConceptProvider, times(1)).resetUniqueness();
     }
@@ -97,16 +99,16 @@ public class RelationGeneratorTest {
 
 
         RelationGenerator queryGenerator = new RelationGenerator(strategy);
-        Iterator<GraqlInsert> queries = queryGenerator.generate();
+        Iterator<GeneratedInsert> queries = queryGenerator.generate();
 
         assertTrue(queries.hasNext());
-        GraqlInsert firstInsert = queries.next();
+        GeneratedInsert firstInsert = queries.next();
         String queryString = firstInsert.toString();
         assertTrue(queryString.contains("owner: ") && queryString.contains("id a"));
         assertTrue(queryString.contains("property: ") && queryString.contains("id c"));
 
         assertTrue(queries.hasNext());
-        GraqlInsert secondInsert = queries.next();
+        GeneratedInsert secondInsert = queries.next();
         queryString = secondInsert.toString();
         assertTrue(queryString.contains("owner: ") && queryString.contains("id b"));
         assertTrue(queryString.contains("property: ") && queryString.contains("id d"));
@@ -143,10 +145,10 @@ public class RelationGeneratorTest {
         when(strategy.getNumInstancesPDF()).thenReturn(new FixedConstant(1));
 
         RelationGenerator queryGenerator = new RelationGenerator(strategy);
-        Iterator<GraqlInsert> queries = queryGenerator.generate();
+        Iterator<GeneratedInsert> queries = queryGenerator.generate();
 
         assertTrue(queries.hasNext());
-        GraqlInsert firstInsert = queries.next();
+        GeneratedInsert firstInsert = queries.next();
         String queryString = firstInsert.toString();
         assertTrue(queryString.contains("id a") && queryString.contains("id b") && queryString.contains("id c"));
         // want to check that "friend" occurs three times in the string
@@ -193,10 +195,10 @@ public class RelationGeneratorTest {
         when(strategy.getNumInstancesPDF()).thenReturn(new FixedConstant(2));
 
         RelationGenerator queryGenerator = new RelationGenerator(strategy);
-        Iterator<GraqlInsert> queries = queryGenerator.generate();
+        Iterator<GeneratedInsert> queries = queryGenerator.generate();
 
         assertTrue(queries.hasNext());
-        GraqlInsert firstInsert = queries.next();
+        GeneratedInsert firstInsert = queries.next();
         assertFalse(queries.hasNext());
     }
 
@@ -231,10 +233,48 @@ public class RelationGeneratorTest {
         when(strategy.getNumInstancesPDF()).thenReturn(new FixedConstant(2));
 
         RelationGenerator queryGenerator = new RelationGenerator(strategy);
-        Iterator<GraqlInsert> queries = queryGenerator.generate();
+        Iterator<GeneratedInsert> queries = queryGenerator.generate();
 
         assertTrue(queries.hasNext());
-        GraqlInsert firstInsert = queries.next();
+        GeneratedInsert firstInsert = queries.next();
         assertFalse(queries.hasNext());
     }
+
+    @Test
+    public void whenIdInsertMode_rolePlayersBoundByIdWithoutMatch() {
+        RelationStrategy strategy = mock(RelationStrategy.class);
+
+        ConceptIdProvider friendIdProvider = mock(ConceptIdProvider.class);
+        when(friendIdProvider.next()).thenReturn(ConceptId.of("a")).thenReturn(ConceptId.of("b"));
+        when(friendIdProvider.hasNext()).thenReturn(true);
+        when(friendIdProvider.hasNextN(2)).thenReturn(true).thenReturn(false);
+        when(friendIdProvider.getTypeLabel()).thenReturn("person");
+        RolePlayerTypeStrategy rolePlayer = new RolePlayerTypeStrategy("friend", new FixedConstant(2), friendIdProvider);
+
+        Set<RolePlayerTypeStrategy> rolePlayerTypeStrategies = new HashSet<>();
+        rolePlayerTypeStrategies.add(rolePlayer);
+
+        when(strategy.getRolePlayerTypeStrategies()).thenReturn(rolePlayerTypeStrategies);
+        when(strategy.getTypeLabel()).thenReturn("friendship");
+        when(strategy.getNumInstancesPDF()).thenReturn(new FixedConstant(1));
+
+        RelationGenerator queryGenerator = new RelationGenerator(strategy, true);
+        Iterator<GeneratedInsert> queries = queryGenerator.generate();
+
+        assertTrue(queries.hasNext());
+        GeneratedInsert insert = queries.next();
+        assertNull(insert.query().match());
+        String queryString = insert.toString();
+        assertTrue(queryString.contains("id a") && queryString.contains("id b"));
+        assertTrue(queryString.contains("friend: ") && queryString.contains("isa friendship"));
+        assertFalse(queries.hasNext());
+
+        // the role players are known without asking Grakn about them
+        assertEquals("friendship", insert.template().relationshipType());
+        assertEquals(2, insert.rolePlayers().size());
+        for (ConceptStorageBatch.RolePlayer player : insert.rolePlayers()) {
+            assertEquals("person", player.conceptType());
+            assertEquals("friend", player.role());
+        }
+    }
 }
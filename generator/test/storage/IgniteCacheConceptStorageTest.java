@@ -0,0 +1,222 @@
+/*
+ * Grakn - A Distributed Semantic Database
+ * Copyright (C) 2016-2019 Grakn Labs Limited
+ *
+ * Grakn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grakn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Grakn. If not, see <http://www.gnu.org/licenses/agpl.txt>.
+ */
+
+package grakn.benchmark.generator.storage;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.core.concept.Concept;
+import grakn.core.concept.ConceptId;
+import grakn.core.concept.Label;
+import grakn.core.concept.thing.Attribute;
+import grakn.core.concept.thing.Thing;
+import grakn.core.concept.type.AttributeType;
+import grakn.core.concept.type.Type;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteDataStreamer;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.Ignition;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IgniteCacheConceptStorageTest {
+
+    private IgniteCacheConceptStorage store;
+    private ArrayList<ConceptId> conceptIds;
+    private ArrayList<Concept> conceptMocks;
+
+    private final String entityTypeLabel = "person";
+    private final String attrTypeLabel = "age";
+    private final String relTypeLabel = "friendship";
+
+    @BeforeClass
+    public static void initIgniteServer() throws IgniteException {
+        Ignition.start();
+    }
+
+    @AfterClass
+    public static void stopIgniteServer() {
+        Ignition.stop(false);
+    }
+
+    @Before
+    public void setUp() {
+        conceptIds = new ArrayList<>();
+        conceptMocks = new ArrayList<>();
+
+        // 7 people
+        for (int i = 1; i <= 7; i++) {
+            conceptMocks.add(mockThing("V" + i, entityTypeLabel));
+        }
+
+        // 1 age attribute
+        Concept ageMock = mockThing("V8", attrTypeLabel);
+        Attribute<Long> attributeMock = mock(Attribute.class);
+        when(ageMock.isAttribute()).thenReturn(true);
+        when(ageMock.<Long>asAttribute()).thenReturn(attributeMock);
+        when(attributeMock.value()).thenReturn(10L);
+        conceptMocks.add(ageMock);
+
+        // 1 friendship relationship
+        conceptMocks.add(mockThing("V9", relTypeLabel));
+
+        HashSet<String> entityTypes = new HashSet<>();
+        entityTypes.add(entityTypeLabel);
+        HashSet<String> relationshipTypes = new HashSet<>();
+        relationshipTypes.add(relTypeLabel);
+        Map<String, AttributeType.DataType<?>> attributeTypes = new HashMap<>();
+        attributeTypes.put(attrTypeLabel, AttributeType.DataType.LONG);
+
+        this.store = new IgniteCacheConceptStorage(Ignition.ignite(), entityTypes, relationshipTypes, attributeTypes);
+    }
+
+    private Concept mockThing(String id, String typeLabel) {
+        Concept conceptMock = mock(Concept.class);
+        Thing thingMock = mock(Thing.class);
+        when(conceptMock.asThing()).thenReturn(thingMock);
+        ConceptId conceptId = ConceptId.of(id);
+        when(thingMock.id()).thenReturn(conceptId);
+        Type conceptTypeMock = mock(Type.class);
+        when(thingMock.type()).thenReturn(conceptTypeMock);
+        when(conceptTypeMock.label()).thenReturn(Label.of(typeLabel));
+        conceptIds.add(conceptId);
+        return conceptMock;
+    }
+
+    private void addAllConcepts() {
+        for (Concept conceptMock : this.conceptMocks) {
+            addConcept(conceptMock);
+        }
+    }
+
+    private void addRolePlayer(Concept concept, String relationshipType, String role) {
+        Thing thing = concept.asThing();
+        this.store.addRolePlayer(thing.id().toString(), thing.type().label().toString(), relationshipType, role);
+    }
+
+    private void addConcept(Concept concept) {
+        Thing thing = concept.asThing();
+        Object value = concept.isAttribute() ? concept.asAttribute().value() : null;
+        this.store.addConcept(thing.id(), thing.type().label().toString(), value);
+    }
+
+    private void addConcept(ConceptStorageBatch batch, Concept concept) {
+        Thing thing = concept.asThing();
+        Object value = concept.isAttribute() ? concept.asAttribute().value() : null;
+        batch.addConcept(thing.id(), thing.type().label().toString(), value);
+    }
+
+    @Test
+    public void whenGettingIdWithOffset_correctIdIsReturned() {
+        addAllConcepts();
+        assertEquals(conceptIds.get(4), store.getConceptId(entityTypeLabel, 4));
+        assertEquals(conceptIds.get(7), store.getConceptId(attrTypeLabel, 0));
+        assertNull(store.getConceptId(entityTypeLabel, 7));
+    }
+
+    @Test
+    public void whenAttributeAddedTwice_attributeIsStoredOnce() {
+        addAllConcepts();
+        addConcept(conceptMocks.get(7));
+        assertEquals(1, store.getConceptCount(attrTypeLabel));
+        assertEquals(1, store.totalAttributes());
+        assertEquals(9, store.getGraphScale());
+    }
+
+    @Test
+    public void whenAllButOnePlayingRole_orphanEntitiesCorrect() {
+        addAllConcepts();
+        for (int i = 0; i < 6; i++) {
+            addRolePlayer(conceptMocks.get(i), relTypeLabel, "somerole");
+        }
+        assertEquals(1, store.totalOrphanEntities());
+        assertEquals(1, (int) store.numIdsNotPlayingRole(entityTypeLabel, relTypeLabel, "somerole"));
+    }
+
+    @Test
+    public void whenBatchFlushed_conceptsAreStreamedIntoCaches() {
+        ConceptStorageBatch batch = new ConceptStorageBatch();
+        conceptMocks.forEach(concept -> addConcept(batch, concept));
+        addConcept(batch, conceptMocks.get(7));
+        Thing relationship = conceptMocks.get(8).asThing();
+        batch.addRolePlayer(relationship.id().toString(), relTypeLabel, relTypeLabel, "somerole");
+
+        store.flush(batch);
+
+        assertEquals(9, store.getGraphScale());
+        assertEquals(conceptIds.get(6), store.getConceptId(entityTypeLabel, 6));
+        assertEquals(7, store.totalOrphanEntities());
+        assertEquals(1, store.totalRelationshipsRolePlayersOverlap());
+    }
+
+    @Test
+    public void whenAttributesOfDifferentDatatypesAreStored_bothCanBeRead() {
+        String nameTypeLabel = "name";
+        Map<String, AttributeType.DataType<?>> attributeTypes = new HashMap<>();
+        attributeTypes.put(attrTypeLabel, AttributeType.DataType.LONG);
+        attributeTypes.put(nameTypeLabel, AttributeType.DataType.STRING);
+        IgniteCacheConceptStorage store = new IgniteCacheConceptStorage(Ignition.ignite(), new HashSet<>(), new HashSet<>(), attributeTypes);
+
+        ConceptStorageBatch batch = new ConceptStorageBatch();
+        batch.addConcept(ConceptId.of("V10"), attrTypeLabel, 10L);
+        batch.addConcept(ConceptId.of("V11"), nameTypeLabel, "Alice");
+        store.flush(batch);
+        store.addConcept(ConceptId.of("V12"), nameTypeLabel, "Bob");
+
+        assertEquals(ConceptId.of("V10"), store.getConceptId(attrTypeLabel, 0));
+        assertEquals(ConceptId.of("V11"), store.getConceptId(nameTypeLabel, 0));
+        assertEquals(ConceptId.of("V12"), store.getConceptId(nameTypeLabel, 1));
+        assertEquals(3, store.totalAttributes());
+    }
+
+    @Test
+    public void whenStreamerFailsToClose_batchIsNotCounted() {
+        Ignite ignite = mock(Ignite.class, RETURNS_DEEP_STUBS);
+        IgniteDataStreamer<Object, Object> streamer = mock(IgniteDataStreamer.class);
+        when(ignite.dataStreamer(anyString())).thenReturn(streamer);
+        doThrow(new IgniteException("node left")).when(streamer).close();
+        Map<String, AttributeType.DataType<?>> attributeTypes = new HashMap<>();
+        attributeTypes.put(attrTypeLabel, AttributeType.DataType.LONG);
+        IgniteCacheConceptStorage store = new IgniteCacheConceptStorage(ignite, new HashSet<>(), new HashSet<>(), attributeTypes);
+
+        ConceptStorageBatch batch = new ConceptStorageBatch();
+        batch.addConcept(ConceptId.of("V10"), attrTypeLabel, 10L);
+        try {
+            store.flush(batch);
+            fail();
+        } catch (DataGeneratorException e) {
+            assertEquals(0, store.getConceptCount(attrTypeLabel));
+            assertEquals(0, store.getGraphScale());
+        }
+    }
+}
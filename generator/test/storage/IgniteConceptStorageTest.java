@@ -34,11 +34,13 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -147,6 +149,7 @@ public class IgniteConceptStorageTest {
         when(thingMock.type()).thenReturn(conceptTypeMock); // Concept Type
         when(conceptTypeMock.label()).thenReturn(Label.of(attrTypeLabel)); // Type label
         Attribute<Long> attributeMock = mock(Attribute.class);
+        when(conceptMock.isAttribute()).thenReturn(true);
         when(conceptMock.<Long>asAttribute()).thenReturn(attributeMock); // Concept -> Attribute<Long>
         when(attributeMock.value()).thenReturn(10l); // Attribute Value
 
@@ -173,11 +176,23 @@ public class IgniteConceptStorageTest {
         this.store = new IgniteConceptStorage(entityTypes, relationshipTypes, attributeTypes);
     }
 
+    private void addConcept(Concept concept) {
+        Thing thing = concept.asThing();
+        Object value = concept.isAttribute() ? concept.asAttribute().value() : null;
+        this.store.addConcept(thing.id(), thing.type().label().toString(), value);
+    }
+
+    private void addConcept(ConceptStorageBatch batch, Concept concept) {
+        Thing thing = concept.asThing();
+        Object value = concept.isAttribute() ? concept.asAttribute().value() : null;
+        batch.addConcept(thing.id(), thing.type().label().toString(), value);
+    }
+
     @Test
     public void whenConceptIdsAreAdded_conceptIdsAreInTheDB() throws SQLException {
         // Add all of the elements
         for (Concept conceptMock : this.conceptMocks) {
-            this.store.addConcept(conceptMock);
+            addConcept(conceptMock);
         }
 
         int counter = 0;
@@ -198,7 +213,7 @@ public class IgniteConceptStorageTest {
     @Test
     public void whenConceptIsAdded_conceptIdCanBeRetrieved() {
         int index = 0;
-        this.store.addConcept(this.conceptMocks.get(index));
+        addConcept(this.conceptMocks.get(index));
         ConceptId personConceptId = this.store.getConceptId(this.entityTypeLabel, index);
         System.out.println("Found id: " + personConceptId.toString());
         assertEquals(personConceptId, this.conceptIds.get(index));
@@ -210,7 +225,7 @@ public class IgniteConceptStorageTest {
         // Add all of the elements
 
         for (Concept conceptMock : this.conceptMocks) {
-            this.store.addConcept(conceptMock);
+            addConcept(conceptMock);
         }
 
         ConceptId personConceptId = this.store.getConceptId(this.entityTypeLabel, index);
@@ -221,18 +236,32 @@ public class IgniteConceptStorageTest {
     @Test
     public void whenCountingTypeInstances_resultIsCorrect() {
         for (Concept conceptMock : this.conceptMocks) {
-            this.store.addConcept(conceptMock);
+            addConcept(conceptMock);
         }
 
         int count = this.store.getConceptCount(this.entityTypeLabel);
         assertEquals(7, count);
     }
 
+    @Test
+    public void whenConceptAddedTwice_countsAreNotIncrementedTwice() {
+        for (Concept conceptMock : this.conceptMocks) {
+            addConcept(conceptMock);
+        }
+        addConcept(this.conceptMocks.get(0));
+
+        assertEquals(7, this.store.getConceptCount(this.entityTypeLabel));
+        assertEquals(7, this.store.totalEntities());
+        assertEquals(1, this.store.totalAttributes());
+        assertEquals(1, this.store.totalExplicitRelationships());
+        assertEquals(9, this.store.getGraphScale());
+    }
+
     @Test
     public void whenAllButOnePlayingRole_orphanEntitiesCorrect() {
         // add all concepts to store
         for (Concept conceptMock : this.conceptMocks) {
-            this.store.addConcept(conceptMock);
+            addConcept(conceptMock);
         }
 
         // add 6 of 7 entities as role players too
@@ -250,7 +279,7 @@ public class IgniteConceptStorageTest {
     public void whenAllButOnePlayingRole_orphanAttributesCorrect() {
         // add all concepts to store
         for (Concept conceptMock : this.conceptMocks) {
-            this.store.addConcept(conceptMock);
+            addConcept(conceptMock);
         }
 
         // ad all but the attribute and relationship
@@ -268,7 +297,7 @@ public class IgniteConceptStorageTest {
     public void whenRelationshipsDoNotOverlap_overlapEmpty() {
         // add all concepts to store
         for (Concept conceptMock : this.conceptMocks) {
-            this.store.addConcept(conceptMock);
+            addConcept(conceptMock);
         }
 
         // add all but the relationship (last element)
@@ -286,7 +315,7 @@ public class IgniteConceptStorageTest {
     public void whenRelationshipPlaysRole_overlapOne() {
         // add all concepts to store
         for (Concept conceptMock : this.conceptMocks) {
-            this.store.addConcept(conceptMock);
+            addConcept(conceptMock);
         }
 
         // add all as role players
@@ -303,7 +332,7 @@ public class IgniteConceptStorageTest {
     @Test
     public void whenEntitiesDoNotPlayRoles_allEntitiesReturned() {
         for (Concept conceptMock : this.conceptMocks) {
-            this.store.addConcept(conceptMock);
+            addConcept(conceptMock);
         }
         String typeLabel = "person"; // we have 7 mocked people
         List<ConceptId> peopleNotPlayingRoles = this.store.getIdsNotPlayingRole(typeLabel, relTypeLabel, "aRole");
@@ -314,7 +343,7 @@ public class IgniteConceptStorageTest {
     @Test
     public void whenEntityPlaysSpecificRole_notReturnedWhenAskingForEntitiesNotPlayingRole() {
         for (Concept conceptMock : this.conceptMocks) {
-            this.store.addConcept(conceptMock);
+            addConcept(conceptMock);
         }
         Concept aPerson = this.conceptMocks.get(0);
         String personTypeLabel = aPerson.asThing().type().label().toString(); // follow what's implemented in mocks
@@ -330,7 +359,7 @@ public class IgniteConceptStorageTest {
     @Test
     public void whenEntityPlaysSpecificTwoRoles_notReturnedWhenAskingForEntitiesNotPlayingEitherRole() {
         for (Concept conceptMock : this.conceptMocks) {
-            this.store.addConcept(conceptMock);
+            addConcept(conceptMock);
         }
         Concept aPerson = this.conceptMocks.get(0);
         String personTypeLabel = aPerson.asThing().type().label().toString(); // follow what's implemented in mocks
@@ -357,7 +386,7 @@ public class IgniteConceptStorageTest {
     @Test
     public void whenEntityPlaysRole_countIsCorrect() {
         for (Concept conceptMock : this.conceptMocks) {
-            this.store.addConcept(conceptMock);
+            addConcept(conceptMock);
         }
         Concept aPerson = this.conceptMocks.get(0);
         String personTypeLabel = aPerson.asThing().type().label().toString(); // follow what's implemented in mocks
@@ -373,7 +402,7 @@ public class IgniteConceptStorageTest {
     @Test
     public void whenAttributePlaysNoRole_orphanCountIsCorrect() {
         for (Concept conceptMock : this.conceptMocks) {
-            this.store.addConcept(conceptMock);
+            addConcept(conceptMock);
         }
         int orphanAttributes = this.store.totalOrphanAttributes();
         assertEquals(1, orphanAttributes);
@@ -382,7 +411,7 @@ public class IgniteConceptStorageTest {
     @Test
     public void whenAttributePlaysRole_orphanCountIsCorrect() {
         for (Concept conceptMock : this.conceptMocks) {
-            this.store.addConcept(conceptMock);
+            addConcept(conceptMock);
         }
 
         Concept anAge = this.conceptMocks.get(7);
@@ -394,4 +423,42 @@ public class IgniteConceptStorageTest {
         assertEquals(0, orphanAttributes);
     }
 
+    @Test
+    public void whenBatchFlushed_conceptsAndRolePlayersAreStored() {
+        ConceptStorageBatch batch = new ConceptStorageBatch();
+        for (Concept conceptMock : this.conceptMocks) {
+            addConcept(batch, conceptMock);
+        }
+        // the same attribute may be returned by more than one insertion
+        addConcept(batch, this.conceptMocks.get(7));
+        Thing aPerson = this.conceptMocks.get(0).asThing();
+        batch.addRolePlayer(aPerson.id().toString(), aPerson.type().label().toString(), relTypeLabel, "somerole");
+
+        this.store.flush(batch);
+
+        assertEquals(9, this.store.getGraphScale());
+        assertEquals(this.conceptIds.get(4), this.store.getConceptId(this.entityTypeLabel, 4));
+        assertEquals(1, this.store.totalRolePlayers());
+        assertEquals(6, this.store.totalOrphanEntities());
+    }
+
+    @Test
+    public void whenGettingDateWithOffset_dateInsertedAtThatOffsetIsReturned() {
+        String dateTypeLabel = "birth-date";
+        Map<String, AttributeType.DataType<?>> dateTypes = new HashMap<>();
+        dateTypes.put(dateTypeLabel, AttributeType.DataType.DATE);
+        IgniteConceptStorage dateStore = new IgniteConceptStorage(new HashSet<>(), new HashSet<>(), dateTypes);
+
+        // ids that do not sort in the order they are inserted
+        List<Date> dates = Arrays.asList(Date.valueOf("2019-03-01"), Date.valueOf("2019-01-01"), Date.valueOf("2019-02-01"));
+        ConceptStorageBatch batch = new ConceptStorageBatch();
+        batch.addConcept(ConceptId.of("V30"), dateTypeLabel, dates.get(0));
+        batch.addConcept(ConceptId.of("V10"), dateTypeLabel, dates.get(1));
+        batch.addConcept(ConceptId.of("V20"), dateTypeLabel, dates.get(2));
+        dateStore.flush(batch);
+
+        for (int offset = 0; offset < dates.size(); offset++) {
+            assertEquals(dates.get(offset), dateStore.getDate(dateTypeLabel, offset));
+        }
+    }
 }
@@ -0,0 +1,329 @@
+/*
+ * Grakn - A Distributed Semantic Database
+ * Copyright (C) 2016-2019 Grakn Labs Limited
+ *
+ * Grakn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grakn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Grakn. If not, see <http://www.gnu.org/licenses/agpl.txt>.
+ */
+
+package grakn.benchmark.generator.storage;
+
+import grakn.core.concept.Concept;
+import grakn.core.concept.ConceptId;
+import grakn.core.concept.Label;
+import grakn.core.concept.thing.Attribute;
+import grakn.core.concept.thing.Thing;
+import grakn.core.concept.type.AttributeType;
+import grakn.core.concept.type.Type;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InMemoryConceptStorageTest {
+
+    private InMemoryConceptStorage store;
+    private ArrayList<ConceptId> conceptIds;
+    private ArrayList<Concept> conceptMocks;
+
+    private final String entityTypeLabel = "person";
+    private final String attrTypeLabel = "age";
+    private final String relTypeLabel = "friendship";
+
+    @Before
+    public void setUp() {
+        conceptIds = new ArrayList<>();
+        conceptMocks = new ArrayList<>();
+
+        // 7 people
+        for (int i = 1; i <= 7; i++) {
+            conceptMocks.add(mockThing("V" + i, entityTypeLabel));
+        }
+
+        // 1 age attribute
+        Concept ageMock = mockThing("V8", attrTypeLabel);
+        Attribute<Long> attributeMock = mock(Attribute.class);
+        when(ageMock.isAttribute()).thenReturn(true);
+        when(ageMock.<Long>asAttribute()).thenReturn(attributeMock);
+        when(attributeMock.value()).thenReturn(10L);
+        conceptMocks.add(ageMock);
+
+        // 1 friendship relationship
+        conceptMocks.add(mockThing("V9", relTypeLabel));
+
+        HashSet<String> entityTypes = new HashSet<>();
+        entityTypes.add(entityTypeLabel);
+        HashSet<String> relationshipTypes = new HashSet<>();
+        relationshipTypes.add(relTypeLabel);
+        Map<String, AttributeType.DataType<?>> attributeTypes = new HashMap<>();
+        attributeTypes.put(attrTypeLabel, AttributeType.DataType.LONG);
+
+        this.store = new InMemoryConceptStorage(entityTypes, relationshipTypes, attributeTypes);
+    }
+
+    private Concept mockThing(String id, String typeLabel) {
+        Concept conceptMock = mock(Concept.class);
+        Thing thingMock = mock(Thing.class);
+        when(conceptMock.asThing()).thenReturn(thingMock);
+        ConceptId conceptId = ConceptId.of(id);
+        when(thingMock.id()).thenReturn(conceptId);
+        Type conceptTypeMock = mock(Type.class);
+        when(thingMock.type()).thenReturn(conceptTypeMock);
+        when(conceptTypeMock.label()).thenReturn(Label.of(typeLabel));
+        conceptIds.add(conceptId);
+        return conceptMock;
+    }
+
+    private void addAllConcepts() {
+        for (Concept conceptMock : this.conceptMocks) {
+            addConcept(conceptMock);
+        }
+    }
+
+    private void addRolePlayer(Concept concept, String relationshipType, String role) {
+        Thing thing = concept.asThing();
+        this.store.addRolePlayer(thing.id().toString(), thing.type().label().toString(), relationshipType, role);
+    }
+
+    private void addConcept(Concept concept) {
+        Thing thing = concept.asThing();
+        Object value = concept.isAttribute() ? concept.asAttribute().value() : null;
+        this.store.addConcept(thing.id(), thing.type().label().toString(), value);
+    }
+
+    private void addConcept(ConceptStorageBatch batch, Concept concept) {
+        Thing thing = concept.asThing();
+        Object value = concept.isAttribute() ? concept.asAttribute().value() : null;
+        batch.addConcept(thing.id(), thing.type().label().toString(), value);
+    }
+
+    @Test
+    public void whenGettingIdWithOffset_correctIdIsReturned() {
+        addAllConcepts();
+        assertEquals(conceptIds.get(4), store.getConceptId(entityTypeLabel, 4));
+        assertEquals(conceptIds.get(7), store.getConceptId(attrTypeLabel, 0));
+        assertNull(store.getConceptId(entityTypeLabel, 7));
+    }
+
+    @Test
+    public void whenGettingIdsWithOffsets_idsAreReturnedInOffsetOrder() {
+        addAllConcepts();
+        List<ConceptId> ids = store.getConceptIds(entityTypeLabel, new int[]{4, 0, 4, 7});
+        assertEquals(4, ids.size());
+        assertEquals(conceptIds.get(4), ids.get(0));
+        assertEquals(conceptIds.get(0), ids.get(1));
+        assertEquals(conceptIds.get(4), ids.get(2));
+        assertNull(ids.get(3));
+    }
+
+    @Test
+    public void whenSamplingByDegree_instancesAreChosenInProportionToRolesPlayedPlusAttractiveness() {
+        addAllConcepts();
+        // V1 plays 3 roles, V2 plays 1, the other 5 people play none
+        for (int i = 0; i < 3; i++) {
+            addRolePlayer(conceptMocks.get(0), relTypeLabel, "friend");
+        }
+        addRolePlayer(conceptMocks.get(1), relTypeLabel, "friend");
+
+        Random random = new Random(0);
+        Map<ConceptId, Integer> counts = new HashMap<>();
+        int samples = 110000;
+        for (int i = 0; i < samples; i++) {
+            counts.merge(store.getRandomIdByDegree(entityTypeLabel, 1, random), 1, Integer::sum);
+        }
+
+        // total weight is 7 instances * 1 + 4 roles played = 11
+        assertEquals(4.0 / 11, counts.get(conceptIds.get(0)) / (double) samples, 0.01);
+        assertEquals(2.0 / 11, counts.get(conceptIds.get(1)) / (double) samples, 0.01);
+        assertEquals(1.0 / 11, counts.get(conceptIds.get(6)) / (double) samples, 0.01);
+    }
+
+    @Test
+    public void whenSamplingByDegreeWithNoInstances_nullIsReturned() {
+        assertNull(store.getRandomIdByDegree(entityTypeLabel, 1, new Random(0)));
+    }
+
+    @Test
+    public void whenCountingTypeInstances_resultIsCorrect() {
+        addAllConcepts();
+        assertEquals(7, store.getConceptCount(entityTypeLabel));
+        assertEquals(1, store.getConceptCount(attrTypeLabel));
+        assertEquals(1, store.getConceptCount(relTypeLabel));
+    }
+
+    @Test
+    public void whenAttributeAddedTwice_attributeIsStoredOnce() {
+        addAllConcepts();
+        addConcept(conceptMocks.get(7));
+        assertEquals(1, store.getConceptCount(attrTypeLabel));
+        assertEquals(1, store.totalAttributes());
+    }
+
+    @Test
+    public void whenConceptsAdded_totalsAndScaleAreCorrect() {
+        addAllConcepts();
+        assertEquals(7, store.totalEntities());
+        assertEquals(1, store.totalAttributes());
+        assertEquals(1, store.totalExplicitRelationships());
+        assertEquals(0, store.totalImplicitRelationships());
+        assertEquals(9, store.getGraphScale());
+    }
+
+    @Test
+    public void whenAllButOnePlayingRole_orphanEntitiesCorrect() {
+        addAllConcepts();
+        for (int i = 0; i < 6; i++) {
+            addRolePlayer(conceptMocks.get(i), relTypeLabel, "somerole");
+        }
+        assertEquals(1, store.totalOrphanEntities());
+    }
+
+    @Test
+    public void whenEntityPlaysSeveralRoles_orphanCountedOnce() {
+        addAllConcepts();
+        addRolePlayer(conceptMocks.get(0), relTypeLabel, "some-role-1");
+        addRolePlayer(conceptMocks.get(0), relTypeLabel, "some-role-2");
+        addRolePlayer(conceptMocks.get(0), relTypeLabel, "some-role-1");
+        assertEquals(6, store.totalOrphanEntities());
+        assertEquals(3, store.totalRolePlayers());
+    }
+
+    @Test
+    public void whenAttributePlaysRole_orphanCountIsCorrect() {
+        addAllConcepts();
+        assertEquals(1, store.totalOrphanAttributes());
+        addRolePlayer(conceptMocks.get(7), "@has-" + attrTypeLabel, "@has-" + attrTypeLabel + "-value");
+        assertEquals(0, store.totalOrphanAttributes());
+    }
+
+    @Test
+    public void whenRelationshipPlaysRole_overlapOne() {
+        addAllConcepts();
+        assertEquals(0, store.totalRelationshipsRolePlayersOverlap());
+        addRolePlayer(conceptMocks.get(8), relTypeLabel, "somerole");
+        assertEquals(1, store.totalRelationshipsRolePlayersOverlap());
+    }
+
+    @Test
+    public void whenEntityPlaysSpecificTwoRoles_notReturnedWhenAskingForEntitiesNotPlayingEitherRole() {
+        addAllConcepts();
+        addRolePlayer(conceptMocks.get(0), relTypeLabel, "some-role-1");
+        addRolePlayer(conceptMocks.get(0), relTypeLabel, "some-role-2");
+
+        ConceptId[] correctEntities = conceptIds.subList(1, 7).toArray(new ConceptId[]{});
+        List<ConceptId> entitiesNotPlayingRole1 = store.getIdsNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role-1");
+        List<ConceptId> entitiesNotPlayingRole2 = store.getIdsNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role-2");
+        assertThat(entitiesNotPlayingRole1, containsInAnyOrder(correctEntities));
+        assertThat(entitiesNotPlayingRole2, containsInAnyOrder(correctEntities));
+        assertEquals(7, store.getIdsNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role-3").size());
+    }
+
+    @Test
+    public void whenEntityPlaysRole_countIsCorrect() {
+        addAllConcepts();
+        addRolePlayer(conceptMocks.get(0), relTypeLabel, "some-role");
+        assertEquals(6, (int) store.numIdsNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role"));
+    }
+
+    @Test
+    public void whenRolePlayerAdded_totalRolePlayersCountedPerRole() {
+        addAllConcepts();
+        addRolePlayer(conceptMocks.get(0), relTypeLabel, "some-role");
+        addRolePlayer(conceptMocks.get(7), "@has-" + attrTypeLabel, "@has-" + attrTypeLabel + "-value");
+        assertEquals(2, store.totalRolePlayers());
+        assertEquals(1, store.totalExplicitRolePlayers());
+    }
+
+    @Test
+    public void whenConceptsAddedAfterRoleFirstQueried_theyAreNotPlayingTheRole() {
+        assertEquals(0, (int) store.numIdsNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role"));
+        addAllConcepts();
+        addRolePlayer(conceptMocks.get(0), relTypeLabel, "some-role");
+        assertEquals(6, (int) store.numIdsNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role"));
+    }
+
+    @Test
+    public void whenPickingRandomIdNotPlayingRole_neverReturnRolePlayers() {
+        addAllConcepts();
+        for (int i = 0; i < 6; i++) {
+            addRolePlayer(conceptMocks.get(i), relTypeLabel, "some-role");
+        }
+
+        Random random = new Random(0);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(conceptIds.get(6), store.getRandomIdNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role", random));
+        }
+
+        addRolePlayer(conceptMocks.get(6), relTypeLabel, "some-role");
+        assertNull(store.getRandomIdNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role", random));
+        assertFalse(store.getIdsNotPlayingRole(entityTypeLabel, relTypeLabel, "other-role").isEmpty());
+    }
+
+    @Test
+    public void whenBatchFlushed_conceptsAddedBeforeRolePlayers() {
+        ConceptStorageBatch batch = new ConceptStorageBatch();
+        Concept relationship = conceptMocks.get(8);
+        Thing relationshipThing = relationship.asThing();
+        batch.addRolePlayer(relationshipThing.id().toString(), relTypeLabel, relTypeLabel, "some-role");
+        conceptMocks.forEach(concept -> addConcept(batch, concept));
+        assertEquals(0, store.getGraphScale());
+
+        store.flush(batch);
+        assertEquals(9, store.getGraphScale());
+        assertEquals(1, store.totalRolePlayers());
+        assertEquals(0, (int) store.numIdsNotPlayingRole(relTypeLabel, relTypeLabel, "some-role"));
+    }
+
+    @Test
+    public void whenIdClaimed_notOfferedAgainUntilReleased() {
+        addAllConcepts();
+        Random random = new Random(0);
+        ConceptId claimed = store.claimRandomIdNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role", random);
+        assertEquals(6, (int) store.numIdsNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role"));
+        assertFalse(store.getIdsNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role").contains(claimed));
+
+        store.releaseClaims(store.drainClaims());
+        assertEquals(7, (int) store.numIdsNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role"));
+        assertTrue(store.drainClaims().isEmpty());
+    }
+
+    @Test
+    public void whenBatchFlushed_onlyUnusedClaimsAreReleased() {
+        addAllConcepts();
+        Random random = new Random(0);
+        ConceptId used = store.claimRandomIdNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role", random);
+        store.claimRandomIdNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role", random);
+
+        ConceptStorageBatch batch = new ConceptStorageBatch();
+        batch.addClaims(store.drainClaims());
+        batch.addRolePlayer(used.toString(), entityTypeLabel, relTypeLabel, "some-role");
+        store.flush(batch);
+
+        assertEquals(6, (int) store.numIdsNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role"));
+        assertFalse(store.getIdsNotPlayingRole(entityTypeLabel, relTypeLabel, "some-role").contains(used));
+    }
+}
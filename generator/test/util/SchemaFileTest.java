@@ -0,0 +1,98 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.util;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.core.concept.type.AttributeType;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SchemaFileTest {
+
+    private static final List<String> SCHEMA = Arrays.asList(
+            "define",
+            "",
+            "    # fixed increments",
+            "    name sub attribute, datatype string;",
+            "    nickname sub name;",
+            "    age sub attribute, datatype long; # in years",
+            "",
+            "    person sub entity,",
+            "        plays friend,",
+            "        has name, has age;",
+            "    employee sub person;",
+            "",
+            "    friendship sub relation,",
+            "        relates friend;",
+            "    colleagues sub relationship, relates colleague;",
+            "    person plays colleague;",
+            "",
+            "    colleagues-are-friends sub rule,",
+            "        when { (colleague: $x, colleague: $y) isa colleagues; },",
+            "        then { (friend: $x, friend: $y) isa friendship; };"
+    );
+
+    @Test
+    public void typesAreReadByMetaType() {
+        SchemaFile schema = SchemaFile.parse(SCHEMA);
+        assertEquals(new HashSet<>(Arrays.asList("person", "employee")), schema.getEntityTypes());
+        assertEquals(new HashSet<>(Arrays.asList("friendship", "colleagues")), schema.getRelationTypes());
+        assertEquals(new HashSet<>(Arrays.asList("name", "nickname", "age")), schema.getAttributeTypes().keySet());
+    }
+
+    @Test
+    public void attributeDatatypesAreInherited() {
+        SchemaFile schema = SchemaFile.parse(SCHEMA);
+        assertSame(AttributeType.DataType.STRING, schema.getAttributeTypes().get("nickname"));
+        assertSame(AttributeType.DataType.LONG, schema.getAttributeTypes().get("age"));
+    }
+
+    @Test
+    public void defineOnTheSameLineIsSkipped() {
+        SchemaFile schema = SchemaFile.parse(Arrays.asList("define score sub attribute, datatype double;", "game sub entity, has score;"));
+        assertEquals(new HashSet<>(Arrays.asList("game")), schema.getEntityTypes());
+        assertSame(AttributeType.DataType.DOUBLE, schema.getAttributeTypes().get("score"));
+    }
+
+    @Test
+    public void commentAndStatementCharactersInsideStringsAreNotSplitOn() {
+        SchemaFile schema = SchemaFile.parse(Arrays.asList(
+                "define",
+                "    name sub attribute, datatype string, regex \"^[^#;]*$\";",
+                "    person sub entity, has name;",
+                "    named-bob sub rule,",
+                "        when { $x isa person, has name \"bob; # not a comment\"; },",
+                "        then { $x has name \"bob\"; };",
+                "    company sub entity;"
+        ));
+        assertEquals(new HashSet<>(Arrays.asList("person", "company")), schema.getEntityTypes());
+        assertSame(AttributeType.DataType.STRING, schema.getAttributeTypes().get("name"));
+    }
+
+    @Test(expected = DataGeneratorException.class)
+    public void whenSupertypeUndeclared_throw() {
+        SchemaFile.parse(Arrays.asList("define manager sub employee;")).getEntityTypes();
+    }
+}
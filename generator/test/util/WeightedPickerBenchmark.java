@@ -0,0 +1,88 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.util;
+
+import java.util.Random;
+
+/**
+ * Compares the time to sample a WeightedPicker through its tree of cumulative weights, and once frozen
+ * through its alias table, for a range of numbers of elements.
+ * <p>
+ * Usage: WeightedPickerBenchmark [samples per measurement, default 10000000]
+ */
+public class WeightedPickerBenchmark {
+
+    private static final int[] SIZES = {3, 10, 100, 1000, 10000};
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    // consumed so that the JIT cannot discard the sampling
+    private static int sink = 0;
+
+    public static void main(String[] args) {
+        int samples = (args.length > 0) ? Integer.parseInt(args[0]) : 10_000_000;
+
+        System.out.println(String.format("%10s %18s %18s %10s", "elements", "tree (ns/sample)", "alias (ns/sample)", "speedup"));
+        for (int size : SIZES) {
+            WeightedPicker<Integer> tree = buildPicker(size);
+            WeightedPicker<Integer> alias = buildPicker(size).freeze();
+
+            double treeNanos = measure(tree, samples);
+            double aliasNanos = measure(alias, samples);
+            System.out.println(String.format("%10d %18.2f %18.2f %9.2fx", size, treeNanos, aliasNanos, treeNanos / aliasNanos));
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    /**
+     * Weights vary across elements, as they do between the strategies of a definition
+     */
+    private static WeightedPicker<Integer> buildPicker(int size) {
+        Random weights = new Random(size);
+        WeightedPicker<Integer> picker = new WeightedPicker<>(new Random(0));
+        for (int i = 0; i < size; i++) {
+            picker.add(0.1 + weights.nextDouble() * 10, i);
+        }
+        return picker;
+    }
+
+    /**
+     * @return the best mean time per sample over the measured rounds, after warming up
+     */
+    private static double measure(WeightedPicker<Integer> picker, int samples) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sampleRepeatedly(picker, samples);
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            sampleRepeatedly(picker, samples);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / (double) samples;
+    }
+
+    private static void sampleRepeatedly(WeightedPicker<Integer> picker, int samples) {
+        int sum = 0;
+        for (int i = 0; i < samples; i++) {
+            sum += picker.sample();
+        }
+        sink += sum;
+    }
+}
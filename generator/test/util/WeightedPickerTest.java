@@ -0,0 +1,87 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class WeightedPickerTest {
+
+    private Map<String, Integer> sampleCounts(WeightedPicker<String> picker, int samples) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < samples; i++) {
+            counts.merge(picker.sample(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Test
+    public void whenFrozen_samplesFollowWeights() {
+        WeightedPicker<String> picker = new WeightedPicker<String>(new Random(0))
+                .add(1.0, "a")
+                .add(2.0, "b")
+                .add(7.0, "c")
+                .freeze();
+
+        int samples = 100000;
+        Map<String, Integer> counts = sampleCounts(picker, samples);
+        assertEquals(0.1, counts.get("a") / (double) samples, 0.01);
+        assertEquals(0.2, counts.get("b") / (double) samples, 0.01);
+        assertEquals(0.7, counts.get("c") / (double) samples, 0.01);
+    }
+
+    @Test
+    public void whenFrozenAndNotFrozen_samplesFollowSameWeights() {
+        WeightedPicker<String> treePicker = new WeightedPicker<>(new Random(1));
+        WeightedPicker<String> aliasPicker = new WeightedPicker<>(new Random(1));
+        for (int i = 0; i < 20; i++) {
+            treePicker.add(i + 1, Integer.toString(i));
+            aliasPicker.add(i + 1, Integer.toString(i));
+        }
+        aliasPicker.freeze();
+
+        int samples = 200000;
+        Map<String, Integer> treeCounts = sampleCounts(treePicker, samples);
+        Map<String, Integer> aliasCounts = sampleCounts(aliasPicker, samples);
+        for (int i = 0; i < 20; i++) {
+            String element = Integer.toString(i);
+            assertEquals(treeCounts.get(element) / (double) samples, aliasCounts.get(element) / (double) samples, 0.005);
+        }
+    }
+
+    @Test
+    public void whenSingleElement_alwaysSampled() {
+        WeightedPicker<String> picker = new WeightedPicker<String>(new Random(0)).add(0.3, "only").freeze();
+        for (int i = 0; i < 100; i++) {
+            assertSame("only", picker.sample());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void whenAddingAfterFreeze_throw() {
+        WeightedPicker<String> picker = new WeightedPicker<String>(new Random(0)).add(1.0, "a").freeze();
+        picker.add(1.0, "b");
+    }
+}
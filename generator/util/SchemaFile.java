@@ -0,0 +1,157 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.benchmark.generator.util;
+
+import grakn.benchmark.generator.DataGeneratorException;
+import grakn.core.concept.type.AttributeType;
+import graql.lang.Graql;
+import graql.lang.property.DataTypeProperty;
+import graql.lang.property.SubProperty;
+import graql.lang.property.TypeProperty;
+import graql.lang.query.GraqlDefine;
+import graql.lang.query.GraqlQuery;
+import graql.lang.statement.Statement;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the types a Graql schema defines from the schema file itself, rather than from a keyspace it has been
+ * loaded into, so that data can be generated without a Grakn server. The file is parsed by Graql, and only the
+ * `sub` and `datatype` properties of the statements in its define queries are read. Statements that do not
+ * declare a supertype, such as more roles for a type declared elsewhere, are skipped.
+ * <p>
+ * Offers the same view of the schema as SchemaManager.
+ */
+public class SchemaFile {
+
+    private final Map<String, String> supertypes;
+    private final Map<String, Graql.Token.DataType> dataTypes;
+
+    private SchemaFile(Map<String, String> supertypes, Map<String, Graql.Token.DataType> dataTypes) {
+        this.supertypes = supertypes;
+        this.dataTypes = dataTypes;
+    }
+
+    /**
+     * @param schemaQueries lines of the schema file
+     */
+    public static SchemaFile parse(List<String> schemaQueries) {
+        Map<String, String> supertypes = new HashMap<>();
+        Map<String, Graql.Token.DataType> dataTypes = new HashMap<>();
+        List<GraqlQuery> queries = Graql.<GraqlQuery>parseList(String.join("\n", schemaQueries)).collect(Collectors.toList());
+        for (GraqlQuery query : queries) {
+            if (!(query instanceof GraqlDefine)) {
+                continue;
+            }
+            for (Statement statement : query.asDefine().statements()) {
+                Optional<String> label = typeLabel(statement);
+                Optional<SubProperty> sub = statement.getProperty(SubProperty.class);
+                if (!label.isPresent() || !sub.isPresent()) {
+                    continue;
+                }
+                Optional<String> supertype = typeLabel(sub.get().type());
+                if (!supertype.isPresent()) {
+                    throw new DataGeneratorException("Type " + label.get() + " in the schema file is a sub of a variable, not a type");
+                }
+                supertypes.put(label.get(), supertype.get());
+                statement.getProperty(DataTypeProperty.class)
+                        .ifPresent(dataType -> dataTypes.put(label.get(), dataType.dataType()));
+            }
+        }
+        return new SchemaFile(supertypes, dataTypes);
+    }
+
+    private static Optional<String> typeLabel(Statement statement) {
+        return statement.getProperty(TypeProperty.class).map(TypeProperty::name);
+    }
+
+    /**
+     * @return the meta type (`entity`, `relation`, `attribute` or `rule`) a type is ultimately a sub of
+     */
+    private String metaType(String typeLabel) {
+        String type = typeLabel;
+        for (int i = 0; i <= supertypes.size(); i++) {
+            String supertype = supertypes.get(type);
+            if (supertype == null) {
+                throw new DataGeneratorException("Type " + type + " in the schema file is not declared as a sub of any type");
+            }
+            if (supertype.equals("entity") || supertype.equals("attribute") || supertype.equals("rule")) {
+                return supertype;
+            } else if (supertype.equals("relation") || supertype.equals("relationship")) {
+                return "relation";
+            }
+            type = supertype;
+        }
+        throw new DataGeneratorException("Type " + typeLabel + " in the schema file is its own supertype");
+    }
+
+    private HashSet<String> getLabelsOfMetaType(String metaType) {
+        return supertypes.keySet().stream()
+                .filter(type -> metaType(type).equals(metaType))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    public HashMap<String, AttributeType.DataType<?>> getAttributeTypes() {
+        HashMap<String, AttributeType.DataType<?>> attributeTypes = new HashMap<>();
+        for (String attributeType : getLabelsOfMetaType("attribute")) {
+            // attribute types inherit their supertype's datatype
+            String type = attributeType;
+            while (!dataTypes.containsKey(type) && supertypes.containsKey(type)) {
+                type = supertypes.get(type);
+            }
+            attributeTypes.put(attributeType, dataType(attributeType, dataTypes.get(type)));
+        }
+        return attributeTypes;
+    }
+
+    public HashSet<String> getRelationTypes() {
+        return getLabelsOfMetaType("relation");
+    }
+
+    public HashSet<String> getEntityTypes() {
+        return getLabelsOfMetaType("entity");
+    }
+
+    private static AttributeType.DataType<?> dataType(String attributeType, Graql.Token.DataType dataType) {
+        if (dataType == null) {
+            throw new DataGeneratorException("Attribute type " + attributeType + " in the schema file has no datatype");
+        }
+        switch (dataType) {
+            case STRING:
+                return AttributeType.DataType.STRING;
+            case LONG:
+                return AttributeType.DataType.LONG;
+            case DOUBLE:
+                return AttributeType.DataType.DOUBLE;
+            case FLOAT:
+                return AttributeType.DataType.FLOAT;
+            case BOOLEAN:
+                return AttributeType.DataType.BOOLEAN;
+            case DATE:
+                return AttributeType.DataType.DATE;
+            default:
+                throw new DataGeneratorException("Unknown datatype " + dataType + " of attribute type " + attributeType);
+        }
+    }
+}
@@ -18,32 +18,110 @@
 
 package grakn.benchmark.generator.util;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NavigableMap;
 import java.util.Random;
 import java.util.TreeMap;
 
 /**
  * Provides functionality to randomly choose from a weighted set of elements.
+ * <p>
+ * Until it is frozen, each sample is a lookup of the cumulative weights in a tree, which takes O(log n).
+ * Calling freeze() once all elements are added builds an alias table (Vose's method), after which sampling
+ * takes O(1) and allocates nothing, regardless of the number of elements.
  *
  * @param <T> Type of elements in collection
  */
 public class WeightedPicker<T> {
     private final NavigableMap<Double, T> map = new TreeMap<>();
+    private final List<Double> weights = new ArrayList<>();
+    private final List<T> elements = new ArrayList<>();
     private final Random random;
     private double total = 0;
 
+    // alias table, built by freeze()
+    private boolean frozen = false;
+    private Object[] aliasElements;
+    private double[] probability;
+    private int[] alias;
+
     public WeightedPicker(Random random) {
         this.random = random;
     }
 
     public WeightedPicker<T> add(double weight, T element) {
         if (weight <= 0) throw new IllegalArgumentException("Weight must be greater than zero.");
+        if (frozen) throw new IllegalStateException("Cannot add to a WeightedPicker once it is frozen.");
         total += weight;
         map.put(total, element);
+        weights.add(weight);
+        elements.add(element);
+        return this;
+    }
+
+    /**
+     * Build the alias table, so that sample() takes constant time. No more elements can be added afterwards.
+     */
+    public WeightedPicker<T> freeze() {
+        if (frozen) {
+            return this;
+        }
+        int n = elements.size();
+        aliasElements = elements.toArray();
+        probability = new double[n];
+        alias = new int[n];
+
+        // scale the weights so that they average 1, and split them into those below and above the average
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int numSmall = 0;
+        int numLarge = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights.get(i) * n / total;
+            if (scaled[i] < 1.0) {
+                small[numSmall++] = i;
+            } else {
+                large[numLarge++] = i;
+            }
+        }
+
+        // each column is filled by one under-weight element, topped up by an over-weight one
+        while (numSmall > 0 && numLarge > 0) {
+            int less = small[--numSmall];
+            int more = large[--numLarge];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[numSmall++] = more;
+            } else {
+                large[numLarge++] = more;
+            }
+        }
+
+        // whatever is left fills its own column, up to floating point error
+        while (numLarge > 0) {
+            probability[large[--numLarge]] = 1.0;
+        }
+        while (numSmall > 0) {
+            probability[small[--numSmall]] = 1.0;
+        }
+
+        frozen = true;
         return this;
     }
 
+    @SuppressWarnings("unchecked")
     public T sample() {
+        if (frozen) {
+            if (aliasElements.length == 0) throw new IllegalStateException("Cannot sample from an empty WeightedPicker.");
+            // one draw picks both the column, from its integer part, and the side of the column, from the fraction
+            double value = random.nextDouble() * aliasElements.length;
+            int column = Math.min((int) value, aliasElements.length - 1);
+            return (T) (value - column < probability[column] ? aliasElements[column] : aliasElements[alias[column]]);
+        }
         double value = random.nextDouble() * total;
         return map.higherEntry(value).getValue();
     }
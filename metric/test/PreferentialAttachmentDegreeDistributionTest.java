@@ -0,0 +1,96 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.metric.test;
+
+import grakn.benchmark.generator.provider.concept.ConceptIdProvider;
+import grakn.benchmark.generator.provider.concept.ConceptIdStorageProvider;
+import grakn.benchmark.generator.provider.concept.PreferentialAttachmentConceptIdProvider;
+import grakn.benchmark.generator.storage.ConceptStorage;
+import grakn.benchmark.generator.storage.InMemoryConceptStorage;
+import grakn.benchmark.metric.DegreeDistribution;
+import grakn.benchmark.metric.GraphProperties;
+import grakn.core.concept.ConceptId;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Grow a friendship graph the way the generator does, filling roles from a provider, and compare the degree
+ * distributions produced by uniform and preferential attachment role players
+ */
+public class PreferentialAttachmentDegreeDistributionTest {
+
+    private static final int PEOPLE = 2000;
+    private static final int FRIENDSHIPS_PER_PERSON = 2;
+
+    private interface ProviderFactory {
+        ConceptIdProvider create(Random random, ConceptStorage storage);
+    }
+
+    private long[] degreeDistribution(ProviderFactory providerFactory, double[] percentiles) {
+        InMemoryConceptStorage storage = new InMemoryConceptStorage(
+                new HashSet<>(Collections.singletonList("person")),
+                new HashSet<>(Collections.singletonList("friendship")),
+                new HashMap<>());
+        ConceptIdProvider provider = providerFactory.create(new Random(0), storage);
+
+        Map<ConceptId, Long> degrees = new HashMap<>();
+        for (int i = 0; i < PEOPLE; i++) {
+            ConceptId person = ConceptId.of("V" + i);
+            storage.addConcept(person, "person", null);
+            degrees.put(person, 0L);
+
+            for (int friendship = 0; friendship < FRIENDSHIPS_PER_PERSON; friendship++) {
+                for (int friend = 0; friend < 2; friend++) {
+                    ConceptId friendId = provider.next();
+                    storage.addRolePlayer(friendId.toString(), "person", "friendship", "friend");
+                    degrees.merge(friendId, 1L, Long::sum);
+                }
+            }
+        }
+
+        GraphProperties properties = Mockito.mock(GraphProperties.class);
+        List<Long> vertexDegrees = new ArrayList<>(degrees.values());
+        when(properties.vertexDegree()).thenReturn(vertexDegrees);
+        return DegreeDistribution.discreteDistribution(properties, percentiles);
+    }
+
+    @Test
+    public void whenRolesFilledByPreferentialAttachment_degreesAreSkewedTowardsHubs() {
+        double[] percentiles = new double[] {50, 100};
+        long[] uniform = degreeDistribution((random, storage) -> new ConceptIdStorageProvider(random, storage, "person"), percentiles);
+        long[] preferential = degreeDistribution((random, storage) -> new PreferentialAttachmentConceptIdProvider(random, storage, "person", 2), percentiles);
+
+        // the typical person has no more friends than under uniform attachment...
+        assertTrue(preferential[0] <= uniform[0]);
+        // ...while the best connected have many times more
+        assertTrue(preferential[1] > 5 * uniform[1]);
+    }
+}
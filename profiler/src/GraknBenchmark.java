@@ -26,17 +26,16 @@ import grakn.benchmark.common.configuration.BenchmarkConfiguration;
 import grakn.benchmark.common.exception.BootupException;
 import grakn.benchmark.generator.DataGenerator;
 import grakn.benchmark.generator.DataGeneratorException;
-import grakn.benchmark.generator.definition.DataGeneratorDefinition;
-import grakn.benchmark.generator.definition.DefinitionFactory;
-import grakn.benchmark.generator.query.QueryProvider;
-import grakn.benchmark.generator.storage.ConceptStorage;
-import grakn.benchmark.generator.storage.IgniteConceptStorage;
+import grakn.benchmark.generator.DataGeneratorFactory;
+import grakn.benchmark.generator.checkpoint.GenerationCheckpoint;
+import grakn.benchmark.generator.dataset.BulkLoader;
+import grakn.benchmark.generator.dataset.DatasetCache;
+import grakn.benchmark.generator.storage.ConceptStorageFactory;
 import grakn.benchmark.generator.util.IgniteManager;
 import grakn.benchmark.generator.util.SchemaManager;
 import grakn.benchmark.profiler.util.ElasticSearchManager;
 import grakn.benchmark.profiler.util.TracingGraknClient;
 import grakn.client.GraknClient;
-import grakn.core.concept.type.AttributeType;
 import graql.lang.query.GraqlQuery;
 import org.apache.commons.cli.CommandLine;
 import org.apache.ignite.Ignite;
@@ -44,11 +43,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -58,12 +55,14 @@ import static graql.lang.Graql.parseList;
  * Class in charge of
  * - initialising Benchmark dependencies and BenchmarkConfiguration
  * - run data generation (populate empty keyspace) (DataGenerator)
+ * - or generate data offline into a dataset cache, and bulk load it into empty keyspaces (BulkLoader)
  * - run benchmark on queries (ThreadedProfiler + QueryProfiler)
  */
 public class GraknBenchmark {
     private static final Logger LOG = LoggerFactory.getLogger(GraknBenchmark.class);
 
     private final BenchmarkConfiguration config;
+    private final DataGeneratorFactory generatorFactory;
 
     /**
      * Entry point invoked by benchmark script
@@ -92,18 +91,29 @@ public class GraknBenchmark {
 
     public GraknBenchmark(CommandLine arguments) {
         config = new BenchmarkConfiguration(arguments);
+        generatorFactory = new DataGeneratorFactory(config);
     }
 
 
     /**
      * Start the Grakn Benchmark, which, based on arguments provided via console, will run one of the following use cases:
      * - generate synthetic data while profiling the graph at different sizes
+     * - generate synthetic data offline, without profiling anything
+     * - bulk load data generated offline while profiling the graph at different sizes
      * - don't generate new data and only profile an existing keyspace
      */
     public void start() {
 
 
-        if (config.generateData()) {  // USECASE: Load Schema + Generate Data + Profile at different scales running queries from config file
+        if (config.generateData() && config.offline()) {  // USECASE: Generate Data into the dataset cache, without a Grakn server
+
+            generateOffline();
+
+        } else if (config.generateData() && config.bulkLoad()) {  // USECASE: Load Schema + Bulk load cached Data + Profile at different scales
+
+            bulkLoadAndProfile();
+
+        } else if (config.generateData()) {  // USECASE: Load Schema + Generate Data + Profile at different scales running queries from config file
 
             // Multiple concurrent clients are only allowed to query the same keyspace.
             if (config.concurrentClients() > 1 && config.uniqueConcurrentKeyspaces()) {
@@ -111,18 +121,34 @@ public class GraknBenchmark {
             }
 
             GraknClient tracingClient = TracingGraknClient.get(config.graknUri());
-            traceKeyspaceCreation(tracingClient);
+            if (config.resume()) {
+                LOG.info("Resuming data generation into existing keyspace: " + config.getKeyspace());
+            } else {
+                traceKeyspaceCreation(tracingClient);
+            }
             ThreadedProfiler threadedProfiler = new ThreadedProfiler(tracingClient, Collections.singletonList(config.getKeyspace()), config);
 
-            Ignite ignite = IgniteManager.initIgnite();
+            Ignite ignite = ConceptStorageFactory.requiresIgnite(config.conceptStorage()) ? IgniteManager.initIgnite() : null;
             GraknClient client = new GraknClient(config.graknUri());
-            DataGenerator dataGenerator = initDataGenerator(client, config.getKeyspace()); // use a non tracing client as we don't trace data generation yet
+            GenerationCheckpoint checkpoint = generatorFactory.openCheckpoint(config.getKeyspace());
+            DatasetCache datasetCache = generatorFactory.openDatasetCache();
+            DataGenerator dataGenerator = generatorFactory.create(client, config.getKeyspace(), checkpoint, datasetCache); // use a non tracing client as we don't trace data generation yet
             List<Integer> numConceptsInRun = config.scalesToProfile();
 
             try {
+                int resumedScale = config.resume() ? dataGenerator.resume() : 0;
                 for (int numConcepts : numConceptsInRun) {
-                    LOG.info("Generating graph to scale... " + numConcepts);
-                    dataGenerator.generate(numConcepts);
+                    if (numConcepts <= resumedScale) {
+                        LOG.info("Skipping scale already reached before resuming... " + numConcepts);
+                        continue;
+                    }
+                    if (datasetCache != null && datasetCache.hasScale(numConcepts)) {
+                        LOG.info("Loading graph at scale from dataset cache... " + numConcepts);
+                        dataGenerator.load(numConcepts);
+                    } else {
+                        LOG.info("Generating graph to scale... " + numConcepts);
+                        dataGenerator.generate(numConcepts);
+                    }
                     threadedProfiler.processStaticQueries(config.numQueryRepetitions(), numConcepts);
                 }
             } catch (Exception e) {
@@ -131,7 +157,15 @@ public class GraknBenchmark {
                 threadedProfiler.cleanup();
                 tracingClient.close();
                 client.close();
-                ignite.close();
+                if (checkpoint != null) {
+                    checkpoint.close();
+                }
+                if (datasetCache != null) {
+                    datasetCache.close();
+                }
+                if (ignite != null) {
+                    ignite.close();
+                }
             }
 
 
@@ -171,6 +205,63 @@ public class GraknBenchmark {
         }
     }
 
+    /**
+     * Generate the dataset at each scale into the dataset cache, replacing what it held. Nothing is inserted into
+     * Grakn, so this measures the cost of generation alone.
+     */
+    private void generateOffline() {
+        Ignite ignite = ConceptStorageFactory.requiresIgnite(config.conceptStorage()) ? IgniteManager.initIgnite() : null;
+        DatasetCache datasetCache = generatorFactory.openDatasetCache();
+        try {
+            DataGenerator dataGenerator = generatorFactory.create(null, null, null, datasetCache);
+            for (int numConcepts : config.scalesToProfile()) {
+                LOG.info("Generating graph offline to scale... " + numConcepts);
+                long start = System.nanoTime();
+                dataGenerator.generate(numConcepts);
+                LOG.info("Generated graph offline to scale " + numConcepts + " in " +
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            }
+        } finally {
+            datasetCache.close();
+            if (ignite != null) {
+                ignite.close();
+            }
+        }
+    }
+
+    /**
+     * Bulk load the cached dataset into a new keyspace one scale at a time, profiling the queries at each scale
+     */
+    private void bulkLoadAndProfile() {
+        if (config.concurrentClients() > 1 && config.uniqueConcurrentKeyspaces()) {
+            throw new BootupException("Cannot currently bulk load data into more than 1 keyspace");
+        }
+
+        GraknClient tracingClient = TracingGraknClient.get(config.graknUri());
+        traceKeyspaceCreation(tracingClient);
+        ThreadedProfiler threadedProfiler = new ThreadedProfiler(tracingClient, Collections.singletonList(config.getKeyspace()), config);
+        GraknClient client = new GraknClient(config.graknUri());
+        DatasetCache datasetCache = generatorFactory.openDatasetCache();
+        BulkLoader loader = new BulkLoader(client, config.getKeyspace(), config.loaderThreads(), config.loaderBatchesPerTransaction());
+
+        try {
+            for (int numConcepts : config.scalesToProfile()) {
+                if (!datasetCache.hasScale(numConcepts)) {
+                    throw new BootupException("Scale " + numConcepts + " is not in the dataset cache at " +
+                            config.datasetCacheDirectory() + ", generate it with --offline first");
+                }
+                LOG.info("Bulk loading graph at scale from dataset cache... " + numConcepts);
+                loader.load(datasetCache, numConcepts);
+                threadedProfiler.processStaticQueries(config.numQueryRepetitions(), numConcepts);
+            }
+        } finally {
+            threadedProfiler.cleanup();
+            tracingClient.close();
+            client.close();
+            datasetCache.close();
+        }
+    }
+
     private void traceKeyspaceCreation(GraknClient client) {
         String keyspace = config.getKeyspace();
         GraknClient.Session session = traceInitKeyspace(client, keyspace);
@@ -232,27 +323,6 @@ public class GraknBenchmark {
     }
 
 
-    /**
-     * Connect a data generator to pre-prepared keyspace
-     */
-    private DataGenerator initDataGenerator(GraknClient client, String keyspace) {
-        int randomSeed = 0;
-        String dataGenerator= config.dataGenerator();
-        GraknClient.Session session = client.session(keyspace);
-        SchemaManager schemaManager = new SchemaManager(session);
-        HashSet<String> entityTypeLabels = schemaManager.getEntityTypes();
-        HashSet<String> relationshipTypeLabels = schemaManager.getRelationTypes();
-        Map<String, AttributeType.DataType<?>> attributeTypeLabels = schemaManager.getAttributeTypes();
-
-        ConceptStorage storage = new IgniteConceptStorage(entityTypeLabels, relationshipTypeLabels, attributeTypeLabels);
-
-        DataGeneratorDefinition dataGeneratorDefinition = DefinitionFactory.getDefinition(dataGenerator, new Random(randomSeed), storage);
-
-        QueryProvider queryProvider = new QueryProvider(dataGeneratorDefinition);
-
-        return new DataGenerator(client, keyspace, storage, dataGenerator, queryProvider);
-    }
-
     private static void printAscii() {
         System.out.println();
         System.out.println("========================================================================================================");
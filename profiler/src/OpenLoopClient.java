@@ -0,0 +1,101 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.profiler;
+
+import grakn.benchmark.common.metrics.LatencyHistogram;
+import grakn.benchmark.common.transaction.QueryTransactions;
+import grakn.client.GraknClient;
+import graql.lang.query.GraqlQuery;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues queries on a fixed schedule: the i-th query is due at start + i / rate, cycling through the queries in order.
+ * <p>
+ * Queries are executed one at a time, so a client never has more than one query in flight. When a query overruns,
+ * the queries due meanwhile are sent late, back to back, rather than concurrently with it.
+ * Each query's latency is measured from the time it was due, not from when it could actually be sent, so the time
+ * a query spends queued behind slow predecessors counts towards its latency rather than being silently omitted.
+ * A rate the server cannot keep up with is therefore never actually offered to it: the client falls behind and its
+ * latencies grow instead. Concurrency comes only from running several clients.
+ * Latencies are recorded in microseconds. Queries are not traced, to keep tracing overhead out of the schedule.
+ */
+class OpenLoopClient implements Callable<LatencyHistogram> {
+
+    private final GraknClient.Session session;
+    private final List<GraqlQuery> queries;
+    private final long intervalNanos;
+    private final long offsetNanos;
+    private final long durationNanos;
+    private final boolean reuseReadTransactions;
+    private final boolean deleteInsertedConcepts;
+
+    /**
+     * @param ratePerSecond queries per second this client issues
+     * @param offsetNanos   delay of this client's schedule, to spread several clients' queries over the interval
+     */
+    OpenLoopClient(GraknClient.Session session, List<GraqlQuery> queries, double ratePerSecond, long offsetNanos, long durationNanos,
+                   boolean reuseReadTransactions, boolean deleteInsertedConcepts) {
+        this.session = session;
+        this.queries = queries;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.offsetNanos = offsetNanos;
+        this.durationNanos = durationNanos;
+        this.reuseReadTransactions = reuseReadTransactions;
+        this.deleteInsertedConcepts = deleteInsertedConcepts;
+    }
+
+    @Override
+    public LatencyHistogram call() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Set<String> insertedConceptIds = new HashSet<>();
+
+        try (QueryTransactions transactions = new QueryTransactions(session, reuseReadTransactions)) {
+            long start = System.nanoTime() + offsetNanos;
+            for (long i = 0; i * intervalNanos < durationNanos && !Thread.currentThread().isInterrupted(); i++) {
+                long due = start + i * intervalNanos;
+                long now = System.nanoTime();
+                while (now < due) {
+                    LockSupport.parkNanos(due - now);
+                    now = System.nanoTime();
+                }
+
+                GraqlQuery query = queries.get((int) (i % queries.size()));
+                Set<String> inserted = QueryProfiler.execute(transactions, query);
+                histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due));
+
+                if (inserted != null) {
+                    insertedConceptIds.addAll(inserted);
+                }
+            }
+
+            // outside of the schedule, so it does not count towards any latency
+            if (deleteInsertedConcepts && !insertedConceptIds.isEmpty()) {
+                QueryProfiler.deleteInsertedConcepts(transactions, insertedConceptIds);
+            }
+        }
+        return histogram;
+    }
+}
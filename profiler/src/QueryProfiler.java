@@ -23,6 +23,8 @@ import brave.Span;
 import brave.Tracer;
 import grakn.benchmark.common.analysis.InsertQueryAnalyser;
 import grakn.benchmark.common.configuration.BenchmarkConfiguration;
+import grakn.benchmark.common.configuration.WarmUp;
+import grakn.benchmark.common.transaction.QueryTransactions;
 import grakn.client.GraknClient;
 import grakn.core.concept.answer.Answer;
 import grakn.core.concept.answer.ConceptMap;
@@ -35,8 +37,10 @@ import graql.lang.query.GraqlQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 class QueryProfiler implements Runnable {
@@ -53,6 +57,8 @@ class QueryProfiler implements Runnable {
     private final GraknClient.Session session;
     private final boolean deleteInsertedConcepts;
     private final boolean traceDeleteInsertedConcepts;
+    private final boolean reuseReadTransactions;
+    private final WarmUp warmUp;
     private String executionName;
 
     public QueryProfiler(BenchmarkConfiguration config, int concurrentId, Tracer tracer, List<GraqlQuery> queries, int repetitions, int numConcepts, GraknClient.Session session) {
@@ -61,6 +67,8 @@ class QueryProfiler implements Runnable {
         executionName = config.executionName();
         deleteInsertedConcepts = config.deleteInsertedConcepts();
         traceDeleteInsertedConcepts = config.traceDeleteInsertedConcepts();
+        reuseReadTransactions = config.reuseReadTransactions();
+        warmUp = config.warmUp();
         dataGenerator = config.dataGenerator();
         this.concurrentId = concurrentId;
         this.tracer = tracer;
@@ -72,7 +80,12 @@ class QueryProfiler implements Runnable {
 
     @Override
     public void run() {
+        QueryTransactions transactions = new QueryTransactions(session, reuseReadTransactions);
         try {
+            if (warmUp.enabled()) {
+                warmUp(transactions);
+            }
+
             Span concurrentExecutionSpan = tracer.newTrace().name("concurrent-execution");
             concurrentExecutionSpan.tag("configurationName", configName);
             concurrentExecutionSpan.tag("description", description);
@@ -91,10 +104,8 @@ class QueryProfiler implements Runnable {
                     Span querySpan = tracer.newChild(concurrentExecutionSpan.context());
 
                     querySpan.name("query");
-                    if (query instanceof GraqlInsert) { querySpan.tag("type", "insert"); }
-                    else if (query instanceof GraqlGet) { querySpan.tag("type", "get"); }
-                    else if (query instanceof GraqlDelete) { querySpan.tag("type", "delete"); }
-                    else if (query instanceof GraqlCompute) { querySpan.tag("type", "compute"); }
+                    String queryType = queryType(query);
+                    if (queryType != null) { querySpan.tag("type", queryType); }
 
                     querySpan.tag("query", query.toString());
                     querySpan.tag("repetitions", Integer.toString(repetitions));
@@ -102,24 +113,10 @@ class QueryProfiler implements Runnable {
                     querySpan.start();
 
                     // perform trace in thread-local storage on the client
-                    Set<String> insertedConceptIds = null;
+                    Set<String> insertedConceptIds;
                     try (Tracer.SpanInScope span = tracer.withSpanInScope(querySpan)) {
-                        // open new transaction
-                        GraknClient.Transaction tx = session.transaction().write();
-                        List<? extends Answer> answer = tx.execute(query);
-
-                        if (query instanceof GraqlInsert) {
-                            insertedConceptIds = InsertQueryAnalyser.getInsertedConcepts((GraqlInsert)query, (List<ConceptMap>)answer)
-                                        .stream().map(concept -> concept.id().toString())
-                                        .collect(Collectors.toSet());
-                        }
-                        tx.commit();
-                    } catch (Exception e) {
-                        LOG.error(
-                                "Exception in a concurrent query executor, query: " + query +
-                                ". Ensure every query is valid and each inserted concept is associated with an explicit variable",
-                                e);
-                        throw e;
+                        insertedConceptIds = execute(transactions, query);
+                        querySpan.tag("transaction", QueryTransactions.isWrite(query) ? "write" : (transactions.reused() ? "read-reused" : "read"));
                     } finally {
                         querySpan.finish();
                     }
@@ -129,9 +126,9 @@ class QueryProfiler implements Runnable {
                             Span deleteQuerySpan = tracer.newChild(concurrentExecutionSpan.context());
                             deleteQuerySpan.name("delete-query");
                             deleteQuerySpan.start();
-                            try (Tracer.SpanInScope span = tracer.withSpanInScope(deleteQuerySpan)) {
+                            try (Tracer.SpanInScope span = tracer.withSpanInScope(deleteQuerySpan);
+                                 GraknClient.Transaction tx = transactions.write()) {
                                 // create one tx per ID in case the concept no longer exists and throws an error (attr dedup)
-                                GraknClient.Transaction tx = session.transaction().write();
                                 for (String conceptId : insertedConceptIds) {
                                     tx.execute(Graql.parse("match $x id " + conceptId + "; delete $x;").asDelete());
                                 }
@@ -140,9 +137,7 @@ class QueryProfiler implements Runnable {
                                 deleteQuerySpan.finish();
                             }
                         } else {
-                            GraknClient.Transaction tx = session.transaction().write();
-                            insertedConceptIds.iterator().forEachRemaining(id -> tx.execute(Graql.parse("match $x id " + id + "; delete $x;").asDelete()));
-                            tx.commit();
+                            deleteInsertedConcepts(transactions, insertedConceptIds);
                         }
                     }
                 }
@@ -156,9 +151,110 @@ class QueryProfiler implements Runnable {
             e.printStackTrace();
             Thread.currentThread().interrupt();
         } finally {
-            session.close();
+            transactions.close();
         }
         System.out.println("Thread runnable finished running queries");
         System.out.print("\n\n");
     }
+
+    /**
+     * Run each query until it is warmed up, the same way as the measured repetitions but outside of any span, so
+     * that neither the queries nor their messages are traced. Only a summary of each query's warm-up is recorded,
+     * as a separate warm-up trace.
+     * <p>
+     * The measured runs must see the keyspace as it would be without warm-up, so what insert queries insert while
+     * warming up is always deleted again, and other queries that write, whose changes cannot be undone, are not
+     * warmed up.
+     */
+    private void warmUp(QueryTransactions transactions) {
+        for (GraqlQuery query : queries) {
+            if (QueryTransactions.isWrite(query) && !(query instanceof GraqlInsert)) {
+                LOG.info("Not warming up query at scale " + numConcepts + " on client " + concurrentId + ", as it cannot be undone: " + query);
+                continue;
+            }
+
+            Span warmUpSpan = tracer.newTrace().name("warm-up");
+            warmUpSpan.tag("configurationName", configName);
+            warmUpSpan.tag("executionName", executionName);
+            warmUpSpan.tag("concurrentClient", Integer.toString(concurrentId));
+            warmUpSpan.tag("graphType", dataGenerator);
+            warmUpSpan.tag("graphScale", Integer.toString(numConcepts));
+            warmUpSpan.tag("query", query.toString());
+            warmUpSpan.start();
+
+            List<Long> durations = new ArrayList<>();
+            long start = System.nanoTime();
+            try {
+                while (!warmUp.finished(durations.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))) {
+                    long runStart = System.nanoTime();
+                    Set<String> insertedConceptIds = execute(transactions, query);
+                    durations.add(System.nanoTime() - runStart);
+                    if (insertedConceptIds != null) {
+                        deleteInsertedConcepts(transactions, insertedConceptIds);
+                    }
+                }
+            } finally {
+                String summary = WarmUp.summary(durations);
+                warmUpSpan.tag("runs", Integer.toString(durations.size()));
+                warmUpSpan.tag("summary", summary);
+                warmUpSpan.finish();
+                LOG.info("Warmed up query at scale " + numConcepts + " on client " + concurrentId + ", " + summary + ": " + query);
+            }
+        }
+    }
+
+    /**
+     * @return the type a query's span is tagged with, or null if it is of none of the profiled types
+     */
+    static String queryType(GraqlQuery query) {
+        if (query instanceof GraqlInsert) { return "insert"; }
+        else if (query instanceof GraqlGet) { return "get"; }
+        else if (query instanceof GraqlGet.Aggregate) { return "aggregate"; }
+        else if (query instanceof GraqlDelete) { return "delete"; }
+        else if (query instanceof GraqlCompute) { return "compute"; }
+        return null;
+    }
+
+    /**
+     * Execute the query in a transaction of the kind it needs, committing it if it is a write
+     *
+     * @return ids of the concepts it inserted, or null if it is not an insert query
+     */
+    static Set<String> execute(QueryTransactions transactions, GraqlQuery query) {
+        Set<String> insertedConceptIds = null;
+        try {
+            // write transactions only for queries that change the keyspace, reads may share one
+            GraknClient.Transaction tx = transactions.open(query);
+            try {
+                List<? extends Answer> answer = tx.execute(query);
+
+                if (query instanceof GraqlInsert) {
+                    insertedConceptIds = InsertQueryAnalyser.getInsertedConcepts((GraqlInsert) query, (List<ConceptMap>) answer)
+                            .stream().map(concept -> concept.id().toString())
+                            .collect(Collectors.toSet());
+                }
+                if (QueryTransactions.isWrite(query)) {
+                    tx.commit();
+                }
+            } catch (Exception e) {
+                transactions.discard(tx);
+                throw e;
+            }
+            transactions.release(tx);
+        } catch (Exception e) {
+            LOG.error(
+                    "Exception in a concurrent query executor, query: " + query +
+                    ". Ensure every query is valid and each inserted concept is associated with an explicit variable",
+                    e);
+            throw e;
+        }
+        return insertedConceptIds;
+    }
+
+    static void deleteInsertedConcepts(QueryTransactions transactions, Set<String> insertedConceptIds) {
+        try (GraknClient.Transaction tx = transactions.write()) {
+            insertedConceptIds.iterator().forEachRemaining(id -> tx.execute(Graql.parse("match $x id " + id + "; delete $x;").asDelete()));
+            tx.commit();
+        }
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.profiler;
+
+import brave.Span;
+import brave.Tracer;
+import grakn.client.GraknClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps one session open per concurrent client and keyspace for the whole benchmark run, so that neither session
+ * setup nor cold server-side session caches are measured again at every scale and repetition.
+ * <p>
+ * Sessions are opened on first use. If enabled, each opening is traced as a "session-open" span of its own,
+ * tagged like the query spans, so its latency can be reported separately from the queries.
+ */
+class SessionPool {
+    private static final Logger LOG = LoggerFactory.getLogger(SessionPool.class);
+
+    private final GraknClient client;
+    private final Tracer tracer;
+    private final boolean traceSessionOpen;
+    private final Map<String, String> tags;
+    private final Map<String, GraknClient.Session> sessions;
+
+    /**
+     * @param tags tags to add to every session-open span
+     */
+    SessionPool(GraknClient client, Tracer tracer, boolean traceSessionOpen, Map<String, String> tags) {
+        this.client = client;
+        this.tracer = tracer;
+        this.traceSessionOpen = traceSessionOpen;
+        this.tags = tags;
+        this.sessions = new HashMap<>();
+    }
+
+    /**
+     * @param concurrentId the concurrent client that will use the session
+     * @param numConcepts  graph scale at which the session is requested, recorded if it has to be opened
+     * @return the client's open session to the keyspace
+     */
+    synchronized GraknClient.Session session(int concurrentId, String keyspace, int numConcepts) {
+        String key = concurrentId + "/" + keyspace;
+        GraknClient.Session session = sessions.get(key);
+        if (session == null) {
+            session = open(concurrentId, keyspace, numConcepts);
+            sessions.put(key, session);
+        }
+        return session;
+    }
+
+    private GraknClient.Session open(int concurrentId, String keyspace, int numConcepts) {
+        long start = System.nanoTime();
+        GraknClient.Session session;
+        if (traceSessionOpen) {
+            Span span = tracer.newTrace().name("session-open");
+            tags.forEach(span::tag);
+            span.tag("concurrentClient", Integer.toString(concurrentId));
+            span.tag("keyspace", keyspace);
+            span.tag("graphScale", Integer.toString(numConcepts));
+            span.start();
+            try (Tracer.SpanInScope ws = tracer.withSpanInScope(span)) {
+                session = client.session(keyspace);
+            } finally {
+                span.finish();
+            }
+        } else {
+            session = client.session(keyspace);
+        }
+        LOG.info("Opened session " + concurrentId + " to keyspace " + keyspace + " in " +
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return session;
+    }
+
+    synchronized void close() {
+        for (GraknClient.Session session : sessions.values()) {
+            try {
+                session.close();
+            } catch (Exception e) {
+                LOG.warn("Failed to close session to keyspace " + session.keyspace(), e);
+            }
+        }
+        sessions.clear();
+    }
+}
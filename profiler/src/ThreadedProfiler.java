@@ -18,8 +18,11 @@
 
 package grakn.benchmark.profiler;
 
+import brave.Span;
 import brave.Tracing;
 import grakn.benchmark.common.configuration.BenchmarkConfiguration;
+import grakn.benchmark.common.configuration.parse.WorkloadConfigurationFile;
+import grakn.benchmark.common.metrics.LatencyHistogram;
 import grakn.benchmark.profiler.util.ProfilerException;
 import grakn.client.GraknClient;
 import graql.lang.Graql;
@@ -27,12 +30,16 @@ import graql.lang.query.GraqlQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 
@@ -49,6 +56,8 @@ public class ThreadedProfiler {
     private final GraknClient client;
     private final List<String> keyspaces;
     private final int concurrentClients;
+    private final SessionPool sessionPool;
+    private final Workload workload;
     private ExecutorService executorService;
 
     public ThreadedProfiler(GraknClient client, List<String> keyspaces, BenchmarkConfiguration config) {
@@ -63,27 +72,177 @@ public class ThreadedProfiler {
                 .collect(Collectors.toList());
 
 
+        this.workload = (config.workload() != null) ? new Workload(config.workload()) : null;
+
+        // sessions stay open across scales and repetitions, until cleanup
+        Map<String, String> sessionTags = new HashMap<>();
+        sessionTags.put("configurationName", config.configName());
+        sessionTags.put("executionName", config.executionName());
+        sessionTags.put("graphType", config.dataGenerator());
+        this.sessionPool = new SessionPool(client, Tracing.currentTracer(), config.traceSessionOpen(), sessionTags);
+
         // create 1 thread per client session
         executorService = Executors.newFixedThreadPool(concurrentClients);
     }
 
     public void processStaticQueries(int numRepeats, int numConcepts) {
         LOG.trace("Starting processStaticQueries");
-        this.processQueries(queries, numRepeats, numConcepts);
+        if (workload != null) {
+            this.processWorkload(numConcepts);
+        } else if (config.openLoop()) {
+            this.sweepRates(queries, numConcepts);
+        } else {
+            this.processQueries(queries, numRepeats, numConcepts);
+        }
         LOG.trace("Finished processStaticQueries");
     }
 
+    /**
+     * Run the workload's weighted mix from every concurrent client, each with its own seeded random choices, for the
+     * workload's time or number of operations, and report throughput and latency per query type
+     */
+    void processWorkload(int numConcepts) {
+        WorkloadConfigurationFile definition = config.workload();
+        long durationNanos = (definition.getSeconds() != null) ? TimeUnit.SECONDS.toNanos(definition.getSeconds()) : Long.MAX_VALUE;
+        List<Future<Map<String, LatencyHistogram>>> runningClients = new LinkedList<>();
+
+        Span span = Tracing.currentTracer().newTrace().name("workload");
+        span.tag("configurationName", config.configName());
+        span.tag("executionName", config.executionName());
+        span.tag("graphType", config.dataGenerator());
+        span.tag("graphScale", Integer.toString(numConcepts));
+        span.tag("concurrentClients", Integer.toString(concurrentClients));
+        span.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrentClients; i++) {
+            String keyspace = (keyspaces.size() > 1) ? keyspaces.get(i) : keyspaces.get(0);
+            GraknClient.Session session = sessionPool.session(i, keyspace, numConcepts);
+            long operations = Long.MAX_VALUE;
+            if (definition.getOperations() != null) {
+                operations = Workload.clientOperations(definition.getOperations(), concurrentClients, i);
+            }
+            WorkloadClient workloadClient = new WorkloadClient(session, workload, config.workloadSeed() + i, durationNanos, operations,
+                    config.reuseReadTransactions(), config.deleteInsertedConcepts());
+            runningClients.add(executorService.submit(workloadClient));
+        }
+
+        Map<String, LatencyHistogram> latencies = new TreeMap<>();
+        try {
+            for (Future<Map<String, LatencyHistogram>> client : runningClients) {
+                client.get().forEach((queryType, histogram) -> latencies.computeIfAbsent(queryType, type -> new LatencyHistogram()).merge(histogram));
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new ProfilerException("Error in execution of the profiled workload", e);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+
+        LatencyHistogram all = new LatencyHistogram();
+        latencies.values().forEach(all::merge);
+        latencies.put("all", all);
+        latencies.forEach((queryType, histogram) -> {
+            double throughput = histogram.count() / elapsedSeconds;
+            span.tag(queryType + ".operations", Long.toString(histogram.count()));
+            span.tag(queryType + ".throughput", String.format("%.1f", throughput));
+            span.tag(queryType + ".p50Micros", Long.toString(histogram.valueAtPercentile(50)));
+            span.tag(queryType + ".p99Micros", Long.toString(histogram.valueAtPercentile(99)));
+            span.tag(queryType + ".maxMicros", Long.toString(histogram.max()));
+            LOG.info(String.format("Workload at scale %d, %s queries: %d in %d ms (%.1f queries/s), latency mean %.1f ms, p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+                    numConcepts, queryType, histogram.count(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), throughput,
+                    histogram.mean() / 1000.0, histogram.valueAtPercentile(50) / 1000.0, histogram.valueAtPercentile(99) / 1000.0, histogram.max() / 1000.0));
+        });
+        span.finish();
+    }
+
+    /**
+     * Issue the queries open loop at each target rate in turn, from the lowest, until the 99th percentile latency
+     * breaks the configured service level objective, to find the highest throughput that still meets it
+     */
+    void sweepRates(List<GraqlQuery> queries, int numConcepts) {
+        long sloMicros = TimeUnit.MILLISECONDS.toMicros(config.openLoopP99SloMillis());
+        Integer highestRateWithinSlo = null;
+
+        for (int rate : config.openLoopRates()) {
+            LatencyHistogram latencies = processOpenLoop(queries, rate, numConcepts, sloMicros);
+            if (latencies.valueAtPercentile(99) > sloMicros) {
+                LOG.info("p99 latency broke the " + config.openLoopP99SloMillis() + " ms SLO at " + rate + " queries/s at scale " + numConcepts +
+                        ((highestRateWithinSlo != null) ? ", highest target rate within it: " + highestRateWithinSlo + " queries/s" : ", at the lowest target rate"));
+                return;
+            }
+            highestRateWithinSlo = rate;
+        }
+        LOG.info("p99 latency stayed within the " + config.openLoopP99SloMillis() + " ms SLO up to the highest target rate, " +
+                highestRateWithinSlo + " queries/s, at scale " + numConcepts);
+    }
+
+    /**
+     * Issue the queries on a schedule for the configured time, with the concurrent clients sharing the target rate.
+     * Each client has one query in flight at a time, see OpenLoopClient
+     *
+     * @return latencies of all clients' queries, in microseconds from when each was due
+     */
+    LatencyHistogram processOpenLoop(List<GraqlQuery> queries, int rate, int numConcepts, long sloMicros) {
+        List<Future<LatencyHistogram>> runningClients = new LinkedList<>();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long durationNanos = TimeUnit.SECONDS.toNanos(config.openLoopSeconds());
+
+        Span span = Tracing.currentTracer().newTrace().name("open-loop");
+        span.tag("configurationName", config.configName());
+        span.tag("executionName", config.executionName());
+        span.tag("graphType", config.dataGenerator());
+        span.tag("graphScale", Integer.toString(numConcepts));
+        span.tag("concurrentClients", Integer.toString(concurrentClients));
+        span.tag("targetRate", Integer.toString(rate));
+        span.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrentClients; i++) {
+            String keyspace = (keyspaces.size() > 1) ? keyspaces.get(i) : keyspaces.get(0);
+            GraknClient.Session session = sessionPool.session(i, keyspace, numConcepts);
+            // clients take turns, so together they issue one query every interval
+            OpenLoopClient openLoopClient = new OpenLoopClient(session, queries, rate / (double) concurrentClients, i * intervalNanos, durationNanos,
+                    config.reuseReadTransactions(), config.deleteInsertedConcepts());
+            runningClients.add(executorService.submit(openLoopClient));
+        }
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        try {
+            for (Future<LatencyHistogram> client : runningClients) {
+                latencies.merge(client.get());
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new ProfilerException("Error in open loop execution of profiled queries", e);
+        }
+        // lateness carries over, so a rate the server cannot keep up with takes longer than scheduled to issue
+        long elapsedNanos = System.nanoTime() - start;
+        double achievedRate = latencies.count() / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+
+        span.tag("achievedRate", String.format("%.1f", achievedRate));
+        span.tag("queries", Long.toString(latencies.count()));
+        span.tag("p50Micros", Long.toString(latencies.valueAtPercentile(50)));
+        span.tag("p90Micros", Long.toString(latencies.valueAtPercentile(90)));
+        span.tag("p99Micros", Long.toString(latencies.valueAtPercentile(99)));
+        span.tag("p999Micros", Long.toString(latencies.valueAtPercentile(99.9)));
+        span.tag("maxMicros", Long.toString(latencies.max()));
+        span.tag("withinSlo", Boolean.toString(latencies.valueAtPercentile(99) <= sloMicros));
+        span.finish();
+
+        LOG.info(String.format("Open loop at %d queries/s, scale %d: %d queries in %d ms (%.1f queries/s), latency p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms",
+                rate, numConcepts, latencies.count(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), achievedRate,
+                latencies.valueAtPercentile(50) / 1000.0, latencies.valueAtPercentile(90) / 1000.0, latencies.valueAtPercentile(99) / 1000.0,
+                latencies.valueAtPercentile(99.9) / 1000.0, latencies.max() / 1000.0));
+        return latencies;
+    }
+
     void processQueries(List<GraqlQuery> queries, int repetitions, int numConcepts) {
         List<Future> runningConcurrentQueries = new LinkedList<>();
-        List<GraknClient.Session> openSessions = new LinkedList<>();
 
         long start = System.currentTimeMillis();
 
         for (int i = 0; i < concurrentClients; i++) {
-            // TODO: this can probably be optimised (keeping sessions open)
             String keyspace = (keyspaces.size() > 1) ? keyspaces.get(i) : keyspaces.get(0);
-            GraknClient.Session session = client.session(keyspace);
-            openSessions.add(session);
+            GraknClient.Session session = sessionPool.session(i, keyspace, numConcepts);
             QueryProfiler processor = new QueryProfiler(config, i, Tracing.currentTracer(), queries, repetitions, numConcepts, session);
             runningConcurrentQueries.add(executorService.submit(processor));
         }
@@ -95,8 +254,6 @@ public class ThreadedProfiler {
             }
         } catch (InterruptedException | ExecutionException e) {
             throw new ProfilerException("Error in execution of profiled queries", e);
-        } finally {
-            openSessions.forEach(GraknClient.Session::close);
         }
 
         long length = System.currentTimeMillis() - start;
@@ -105,6 +262,7 @@ public class ThreadedProfiler {
 
     public void cleanup() {
         executorService.shutdown();
+        sessionPool.close();
     }
 }
 
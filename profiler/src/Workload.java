@@ -0,0 +1,139 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.profiler;
+
+import grakn.benchmark.common.configuration.ConfigurationException;
+import grakn.benchmark.common.configuration.parse.WorkloadConfigurationFile;
+import grakn.benchmark.generator.probdensity.FixedBoundedZipf;
+import grakn.benchmark.generator.probdensity.FixedConstant;
+import grakn.benchmark.generator.probdensity.FixedDiscreteGaussian;
+import grakn.benchmark.generator.probdensity.FixedUniform;
+import grakn.benchmark.generator.probdensity.ProbabilityDensityFunction;
+import grakn.benchmark.generator.util.WeightedPicker;
+import graql.lang.Graql;
+import graql.lang.query.GraqlQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * A weighted mix of query groups, each with an optional think time that a client waits for after running one of
+ * the group's queries.
+ * <p>
+ * The mix holds no random state itself: each client draws from its own picker and think time distributions, seeded
+ * for that client, so a run with the same seed and clients issues the same sequence of queries.
+ */
+class Workload {
+
+    private final List<Group> groups;
+
+    Workload(WorkloadConfigurationFile definition) {
+        this.groups = new ArrayList<>();
+        for (WorkloadConfigurationFile.QueryGroup group : definition.getGroups()) {
+            List<GraqlQuery> queries = group.getQueries().stream()
+                    .map(q -> (GraqlQuery) Graql.parse(q))
+                    .collect(Collectors.toList());
+            Group parsed = new Group(group.getName(), group.getWeight(), queries, group.getThinkTime());
+            // fail on a badly defined think time before any client starts
+            parsed.thinkTime(new Random());
+            groups.add(parsed);
+        }
+    }
+
+    /**
+     * @return a picker of the groups by weight, drawing from the given random source
+     */
+    WeightedPicker<Group> picker(Random random) {
+        WeightedPicker<Group> picker = new WeightedPicker<>(random);
+        for (Group group : groups) {
+            picker.add(group.weight, group);
+        }
+        return picker.freeze();
+    }
+
+    /**
+     * @return how many of a workload's operations the given client runs, when they are shared out between the
+     * clients as evenly as possible
+     */
+    static long clientOperations(int operations, int clients, int client) {
+        return operations / clients + ((client < operations % clients) ? 1 : 0);
+    }
+
+    static class Group {
+        private final String name;
+        private final double weight;
+        private final List<GraqlQuery> queries;
+        private final WorkloadConfigurationFile.ThinkTime thinkTime;
+
+        Group(String name, double weight, List<GraqlQuery> queries, WorkloadConfigurationFile.ThinkTime thinkTime) {
+            this.name = name;
+            this.weight = weight;
+            this.queries = queries;
+            this.thinkTime = thinkTime;
+        }
+
+        String name() {
+            return name;
+        }
+
+        /**
+         * @return one of the group's queries, picked uniformly
+         */
+        GraqlQuery query(Random random) {
+            return queries.get(random.nextInt(queries.size()));
+        }
+
+        /**
+         * @return distribution of the milliseconds to wait after each of the group's queries, drawing from the given
+         * random source
+         */
+        ProbabilityDensityFunction thinkTime(Random random) {
+            if (thinkTime == null) {
+                return new FixedConstant(0);
+            }
+            switch (thinkTime.getType()) {
+                case "constant":
+                    requireParameters(thinkTime.getValue());
+                    return new FixedConstant(thinkTime.getValue());
+                case "uniform":
+                    requireParameters(thinkTime.getLowerBound(), thinkTime.getUpperBound());
+                    return new FixedUniform(random, thinkTime.getLowerBound(), thinkTime.getUpperBound());
+                case "gaussian":
+                    requireParameters(thinkTime.getMean(), thinkTime.getStddev());
+                    return new FixedDiscreteGaussian(random, thinkTime.getMean(), thinkTime.getStddev());
+                case "zipf":
+                    requireParameters(thinkTime.getRangeLimit(), thinkTime.getExponent());
+                    return new FixedBoundedZipf(random, thinkTime.getRangeLimit(), thinkTime.getExponent());
+                default:
+                    throw new ConfigurationException("Unknown think time type " + thinkTime.getType() + " in workload group " + name);
+            }
+        }
+
+        private void requireParameters(Object... parameters) {
+            for (Object parameter : parameters) {
+                if (parameter == null) {
+                    throw new ConfigurationException("Think time of type " + thinkTime.getType() + " in workload group " + name + " is missing a parameter");
+                }
+            }
+        }
+    }
+}
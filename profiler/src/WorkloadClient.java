@@ -0,0 +1,108 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.profiler;
+
+import grakn.benchmark.common.metrics.LatencyHistogram;
+import grakn.benchmark.common.transaction.QueryTransactions;
+import grakn.benchmark.generator.probdensity.ProbabilityDensityFunction;
+import grakn.benchmark.generator.util.WeightedPicker;
+import grakn.client.GraknClient;
+import graql.lang.query.GraqlQuery;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a workload's mix from one client: picks a group by weight, runs one of its queries, waits for the group's
+ * think time, and so on until the deadline has passed or the operations are done.
+ * <p>
+ * Latencies are recorded per query type, in microseconds, excluding think time. Queries are not traced.
+ */
+class WorkloadClient implements Callable<Map<String, LatencyHistogram>> {
+
+    private final GraknClient.Session session;
+    private final Random random;
+    private final WeightedPicker<Workload.Group> picker;
+    private final Map<Workload.Group, ProbabilityDensityFunction> thinkTimes;
+    private final long durationNanos;
+    private final long operations;
+    private final boolean reuseReadTransactions;
+    private final boolean deleteInsertedConcepts;
+
+    /**
+     * @param durationNanos how long to run the mix for, or Long.MAX_VALUE to stop on operations only
+     * @param operations    how many queries to run, or Long.MAX_VALUE to stop on time only
+     */
+    WorkloadClient(GraknClient.Session session, Workload workload, long seed, long durationNanos, long operations,
+                   boolean reuseReadTransactions, boolean deleteInsertedConcepts) {
+        this.session = session;
+        this.random = new Random(seed);
+        this.picker = workload.picker(random);
+        this.thinkTimes = new HashMap<>();
+        this.durationNanos = durationNanos;
+        this.operations = operations;
+        this.reuseReadTransactions = reuseReadTransactions;
+        this.deleteInsertedConcepts = deleteInsertedConcepts;
+    }
+
+    @Override
+    public Map<String, LatencyHistogram> call() {
+        Map<String, LatencyHistogram> latencies = new HashMap<>();
+        Set<String> insertedConceptIds = new HashSet<>();
+
+        try (QueryTransactions transactions = new QueryTransactions(session, reuseReadTransactions)) {
+            long start = System.nanoTime();
+            for (long i = 0; i < operations && System.nanoTime() - start < durationNanos; i++) {
+                Workload.Group group = picker.sample();
+                GraqlQuery query = group.query(random);
+
+                long queryStart = System.nanoTime();
+                Set<String> inserted = QueryProfiler.execute(transactions, query);
+                long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - queryStart);
+                String queryType = QueryProfiler.queryType(query);
+                latencies.computeIfAbsent((queryType != null) ? queryType : "other", type -> new LatencyHistogram()).record(latencyMicros);
+
+                if (inserted != null) {
+                    insertedConceptIds.addAll(inserted);
+                }
+
+                int thinkMillis = thinkTimes.computeIfAbsent(group, g -> g.thinkTime(random)).sample();
+                if (thinkMillis > 0) {
+                    try {
+                        Thread.sleep(thinkMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+
+            if (deleteInsertedConcepts && !insertedConceptIds.isEmpty()) {
+                QueryProfiler.deleteInsertedConcepts(transactions, insertedConceptIds);
+            }
+        }
+        return latencies;
+    }
+}
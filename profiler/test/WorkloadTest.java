@@ -0,0 +1,122 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.profiler;
+
+import grakn.benchmark.common.configuration.ConfigurationException;
+import grakn.benchmark.common.configuration.parse.WorkloadConfigurationFile;
+import grakn.benchmark.generator.util.WeightedPicker;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WorkloadTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    private static WorkloadConfigurationFile.QueryGroup group(String name, double weight) {
+        WorkloadConfigurationFile.QueryGroup group = new WorkloadConfigurationFile.QueryGroup();
+        group.setName(name);
+        group.setWeight(weight);
+        group.setQueries(Collections.singletonList("match $x isa person; get;"));
+        return group;
+    }
+
+    private static Workload workload(WorkloadConfigurationFile.QueryGroup... groups) {
+        WorkloadConfigurationFile definition = new WorkloadConfigurationFile();
+        definition.setGroups(Arrays.asList(groups));
+        definition.setOperations(1);
+        return new Workload(definition);
+    }
+
+    private static List<String> mix(Workload workload, long seed, int operations) {
+        WeightedPicker<Workload.Group> picker = workload.picker(new Random(seed));
+        List<String> picked = new ArrayList<>();
+        for (int i = 0; i < operations; i++) {
+            picked.add(picker.sample().name());
+        }
+        return picked;
+    }
+
+    @Test
+    public void whenMixIsSampled_groupsArePickedInProportionToTheirWeights() {
+        Workload workload = workload(group("reads", 70), group("counts", 20), group("writes", 10));
+        int operations = 100000;
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (String group : mix(workload, 1, operations)) {
+            counts.merge(group, 1, Integer::sum);
+        }
+        assertEquals(0.7, counts.get("reads") / (double) operations, 0.01);
+        assertEquals(0.2, counts.get("counts") / (double) operations, 0.01);
+        assertEquals(0.1, counts.get("writes") / (double) operations, 0.01);
+    }
+
+    @Test
+    public void whenMixIsSampledWithTheSameSeed_theSameGroupsArePicked() {
+        Workload workload = workload(group("reads", 90), group("writes", 10));
+        assertEquals(mix(workload, 42, 1000), mix(workload, 42, 1000));
+        assertNotEquals(mix(workload, 42, 1000), mix(workload, 43, 1000));
+    }
+
+    @Test
+    public void whenOperationsAreShared_clientsRunThemAllAndWithinOneOfEachOther() {
+        for (int operations : new int[]{1, 7, 100, 1001}) {
+            for (int clients = 1; clients <= 8; clients++) {
+                long total = 0;
+                long min = Long.MAX_VALUE;
+                long max = 0;
+                for (int client = 0; client < clients; client++) {
+                    long clientOperations = Workload.clientOperations(operations, clients, client);
+                    total += clientOperations;
+                    min = Math.min(min, clientOperations);
+                    max = Math.max(max, clientOperations);
+                }
+                assertEquals(operations, total);
+                assertTrue(max - min <= 1);
+            }
+        }
+    }
+
+    @Test
+    public void whenThinkTimeIsMissingAParameter_throw() {
+        WorkloadConfigurationFile.ThinkTime thinkTime = new WorkloadConfigurationFile.ThinkTime();
+        thinkTime.setType("uniform");
+        thinkTime.setLowerBound(0);
+        WorkloadConfigurationFile.QueryGroup reads = group("reads", 90);
+        reads.setThinkTime(thinkTime);
+
+        expectedException.expect(ConfigurationException.class);
+        expectedException.expectMessage("Think time of type uniform in workload group reads is missing a parameter");
+        workload(reads);
+    }
+}
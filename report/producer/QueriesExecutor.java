@@ -18,6 +18,9 @@
 
 package grakn.benchmark.report.producer;
 
+import grakn.benchmark.common.analysis.InsertQueryAnalyser;
+import grakn.benchmark.common.configuration.WarmUp;
+import grakn.benchmark.common.transaction.QueryTransactions;
 import grakn.benchmark.report.producer.container.QueryExecutionResults;
 import grakn.client.GraknClient;
 import grakn.core.concept.Concept;
@@ -29,23 +32,33 @@ import graql.lang.query.GraqlDelete;
 import graql.lang.query.GraqlGet;
 import graql.lang.query.GraqlInsert;
 import graql.lang.query.GraqlQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 class QueriesExecutor implements Callable<Map<GraqlQuery, QueryExecutionResults>> {
+    private static final Logger LOG = LoggerFactory.getLogger(QueriesExecutor.class);
 
     private final List<GraqlQuery> queries;
     private int repetitions;
     private final GraknClient.Session session;
+    private final boolean reuseReadTransactions;
+    private final WarmUp warmUp;
 
-    public QueriesExecutor(GraknClient.Session session, List<GraqlQuery> queries, int repetitions) {
+    public QueriesExecutor(GraknClient.Session session, List<GraqlQuery> queries, int repetitions, boolean reuseReadTransactions, WarmUp warmUp) {
         this.session = session;
         this.queries = queries;
         this.repetitions = repetitions;
+        this.reuseReadTransactions = reuseReadTransactions;
+        this.warmUp = warmUp;
     }
 
     @Override
@@ -54,77 +67,136 @@ class QueriesExecutor implements Callable<Map<GraqlQuery, QueryExecutionResults>
 
         List<String> insertedConceptIds = new LinkedList<>();
 
-        for (int rep = 0; rep < repetitions; rep++) {
+        try (QueryTransactions transactions = new QueryTransactions(session, reuseReadTransactions)) {
+            // warm up each query the same way, but record its runs apart from the measured repetitions
+            Map<GraqlQuery, QueryExecutionResults> warmUpData = new HashMap<>();
+            List<String> warmUpConceptIds = new LinkedList<>();
             for (GraqlQuery query : queries) {
+                if (!isTimed(query)) {
+                    // nothing would be executed, so warming up would only spin until the time budget runs out
+                    LOG.info("Not warming up query, as its type is not profiled: " + query);
+                    continue;
+                }
+                if (QueryTransactions.isWrite(query) && !(query instanceof GraqlInsert)) {
+                    // what it changes cannot be undone before measuring
+                    LOG.info("Not warming up query, as it cannot be undone: " + query);
+                    continue;
+                }
+                long start = System.currentTimeMillis();
+                int runs = 0;
+                while (!warmUp.finished(runs, System.currentTimeMillis() - start)) {
+                    execute(transactions, query, warmUpData, warmUpConceptIds);
+                    runs++;
+                }
+            }
+            // the measured repetitions must not see what warming up inserted
+            if (!warmUpConceptIds.isEmpty()) {
+                deleteConcepts(transactions, warmUpConceptIds);
+            }
 
-                // open a new write transaction and record execution time
-                GraknClient.Transaction tx = session.transaction().write();
+            for (int rep = 0; rep < repetitions; rep++) {
+                for (GraqlQuery query : queries) {
+                    execute(transactions, query, queryData, insertedConceptIds);
+                }
+            }
 
-                String queryType;
-                int roundTrips = -1;
-                int conceptsHandled = -1;
-                long startTime = 0;
-                long endTime = -1; // set before start time so if not set properly, see negative time as a warning
+            warmUpData.forEach((query, warmUpResults) -> {
+                queryData.get(query).addWarmUpTimes(warmUpResults.times());
+                LOG.info("Warmed up query, " + WarmUp.summary(warmUpResults.times().stream()
+                        .map(TimeUnit.MILLISECONDS::toNanos).collect(Collectors.toList())) + ": " + query);
+            });
 
-                if (query instanceof GraqlGet) {
-                    queryType = "get";
+            // delete all the inserted concepts
+            deleteConcepts(transactions, insertedConceptIds);
+        }
 
-                    startTime = System.currentTimeMillis();
-                    List<ConceptMap> answer = tx.execute(query.asGet());
-                    endTime = System.currentTimeMillis();
+        return queryData;
+    }
 
-                    roundTrips = AnswerAnalysis.roundTripsCompleted(query.asGet(), answer);
-                    conceptsHandled = AnswerAnalysis.retrievedConcepts(query.asGet(), answer);
+    /**
+     * @return whether the query is of a type that execute runs and times; compute, aggregate and other queries are
+     * recorded without being executed
+     */
+    private static boolean isTimed(GraqlQuery query) {
+        return query instanceof GraqlGet || query instanceof GraqlInsert || query instanceof GraqlDelete;
+    }
 
-                } else if (query instanceof GraqlInsert) {
-                    queryType = "insert";
+    private static void deleteConcepts(QueryTransactions transactions, List<String> conceptIds) {
+        try (GraknClient.Transaction tx = transactions.write()) {
+            conceptIds.iterator().forEachRemaining(id -> tx.execute(Graql.parse("match $x id " + id+ "; delete $x;").asDelete()));
+            tx.commit();
+        }
+    }
 
-                    startTime = System.currentTimeMillis();
-                    ConceptMap answer = tx.stream(query.asInsert()).findFirst().get();
-                    tx.commit();
-                    endTime = System.currentTimeMillis();
+    private void execute(QueryTransactions transactions, GraqlQuery query, Map<GraqlQuery, QueryExecutionResults> queryData, List<String> insertedConceptIds) {
+        // write transactions only for queries that change the keyspace, reads may share one
+        GraknClient.Transaction tx = transactions.open(query);
+        try {
+            execute(tx, query, queryData, insertedConceptIds);
+        } catch (RuntimeException e) {
+            transactions.discard(tx);
+            throw e;
+        }
+        transactions.release(tx);
+    }
 
-                    roundTrips = AnswerAnalysis.roundTripsCompleted(query.asInsert(), answer);
-                    conceptsHandled = AnswerAnalysis.insertedConcepts(query.asInsert(), answer);
+    /**
+     * Execute the query in the transaction, recording its execution time
+     */
+    private void execute(GraknClient.Transaction tx, GraqlQuery query, Map<GraqlQuery, QueryExecutionResults> queryData, List<String> insertedConceptIds) {
+        String queryType;
+        int roundTrips = -1;
+        int conceptsHandled = -1;
+        long startTime = 0;
+        long endTime = -1; // set before start time so if not set properly, see negative time as a warning
 
-                    for (Concept concept : answer.concepts()) {
-                        insertedConceptIds.add(concept.id().toString());
-                    }
+        if (query instanceof GraqlGet) {
+            queryType = "get";
 
-                } else if (query instanceof GraqlDelete) {
-                    queryType = "delete";
+            startTime = System.currentTimeMillis();
+            List<ConceptMap> answer = tx.execute(query.asGet());
+            endTime = System.currentTimeMillis();
 
-                    startTime = System.currentTimeMillis();
-                    ConceptSet answer = tx.stream(query.asDelete()).findFirst().get();
-                    endTime = System.currentTimeMillis();
+            roundTrips = AnswerAnalysis.roundTripsCompleted(query.asGet(), answer);
+            conceptsHandled = AnswerAnalysis.retrievedConcepts(query.asGet(), answer);
 
-                    roundTrips = AnswerAnalysis.roundTripsCompleted(query.asDelete(), answer);
-                    conceptsHandled = AnswerAnalysis.deletedConcepts(query.asDelete(), answer);
+        } else if (query instanceof GraqlInsert) {
+            queryType = "insert";
 
-                } else if (query instanceof GraqlCompute) {
-                    queryType = "compute";
+            startTime = System.currentTimeMillis();
+            ConceptMap answer = tx.stream(query.asInsert()).findFirst().get();
+            tx.commit();
+            endTime = System.currentTimeMillis();
 
-                    // TODO handle compute queries
+            roundTrips = AnswerAnalysis.roundTripsCompleted(query.asInsert(), answer);
+            conceptsHandled = AnswerAnalysis.insertedConcepts(query.asInsert(), answer);
 
-                } else {
-                    queryType = "UNKNOWN";
-                }
+            // only the concepts the query created, not those bound by its match clause
+            for (Concept concept : InsertQueryAnalyser.getInsertedConcepts(query.asInsert(), Collections.singletonList(answer))) {
+                insertedConceptIds.add(concept.id().toString());
+            }
 
-                tx.close();
+        } else if (query instanceof GraqlDelete) {
+            queryType = "delete";
 
-                // initialise data container if needed
-                queryData.putIfAbsent(query, new QueryExecutionResults(queryType, conceptsHandled, roundTrips));
-                queryData.get(query).addExecutionTime(endTime - startTime);
+            startTime = System.currentTimeMillis();
+            ConceptSet answer = tx.stream(query.asDelete()).findFirst().get();
+            endTime = System.currentTimeMillis();
 
-            }
-        }
+            roundTrips = AnswerAnalysis.roundTripsCompleted(query.asDelete(), answer);
+            conceptsHandled = AnswerAnalysis.deletedConcepts(query.asDelete(), answer);
 
+        } else if (query instanceof GraqlCompute) {
+            queryType = "compute";
 
-        // delete all the inserted concepts
-        try (GraknClient.Transaction tx = session.transaction().write()) {
-            insertedConceptIds.iterator().forEachRemaining(id -> tx.execute(Graql.parse("match $x id " + id+ "; delete $x;").asDelete()));
+            // TODO handle compute queries
+
+        } else {
+            queryType = "UNKNOWN";
         }
 
-        return queryData;
+        // initialise data container if needed
+        queryData.putIfAbsent(query, new QueryExecutionResults(queryType, conceptsHandled, roundTrips));
+        queryData.get(query).addExecutionTime(endTime - startTime);
     }
 }
@@ -21,20 +21,18 @@ package grakn.benchmark.report.producer;
 
 import grakn.benchmark.common.configuration.parse.BenchmarkArguments;
 import grakn.benchmark.common.configuration.BenchmarkConfiguration;
+import grakn.benchmark.common.configuration.ConfigurationException;
 import grakn.benchmark.common.exception.BootupException;
 import grakn.benchmark.generator.DataGenerator;
 import grakn.benchmark.generator.DataGeneratorException;
-import grakn.benchmark.generator.definition.DataGeneratorDefinition;
-import grakn.benchmark.generator.definition.DefinitionFactory;
-import grakn.benchmark.generator.query.QueryProvider;
-import grakn.benchmark.generator.storage.ConceptStorage;
-import grakn.benchmark.generator.storage.IgniteConceptStorage;
+import grakn.benchmark.generator.DataGeneratorFactory;
+import grakn.benchmark.generator.dataset.DatasetCache;
+import grakn.benchmark.generator.storage.ConceptStorageFactory;
 import grakn.benchmark.generator.util.IgniteManager;
 import grakn.benchmark.generator.util.SchemaManager;
 import grakn.benchmark.report.producer.container.QueryExecutionResults;
 import grakn.benchmark.report.producer.container.ReportData;
 import grakn.client.GraknClient;
-import grakn.core.concept.type.AttributeType;
 import graql.lang.Graql;
 import graql.lang.query.GraqlQuery;
 import org.apache.commons.cli.CommandLine;
@@ -48,11 +46,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -66,6 +62,7 @@ public class ReportProducer {
     private static final Logger LOG = LoggerFactory.getLogger(ReportProducer.class);
 
     private final BenchmarkConfiguration config;
+    private final DataGeneratorFactory generatorFactory;
     private final ReportData reportData;
 
     public static void main(String[] args) {
@@ -91,12 +88,17 @@ public class ReportProducer {
 
     public ReportProducer(CommandLine arguments) {
         config = new BenchmarkConfiguration(arguments);
+        // queries are profiled one after another by QueriesExecutor; rate sweeps and weighted mixes are run by the profiler
+        if (config.openLoop() || config.workload() != null) {
+            throw new ConfigurationException("openLoop and workload are not supported by the report producer, only by the profiler");
+        }
+        generatorFactory = new DataGeneratorFactory(config);
         reportData = new ReportData();
     }
 
 
     public void start() throws IOException {
-        Ignite ignite = IgniteManager.initIgnite();
+        Ignite ignite = ConceptStorageFactory.requiresIgnite(config.conceptStorage()) ? IgniteManager.initIgnite() : null;
         GraknClient client = new GraknClient(config.graknUri());
         String keyspace = config.getKeyspace();
 
@@ -106,8 +108,9 @@ public class ReportProducer {
         // load schema into keyspace
         loadSchema(client, keyspace, config.getGraqlSchema());
 
-        // create the data generator
-        DataGenerator dataGenerator = initDataGenerator(client, keyspace);
+        // create the data generator, loading datasets cached by earlier runs where possible
+        DatasetCache datasetCache = generatorFactory.openDatasetCache();
+        DataGenerator dataGenerator = generatorFactory.create(client, keyspace, null, datasetCache);
 
         // write the relevant config metadata to the report
         reportData.addMetadata(config.configName(), config.concurrentClients(), config.configDescription(), config.dataGenerator());
@@ -116,16 +119,26 @@ public class ReportProducer {
         List<GraqlQuery> queries = toGraqlQueries(config.getQueries());
         try {
             for (int graphScale : config.scalesToProfile()) {
-                LOG.info("Generating graph to scale... " + graphScale);
-                // NOTE number of concepts actually generated may be just around the desired quantity
-                dataGenerator.generate(graphScale);
+                if (datasetCache != null && datasetCache.hasScale(graphScale)) {
+                    LOG.info("Loading graph at scale from dataset cache... " + graphScale);
+                    dataGenerator.load(graphScale);
+                } else {
+                    LOG.info("Generating graph to scale... " + graphScale);
+                    // NOTE number of concepts actually generated may be just around the desired quantity
+                    dataGenerator.generate(graphScale);
+                }
 
                 // collect and aggregate results
                 executeAndRecord(client, queries, graphScale);
             }
         } finally {
             client.close();
-            ignite.close();
+            if (datasetCache != null) {
+                datasetCache.close();
+            }
+            if (ignite != null) {
+                ignite.close();
+            }
         }
 
         // serialize data to JSON
@@ -145,7 +158,7 @@ public class ReportProducer {
         for (int i = 0; i < config.concurrentClients(); i++) {
             GraknClient.Session session = client.session(config.getKeyspace());
             openSessions.add(session);
-            runningQueries.add(executorService.submit(new QueriesExecutor(session, queries, config.numQueryRepetitions())));
+            runningQueries.add(executorService.submit(new QueriesExecutor(session, queries, config.numQueryRepetitions(), config.reuseReadTransactions(), config.warmUp())));
         }
 
         // Collect N concurrent executors' data
@@ -165,25 +178,6 @@ public class ReportProducer {
     }
 
 
-    /**
-     * Connect a data generator to pre-prepared keyspace
-     */
-    private DataGenerator initDataGenerator(GraknClient client, String keyspace) {
-        int randomSeed = 0;
-        GraknClient.Session session = client.session(keyspace);
-
-        SchemaManager schemaManager = new SchemaManager(session);
-        HashSet<String> entityTypeLabels = schemaManager.getEntityTypes();
-        HashSet<String> relationshipTypeLabels = schemaManager.getRelationTypes();
-        Map<String, AttributeType.DataType<?>> attributeTypeLabels = schemaManager.getAttributeTypes();
-        ConceptStorage storage = new IgniteConceptStorage(entityTypeLabels, relationshipTypeLabels, attributeTypeLabels);
-
-        String dataGenerator = config.dataGenerator();
-        DataGeneratorDefinition dataGeneratorDefinition = DefinitionFactory.getDefinition(dataGenerator, new Random(randomSeed), storage);
-        QueryProvider queryProvider = new QueryProvider(dataGeneratorDefinition);
-        return new DataGenerator(client, keyspace, storage, dataGenerator, queryProvider);
-    }
-
     private List<GraqlQuery> toGraqlQueries(List<String> queries) {
         return queries.stream().map(q -> (GraqlQuery) Graql.parse(q)).collect(Collectors.toList());
     }
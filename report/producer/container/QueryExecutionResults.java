@@ -28,6 +28,7 @@ import java.util.List;
  */
 public class QueryExecutionResults {
     private List<Long> queryExecutionTimes;
+    private List<Long> warmUpExecutionTimes;
     private Integer conceptsInvolved = null;
     private String queryType = null;
     private Integer roundTrips = null;
@@ -35,6 +36,7 @@ public class QueryExecutionResults {
 
     public QueryExecutionResults(String queryType, int conceptsInvolved, int roundTrips) {
         queryExecutionTimes = new LinkedList<>();
+        warmUpExecutionTimes = new LinkedList<>();
         this.conceptsInvolved = conceptsInvolved;
         this.queryType = queryType;
         this.roundTrips = roundTrips;
@@ -48,6 +50,11 @@ public class QueryExecutionResults {
         queryExecutionTimes.addAll(milliseconds);
     }
 
+    // warm-up executions are kept apart, so they show the cold-start cost without skewing the measured times
+    public void addWarmUpTimes(List<Long> milliseconds) {
+        warmUpExecutionTimes.addAll(milliseconds);
+    }
+
     // setScale() is called once externally, after data has been recorded
     public void setScale(Integer scale) {
         this.scale = scale;
@@ -65,6 +72,10 @@ public class QueryExecutionResults {
         return queryExecutionTimes;
     }
 
+    public List<Long> warmUpTimes() {
+        return warmUpExecutionTimes;
+    }
+
     public Integer concepts() {
         return conceptsInvolved;
     }
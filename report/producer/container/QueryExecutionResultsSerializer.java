@@ -44,6 +44,7 @@ public class QueryExecutionResultsSerializer extends StdSerializer<QueryExecutio
         gen.writeNumberField("scale", value.scale());
 
         gen.writeObjectField("duration", timesArray);
+        gen.writeObjectField("warmUpDuration", value.warmUpTimes().stream().mapToLong(Long::longValue).toArray());
 
         gen.writeEndObject();
     }
@@ -82,6 +82,7 @@ public class ReportData {
 
                 // append the time taken by the next client's executions
                 mergedQueryData.addExecutionTimes(singleQueryData.times());
+                mergedQueryData.addWarmUpTimes(singleQueryData.warmUpTimes());
                 // add up the round trips taken
                 mergedQueryData.setRoundTrips(mergedQueryData.roundTrips() + singleQueryData.roundTrips());
                 // add up the total concepts involved
@@ -0,0 +1,115 @@
+/*
+ *  GRAKN.AI - THE KNOWLEDGE GRAPH
+ *  Copyright (C) 2019 Grakn Labs Ltd
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.benchmark.report.producer;
+
+import grakn.benchmark.common.configuration.WarmUp;
+import grakn.client.GraknClient;
+import grakn.core.concept.Concept;
+import grakn.core.concept.ConceptId;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.benchmark.report.producer.container.QueryExecutionResults;
+import graql.lang.Graql;
+import graql.lang.query.GraqlCompute;
+import graql.lang.query.GraqlInsert;
+import graql.lang.query.GraqlQuery;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static graql.lang.Graql.var;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QueriesExecutorTest {
+
+    private GraknClient.Session session;
+    private GraknClient.Transaction.Builder builder;
+    private GraknClient.Transaction insertTx;
+    private GraknClient.Transaction deleteTx;
+    private ConceptMap answer;
+
+    private final GraqlInsert matchInsert = Graql.parse("match $x isa person; insert $r (friend: $x) isa friendship;").asInsert();
+
+    @Before
+    public void setUp() {
+        session = mock(GraknClient.Session.class);
+        builder = mock(GraknClient.Transaction.Builder.class);
+        insertTx = mock(GraknClient.Transaction.class);
+        deleteTx = mock(GraknClient.Transaction.class);
+        when(session.transaction()).thenReturn(builder);
+        when(builder.write()).thenReturn(insertTx, deleteTx);
+
+        Concept matched = mock(Concept.class);
+        when(matched.id()).thenReturn(ConceptId.of("V1"));
+        Concept inserted = mock(Concept.class);
+        when(inserted.id()).thenReturn(ConceptId.of("V2"));
+        answer = mock(ConceptMap.class);
+        when(answer.get(var("x").var())).thenReturn(matched);
+        when(answer.get(var("r").var())).thenReturn(inserted);
+        when(answer.concepts()).thenReturn(Arrays.asList(matched, inserted));
+        when(insertTx.stream(matchInsert)).thenReturn(Stream.of(answer));
+    }
+
+    @Test
+    public void whenMatchInsertIsExecuted_onlyTheInsertedConceptIsDeleted() {
+        QueriesExecutor executor = new QueriesExecutor(session, Collections.<GraqlQuery>singletonList(matchInsert), 1, false, new WarmUp(0, 0));
+        executor.call();
+
+        verify(insertTx).commit();
+        verify(deleteTx).execute(Graql.parse("match $x id V2; delete $x;").asDelete());
+        verify(deleteTx, never()).execute(Graql.parse("match $x id V1; delete $x;").asDelete());
+        verify(deleteTx).commit();
+    }
+
+    @Test
+    public void whenMatchInsertIsWarmedUp_onlyTheInsertedConceptIsDeletedBeforeMeasuring() {
+        GraknClient.Transaction warmUpTx = mock(GraknClient.Transaction.class);
+        GraknClient.Transaction warmUpDeleteTx = mock(GraknClient.Transaction.class);
+        when(builder.write()).thenReturn(warmUpTx, warmUpDeleteTx, insertTx, deleteTx);
+        when(warmUpTx.stream(matchInsert)).thenReturn(Stream.of(answer));
+        when(insertTx.stream(matchInsert)).thenReturn(Stream.of(answer));
+
+        QueriesExecutor executor = new QueriesExecutor(session, Collections.<GraqlQuery>singletonList(matchInsert), 1, false, new WarmUp(1, 0));
+        Map<GraqlQuery, QueryExecutionResults> results = executor.call();
+
+        verify(warmUpDeleteTx).execute(Graql.parse("match $x id V2; delete $x;").asDelete());
+        verify(warmUpDeleteTx, never()).execute(Graql.parse("match $x id V1; delete $x;").asDelete());
+        verify(warmUpDeleteTx).commit();
+        assertEquals(1, results.get(matchInsert).warmUpTimes().size());
+    }
+
+    @Test
+    public void whenQueryIsNotExecuted_itIsNotWarmedUp() {
+        GraqlQuery compute = mock(GraqlCompute.class);
+        QueriesExecutor executor = new QueriesExecutor(session, Collections.singletonList(compute), 1, false, new WarmUp(0, 50));
+        Map<GraqlQuery, QueryExecutionResults> results = executor.call();
+
+        assertTrue(results.get(compute).warmUpTimes().isEmpty());
+        assertEquals(1, results.get(compute).times().size());
+    }
+}